@@ -269,7 +269,8 @@ public class MindMapDocumentEditor implements AdjustmentListener, DocumentsEdito
       final MindMap model = this.mindMapPanel.getModel();
       final Document document = getDocument();
       if (document != null && model != null) {
-        IdeaUtils.executeWriteAction(getProject(), document, () -> document.setText(model.asString()));
+        final String text = model.asString();
+        IdeaUtils.executeWriteAction(getProject(), document, () -> IdeaUtils.replaceDocumentText(document, text));
       }
     }
   }
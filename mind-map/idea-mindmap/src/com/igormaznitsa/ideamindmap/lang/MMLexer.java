@@ -20,24 +20,47 @@ import com.igormaznitsa.ideamindmap.lang.tokens.MMTokens;
 import com.igormaznitsa.meta.common.utils.Assertions;
 import com.intellij.lexer.Lexer;
 import com.intellij.lexer.LexerPosition;
+import com.intellij.lexer.LexerPositionImpl;
 import com.intellij.psi.tree.IElementType;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+/**
+ * Adapter of mind map lexer for IDE. Reported state is the lexer state at token start, states are
+ * remapped so that body of document (lexed in WHITESPACE state) has state 0 which is treated by
+ * IDE highlighter as restart point, so only changed area is re-lexed after document edit.
+ */
 public class MMLexer extends Lexer {
 
+  private static final com.igormaznitsa.mindmap.model.parser.MindMapLexer.TokenType[] STATES =
+      com.igormaznitsa.mindmap.model.parser.MindMapLexer.TokenType.values();
+  private static final int RESTART_STATE =
+      com.igormaznitsa.mindmap.model.parser.MindMapLexer.TokenType.WHITESPACE.ordinal();
+
   private final com.igormaznitsa.mindmap.model.parser.MindMapLexer delegate = new com.igormaznitsa.mindmap.model.parser.MindMapLexer();
-  private final Position pos = new Position();
+
+  private static int swapRestartState(final int state) {
+    if (state == 0) {
+      return RESTART_STATE;
+    } else if (state == RESTART_STATE) {
+      return 0;
+    } else {
+      return state;
+    }
+  }
 
   @Override
   public void start(@Nonnull final CharSequence buffer, final int startOffset, final int endOffset, final int initialState) {
-    this.delegate.start(buffer, startOffset, endOffset, com.igormaznitsa.mindmap.model.parser.MindMapLexer.TokenType.values()[initialState]);
-    this.delegate.advance();
+    final com.igormaznitsa.mindmap.model.parser.MindMapLexer.TokenType state = startOffset == 0
+        ? com.igormaznitsa.mindmap.model.parser.MindMapLexer.TokenType.HEAD_LINE
+        : STATES[swapRestartState(initialState)];
+    this.delegate.start(buffer, startOffset, endOffset, state);
+    this.advance();
   }
 
   @Override
   public int getState() {
-    return this.delegate.getCurrentPosition().getState().ordinal();
+    return swapRestartState(this.delegate.getTokenStartState().ordinal());
   }
 
   @Nullable
@@ -117,13 +140,12 @@ public class MMLexer extends Lexer {
   @Nonnull
   @Override
   public LexerPosition getCurrentPosition() {
-    this.pos.load(this.delegate.getCurrentPosition());
-    return this.pos;
+    return new LexerPositionImpl(this.getTokenStart(), this.getState());
   }
 
   @Override
-  public void restore(@Nonnull LexerPosition position) {
-    this.pos.save(this.delegate.getCurrentPosition());
+  public void restore(@Nonnull final LexerPosition position) {
+    this.start(this.getBufferSequence(), position.getOffset(), this.getBufferEnd(), position.getState());
   }
 
   @Nonnull
@@ -136,31 +158,4 @@ public class MMLexer extends Lexer {
   public int getBufferEnd() {
     return this.delegate.getBufferEnd();
   }
-
-  private static final class Position implements LexerPosition {
-
-    private com.igormaznitsa.mindmap.model.parser.MindMapLexer.LexerPosition pos;
-
-    public void load(@Nonnull final com.igormaznitsa.mindmap.model.parser.MindMapLexer.LexerPosition position) {
-      if (this.pos == null) {
-        this.pos = position.makeCopy();
-      } else {
-        this.pos.set(position);
-      }
-    }
-
-    public void save(@Nonnull final com.igormaznitsa.mindmap.model.parser.MindMapLexer.LexerPosition position) {
-      position.set(this.pos);
-    }
-
-    @Override
-    public int getOffset() {
-      return this.pos.getOffset();
-    }
-
-    @Override
-    public int getState() {
-      return this.pos.getState().ordinal();
-    }
-  }
 }
@@ -18,6 +18,7 @@ package com.igormaznitsa.ideamindmap.lang.refactoring.references.providers;
 
 import com.igormaznitsa.ideamindmap.lang.psi.PsiExtraFile;
 import com.igormaznitsa.ideamindmap.lang.refactoring.RefactoringUtils;
+import com.igormaznitsa.ideamindmap.utils.IdeaUtils;
 import com.igormaznitsa.mindmap.model.MMapURI;
 import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.command.CommandProcessor;
@@ -74,7 +75,7 @@ public class PsiExtraFileReference extends PsiReferenceBase<PsiExtraFile> {
       final Document document = FileDocumentManager.getInstance().getDocument(containingFile.getVirtualFile());
 
       CommandProcessor.getInstance().executeCommand(containingFile.getProject(), () -> ApplicationManager.getApplication().runWriteAction(() -> {
-        document.setText(packedNewMindMap);
+        IdeaUtils.replaceDocumentText(document, packedNewMindMap);
         FileDocumentManager.getInstance().saveDocument(document);
       }), null, null, document);
 
@@ -26,6 +26,7 @@ import static com.igormaznitsa.mindmap.ide.commons.editors.AbstractNoteEditor.Ic
 import com.igormaznitsa.mindmap.ide.commons.editors.AbstractNoteEditorData;
 import com.igormaznitsa.mindmap.ide.commons.preferences.ColorSelectButton;
 import com.igormaznitsa.mindmap.model.MMapURI;
+import com.igormaznitsa.mindmap.model.MindMapTextDiff;
 import com.igormaznitsa.mindmap.model.Topic;
 import com.igormaznitsa.mindmap.model.logger.Logger;
 import com.igormaznitsa.mindmap.model.logger.LoggerFactory;
@@ -220,6 +221,21 @@ public final class IdeaUtils {
     return result;
   }
 
+  /**
+   * Replace text of document, only changed parts are rewritten to keep undo history, local
+   * history and PSI of unchanged parts. Must be called inside write action.
+   *
+   * @param document document to be changed
+   * @param text     new text of document
+   */
+  public static void replaceDocumentText(@Nonnull final Document document, @Nonnull final String text) {
+    final List<MindMapTextDiff.Edit> edits = MindMapTextDiff.diff(document.getText(), text);
+    for (int i = edits.size() - 1; i >= 0; i--) {
+      final MindMapTextDiff.Edit edit = edits.get(i);
+      document.replaceString(edit.getStart(), edit.getEnd(), edit.getText());
+    }
+  }
+
   public static void executeWriteAction(@Nullable final Project project,
                                         @Nullable final Document document,
                                         @Nonnull final Runnable action) {
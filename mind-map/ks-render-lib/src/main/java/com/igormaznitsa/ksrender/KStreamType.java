@@ -76,6 +76,7 @@ public enum KStreamType {
   BRANCH("", ".*kstream.*branch.*", "usecase \"%s\" as %s %s",
       INHERITED);
 
+  private static final KStreamType[] VALUES = KStreamType.values();
   private final Pattern patternType;
   private final Pattern patternId;
   private final String pumlPattern;
@@ -93,11 +94,15 @@ public enum KStreamType {
   }
 
   public static KStreamType find(final KStreamsTopologyDescriptionParser.TopologyElement element) {
-    for (final KStreamType t : KStreamType.values()) {
-      if (t.patternType.matcher(element.type).matches()) {
+    return element.getStreamType();
+  }
+
+  static KStreamType detect(final String type, final String id) {
+    for (final KStreamType t : VALUES) {
+      if (t.patternType.matcher(type).matches()) {
         return t;
       }
-      if (t.patternId.matcher(element.id).matches()) {
+      if (t.patternId.matcher(id).matches()) {
         return t;
       }
     }
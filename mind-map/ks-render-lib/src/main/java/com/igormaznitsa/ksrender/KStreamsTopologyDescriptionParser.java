@@ -21,10 +21,9 @@ import static com.igormaznitsa.ksrender.KsRenderUtils.makeCommentNote;
 import static com.igormaznitsa.ksrender.KsRenderUtils.makePumlMultiline;
 import static com.igormaznitsa.ksrender.KsRenderUtils.preprocessId;
 import static com.igormaznitsa.ksrender.KsRenderUtils.unicodeString;
-import static java.lang.String.format;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -38,12 +37,9 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 public class KStreamsTopologyDescriptionParser {
 
-  private static final Pattern MAIN_PATTERN =
-      Pattern.compile("^(?:(<-+|-+>)|(?:([\\w\\-\\s]+?):))(.*)$", Pattern.CASE_INSENSITIVE);
   private static final Pattern ID_TAIL_PATTERN =
       Pattern.compile("^\\s*([\\S]+)(?:\\s+(.+?))?\\s*$");
   private static final Pattern DATA_COMMENT_PATTERN =
@@ -57,59 +53,28 @@ public class KStreamsTopologyDescriptionParser {
 
   public KStreamsTopologyDescriptionParser(final String script) {
     final List<ParsedItem> foundItems = new ArrayList<>();
-    for (final String s : script.split("\\n")) {
-      String lineText = s.trim();
-
-      if (lineText.startsWith(PROPERTIES_PREFIX)) {
-        final String propertiesStr = lineText.substring(PROPERTIES_PREFIX.length()).trim();
-        for (final String p : propertiesStr.split(";")) {
-          final String[] parsed = p.split("=");
-          if (parsed.length == 2) {
-            this.properties.setProperty(parsed[0].trim(), parsed[1].trim());
-          }
-        }
-        lineText = "";
+    // single pass over script text, every line is trimmed and parsed without regex
+    final int length = script.length();
+    int lineStart = 0;
+    while (lineStart < length) {
+      int lineEnd = script.indexOf('\n', lineStart);
+      if (lineEnd < 0) {
+        lineEnd = length;
       }
-
-      if ("topology".equalsIgnoreCase(lineText) || "topology:".equalsIgnoreCase(lineText)) {
-        lineText = "Topologies:";
+      int start = lineStart;
+      int end = lineEnd;
+      while (start < end && script.charAt(start) <= ' ') {
+        start++;
       }
-      if ("sub-topologies:".equalsIgnoreCase(lineText)) {
-        lineText = "";
+      while (end > start && script.charAt(end - 1) <= ' ') {
+        end--;
       }
-
-      if (lineText.isEmpty() || NONE.equalsIgnoreCase(lineText)) {
-        continue;
-      }
-      final Matcher matcher = MAIN_PATTERN.matcher(lineText);
-      if (matcher.find()) {
-        final String srcDst = matcher.group(1);
-        final String itemName = matcher.group(2);
-        final String tail = matcher.group(3);
-
-        if (srcDst != null) {
-          if (foundItems.isEmpty()) {
-            throw new IllegalArgumentException(String.format("Found '%s' without element", srcDst));
-          } else {
-            final List<String> identifiers = Arrays.stream(tail.split(","))
-                .map(String::trim)
-                .filter(x -> !x.isEmpty())
-                .collect(Collectors.toList());
-
-            if (srcDst.endsWith(">")) {
-              foundItems.get(foundItems.size() - 1).to.addAll(identifiers);
-            } else {
-              foundItems.get(foundItems.size() - 1).from.addAll(identifiers);
-            }
-          }
-        } else {
-          foundItems.add(new ParsedItem(lineText, itemName, tail));
-        }
-      } else {
-        throw new IllegalArgumentException("Can't parse line: " + lineText);
+      if (start < end) {
+        this.parseLine(script.substring(start, end), foundItems);
       }
+      lineStart = lineEnd + 1;
     }
-    final Map<String, TopologyElement> topologyElementMaps = new TreeMap<>();
+    final Map<String, TopologyElement> topologyElementMaps = new HashMap<>();
     foundItems.stream().map(i -> {
           final String lcName = i.name.toLowerCase(Locale.ENGLISH);
           final TopologyElement newElement;
@@ -143,6 +108,107 @@ public class KStreamsTopologyDescriptionParser {
     this.topologies.forEach(x -> x.link(topologyElementMaps));
   }
 
+  private static boolean isNameChar(final char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+        || c == '_' || c == '-' || c == ' ' || c == '\t' || c == '\u000B' || c == '\f'
+        || c == '\r';
+  }
+
+  /**
+   * Find end of link arrow ('&lt;--' or '--&gt;') in the line start.
+   *
+   * @param line trimmed line
+   * @return index after arrow or -1 if the line doesn't start with arrow
+   */
+  private static int findArrowEnd(final String line) {
+    final int length = line.length();
+    int index = 0;
+    if (line.charAt(0) == '<') {
+      index++;
+      while (index < length && line.charAt(index) == '-') {
+        index++;
+      }
+      return index > 1 ? index : -1;
+    }
+    while (index < length && line.charAt(index) == '-') {
+      index++;
+    }
+    return index > 0 && index < length && line.charAt(index) == '>' ? index + 1 : -1;
+  }
+
+  /**
+   * Find colon which ends element name in the line start.
+   *
+   * @param line trimmed line
+   * @return index of colon or -1 if the line doesn't start with element name
+   */
+  private static int findNameEnd(final String line) {
+    for (int i = 0; i < line.length(); i++) {
+      final char c = line.charAt(i);
+      if (c == ':') {
+        return i > 0 ? i : -1;
+      }
+      if (!isNameChar(c)) {
+        return -1;
+      }
+    }
+    return -1;
+  }
+
+  private static void addListItems(final String text, final List<String> target) {
+    int start = 0;
+    while (start <= text.length()) {
+      int end = text.indexOf(',', start);
+      if (end < 0) {
+        end = text.length();
+      }
+      final String item = text.substring(start, end).trim();
+      if (!item.isEmpty()) {
+        target.add(item);
+      }
+      start = end + 1;
+    }
+  }
+
+  private void parseLine(final String line, final List<ParsedItem> foundItems) {
+    String lineText = line;
+    if (lineText.startsWith(PROPERTIES_PREFIX)) {
+      final String propertiesStr = lineText.substring(PROPERTIES_PREFIX.length()).trim();
+      for (final String p : propertiesStr.split(";")) {
+        final String[] parsed = p.split("=");
+        if (parsed.length == 2) {
+          this.properties.setProperty(parsed[0].trim(), parsed[1].trim());
+        }
+      }
+      return;
+    }
+
+    if ("topology".equalsIgnoreCase(lineText) || "topology:".equalsIgnoreCase(lineText)) {
+      lineText = "Topologies:";
+    }
+    if ("sub-topologies:".equalsIgnoreCase(lineText) || NONE.equalsIgnoreCase(lineText)) {
+      return;
+    }
+
+    final int arrowEnd = findArrowEnd(lineText);
+    if (arrowEnd > 0) {
+      if (foundItems.isEmpty()) {
+        throw new IllegalArgumentException(
+            String.format("Found '%s' without element", lineText.substring(0, arrowEnd)));
+      }
+      final ParsedItem lastItem = foundItems.get(foundItems.size() - 1);
+      addListItems(lineText.substring(arrowEnd),
+          lineText.charAt(arrowEnd - 1) == '>' ? lastItem.to : lastItem.from);
+    } else {
+      final int nameEnd = findNameEnd(lineText);
+      if (nameEnd < 0) {
+        throw new IllegalArgumentException("Can't parse line: " + lineText);
+      }
+      foundItems.add(new ParsedItem(lineText, lineText.substring(0, nameEnd),
+          lineText.substring(nameEnd + 1)));
+    }
+  }
+
   public static String replaceProperties(
       final String script,
       final Properties properties
@@ -248,157 +314,185 @@ public class KStreamsTopologyDescriptionParser {
 
   public String asPlantUml(final String title, final Set<PlantUmlFlag> flags) {
     try {
-      final StringBuilder builder = new StringBuilder();
+      final StringBuilder builder = new StringBuilder(16384);
+      this.writePlantUml(title, flags, builder);
+      return builder.toString();
+    } catch (Exception ex) {
+      final String errorText = ex.getMessage() == null ? ex.getClass().getName() : ex.getMessage();
+      throw new RuntimeException("@startuml\n"
+          + "skinparam shadowing false\n"
+          + "scale 3\n"
+          + "rectangle \"<&circle-x><b>" + unicodeString(errorText) + "</b>\" #FF6666\n"
+          + "@enduml", ex);
+    }
+  }
 
-      builder.append("@startuml\n")
-          .append(makeOptions(flags)).append('\n')
-          .append("hide stereotype\n")
-          .append("skinparam ArrowThickness 3\n")
-          .append("skinparam rectangle {\n")
-          .append("borderStyle<<Sub-Topologies>> dotted\n")
-          .append("borderColor<<Sub-Topologies>> Gray\n")
-          .append("borderThickness<<Sub-Topologies>> 2\n")
-          .append("roundCorner<<Sub-Topologies>> 25\n")
-          .append("shadowing<<Sub-Topologies>> false\n")
-          .append("}\n")
-          .append("title ").append(unicodeString(title)).append('\n');
-      final Map<String, String> keys = this.generateKeyMap();
-
-      for (final KStreamsTopologyDescriptionParser.Topologies t : this.getTopologies()) {
-        builder.append("rectangle \"Sub-topologies\" <<Sub-Topologies>> {\n");
-        t.getSubTopologies().stream().sorted().forEach(subTopology -> {
-          builder.append(format("package \"Sub-topology %s\" %s {%n", unicodeString(subTopology.id),
-              isGlobalStorageSubTopology(subTopology) ? "#FFDFFF" : "#DFDFFF"));
-          builder.append(makeCommentNote(null, subTopology));
-          subTopology.getChildren().values().forEach(elem -> {
-            final String elemKey = keys.get(elem.id);
-            final String element = KStreamType.find(elem).makePuml(elem, elemKey);
-            final String elementComment = makeCommentNote(elemKey, elem);
-            builder.append(element).append('\n');
-            if (!elementComment.isEmpty()) {
-              builder.append(elementComment).append('\n');
-            }
-          });
-          builder.append("}\n");
-        });
-        builder.append("}\n");
-
-        t.getOrphans().forEach(elem -> {
-          final String elementKey = keys.get(elem.id);
-          final String element = KStreamType.find(elem).makePuml(elem, elementKey);
-          final String elementComment = makeCommentNote(elementKey, elem);
-          builder.append(element).append('\n');
-          if (!elementComment.isEmpty()) {
-            builder.append(elementComment).append('\n');
-          }
-        });
-
-        final StringBuilder bufferBroker = new StringBuilder();
-        final StringBuilder bufferStores = new StringBuilder();
-        final StringBuilder bufferOthers = new StringBuilder();
-
-        t.getSubTopologies().stream().flatMap(st -> st.getChildren().values().stream())
-            .flatMap(el -> el.dataItems.entrySet().stream())
-            .forEach(es -> {
-              final IdType idType = IdType.find(es.getKey());
-              es.getValue().forEach(elem -> {
-                switch (idType) {
-                  case TOPICS: {
-                    bufferBroker.append(
-                        format("%s \"%s\" as %s%n", "queue",
-                            makePumlMultiline(unicodeString(elem), 32),
-                            keys.get(preprocessId(IdType.TOPICS, elem))));
-                  }
-                  break;
-                  case STORES: {
-                    bufferStores.append(
-                        format("%s \"%s\" as %s%n", "database",
-                            makePumlMultiline(unicodeString(elem), 10),
-                            keys.get(preprocessId(IdType.STORES, elem))));
-                  }
-                  break;
-                  default: {
-                    bufferOthers.append(
-                        format("%s \"%s\" as %s%n", "file",
-                            makePumlMultiline(unicodeString(elem), 10),
-                            keys.get(preprocessId(IdType.OTHERS, elem))));
-                  }
-                  break;
-                }
-              });
-            });
+  private static void writeDataItem(final StringBuilder buffer, final String kind,
+                                    final String text, final String alias) {
+    buffer.append(kind).append(" \"").append(text).append("\" as ").append(alias)
+        .append(System.lineSeparator());
+  }
 
-        if (bufferBroker.length() > 0) {
-          final boolean groupTopics = flags.contains(PlantUmlFlag.GROUP_TOPICS);
-          if (groupTopics) {
-            builder.append("package \"Topics\" #DFFFDF {\n");
-          }
-          builder.append(bufferBroker);
-          if (groupTopics) {
-            builder.append("}\n");
-          }
+  private static void writeLink(final Appendable out, final String from, final String link,
+                                final String to) throws IOException {
+    out.append(from).append(' ').append(link).append(' ').append(to)
+        .append(System.lineSeparator());
+  }
+
+  private static void writeElement(final Appendable out, final TopologyElement element,
+                                   final String elementKey) throws IOException {
+    out.append(element.getStreamType().makePuml(element, elementKey)).append('\n');
+    final String elementComment = makeCommentNote(elementKey, element);
+    if (!elementComment.isEmpty()) {
+      out.append(elementComment).append('\n');
+    }
+  }
+
+  /**
+   * Write PlantUML script for parsed topology directly into output, without forming whole
+   * script in memory.
+   *
+   * @param title title of diagram, must not be null
+   * @param flags PlantUML flags, must not be null
+   * @param out   target output, must not be null
+   * @throws IOException if any error during write
+   */
+  public void writePlantUml(final String title, final Set<PlantUmlFlag> flags,
+                            final Appendable out) throws IOException {
+    out.append("@startuml\n")
+        .append(makeOptions(flags)).append('\n')
+        .append("hide stereotype\n")
+        .append("skinparam ArrowThickness 3\n")
+        .append("skinparam rectangle {\n")
+        .append("borderStyle<<Sub-Topologies>> dotted\n")
+        .append("borderColor<<Sub-Topologies>> Gray\n")
+        .append("borderThickness<<Sub-Topologies>> 2\n")
+        .append("roundCorner<<Sub-Topologies>> 25\n")
+        .append("shadowing<<Sub-Topologies>> false\n")
+        .append("}\n")
+        .append("title ").append(unicodeString(title)).append('\n');
+    final Map<String, String> keys = this.generateKeyMap();
+
+    for (final Topologies t : this.getTopologies()) {
+      out.append("rectangle \"Sub-topologies\" <<Sub-Topologies>> {\n");
+      final List<SubTopology> sortedSubTopologies = new ArrayList<>(t.getSubTopologies());
+      sortedSubTopologies.sort(null);
+      for (final SubTopology subTopology : sortedSubTopologies) {
+        out.append("package \"Sub-topology ").append(unicodeString(subTopology.id))
+            .append("\" ")
+            .append(isGlobalStorageSubTopology(subTopology) ? "#FFDFFF" : "#DFDFFF")
+            .append(" {").append(System.lineSeparator());
+        out.append(makeCommentNote(null, subTopology));
+        for (final TopologyElement elem : subTopology.getChildren().values()) {
+          writeElement(out, elem, keys.get(elem.id));
         }
+        out.append("}\n");
+      }
+      out.append("}\n");
 
-        if (bufferStores.length() > 0) {
-          final boolean groupStores = flags.contains(PlantUmlFlag.GROUP_STORES);
-          if (groupStores) {
-            builder.append("package \"Stores\" #FED8B1 {\n");
-          }
-          builder.append(bufferStores);
-          if (groupStores) {
-            builder.append("}\n");
+      for (final TopologyElement elem : t.getOrphans()) {
+        writeElement(out, elem, keys.get(elem.id));
+      }
+
+      final StringBuilder bufferBroker = new StringBuilder();
+      final StringBuilder bufferStores = new StringBuilder();
+      final StringBuilder bufferOthers = new StringBuilder();
+
+      for (final SubTopology subTopology : t.getSubTopologies()) {
+        for (final TopologyElement element : subTopology.getChildren().values()) {
+          for (final Map.Entry<String, List<String>> es : element.dataItems.entrySet()) {
+            final IdType idType = IdType.find(es.getKey());
+            for (final String elem : es.getValue()) {
+              switch (idType) {
+                case TOPICS: {
+                  writeDataItem(bufferBroker, "queue", makePumlMultiline(unicodeString(elem), 32),
+                      keys.get(preprocessId(IdType.TOPICS, elem)));
+                }
+                break;
+                case STORES: {
+                  writeDataItem(bufferStores, "database",
+                      makePumlMultiline(unicodeString(elem), 10),
+                      keys.get(preprocessId(IdType.STORES, elem)));
+                }
+                break;
+                default: {
+                  writeDataItem(bufferOthers, "file", makePumlMultiline(unicodeString(elem), 10),
+                      keys.get(preprocessId(IdType.OTHERS, elem)));
+                }
+                break;
+              }
+            }
           }
         }
+      }
 
-        if (bufferOthers.length() > 0) {
-          builder.append("package \"Others\" #DDDDDD {\n");
-          builder.append(bufferOthers);
-          builder.append("}\n");
+      if (bufferBroker.length() > 0) {
+        final boolean groupTopics = flags.contains(PlantUmlFlag.GROUP_TOPICS);
+        if (groupTopics) {
+          out.append("package \"Topics\" #DFFFDF {\n");
+        }
+        out.append(bufferBroker);
+        if (groupTopics) {
+          out.append("}\n");
         }
       }
 
-      this.getTopologies().forEach(topology -> Stream.concat(
-              topology.getSubTopologies().stream().flatMap(st -> st.getChildren().values().stream()),
-              topology.getOrphans().stream())
-          .forEach(element -> {
-            final String elemKey = keys.get(element.id);
-            element.to.forEach(
-                dst -> builder.append(format("%s -->> %s%n", elemKey, keys.get(dst.id))));
-            element.from.stream()
-                .filter(src -> src.to.stream().noneMatch(tl -> tl.id.equals(element.id)))
-                .forEach(src -> builder.append(format("%s -->> %s%n", keys.get(src.id), elemKey)));
-
-            element.dataItems.forEach((key, value) -> {
-              final IdType idType = IdType.find(key);
-              value.forEach(dataItemName -> {
-                final String link;
-                switch (KStreamType.find(element)) {
-                  case SOURCE:
-                    link = "<<=.=";
-                    break;
-                  case SINK:
-                    link = "=.=>>";
-                    break;
-                  default:
-                    link = "=.=";
-                    break;
-                }
-                builder.append(format("%s %s %s%n", elemKey, link,
-                    keys.get(preprocessId(idType, dataItemName))));
-              });
-            });
-          }));
+      if (bufferStores.length() > 0) {
+        final boolean groupStores = flags.contains(PlantUmlFlag.GROUP_STORES);
+        if (groupStores) {
+          out.append("package \"Stores\" #FED8B1 {\n");
+        }
+        out.append(bufferStores);
+        if (groupStores) {
+          out.append("}\n");
+        }
+      }
 
-      builder.append("@enduml\n");
-      return builder.toString();
-    } catch (Exception ex) {
-      final String errorText = ex.getMessage() == null ? ex.getClass().getName() : ex.getMessage();
-      throw new RuntimeException("@startuml\n"
-          + "skinparam shadowing false\n"
-          + "scale 3\n"
-          + "rectangle \"<&circle-x><b>" + unicodeString(errorText) + "</b>\" #FF6666\n"
-          + "@enduml", ex);
+      if (bufferOthers.length() > 0) {
+        out.append("package \"Others\" #DDDDDD {\n");
+        out.append(bufferOthers);
+        out.append("}\n");
+      }
     }
+
+    for (final Topologies topology : this.getTopologies()) {
+      final List<TopologyElement> elements = new ArrayList<>();
+      topology.getSubTopologies().forEach(st -> elements.addAll(st.getChildren().values()));
+      elements.addAll(topology.getOrphans());
+
+      for (final TopologyElement element : elements) {
+        final String elemKey = keys.get(element.id);
+        for (final TopologyElement dst : element.to) {
+          writeLink(out, elemKey, "-->>", keys.get(dst.id));
+        }
+        for (final TopologyElement src : element.from) {
+          if (src.to.stream().noneMatch(tl -> tl.id.equals(element.id))) {
+            writeLink(out, keys.get(src.id), "-->>", elemKey);
+          }
+        }
+
+        final String link;
+        switch (element.getStreamType()) {
+          case SOURCE:
+            link = "<<=.=";
+            break;
+          case SINK:
+            link = "=.=>>";
+            break;
+          default:
+            link = "=.=";
+            break;
+        }
+        for (final Map.Entry<String, List<String>> e : element.dataItems.entrySet()) {
+          final IdType idType = IdType.find(e.getKey());
+          for (final String dataItemName : e.getValue()) {
+            writeLink(out, elemKey, link, keys.get(preprocessId(idType, dataItemName)));
+          }
+        }
+      }
+    }
+
+    out.append("@enduml\n");
   }
 
   public static final class ParsedItem {
@@ -427,6 +521,7 @@ public class KStreamsTopologyDescriptionParser {
     public final List<TopologyElement> to = new ArrayList<>();
     public final List<TopologyElement> from = new ArrayList<>();
     public final ParsedItem parsedItem;
+    private KStreamType streamType;
 
     public TopologyElement(final ParsedItem parsedItem) {
       this.parsedItem = parsedItem;
@@ -449,9 +544,8 @@ public class KStreamsTopologyDescriptionParser {
                 final String foundDataList = dataFinder.group(2);
                 final String foundSingleData = dataFinder.group(3);
                 if (foundDataList != null) {
-                  final List<String> foundItems =
-                      Arrays.stream(foundDataList.split(",")).map(String::trim)
-                          .filter(x -> !x.isEmpty()).collect(Collectors.toList());
+                  final List<String> foundItems = new ArrayList<>();
+                  addListItems(foundDataList, foundItems);
                   this.dataItems.put(foundType, foundItems);
                 }
                 if (foundSingleData != null) {
@@ -470,6 +564,18 @@ public class KStreamsTopologyDescriptionParser {
       }
     }
 
+    /**
+     * Get stream type of the element, it is detected once and cached.
+     *
+     * @return detected stream type, must not be null
+     */
+    public KStreamType getStreamType() {
+      if (this.streamType == null) {
+        this.streamType = KStreamType.detect(this.type, this.id);
+      }
+      return this.streamType;
+    }
+
     void link(final Map<String, TopologyElement> map) {
       this.from.clear();
       this.to.clear();
@@ -22,6 +22,7 @@ import static org.junit.Assert.assertTrue;
 
 import com.igormaznitsa.ksrender.KStreamsTopologyDescriptionParser;
 import java.time.Instant;
+import java.util.Collections;
 import java.util.Optional;
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.streams.StreamsBuilder;
@@ -229,6 +230,43 @@ public class KStreamsTopologyDescriptionParserTest {
     assertEquals(9, graph.size());
   }
 
+  @Test
+  public void testLargeTopology() throws Exception {
+    final int subTopologies = 200;
+    final int processors = 25;
+
+    final StringBuilder text = new StringBuilder("Topologies:\n");
+    int counter = 0;
+    for (int s = 0; s < subTopologies; s++) {
+      text.append("   Sub-topology: ").append(s).append('\n');
+      for (int p = 0; p < processors; p++, counter++) {
+        final String id = String.format("KSTREAM-MAPVALUES-%010d", counter);
+        text.append("    Processor: ").append(id).append(" (stores: [store-").append(counter)
+            .append("])\n");
+        text.append("      --> ")
+            .append(p == processors - 1 ? "none" :
+                String.format("KSTREAM-MAPVALUES-%010d", counter + 1)).append('\n');
+        text.append("      <-- ")
+            .append(p == 0 ? "none" : String.format("KSTREAM-MAPVALUES-%010d", counter - 1))
+            .append("\n\n");
+      }
+    }
+
+    final long start = System.currentTimeMillis();
+    final KStreamsTopologyDescriptionParser parser =
+        new KStreamsTopologyDescriptionParser(text.toString());
+    final StringBuilder buffer = new StringBuilder();
+    parser.writePlantUml("Large", Collections.emptySet(), buffer);
+    System.out.println("Parsed and rendered " + counter + " processors in "
+        + (System.currentTimeMillis() - start) + " ms");
+
+    assertEquals(subTopologies * processors, parser.size());
+    assertTrue(buffer.toString().startsWith("@startuml"));
+    assertEquals(subTopologies * processors,
+        buffer.toString().split("\ndatabase ", -1).length - 1);
+    assertTrue(buffer.toString().trim().endsWith("@enduml"));
+  }
+
   static class SimpleValueTransformer implements FixedKeyProcessor<String, String, String> {
 
     private String storeName;
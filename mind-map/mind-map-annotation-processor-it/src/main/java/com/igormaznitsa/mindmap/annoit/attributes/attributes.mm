@@ -0,0 +1,44 @@
+<map version="1.0.1">
+<!--
+Generated by MMD Annotation processor 1.6.10-SNAPSHOT (https://sciareto.org)
+2026-10-19T15:12:00.461884018Z[Etc/UTC]
+-->
+ <node CREATED="1792422720461" MODIFIED="1792422720461" COLOR="#FFA500" BACKGROUND_COLOR="#00FFFF"   ID="mmlink65" TEXT="Root topic"  LINK="Root.java">
+  <edge WIDTH="thin"/>  <richcontent TYPE="NOTE"><html><head></head><body><ul><li><b>LINK: </b><a href="https://sciareto.com">https://sciareto.com</a></li></ul><p><pre>Some test
+multiline note
+one more line</pre></p></body></html></richcontent>
+  <node CREATED="1792422720462" MODIFIED="1792422720462" COLOR="#000000" BACKGROUND_COLOR="#B1BFCC" POSITION="right" ID="mmlink6565" TEXT="MARKED"  LINK="Root.java">
+   <edge WIDTH="thin"/>   <node CREATED="1792422720462" MODIFIED="1792422720462" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink656565" TEXT="c"  LINK="Root.java">
+    <edge WIDTH="thin"/>   </node>
+   <node CREATED="1792422720462" MODIFIED="1792422720462" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink656566" TEXT="b"  LINK="Root.java">
+    <edge WIDTH="thin"/>   </node>
+   <node CREATED="1792422720462" MODIFIED="1792422720462" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink656567" TEXT="a"  LINK="Root.java">
+    <edge WIDTH="thin"/>   </node>
+   <node CREATED="1792422720462" MODIFIED="1792422720462" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink656568" TEXT="sum"  LINK="Root.java">
+    <edge WIDTH="thin"/>   </node>
+  </node>
+  <node CREATED="1792422720462" MODIFIED="1792422720462" COLOR="#000000" BACKGROUND_COLOR="#FF6347" POSITION="left" ID="mmlink6566" TEXT="method one"  LINK="Root.java">
+   <edge WIDTH="thin"/>   <node CREATED="1792422720462" MODIFIED="1792422720462" COLOR="#000000" BACKGROUND_COLOR="#FF6347"   ID="mmlink656665" TEXT="SubMethod1"  LINK="Root.java">
+    <edge WIDTH="thin"/>   </node>
+   <node CREATED="1792422720462" MODIFIED="1792422720462" COLOR="#FFFFFF" BACKGROUND_COLOR="#000000"   ID="mmlink656666" TEXT="SubMethod2"  LINK="#mmlink65">
+    <edge WIDTH="thin"/>    <richcontent TYPE="NOTE"><html><head></head><body><ul><li><b>FILE: </b><a href="Root.java">Root.java</a></li></ul></body></html></richcontent>
+   </node>
+   <node CREATED="1792422720462" MODIFIED="1792422720462" COLOR="#000000" BACKGROUND_COLOR="#FF6347"   ID="mmlink656667" TEXT="SubMethod3"  LINK="#mmlink65">
+    <edge WIDTH="thin"/>    <richcontent TYPE="NOTE"><html><head></head><body><ul><li><b>FILE: </b><a href="Root.java">Root.java</a></li></ul></body></html></richcontent>
+   </node>
+  </node>
+  <node CREATED="1792422720462" MODIFIED="1792422720462" COLOR="#000000" BACKGROUND_COLOR="#B1BFCC" POSITION="right" ID="mmlink6567" TEXT="method three"  LINK="#mmlink6568">
+   <edge WIDTH="thin"/>   <richcontent TYPE="NOTE"><html><head></head><body><ul><li><b>FILE: </b><a href="Root.java">Root.java</a></li></ul></body></html></richcontent>
+  </node>
+  <node CREATED="1792422720463" MODIFIED="1792422720463" COLOR="#000000" BACKGROUND_COLOR="#B1BFCC" POSITION="right" ID="mmlink6568" TEXT="method two"  LINK="Root.java">
+   <edge WIDTH="thin"/>  </node>
+  <node CREATED="1792422720463" MODIFIED="1792422720463" COLOR="#000000" BACKGROUND_COLOR="#B1BFCC" POSITION="right" ID="mmlink6569" TEXT="path1" >
+   <edge WIDTH="thin"/>   <node CREATED="1792422720463" MODIFIED="1792422720463" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink656965" TEXT="path2" >
+    <edge WIDTH="thin"/>    <node CREATED="1792422720463" MODIFIED="1792422720463" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink65696565" TEXT="path3" >
+     <edge WIDTH="thin"/>     <node CREATED="1792422720463" MODIFIED="1792422720463" COLOR="#FFA500" BACKGROUND_COLOR="#FFFFFF"   ID="mmlink6569656565" TEXT="pathCommentTopic"  LINK="Root.java">
+      <edge WIDTH="thin"/>     </node>
+    </node>
+   </node>
+  </node>
+ </node>
+</map>
\ No newline at end of file
@@ -0,0 +1,10 @@
+<map version="1.0.1">
+<!--
+Generated by MMD Annotation processor 1.6.10-SNAPSHOT (https://sciareto.org)
+2026-10-19T15:12:00.452889951Z[Etc/UTC]
+-->
+ <node CREATED="1792422720452" MODIFIED="1792422720452" COLOR="#FFFFFF" BACKGROUND_COLOR="#031A31"   ID="mmlink65" TEXT="Klass1"  LINK="Klass1.java">
+  <edge WIDTH="thin"/>  <node CREATED="1792422720453" MODIFIED="1792422720453" COLOR="#000000" BACKGROUND_COLOR="#B1BFCC" POSITION="right" ID="mmlink6565" TEXT="klass4_method_class1"  LINK="Klass4.java">
+   <edge WIDTH="thin"/>  </node>
+ </node>
+</map>
\ No newline at end of file
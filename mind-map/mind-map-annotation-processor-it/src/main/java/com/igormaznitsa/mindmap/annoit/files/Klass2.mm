@@ -0,0 +1,16 @@
+<map version="1.0.1">
+<!--
+Generated by MMD Annotation processor 1.6.10-SNAPSHOT (https://sciareto.org)
+2026-10-19T15:12:00.530514748Z[Etc/UTC]
+-->
+ <node CREATED="1792422720530" MODIFIED="1792422720530" COLOR="#FFFFFF" BACKGROUND_COLOR="#031A31"   ID="mmlink65" TEXT="Klass2"  LINK="Klass2.java">
+  <edge WIDTH="thin"/>  <node CREATED="1792422720530" MODIFIED="1792422720530" COLOR="#000000" BACKGROUND_COLOR="#B1BFCC" POSITION="right" ID="mmlink6565" TEXT="Controller Start-Stop"  LINK="Klass5.java">
+   <edge WIDTH="thin"/>   <node CREATED="1792422720530" MODIFIED="1792422720530" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink656565" TEXT="start"  LINK="Klass5.java">
+    <edge WIDTH="thin"/>   </node>
+   <node CREATED="1792422720530" MODIFIED="1792422720530" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink656566" TEXT="stop"  LINK="Klass5.java">
+    <edge WIDTH="thin"/>   </node>
+  </node>
+  <node CREATED="1792422720531" MODIFIED="1792422720531" COLOR="#000000" BACKGROUND_COLOR="#B1BFCC" POSITION="right" ID="mmlink6566" TEXT="klass4_method"  LINK="Klass4.java">
+   <edge WIDTH="thin"/>  </node>
+ </node>
+</map>
\ No newline at end of file
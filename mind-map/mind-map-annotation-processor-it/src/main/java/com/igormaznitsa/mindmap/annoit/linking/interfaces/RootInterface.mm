@@ -0,0 +1,49 @@
+<map version="1.0.1">
+<!--
+Generated by MMD Annotation processor 1.6.10-SNAPSHOT (https://sciareto.org)
+2026-10-19T15:12:01.407500107Z[Etc/UTC]
+-->
+ <node CREATED="1792422721407" MODIFIED="1792422721407" COLOR="#FFFFFF" BACKGROUND_COLOR="#031A31"   ID="mmlink65" TEXT="RootInterface"  LINK="#mmlink6565656565">
+  <edge WIDTH="thin"/>  <richcontent TYPE="NOTE"><html><head></head><body><ul><li><b>FILE: </b><a href="RootInterface.java">RootInterface.java</a></li></ul></body></html></richcontent>
+  <node CREATED="1792422721407" MODIFIED="1792422721407" COLOR="#000000" BACKGROUND_COLOR="#B1BFCC" POSITION="right" ID="mmlink6565" TEXT="Interface1"  LINK="Interface1.java">
+   <edge WIDTH="thin"/>   <node CREATED="1792422721407" MODIFIED="1792422721407" COLOR="#000000" BACKGROUND_COLOR="#FFA500"   ID="mmlink656565" TEXT="Interface2"  LINK="Interface2.java">
+    <edge WIDTH="thin"/>    <node CREATED="1792422721407" MODIFIED="1792422721407" COLOR="#000000" BACKGROUND_COLOR="#FF6347"   ID="mmlink65656565" TEXT="Interface3"  LINK="Interface3.java">
+     <edge WIDTH="thin"/>     <node CREATED="1792422721407" MODIFIED="1792422721407" COLOR="#000000" BACKGROUND_COLOR="#FF6347"   ID="mmlink6565656565" TEXT="method3_1"  LINK="Interface3.java">
+      <edge WIDTH="thin"/>     </node>
+    </node>
+    <node CREATED="1792422721407" MODIFIED="1792422721407" COLOR="#000000" BACKGROUND_COLOR="#90EE90"   ID="mmlink65656566" TEXT="Klazz1"  LINK="Klazz1.java">
+     <edge WIDTH="thin"/>     <node CREATED="1792422721407" MODIFIED="1792422721407" COLOR="#000000" BACKGROUND_COLOR="#FFD700"   ID="mmlink6565656665" TEXT="itsMethod"  LINK="Interface3.java">
+      <edge WIDTH="thin"/>     </node>
+     <node CREATED="1792422721407" MODIFIED="1792422721407" COLOR="#000000" BACKGROUND_COLOR="#90EE90"   ID="mmlink6565656666" TEXT="method1"  LINK="Klazz1.java">
+      <edge WIDTH="thin"/>     </node>
+     <node CREATED="1792422721407" MODIFIED="1792422721407" COLOR="#000000" BACKGROUND_COLOR="#90EE90"   ID="mmlink6565656667" TEXT="method2"  LINK="Klazz2.java">
+      <edge WIDTH="thin"/>     </node>
+     <node CREATED="1792422721407" MODIFIED="1792422721407" COLOR="#000000" BACKGROUND_COLOR="#90EE90"   ID="mmlink6565656668" TEXT="method2"  LINK="Klazz1.java">
+      <edge WIDTH="thin"/>     </node>
+     <node CREATED="1792422721407" MODIFIED="1792422721407" COLOR="#000000" BACKGROUND_COLOR="#90EE90"   ID="mmlink6565656669" TEXT="method2_1"  LINK="Klazz1.java">
+      <edge WIDTH="thin"/>     </node>
+     <node CREATED="1792422721408" MODIFIED="1792422721408" COLOR="#000000" BACKGROUND_COLOR="#90EE90"   ID="mmlink6565656670" TEXT="method3_aaa_1"  LINK="Klazz3.java">
+      <edge WIDTH="thin"/>     </node>
+     <node CREATED="1792422721408" MODIFIED="1792422721408" COLOR="#000000" BACKGROUND_COLOR="#90EE90"   ID="mmlink6565656671" TEXT="multi1"  LINK="Klazz2.java">
+      <edge WIDTH="thin"/>      <node CREATED="1792422721408" MODIFIED="1792422721408" COLOR="#000000" BACKGROUND_COLOR="#90EE90"   ID="mmlink656565667165" TEXT="a"  LINK="Klazz2.java">
+       <edge WIDTH="thin"/>      </node>
+      <node CREATED="1792422721408" MODIFIED="1792422721408" COLOR="#000000" BACKGROUND_COLOR="#90EE90"   ID="mmlink656565667166" TEXT="b"  LINK="Klazz2.java">
+       <edge WIDTH="thin"/>      </node>
+     </node>
+     <node CREATED="1792422721408" MODIFIED="1792422721408" COLOR="#000000" BACKGROUND_COLOR="#90EE90"   ID="mmlink6565656672" TEXT="multi2"  LINK="Klazz2.java">
+      <edge WIDTH="thin"/>     </node>
+     <node CREATED="1792422721408" MODIFIED="1792422721408" COLOR="#000000" BACKGROUND_COLOR="#90EE90"   ID="mmlink6565656673" TEXT="multi3"  LINK="Klazz2.java">
+      <edge WIDTH="thin"/>     </node>
+     <node CREATED="1792422721408" MODIFIED="1792422721408" COLOR="#000000" BACKGROUND_COLOR="#90EE90"   ID="mmlink6565656674" TEXT="someMethod"  LINK="Klazz2.java">
+      <edge WIDTH="thin"/>     </node>
+    </node>
+   </node>
+   <node CREATED="1792422721408" MODIFIED="1792422721408" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink656566" TEXT="method1"  LINK="#mmlink6565656667">
+    <edge WIDTH="thin"/>    <richcontent TYPE="NOTE"><html><head></head><body><ul><li><b>FILE: </b><a href="Interface1.java">Interface1.java</a></li></ul></body></html></richcontent>
+   </node>
+   <node CREATED="1792422721408" MODIFIED="1792422721408" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink656567" TEXT="method2"  LINK="#mmlink65">
+    <edge WIDTH="thin"/>    <richcontent TYPE="NOTE"><html><head></head><body><ul><li><b>FILE: </b><a href="Interface1.java">Interface1.java</a></li></ul></body></html></richcontent>
+   </node>
+  </node>
+ </node>
+</map>
\ No newline at end of file
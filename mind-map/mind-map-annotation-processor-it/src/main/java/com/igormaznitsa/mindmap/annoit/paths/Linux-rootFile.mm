@@ -0,0 +1,83 @@
+<map version="1.0.1">
+<!--
+Generated by MMD Annotation processor 1.6.10-SNAPSHOT (https://sciareto.org)
+2026-10-19T15:12:01.218653638Z[Etc/UTC]
+-->
+ <node CREATED="1792422721218" MODIFIED="1792422721218" COLOR="#FFFFFF" BACKGROUND_COLOR="#031A31"   ID="mmlink65" TEXT=":&lt;[${root}]&gt;;"  LINK="RootFile.java">
+  <edge WIDTH="thin"/>  <node CREATED="1792422721218" MODIFIED="1792422721218" COLOR="#000000" BACKGROUND_COLOR="#B1BFCC" POSITION="right" ID="mmlink6565" TEXT="Class3Method"  LINK="Class2.java">
+   <edge WIDTH="thin"/>  </node>
+  <node CREATED="1792422721218" MODIFIED="1792422721218" COLOR="#000000" BACKGROUND_COLOR="#B1BFCC" POSITION="right" ID="mmlink6566" TEXT="LOCAL_VARIABLES"  LINK="../inmethods/Klazz1.java">
+   <edge WIDTH="thin"/>   <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink656665" TEXT="EEE"  LINK="../inmethods/Klazz1.java">
+    <edge WIDTH="thin"/>   </node>
+   <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink656666" TEXT="hello"  LINK="../inmethods/Klazz1.java">
+    <edge WIDTH="thin"/>   </node>
+   <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink656667" TEXT="some text1"  LINK="../inmethods/Klazz1.java">
+    <edge WIDTH="thin"/>   </node>
+   <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink656668" TEXT="some text2"  LINK="../inmethods/Klazz1.java">
+    <edge WIDTH="thin"/>   </node>
+   <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#008000"   ID="mmlink656669" TEXT="system"  LINK="../inmethods/Klazz1.java">
+    <edge WIDTH="thin"/>   </node>
+   <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#FFFF00"   ID="mmlink656670" TEXT="visible"  LINK="../inmethods/Klazz1.java">
+    <edge WIDTH="thin"/>    <richcontent TYPE="NOTE"><html><head></head><body><p><pre>Hello note
+dadada</pre></p></body></html></richcontent>
+   </node>
+  </node>
+  <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#B1BFCC" POSITION="right" ID="mmlink6567" TEXT="a" >
+   <edge WIDTH="thin"/>   <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink656765" TEXT="b" >
+    <edge WIDTH="thin"/>    <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink65676565" TEXT="c" >
+     <edge WIDTH="thin"/>     <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink6567656565" TEXT="d" >
+      <edge WIDTH="thin"/>      <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink656765656565" TEXT="class1Method3"  LINK="Class1.java">
+       <edge WIDTH="thin"/>      </node>
+      <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink656765656566" TEXT="xxx"  LINK="Class1.java">
+       <edge WIDTH="thin"/>       <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink65676565656665" TEXT="Class2Method"  LINK="Class2.java">
+        <edge WIDTH="thin"/>       </node>
+       <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink65676565656666" TEXT="class1MethodXXX"  LINK="Class1.java">
+        <edge WIDTH="thin"/>       </node>
+      </node>
+     </node>
+     <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink6567656566" TEXT="method2"  LINK="RootFile.java">
+      <edge WIDTH="thin"/>     </node>
+     <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink6567656567" TEXT="z" >
+      <edge WIDTH="thin"/>      <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink656765656765" TEXT="class1Method1"  LINK="Class1.java">
+       <edge WIDTH="thin"/>      </node>
+     </node>
+    </node>
+   </node>
+   <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink656766" TEXT="class1Method2"  LINK="Class1.java">
+    <edge WIDTH="thin"/>   </node>
+  </node>
+  <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#B1BFCC" POSITION="right" ID="mmlink6568" TEXT="classABC1"  LINK="Class1.java">
+   <edge WIDTH="thin"/>  </node>
+  <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#B1BFCC" POSITION="right" ID="mmlink6569" TEXT="classABC2"  LINK="Class1.java">
+   <edge WIDTH="thin"/>  </node>
+  <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#B1BFCC" POSITION="right" ID="mmlink6570" TEXT="goose" >
+   <edge WIDTH="thin"/>   <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink657065" TEXT="between"  LINK="Class4.java">
+    <edge WIDTH="thin"/>   </node>
+   <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink657066" TEXT="multi-path1"  LINK="Class4.java">
+    <edge WIDTH="thin"/>   </node>
+   <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink657067" TEXT="multi-path1"  LINK="Class4.java">
+    <edge WIDTH="thin"/>   </node>
+   <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink657068" TEXT="multi-path1"  LINK="Class4.java">
+    <edge WIDTH="thin"/>   </node>
+   <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink657069" TEXT="multi-root"  LINK="Class4.java">
+    <edge WIDTH="thin"/>   </node>
+  </node>
+  <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#B1BFCC" POSITION="right" ID="mmlink6571" TEXT="method1"  LINK="RootFile.java">
+   <edge WIDTH="thin"/>  </node>
+  <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#B1BFCC" POSITION="right" ID="mmlink6572" TEXT="path" >
+   <edge WIDTH="thin"/>   <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink657265" TEXT="class_3"  LINK="Class3.java">
+    <edge WIDTH="thin"/>    <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink65726565" TEXT="m1"  LINK="Class3.java">
+     <edge WIDTH="thin"/>    </node>
+    <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink65726566" TEXT="m2"  LINK="Class3.java">
+     <edge WIDTH="thin"/>    </node>
+   </node>
+  </node>
+  <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#B1BFCC" POSITION="right" ID="mmlink6573" TEXT="substitution" >
+   <edge WIDTH="thin"/>   <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink657365" TEXT="Linux" >
+    <edge WIDTH="thin"/>    <node CREATED="1792422721219" MODIFIED="1792422721219" COLOR="#000000" BACKGROUND_COLOR="#FDFDFD"   ID="mmlink65736565" TEXT="Eclipse Adoptium"  LINK="#mmlink6569">
+     <edge WIDTH="thin"/>     <richcontent TYPE="NOTE"><html><head></head><body><ul><li><b>FILE: </b><a href="../../../../../../../../../../../test.txt">../../../../../../../../../../../test.txt</a></li><li><b>LINK: </b><a href="http:///root/project/mind-map">http:///root/project/mind-map</a></li></ul><p><pre>:&lt;[root]&gt;;</pre></p></body></html></richcontent>
+    </node>
+   </node>
+  </node>
+ </node>
+</map>
\ No newline at end of file
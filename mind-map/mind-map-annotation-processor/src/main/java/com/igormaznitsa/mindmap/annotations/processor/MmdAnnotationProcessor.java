@@ -35,7 +35,11 @@ import com.igormaznitsa.mindmap.annotations.MmdTopic;
 import com.igormaznitsa.mindmap.annotations.MmdTopics;
 import com.igormaznitsa.mindmap.annotations.processor.builder.AnnotationUtils;
 import com.igormaznitsa.mindmap.annotations.processor.builder.AnnotationUtils.UriLine;
+import com.igormaznitsa.mindmap.annotations.processor.builder.FilerOutput;
 import com.igormaznitsa.mindmap.annotations.processor.builder.MmdFileBuilder;
+import com.igormaznitsa.mindmap.annotations.processor.builder.MmdTopicDynamic;
+import com.igormaznitsa.mindmap.annotations.processor.builder.OutputManifest;
+import com.igormaznitsa.mindmap.annotations.processor.builder.SourceContentCache;
 import com.igormaznitsa.mindmap.annotations.processor.builder.exceptions.MmdElementException;
 import com.igormaznitsa.mindmap.annotations.processor.exporters.MmdExporter;
 import com.sun.source.util.SourcePositions;
@@ -43,7 +47,10 @@ import com.sun.source.util.Trees;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
 import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -55,7 +62,6 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.Messager;
@@ -69,6 +75,7 @@ import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.MirroredTypeException;
 import javax.lang.model.util.Types;
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.file.PathUtils;
 import org.apache.commons.lang3.tuple.Pair;
 
 /**
@@ -82,7 +89,8 @@ import org.apache.commons.lang3.tuple.Pair;
     MmdAnnotationProcessor.KEY_MMD_FILE_ROOT_FOLDER,
     MmdAnnotationProcessor.KEY_MMD_FILE_LINK_BASE_FOLDER,
     MmdAnnotationProcessor.KEY_MMD_TARGET_FORMAT,
-    MmdAnnotationProcessor.KEY_MMD_COMMENT_SCAN
+    MmdAnnotationProcessor.KEY_MMD_COMMENT_SCAN,
+    MmdAnnotationProcessor.KEY_MMD_OUTPUT_MANIFEST
 })
 public class MmdAnnotationProcessor extends AbstractProcessor {
 
@@ -138,6 +146,13 @@ public class MmdAnnotationProcessor extends AbstractProcessor {
    * Option to overwrite result MMD file if already exist
    */
   public static final String KEY_MMD_FILE_OVERWRITE = "mmd.file.overwrite";
+  /**
+   * Option to provide path to manifest file keeping fingerprints of generated files, if provided
+   * then files which content is not changed since previous build are not exported again.
+   *
+   * @since 1.6.10
+   */
+  public static final String KEY_MMD_OUTPUT_MANIFEST = "mmd.output.manifest";
   private static final Map<String, Class<? extends Annotation>> ANNOTATIONS =
       Map.of(
           MmdTopic.class.getName(), MmdTopic.class,
@@ -157,6 +172,10 @@ public class MmdAnnotationProcessor extends AbstractProcessor {
   private boolean optionFileOverwrite;
   private boolean optionDryStart;
   private boolean optionCommentScan;
+  private Path optionOutputManifest;
+  private OutputManifest outputManifest;
+  private FilerOutput filerOutput;
+  private final SourceContentCache sourceContentCache = new SourceContentCache();
 
   @Override
   public SourceVersion getSupportedSourceVersion() {
@@ -176,6 +195,7 @@ public class MmdAnnotationProcessor extends AbstractProcessor {
     this.sourcePositions = this.trees.getSourcePositions();
     this.messager = processingEnv.getMessager();
     this.types = processingEnv.getTypeUtils();
+    this.filerOutput = new FilerOutput(processingEnv.getFiler());
 
     this.optionDryStart =
         Boolean.parseBoolean(
@@ -273,6 +293,23 @@ public class MmdAnnotationProcessor extends AbstractProcessor {
     this.optionFileOverwrite =
         Boolean.parseBoolean(
             processingEnv.getOptions().getOrDefault(KEY_MMD_FILE_OVERWRITE, "true"));
+
+    if (processingEnv.getOptions().containsKey(KEY_MMD_OUTPUT_MANIFEST)) {
+      this.optionOutputManifest =
+          Paths.get(processingEnv.getOptions().get(KEY_MMD_OUTPUT_MANIFEST)).toAbsolutePath();
+      this.outputManifest = OutputManifest.empty();
+      if (Files.isRegularFile(this.optionOutputManifest)) {
+        try (final Reader reader = Files.newBufferedReader(this.optionOutputManifest,
+            StandardCharsets.UTF_8)) {
+          this.outputManifest = OutputManifest.read(reader);
+          this.messager.printMessage(NOTE,
+              "Loaded MMD output manifest: " + this.optionOutputManifest);
+        } catch (IOException ex) {
+          this.messager.printMessage(WARNING,
+              "Can't read MMD output manifest, all files will be generated: " + ex.getMessage());
+        }
+      }
+    }
   }
 
   @Override
@@ -280,7 +317,76 @@ public class MmdAnnotationProcessor extends AbstractProcessor {
       final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
 
     final List<MmdAnnotationWrapper> foundAnnotationList = new ArrayList<>();
+    final List<CommentScanTask> commentScanTasks = new ArrayList<>();
+    try {
+      this.collectAnnotations(annotations, roundEnv, foundAnnotationList, commentScanTasks);
+      this.addCommentMarkers(commentScanTasks, foundAnnotationList);
+    } finally {
+      this.sourceContentCache.clear();
+    }
+
+    if (!foundAnnotationList.isEmpty()) {
+      this.messager.printMessage(
+          NOTE,
+          format(
+              "MMD annotation processor has found %d annotations to process",
+              foundAnnotationList.size()));
+
+      foundAnnotationList.sort(
+          Comparator.comparing(o -> o.getElement().getSimpleName().toString()));
+
+      final MmdFileBuilder fileBuilder = MmdFileBuilder.builder()
+          .setMessager(this.messager)
+          .setExporters(this.exporters)
+          .setTypes(this.types)
+          .setFileRootFolder(this.optionFileRootFolder)
+          .setTargetFolder(this.optionTargetFolder)
+          .setDryStart(this.optionDryStart)
+          .setCommentScan(this.optionCommentScan)
+          .setOverwriteAllowed(this.optionFileOverwrite)
+          .setFileLinkBaseFolder(this.optionFileLinkBaseFolder)
+          .setOutputManifest(this.outputManifest)
+          .setFilerOutput(this.filerOutput)
+          .setAnnotations(foundAnnotationList)
+          .build();
+
+
+      if (fileBuilder.write()) {
+        this.writeOutputManifest();
+        this.messager.printMessage(
+            NOTE,
+            "MMD annotation processor work completed");
+      } else {
+        this.messager.printMessage(
+            ERROR,
+            "MMD annotation processor work failed");
+      }
+    }
+
+    return true;
+  }
 
+  private void writeOutputManifest() {
+    if (this.outputManifest != null && !this.optionDryStart
+        && this.outputManifest.hasRegistered()) {
+      try {
+        PathUtils.createParentDirectories(this.optionOutputManifest);
+        try (final Writer writer = Files.newBufferedWriter(this.optionOutputManifest,
+            StandardCharsets.UTF_8)) {
+          this.outputManifest.write(writer);
+        }
+      } catch (IOException ex) {
+        this.messager.printMessage(WARNING,
+            "Can't write MMD output manifest: " + ex.getMessage());
+      }
+    }
+  }
+
+  private void collectAnnotations(
+      final Set<? extends TypeElement> annotations,
+      final RoundEnvironment roundEnv,
+      final List<MmdAnnotationWrapper> foundAnnotationList,
+      final List<CommentScanTask> commentScanTasks) {
     for (final TypeElement annotation : annotations) {
       final Set<? extends Element> annotatedElements =
           roundEnv.getElementsAnnotatedWith(annotation);
@@ -344,24 +450,13 @@ public class MmdAnnotationProcessor extends AbstractProcessor {
                         try {
                           final Optional<String> elementSources =
                               AnnotationUtils.findElementSources(this.sourcePositions,
-                                  this.trees, element);
-
-                          if (elementSources.isPresent()) {
-                            final Path elementFile =
-                                new File(elementSrcPosition.getUri()).toPath();
-                            final AtomicInteger counter = new AtomicInteger();
-                            findMmdComments(elementSrcPosition.getLine(), 0,
-                                elementSources.get()).forEach(comment -> {
-                              counter.incrementAndGet();
-                              foundAnnotationList.add(
-                                  new MmdAnnotationWrapper(element, comment, elementFile,
-                                      comment.line(), comment.position(), true));
-                            });
-                            if (counter.get() > 0) {
-                              this.messager.printMessage(NOTE,
-                                  "Found " + counter.get() + " internal comment-markers", element);
-                            }
-                          }
+                                  this.trees, element, this.sourceContentCache);
+
+                          elementSources.ifPresent(sources -> commentScanTasks.add(
+                              new CommentScanTask(element,
+                                  new File(elementSrcPosition.getUri()).toPath(),
+                                  elementSrcPosition.getLine(), sources,
+                                  foundAnnotationList.size())));
                         } catch (Exception ex) {
                           this.messager.printMessage(ERROR,
                               "Can't read sources for element: " + ex.getMessage(), element);
@@ -405,44 +500,37 @@ public class MmdAnnotationProcessor extends AbstractProcessor {
             }
           });
     }
+  }
 
-
-    if (!foundAnnotationList.isEmpty()) {
-      this.messager.printMessage(
-          NOTE,
-          format(
-              "MMD annotation processor has found %d annotations to process",
-              foundAnnotationList.size()));
-
-      foundAnnotationList.sort(
-          Comparator.comparing(o -> o.getElement().getSimpleName().toString()));
-
-      final MmdFileBuilder fileBuilder = MmdFileBuilder.builder()
-          .setMessager(this.messager)
-          .setExporters(this.exporters)
-          .setTypes(this.types)
-          .setFileRootFolder(this.optionFileRootFolder)
-          .setTargetFolder(this.optionTargetFolder)
-          .setDryStart(this.optionDryStart)
-          .setCommentScan(this.optionCommentScan)
-          .setOverwriteAllowed(this.optionFileOverwrite)
-          .setFileLinkBaseFolder(this.optionFileLinkBaseFolder)
-          .setAnnotations(foundAnnotationList)
-          .build();
-
-
-      if (fileBuilder.write()) {
-        this.messager.printMessage(
-            NOTE,
-            "MMD annotation processor work completed");
-      } else {
-        this.messager.printMessage(
-            ERROR,
-            "MMD annotation processor work failed");
+  /**
+   * Find comment markers in collected element sources. Sources are scanned in parallel, found
+   * markers are inserted into annotation list at positions where their elements were met, so
+   * that result doesn't depend on scan order.
+   *
+   * @param tasks               collected element sources to be scanned
+   * @param foundAnnotationList list of found annotations to add markers
+   */
+  private void addCommentMarkers(final List<CommentScanTask> tasks,
+                                 final List<MmdAnnotationWrapper> foundAnnotationList) {
+    final List<List<MmdTopicDynamic>> foundComments = tasks.parallelStream()
+        .map(task -> findMmdComments(task.line, 0, task.sources))
+        .collect(Collectors.toList());
+
+    for (int i = 0; i < tasks.size(); i++) {
+      final int counter = foundComments.get(i).size();
+      if (counter > 0) {
+        this.messager.printMessage(NOTE,
+            "Found " + counter + " internal comment-markers", tasks.get(i).element);
       }
     }
 
-    return true;
+    for (int i = tasks.size() - 1; i >= 0; i--) {
+      final CommentScanTask task = tasks.get(i);
+      foundAnnotationList.addAll(task.insertIndex, foundComments.get(i).stream()
+          .map(comment -> new MmdAnnotationWrapper(task.element, comment, task.file,
+              comment.line(), comment.position(), true))
+          .collect(Collectors.toList()));
+    }
   }
 
   private void assertValidMmdFileRef(final Element element, final MmdFileRef fileRef)
@@ -465,4 +553,21 @@ public class MmdAnnotationProcessor extends AbstractProcessor {
     }
   }
 
+
+  private static final class CommentScanTask {
+    private final Element element;
+    private final Path file;
+    private final long line;
+    private final String sources;
+    private final int insertIndex;
+
+    private CommentScanTask(final Element element, final Path file, final long line,
+                            final String sources, final int insertIndex) {
+      this.element = element;
+      this.file = file;
+      this.line = line;
+      this.sources = sources;
+      this.insertIndex = insertIndex;
+    }
+  }
 }
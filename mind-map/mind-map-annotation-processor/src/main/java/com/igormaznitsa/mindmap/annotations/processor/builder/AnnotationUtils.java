@@ -307,6 +307,24 @@ public final class AnnotationUtils {
   public static Optional<String> findElementSources(final SourcePositions sourcePositions,
                                                     final Trees trees, final Element element)
       throws IOException {
+    return findElementSources(sourcePositions, trees, element, new SourceContentCache());
+  }
+
+  /**
+   * Find element sources, the whole source file is read only once and kept in provided cache.
+   *
+   * @param sourcePositions auxiliary utility class, must not be null
+   * @param trees           auxiliary utility class, must not be null
+   * @param element         element which position should be found
+   * @param cache           cache of source file content, must not be null
+   * @return found read sources if they are presented, empty if not provided
+   * @throws IOException if there is a problem to read sources of access error
+   * @since 1.6.10
+   */
+  public static Optional<String> findElementSources(final SourcePositions sourcePositions,
+                                                    final Trees trees, final Element element,
+                                                    final SourceContentCache cache)
+      throws IOException {
 
     final TreePath treePath = trees.getPath(element);
     final CompilationUnitTree compilationUnit = treePath.getCompilationUnit();
@@ -328,31 +346,15 @@ public final class AnnotationUtils {
       return Optional.of("");
     }
 
-    final char[] buffer = new char[textLength];
     final JavaFileObject javaFileObject = compilationUnit.getSourceFile();
     if (javaFileObject != null && javaFileObject.getKind() == JavaFileObject.Kind.SOURCE) {
-      int position = 0;
-      int restChars = textLength;
-      try (final Reader reader = compilationUnit.getSourceFile().openReader(true)) {
-        if (reader.skip(startPosition) != startPosition) {
-          throw new IOException(
-              "Can't skip " + startPosition + " chars in source file: " + javaFileObject);
-        }
-        while (restChars > 0) {
-          final int read = reader.read(buffer, position, restChars);
-          if (read < 0) {
-            break;
-          }
-          position += read;
-          restChars -= read;
-        }
-        if (restChars != 0) {
-          throw new IOException(
-              "Can't read " + textLength + " chars from position " + startPosition + ": " +
-                  javaFileObject);
-        }
-        return Optional.of(new String(buffer));
+      final String content = cache.getContent(javaFileObject);
+      if (endPosition > content.length()) {
+        throw new IOException(
+            "Can't read " + textLength + " chars from position " + startPosition + ": " +
+                javaFileObject);
       }
+      return Optional.of(content.substring((int) startPosition, (int) endPosition));
     }
     return Optional.empty();
   }
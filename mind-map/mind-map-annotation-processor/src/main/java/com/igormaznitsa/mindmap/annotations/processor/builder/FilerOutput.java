@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mindmap.annotations.processor.builder;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.tools.FileObject;
+import javax.tools.JavaFileManager;
+import javax.tools.StandardLocation;
+
+/**
+ * Writer of generated files through compiler Filer. Files placed inside compiler output folders
+ * are written through Filer with their originating elements, so that build tools can track which
+ * sources produce them. Filer is not thread safe so that all writes must be made sequentially.
+ *
+ * @since 1.6.10
+ */
+public final class FilerOutput {
+
+  private static final String PROBE_FILE_NAME = "mmd-filer-location.probe";
+
+  private final Filer filer;
+  private final Map<Path, JavaFileManager.Location> locations = new LinkedHashMap<>();
+
+  /**
+   * Constructor.
+   *
+   * @param filer compiler filer, must not be null
+   */
+  public FilerOutput(final Filer filer) {
+    this.filer = requireNonNull(filer);
+    for (final StandardLocation location : new StandardLocation[] {
+        StandardLocation.SOURCE_OUTPUT, StandardLocation.CLASS_OUTPUT}) {
+      findFolder(filer, location).ifPresent(folder -> this.locations.put(folder, location));
+    }
+  }
+
+  private static Optional<Path> findFolder(final Filer filer,
+                                           final JavaFileManager.Location location) {
+    try {
+      final FileObject probe = filer.getResource(location, "", PROBE_FILE_NAME);
+      return Optional.ofNullable(Paths.get(probe.toUri()).getParent())
+          .map(x -> x.toAbsolutePath().normalize());
+    } catch (Exception ex) {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Check that file is placed inside a compiler output folder and can be written through Filer.
+   *
+   * @param file file to be checked, must not be null
+   * @return true if file should be written through Filer
+   */
+  public boolean isManaged(final Path file) {
+    return this.findLocation(file).isPresent();
+  }
+
+  private Optional<Map.Entry<Path, JavaFileManager.Location>> findLocation(final Path file) {
+    final Path normalized = file.toAbsolutePath().normalize();
+    return this.locations.entrySet().stream()
+        .filter(e -> normalized.startsWith(e.getKey()))
+        .findFirst();
+  }
+
+  /**
+   * Write file through Filer.
+   *
+   * @param file        target file, must be placed inside compiler output folder
+   * @param data        file content, must not be null
+   * @param originating elements which annotations formed the file content
+   * @throws IOException if file is not managed by Filer or any error during write
+   */
+  public void write(final Path file, final byte[] data, final Element... originating)
+      throws IOException {
+    final Map.Entry<Path, JavaFileManager.Location> location = this.findLocation(file)
+        .orElseThrow(() -> new IOException("File is not inside compiler output folder: " + file));
+    final String relativeName = location.getKey()
+        .relativize(file.toAbsolutePath().normalize())
+        .toString()
+        .replace('\\', '/');
+    final FileObject fileObject =
+        this.filer.createResource(location.getValue(), "", relativeName, originating);
+    try (final OutputStream out = fileObject.openOutputStream()) {
+      out.write(data);
+    }
+  }
+}
@@ -28,19 +28,29 @@ import com.igormaznitsa.mindmap.annotations.processor.builder.elements.FileItem;
 import com.igormaznitsa.mindmap.annotations.processor.builder.elements.TopicItem;
 import com.igormaznitsa.mindmap.annotations.processor.builder.exceptions.MmdAnnotationProcessorException;
 import com.igormaznitsa.mindmap.annotations.processor.builder.exceptions.MmdElementException;
+import com.igormaznitsa.mindmap.annotations.processor.exporters.HeadlessRenderContext;
 import com.igormaznitsa.mindmap.annotations.processor.exporters.MindMapBinExporter;
 import com.igormaznitsa.mindmap.annotations.processor.exporters.MmdExporter;
+import com.igormaznitsa.mindmap.model.MindMap;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 import javax.annotation.processing.Messager;
+import javax.lang.model.element.Element;
 import javax.lang.model.util.Types;
 import javax.tools.Diagnostic;
 import org.apache.commons.lang3.tuple.Pair;
@@ -226,57 +236,169 @@ public class MmdFileBuilder {
   }
 
   private boolean writeAll(final Map<String, FileItem> fileMap) {
-    return fileMap.values().stream()
-        .map(fileItem -> {
-          boolean error = false;
-          this.builder
-              .getMessager()
-              .printMessage(
-                  Diagnostic.Kind.NOTE,
-                  String.format("Processing MMD file, uid=%s", fileItem.getFileUid()));
+    final OutputManifest manifest = this.builder.getOutputManifest();
+    final FilerOutput filerOutput = this.builder.getFilerOutput();
+    final HeadlessRenderContext renderContext = new HeadlessRenderContext();
+    final List<PreparedFile> preparedFiles = new ArrayList<>();
+    for (final FileItem fileItem : fileMap.values()) {
+      this.builder
+          .getMessager()
+          .printMessage(
+              Diagnostic.Kind.NOTE,
+              String.format("Processing MMD file, uid=%s", fileItem.getFileUid()));
+      if (fileItem.getTargetFiles().isEmpty()) {
+        this.printSavedFiles(List.of());
+        continue;
+      }
+      try {
+        final MindMap map = fileItem.prepareMindMap(
+            this.builder.getTypes(),
+            this.builder.getFileLinkBaseFolder());
+        final PreparedFile prepared = new PreparedFile(fileItem, map);
+        if (manifest != null && !this.builder.isDryStart()) {
+          prepared.fingerprint = this.makeFingerprint(fileItem, map);
+          // files created through Filer must be created during every compilation
+          final boolean filerManaged = filerOutput != null
+              && prepared.outputs.stream().anyMatch(filerOutput::isManaged);
+          if (!filerManaged && manifest.isUpToDate(prepared.fingerprint, prepared.outputs)) {
+            manifest.register(prepared.fingerprint, prepared.outputs);
+            this.builder
+                .getMessager()
+                .printMessage(Diagnostic.Kind.NOTE,
+                    "MMD file is up to date: " + prepared.outputs);
+            continue;
+          }
+        }
+        preparedFiles.add(prepared);
+      } catch (final Exception ex) {
+        this.printWriteError(fileItem, ex);
+        return false;
+      }
+    }
 
+    // export is the most expensive part (especially PNG and SVG), so all targets of all files
+    // are exported in parallel, every exporter gets own copy of mind map and all exporters
+    // share the same render context
+    preparedFiles.stream()
+        .flatMap(prepared -> prepared.fileItem.getTargetFiles().stream()
+            .map(target -> Pair.of(prepared, target)))
+        .collect(Collectors.toList())
+        .parallelStream()
+        .forEach(pair -> {
+          final PreparedFile prepared = pair.getLeft();
           try {
-            final List<Path> filePath =
-                fileItem.write(
-                    this.builder.getFileRootFolder(),
-                    this.builder.getTypes(),
-                    this.builder.getFileLinkBaseFolder(),
-                    this.builder.isOverwriteAllowed(),
-                    this.builder.isDryStart());
-            if (this.builder.isDryStart()) {
-              this.builder
-                  .getMessager()
-                  .printMessage(Diagnostic.Kind.NOTE, "Formed MMD file but not saved: " + filePath);
+            if (filerOutput != null && filerOutput.isManaged(pair.getRight().getKey())) {
+              prepared.filerData.put(pair.getRight().getKey(), prepared.fileItem.exportTarget(
+                  renderContext,
+                  pair.getRight(),
+                  prepared.map.makeCopy(),
+                  this.builder.getFileRootFolder()));
             } else {
-              this.builder
-                  .getMessager()
-                  .printMessage(Diagnostic.Kind.NOTE, "Saved MMD file: " + filePath);
+              prepared.fileItem.writeTarget(
+                  renderContext,
+                  pair.getRight(),
+                  prepared.map.makeCopy(),
+                  this.builder.getFileRootFolder(),
+                  this.builder.isOverwriteAllowed(),
+                  this.builder.isDryStart());
             }
           } catch (final Exception ex) {
-            error = true;
-            if (ex instanceof MmdAnnotationProcessorException) {
-              final MmdAnnotationProcessorException mmdEx = (MmdAnnotationProcessorException) ex;
-              this.builder
-                  .getMessager()
-                  .printMessage(
-                      Diagnostic.Kind.ERROR,
-                      mmdEx.getMessage(),
-                      mmdEx.getSource().getElement());
-            } else {
-              this.builder
-                  .getMessager()
-                  .printMessage(
-                      Diagnostic.Kind.ERROR,
-                      String.format(
-                          "Error during MMD file write (uid='%s'): %s",
-                          fileItem.getFileUid(), ex.getMessage()),
-                      fileItem.getElement());
-            }
+            prepared.errors.add(ex);
           }
-          return error;
-        })
-        .takeWhile(error -> !error)
-        .noneMatch(error -> error);
+        });
+
+    boolean result = true;
+    for (final PreparedFile prepared : preparedFiles) {
+      if (prepared.errors.isEmpty() && !this.builder.isDryStart()) {
+        this.writeThroughFiler(filerOutput, prepared);
+      }
+      if (prepared.errors.isEmpty()) {
+        this.printSavedFiles(prepared.outputs);
+        if (prepared.fingerprint != null) {
+          manifest.register(prepared.fingerprint, prepared.outputs);
+        }
+      } else {
+        prepared.errors.forEach(ex -> this.printWriteError(prepared.fileItem, ex));
+        result = false;
+      }
+    }
+    return result;
+  }
+
+  private void writeThroughFiler(final FilerOutput filerOutput, final PreparedFile prepared) {
+    final Element[] originatingElements = prepared.fileItem.getOriginatingElements();
+    for (final Pair<Path, MindMapBinExporter> target : prepared.fileItem.getTargetFiles()) {
+      final byte[] data = prepared.filerData.get(target.getKey());
+      if (data != null) {
+        final Path file = target.getKey().normalize();
+        try {
+          if (Files.isRegularFile(file) && !this.builder.isOverwriteAllowed()) {
+            throw new IOException("Target file already exists: " + file);
+          }
+          filerOutput.write(file, data, originatingElements);
+        } catch (final Exception ex) {
+          prepared.errors.add(ex);
+          return;
+        }
+      }
+    }
+  }
+
+  private void printSavedFiles(final List<Path> filePath) {
+    if (this.builder.isDryStart()) {
+      this.builder
+          .getMessager()
+          .printMessage(Diagnostic.Kind.NOTE, "Formed MMD file but not saved: " + filePath);
+    } else {
+      this.builder
+          .getMessager()
+          .printMessage(Diagnostic.Kind.NOTE, "Saved MMD file: " + filePath);
+    }
+  }
+
+  private void printWriteError(final FileItem fileItem, final Exception ex) {
+    if (ex instanceof MmdAnnotationProcessorException) {
+      final MmdAnnotationProcessorException mmdEx = (MmdAnnotationProcessorException) ex;
+      this.builder
+          .getMessager()
+          .printMessage(
+              Diagnostic.Kind.ERROR,
+              mmdEx.getMessage(),
+              mmdEx.getSource().getElement());
+    } else {
+      this.builder
+          .getMessager()
+          .printMessage(
+              Diagnostic.Kind.ERROR,
+              String.format(
+                  "Error during MMD file write (uid='%s'): %s",
+                  fileItem.getFileUid(), ex.getMessage()),
+              fileItem.getElement());
+    }
+  }
+
+  private String makeFingerprint(final FileItem fileItem, final MindMap map) {
+    final StringBuilder buffer = new StringBuilder();
+    buffer.append(MmdAnnotationProcessor.VERSION).append('\n')
+        .append(this.builder.getFileRootFolder()).append('\n')
+        .append(this.builder.isOverwriteAllowed()).append('\n');
+    fileItem.getTargetFiles().stream()
+        .map(target -> target.getKey().normalize() + "=" + target.getValue().getClass().getName())
+        .sorted()
+        .forEach(target -> buffer.append(target).append('\n'));
+    buffer.append(map.asString());
+    try {
+      final byte[] digest = MessageDigest.getInstance("SHA-256")
+          .digest(buffer.toString().getBytes(StandardCharsets.UTF_8));
+      final StringBuilder result = new StringBuilder(digest.length * 2);
+      for (final byte b : digest) {
+        result.append(Character.forDigit((b >> 4) & 0xF, 16))
+            .append(Character.forDigit(b & 0xF, 16));
+      }
+      return result.toString();
+    } catch (NoSuchAlgorithmException ex) {
+      throw new Error("Can't find SHA-256", ex);
+    }
   }
 
   private void processTopic(
@@ -297,6 +419,23 @@ public class MmdFileBuilder {
     }
   }
 
+  private static final class PreparedFile {
+    private final FileItem fileItem;
+    private final MindMap map;
+    private final List<Path> outputs;
+    private final List<Exception> errors = new CopyOnWriteArrayList<>();
+    private final Map<Path, byte[]> filerData = new ConcurrentHashMap<>();
+    private String fingerprint;
+
+    private PreparedFile(final FileItem fileItem, final MindMap map) {
+      this.fileItem = fileItem;
+      this.map = map;
+      this.outputs = fileItem.getTargetFiles().stream()
+          .map(x -> x.getKey().normalize())
+          .collect(Collectors.toList());
+    }
+  }
+
   public static final class Builder {
     private List<MmdAnnotationWrapper> annotations;
     private Path targetFolder;
@@ -308,6 +447,8 @@ public class MmdFileBuilder {
     private Messager messager;
     private Set<MmdExporter> exporters = Set.of(MmdExporter.MMD);
     private Types types;
+    private OutputManifest outputManifest;
+    private FilerOutput filerOutput;
 
     private volatile boolean completed;
 
@@ -425,6 +566,42 @@ public class MmdFileBuilder {
       return this.fileRootFolder;
     }
 
+    public FilerOutput getFilerOutput() {
+      return this.filerOutput;
+    }
+
+    /**
+     * Set writer to create files placed inside compiler output folders through Filer with their
+     * originating elements.
+     *
+     * @param filerOutput filer based writer, can be null to write all files directly
+     * @return the builder
+     * @since 1.6.10
+     */
+    public Builder setFilerOutput(final FilerOutput filerOutput) {
+      this.assertNotCompleted();
+      this.filerOutput = filerOutput;
+      return this;
+    }
+
+    public OutputManifest getOutputManifest() {
+      return this.outputManifest;
+    }
+
+    /**
+     * Set manifest of generated files to skip export of files which content is not changed since
+     * previous build.
+     *
+     * @param outputManifest manifest, can be null to export all files
+     * @return the builder
+     * @since 1.6.10
+     */
+    public Builder setOutputManifest(final OutputManifest outputManifest) {
+      this.assertNotCompleted();
+      this.outputManifest = outputManifest;
+      return this;
+    }
+
     public Builder setFileRootFolder(final Path fileRootFolder) {
       this.assertNotCompleted();
       this.fileRootFolder = fileRootFolder;
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mindmap.annotations.processor.builder;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Manifest of generated files. It keeps fingerprint of all annotations contributing into each
+ * generated file, so that the next build can skip generation of files which inputs are not
+ * changed. Each line of the manifest contains fingerprint and path of generated file separated
+ * by space.
+ *
+ * @since 1.6.10
+ */
+public final class OutputManifest {
+
+  private final Map<String, String> previous;
+  private final Map<String, String> current = new TreeMap<>();
+
+  private OutputManifest(final Map<String, String> previous) {
+    this.previous = previous;
+  }
+
+  /**
+   * Make empty manifest.
+   *
+   * @return new empty manifest, must not be null
+   */
+  public static OutputManifest empty() {
+    return new OutputManifest(new HashMap<>());
+  }
+
+  /**
+   * Read manifest written by previous build.
+   *
+   * @param reader source reader, must not be null
+   * @return read manifest, must not be null
+   * @throws IOException if any error during read
+   */
+  public static OutputManifest read(final Reader reader) throws IOException {
+    final Map<String, String> map = new HashMap<>();
+    final BufferedReader bufferedReader = new BufferedReader(requireNonNull(reader));
+    String line;
+    while ((line = bufferedReader.readLine()) != null) {
+      final int separator = line.indexOf(' ');
+      if (separator > 0) {
+        map.put(line.substring(separator + 1), line.substring(0, separator));
+      }
+    }
+    return new OutputManifest(map);
+  }
+
+  /**
+   * Check that all files were generated by previous build for the same fingerprint and they are
+   * still presented.
+   *
+   * @param fingerprint fingerprint of inputs, must not be null
+   * @param outputs     generated files, must not be null
+   * @return true if the files can be kept without regeneration
+   */
+  public boolean isUpToDate(final String fingerprint, final List<Path> outputs) {
+    return !outputs.isEmpty() && outputs.stream()
+        .allMatch(path -> fingerprint.equals(this.previous.get(path.toString()))
+            && Files.isRegularFile(path));
+  }
+
+  /**
+   * Register generated or kept files in the manifest of current build.
+   *
+   * @param fingerprint fingerprint of inputs, must not be null
+   * @param outputs     generated files, must not be null
+   */
+  public synchronized void register(final String fingerprint, final List<Path> outputs) {
+    outputs.forEach(path -> this.current.put(path.toString(), fingerprint));
+  }
+
+  /**
+   * Check that manifest of current build contains any file.
+   *
+   * @return true if there is any registered file
+   */
+  public synchronized boolean hasRegistered() {
+    return !this.current.isEmpty();
+  }
+
+  /**
+   * Write manifest of current build.
+   *
+   * @param writer target writer, must not be null
+   * @throws IOException if any error during write
+   */
+  public synchronized void write(final Writer writer) throws IOException {
+    for (final Map.Entry<String, String> e : this.current.entrySet()) {
+      writer.write(e.getValue());
+      writer.write(' ');
+      writer.write(e.getKey());
+      writer.write('\n');
+    }
+    writer.flush();
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mindmap.annotations.processor.builder;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import javax.tools.JavaFileObject;
+
+/**
+ * Cache of source file content, each source file is read only once and all its elements are
+ * extracted from the cached content. Should be cleared at the end of processing round.
+ *
+ * @since 1.6.10
+ */
+public final class SourceContentCache {
+
+  private final Map<URI, String> contents = new HashMap<>();
+
+  /**
+   * Get content of source file, read it if not cached yet.
+   *
+   * @param fileObject source file object, must not be null
+   * @return whole text of the source file, must not be null
+   * @throws IOException if there is an error during source read
+   */
+  public synchronized String getContent(final JavaFileObject fileObject) throws IOException {
+    final URI uri = requireNonNull(fileObject).toUri();
+    String result = this.contents.get(uri);
+    if (result == null) {
+      result = fileObject.getCharContent(true).toString();
+      this.contents.put(uri, result);
+    }
+    return result;
+  }
+
+  /**
+   * Get number of cached source files.
+   *
+   * @return number of cached files
+   */
+  public synchronized int size() {
+    return this.contents.size();
+  }
+
+  /**
+   * Remove all cached content.
+   */
+  public synchronized void clear() {
+    this.contents.clear();
+  }
+}
@@ -31,6 +31,7 @@ import com.igormaznitsa.mindmap.annotations.MmdTopic;
 import com.igormaznitsa.mindmap.annotations.processor.MmdAnnotationProcessor;
 import com.igormaznitsa.mindmap.annotations.processor.MmdAnnotationWrapper;
 import com.igormaznitsa.mindmap.annotations.processor.builder.exceptions.MmdAnnotationProcessorException;
+import com.igormaznitsa.mindmap.annotations.processor.exporters.HeadlessRenderContext;
 import com.igormaznitsa.mindmap.annotations.processor.exporters.MindMapBinExporter;
 import com.igormaznitsa.mindmap.model.ExtraTopic;
 import com.igormaznitsa.mindmap.model.MindMap;
@@ -54,6 +55,8 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
 import javax.lang.model.util.Types;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
@@ -212,42 +215,149 @@ public class FileItem extends AbstractItem {
       throws IOException, MmdAnnotationProcessorException {
 
     final List<Path> result = new ArrayList<>();
-    MindMap map = null;
-    for (Pair<Path, MindMapBinExporter> targetFile : this.getTargetFiles()) {
-      final Path normalizedTargetFile = targetFile.getKey().normalize();
-      if (map == null) {
-        try {
-          map =
-              this.makeMindMap(
-                  types,
-                  fileLinkBaseFolder == null ? normalizedTargetFile.getParent() :
-                      fileLinkBaseFolder);
-        } catch (final URISyntaxException ex) {
-          throw new IOException("Can't write MMD file for URI syntax error", ex);
-        }
-      }
+    if (this.getTargetFiles().isEmpty()) {
+      return result;
+    }
+    final MindMap map = this.prepareMindMap(types, fileLinkBaseFolder);
+    final HeadlessRenderContext renderContext = new HeadlessRenderContext();
+    for (final Pair<Path, MindMapBinExporter> targetFile : this.getTargetFiles()) {
+      result.add(
+          this.writeTarget(renderContext, targetFile, map, rootFolder, allowOverwrite, dryStart));
+    }
+    return result;
+  }
 
-      if (rootFolder != null && !normalizedTargetFile.startsWith(rootFolder)) {
-        throw new IOException(
-            "Target file is not bounded by the root folder: " + normalizedTargetFile);
+  /**
+   * Make mind map for the file. Must be called sequentially because uses compiler type utils.
+   *
+   * @param types              compiler type utils, must not be null
+   * @param fileLinkBaseFolder base folder for file links, if null then parent of the first
+   *                           target file is used
+   * @return formed mind map, must not be null
+   * @throws IOException                     if error during mind map formation
+   * @throws MmdAnnotationProcessorException if error in annotation data
+   * @since 1.6.10
+   */
+  public MindMap prepareMindMap(final Types types, final Path fileLinkBaseFolder)
+      throws IOException, MmdAnnotationProcessorException {
+    try {
+      return this.makeMindMap(
+          types,
+          fileLinkBaseFolder == null
+              ? this.getTargetFiles().get(0).getKey().normalize().getParent() :
+              fileLinkBaseFolder);
+    } catch (final URISyntaxException ex) {
+      throw new IOException("Can't write MMD file for URI syntax error", ex);
+    }
+  }
+
+  /**
+   * Export mind map and write result into target file. Can be called concurrently for different
+   * targets if each call gets own copy of mind map. Target file is not touched if it already
+   * contains the same content.
+   *
+   * @param renderContext  render context shared between exported files, must not be null
+   * @param targetFile     target file and its exporter, must not be null
+   * @param map            mind map prepared for the file, must not be null
+   * @param rootFolder     root folder restricting target files, can be null
+   * @param allowOverwrite flag to allow overwrite of existing file
+   * @param dryStart       if true then content is formed but not written
+   * @return normalized path of the target file, must not be null
+   * @throws IOException if error during export or write
+   * @since 1.6.10
+   */
+  public Path writeTarget(
+      final HeadlessRenderContext renderContext,
+      final Pair<Path, MindMapBinExporter> targetFile,
+      final MindMap map,
+      final Path rootFolder,
+      final boolean allowOverwrite,
+      final boolean dryStart
+  ) throws IOException {
+    final Path normalizedTargetFile = targetFile.getKey().normalize();
+    final byte[] mindMapFileData = this.exportTarget(renderContext, targetFile, map, rootFolder);
+
+    if (!dryStart) {
+      PathUtils.createParentDirectories(normalizedTargetFile);
+      if (Files.isRegularFile(normalizedTargetFile) && !allowOverwrite) {
+        throw new IOException("Target file already exists: " + normalizedTargetFile);
       }
+      writeIfChanged(normalizedTargetFile, mindMapFileData);
+    }
+    return normalizedTargetFile;
+  }
 
-      final byte[] mindMapFileData =
-          targetFile.getRight().export(rootFolder, normalizedTargetFile, map);
+  /**
+   * Export mind map for target file without write.
+   *
+   * @param renderContext render context shared between exported files, must not be null
+   * @param targetFile    target file and its exporter, must not be null
+   * @param map           mind map prepared for the file, must not be null
+   * @param rootFolder    root folder restricting target files, can be null
+   * @return exported content of the target file, must not be null
+   * @throws IOException if target file is outbound of root folder or error during export
+   * @since 1.6.10
+   */
+  public byte[] exportTarget(
+      final HeadlessRenderContext renderContext,
+      final Pair<Path, MindMapBinExporter> targetFile,
+      final MindMap map,
+      final Path rootFolder
+  ) throws IOException {
+    final Path normalizedTargetFile = targetFile.getKey().normalize();
+
+    if (rootFolder != null && !normalizedTargetFile.startsWith(rootFolder)) {
+      throw new IOException(
+          "Target file is not bounded by the root folder: " + normalizedTargetFile);
+    }
 
-      if (!dryStart) {
-        PathUtils.createParentDirectories(normalizedTargetFile);
-        if (Files.isRegularFile(normalizedTargetFile) && !allowOverwrite) {
-          throw new IOException("Target file already exists: " + normalizedTargetFile);
-        }
-        FileUtils.writeByteArrayToFile(normalizedTargetFile.toFile(), mindMapFileData);
-      }
+    return targetFile.getRight().export(renderContext, rootFolder, normalizedTargetFile, map);
+  }
 
-      result.add(normalizedTargetFile);
+  /**
+   * Find top level type elements which annotations form the file, the root element and elements
+   * of all topics added into the file.
+   *
+   * @return array of originating elements without duplications, must not be null
+   * @since 1.6.10
+   */
+  public Element[] getOriginatingElements() {
+    return this.layoutBlocks.stream()
+        .map(x -> findTopLevelElement(x.getAnnotationItem().getElement()))
+        .distinct()
+        .toArray(Element[]::new);
+  }
+
+  private static Element findTopLevelElement(final Element element) {
+    Element result = element;
+    while (result.getEnclosingElement() != null
+        && result.getEnclosingElement().getKind() != ElementKind.PACKAGE
+        && result.getEnclosingElement().getKind() != ElementKind.MODULE) {
+      result = result.getEnclosingElement();
     }
     return result;
   }
 
+  /**
+   * Write data into file only if the file doesn't exist or has different content, it allows to
+   * keep modification time of not changed files and don't trigger downstream build tasks.
+   *
+   * @param file target file, must not be null
+   * @param data data to be written, must not be null
+   * @return true if the file has been written, false if it already contains the same data
+   * @throws IOException if any IO error
+   * @since 1.6.10
+   */
+  public static boolean writeIfChanged(final Path file, final byte[] data) throws IOException {
+    if (Files.isRegularFile(file)
+        && Files.size(file) == data.length
+        && Arrays.equals(Files.readAllBytes(file), data)) {
+      return false;
+    }
+    FileUtils.writeByteArrayToFile(file.toFile(), data);
+    return true;
+  }
+
   private MindMap makeMindMap(final Types types, final Path fileLinkBaseFolder)
       throws URISyntaxException, MmdAnnotationProcessorException {
     final MindMap map = new MindMap(false);
@@ -21,15 +21,9 @@ import static java.util.Objects.requireNonNull;
 import com.igormaznitsa.mindmap.model.Extra;
 import com.igormaznitsa.mindmap.model.ExtraFile;
 import com.igormaznitsa.mindmap.model.MindMap;
-import com.igormaznitsa.mindmap.model.Topic;
 import com.igormaznitsa.mindmap.plugins.api.AbstractExporter;
-import com.igormaznitsa.mindmap.plugins.api.ExternallyExecutedPlugin;
 import com.igormaznitsa.mindmap.plugins.api.PluginContext;
-import com.igormaznitsa.mindmap.swing.panel.DialogProvider;
-import com.igormaznitsa.mindmap.swing.panel.MindMapPanel;
-import com.igormaznitsa.mindmap.swing.panel.MindMapPanelConfig;
 import java.io.ByteArrayOutputStream;
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Set;
@@ -54,54 +48,15 @@ public abstract class AbstractMmdPanelBasedExporter implements MindMapBinExporte
   @Override
   public byte[] export(final Path rootFolder, final Path targetFile, final MindMap map)
       throws IOException {
-    final PluginContext context = new PluginContext() {
-      @Override
-      public MindMapPanelConfig getPanelConfig() {
-        return new MindMapPanelConfig();
-      }
-
-      @Override
-      public MindMap getModel() {
-        return map;
-      }
-
-      @Override
-      public MindMapPanel getPanel() {
-        return null;
-      }
-
-      @Override
-      public DialogProvider getDialogProvider() {
-        return null;
-      }
-
-      @Override
-      public File getProjectFolder() {
-        return rootFolder.toFile();
-      }
-
-      @Override
-      public File getMindMapFile() {
-        return targetFile.toFile();
-      }
-
-      @Override
-      public Topic[] getSelectedTopics() {
-        return new Topic[0];
-      }
-
-      @Override
-      public void openFile(File file, boolean preferSystemBrowser) {
-        throw new UnsupportedOperationException();
-      }
+    return this.export(new HeadlessRenderContext(), rootFolder, targetFile, map);
+  }
 
-      @Override
-      public void processPluginActivation(ExternallyExecutedPlugin plugin, Topic activeTopic) {
-        throw new UnsupportedOperationException();
-      }
-    };
+  @Override
+  public byte[] export(final HeadlessRenderContext renderContext, final Path rootFolder,
+                       final Path targetFile, final MindMap map) throws IOException {
     final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-    this.delegate.doExport(context, Set.of(), buffer, this.getExtrasStringConverter());
+    this.delegate.doExport(renderContext.makePluginContext(rootFolder, targetFile, map), Set.of(),
+        buffer, this.getExtrasStringConverter());
     return buffer.toByteArray();
   }
 
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mindmap.annotations.processor.exporters;
+
+import com.igormaznitsa.mindmap.model.MindMap;
+import com.igormaznitsa.mindmap.model.Topic;
+import com.igormaznitsa.mindmap.plugins.api.ExternallyExecutedPlugin;
+import com.igormaznitsa.mindmap.plugins.api.PluginContext;
+import com.igormaznitsa.mindmap.swing.panel.DialogProvider;
+import com.igormaznitsa.mindmap.swing.panel.MindMapPanel;
+import com.igormaznitsa.mindmap.swing.panel.MindMapPanelConfig;
+import java.io.File;
+import java.nio.file.Path;
+
+/**
+ * Context shared by panel based exporters during processing round. Default panel config is formed
+ * only once (its forming includes search among system fonts) and provided to all exported files
+ * as immutable config, exporters make own copy of the config before any change so that the context
+ * can be used concurrently.
+ *
+ * @since 1.6.10
+ */
+public final class HeadlessRenderContext {
+
+  private volatile MindMapPanelConfig panelConfig;
+
+  /**
+   * Get shared panel config.
+   *
+   * @return immutable panel config, must not be null
+   * @see MindMapPanelConfig#makeImmutableCopy()
+   */
+  public MindMapPanelConfig getPanelConfig() {
+    MindMapPanelConfig result = this.panelConfig;
+    if (result == null) {
+      synchronized (this) {
+        result = this.panelConfig;
+        if (result == null) {
+          result = new MindMapPanelConfig().makeImmutableCopy();
+          this.panelConfig = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Make plugin context to export mind map.
+   *
+   * @param rootFolder root folder of project, can be null
+   * @param targetFile target file, must not be null
+   * @param map        mind map to be exported, must not be null
+   * @return plugin context without panel, must not be null
+   */
+  public PluginContext makePluginContext(final Path rootFolder, final Path targetFile,
+                                         final MindMap map) {
+    final MindMapPanelConfig config = this.getPanelConfig();
+    return new PluginContext() {
+      @Override
+      public MindMapPanelConfig getPanelConfig() {
+        return config;
+      }
+
+      @Override
+      public MindMap getModel() {
+        return map;
+      }
+
+      @Override
+      public MindMapPanel getPanel() {
+        return null;
+      }
+
+      @Override
+      public DialogProvider getDialogProvider() {
+        return null;
+      }
+
+      @Override
+      public File getProjectFolder() {
+        return rootFolder.toFile();
+      }
+
+      @Override
+      public File getMindMapFile() {
+        return targetFile.toFile();
+      }
+
+      @Override
+      public Topic[] getSelectedTopics() {
+        return new Topic[0];
+      }
+
+      @Override
+      public void openFile(File file, boolean preferSystemBrowser) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void processPluginActivation(ExternallyExecutedPlugin plugin, Topic activeTopic) {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+}
@@ -24,5 +24,21 @@ public interface MindMapBinExporter {
 
   byte[] export(Path rootFolder, Path targetFile, MindMap map) throws IOException;
 
+  /**
+   * Export mind map with use of render context shared between all files of processing round.
+   *
+   * @param renderContext shared render context, must not be null
+   * @param rootFolder    root folder, can be null
+   * @param targetFile    target file, must not be null
+   * @param map           mind map to be exported, must not be null
+   * @return exported content, must not be null
+   * @throws IOException if any error during export
+   * @since 1.6.10
+   */
+  default byte[] export(HeadlessRenderContext renderContext, Path rootFolder, Path targetFile,
+                        MindMap map) throws IOException {
+    return this.export(rootFolder, targetFile, map);
+  }
+
   String getFileExtension();
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2015-2023 Igor A. Maznitsa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mindmap.annotations.processor.builder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.igormaznitsa.mindmap.annotations.processor.builder.elements.FileItem;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class OutputManifestTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void testWriteReadAndUpToDate() throws Exception {
+    final Path fileA = this.tempFolder.newFile("a.mmd").toPath();
+    final Path fileB = this.tempFolder.newFile("b.png").toPath();
+    final Path fileC = this.tempFolder.getRoot().toPath().resolve("c.svg");
+
+    final OutputManifest manifest = OutputManifest.empty();
+    assertFalse(manifest.hasRegistered());
+    manifest.register("111", List.of(fileA, fileB));
+    manifest.register("222", List.of(fileC));
+    assertTrue(manifest.hasRegistered());
+
+    final StringWriter writer = new StringWriter();
+    manifest.write(writer);
+
+    final OutputManifest restored = OutputManifest.read(new StringReader(writer.toString()));
+    assertTrue(restored.isUpToDate("111", List.of(fileA, fileB)));
+    assertFalse(restored.isUpToDate("112", List.of(fileA, fileB)));
+    assertFalse(restored.isUpToDate("222", List.of(fileC)));
+    assertFalse(restored.isUpToDate("111", List.of()));
+    assertFalse(restored.hasRegistered());
+  }
+
+  @Test
+  public void testWriteIfChanged() throws Exception {
+    final Path file = this.tempFolder.getRoot().toPath().resolve("test.mmd");
+    final byte[] data = "Hello".getBytes(StandardCharsets.UTF_8);
+
+    assertTrue(FileItem.writeIfChanged(file, data));
+    final FileTime time = FileTime.fromMillis(1000L);
+    Files.setLastModifiedTime(file, time);
+
+    assertFalse(FileItem.writeIfChanged(file, data));
+    assertTrue(time.equals(Files.getLastModifiedTime(file)));
+
+    final byte[] changed = "World".getBytes(StandardCharsets.UTF_8);
+    assertTrue(FileItem.writeIfChanged(file, changed));
+    assertArrayEquals(changed, Files.readAllBytes(file));
+  }
+}
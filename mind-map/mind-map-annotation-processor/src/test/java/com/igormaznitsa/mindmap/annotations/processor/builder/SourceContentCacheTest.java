@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2015-2023 Igor A. Maznitsa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mindmap.annotations.processor.builder;
+
+import static org.junit.Assert.assertEquals;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import org.junit.Test;
+
+public class SourceContentCacheTest {
+
+  private static JavaFileObject makeSource(final String name, final String text,
+                                           final AtomicInteger readCounter) {
+    return new SimpleJavaFileObject(URI.create("string:///" + name + ".java"),
+        JavaFileObject.Kind.SOURCE) {
+      @Override
+      public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+        readCounter.incrementAndGet();
+        return text;
+      }
+    };
+  }
+
+  @Test
+  public void testSourceReadOnce() throws Exception {
+    final AtomicInteger counter = new AtomicInteger();
+    final SourceContentCache cache = new SourceContentCache();
+    final JavaFileObject source = makeSource("Test", "class Test {}", counter);
+
+    for (int i = 0; i < 100; i++) {
+      assertEquals("class Test {}", cache.getContent(source));
+    }
+    assertEquals(1, counter.get());
+    assertEquals(1, cache.size());
+
+    cache.getContent(makeSource("Other", "class Other {}", counter));
+    assertEquals(2, counter.get());
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void testClear() throws Exception {
+    final AtomicInteger counter = new AtomicInteger();
+    final SourceContentCache cache = new SourceContentCache();
+    final JavaFileObject source = makeSource("Test", "class Test {}", counter);
+
+    cache.getContent(source);
+    cache.clear();
+    assertEquals(0, cache.size());
+    cache.getContent(source);
+    assertEquals(2, counter.get());
+  }
+}
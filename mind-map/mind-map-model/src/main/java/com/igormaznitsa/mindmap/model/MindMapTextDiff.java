@@ -0,0 +1,336 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mindmap.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Calculator of minimal text changes between two versions of mind map text. Texts are split into
+ * blocks at topic headers (lines started with '#') written by serializer, equal blocks are matched
+ * and only changed blocks are turned into edits, which are narrowed to the changed characters.
+ * It allows IDE to replace only changed parts of document instead of whole text.
+ *
+ * @since 1.6.10
+ */
+public final class MindMapTextDiff {
+
+  private static final int MAX_EDIT_DISTANCE = 1000;
+
+  private MindMapTextDiff() {
+  }
+
+  /**
+   * Calculate edits to convert old text into new one.
+   *
+   * @param oldText current text, must not be null
+   * @param newText new text, must not be null
+   * @return list of non-overlapping edits sorted by position in old text, empty if texts are equal.
+   * Offsets of all edits are in the old text so that they should be applied from the last one to
+   * the first one.
+   */
+  public static List<Edit> diff(final String oldText, final String newText) {
+    if (oldText.equals(newText)) {
+      return Collections.emptyList();
+    }
+
+    final Blocks oldBlocks = new Blocks(oldText);
+    final Blocks newBlocks = new Blocks(newText);
+
+    int prefix = 0;
+    while (prefix < oldBlocks.size() && prefix < newBlocks.size()
+        && oldBlocks.isEqual(prefix, newBlocks, prefix)) {
+      prefix++;
+    }
+    int suffix = 0;
+    while (suffix < oldBlocks.size() - prefix && suffix < newBlocks.size() - prefix
+        && oldBlocks.isEqual(oldBlocks.size() - 1 - suffix, newBlocks,
+        newBlocks.size() - 1 - suffix)) {
+      suffix++;
+    }
+
+    final int oldEnd = oldBlocks.size() - suffix;
+    final int newEnd = newBlocks.size() - suffix;
+
+    final List<int[]> matches = findMatches(oldBlocks, prefix, oldEnd, newBlocks, prefix, newEnd);
+
+    final List<Edit> result = new ArrayList<>();
+    int oldPosition = prefix;
+    int newPosition = prefix;
+    for (final int[] match : matches) {
+      addEdit(result, oldBlocks, oldPosition, match[0], newBlocks, newPosition, match[1]);
+      oldPosition = match[0] + 1;
+      newPosition = match[1] + 1;
+    }
+    addEdit(result, oldBlocks, oldPosition, oldEnd, newBlocks, newPosition, newEnd);
+    return result;
+  }
+
+  /**
+   * Apply edits to text.
+   *
+   * @param text  text to be changed, must not be null
+   * @param edits edits made by {@link #diff(String, String)} for the text
+   * @return changed text
+   */
+  public static String apply(final String text, final List<Edit> edits) {
+    final StringBuilder result = new StringBuilder(text);
+    for (int i = edits.size() - 1; i >= 0; i--) {
+      final Edit edit = edits.get(i);
+      result.replace(edit.start, edit.end, edit.text);
+    }
+    return result.toString();
+  }
+
+  private static void addEdit(final List<Edit> edits,
+                              final Blocks oldBlocks, final int oldFrom, final int oldTo,
+                              final Blocks newBlocks, final int newFrom, final int newTo) {
+    if (oldFrom == oldTo && newFrom == newTo) {
+      return;
+    }
+    int oldStart = oldBlocks.start(oldFrom);
+    int oldEnd = oldBlocks.start(oldTo);
+    int newStart = newBlocks.start(newFrom);
+    int newEnd = newBlocks.start(newTo);
+
+    final String oldText = oldBlocks.text;
+    final String newText = newBlocks.text;
+
+    while (oldStart < oldEnd && newStart < newEnd
+        && oldText.charAt(oldStart) == newText.charAt(newStart)) {
+      oldStart++;
+      newStart++;
+    }
+    while (oldEnd > oldStart && newEnd > newStart
+        && oldText.charAt(oldEnd - 1) == newText.charAt(newEnd - 1)) {
+      oldEnd--;
+      newEnd--;
+    }
+    while (isInsideSurrogatePair(oldText, oldStart) || isInsideSurrogatePair(newText, newStart)) {
+      oldStart--;
+      newStart--;
+    }
+    while (isInsideSurrogatePair(oldText, oldEnd) || isInsideSurrogatePair(newText, newEnd)) {
+      oldEnd++;
+      newEnd++;
+    }
+
+    edits.add(new Edit(oldStart, oldEnd, newText.substring(newStart, newEnd)));
+  }
+
+  private static boolean isInsideSurrogatePair(final String text, final int index) {
+    return index > 0 && index < text.length()
+        && Character.isHighSurrogate(text.charAt(index - 1))
+        && Character.isLowSurrogate(text.charAt(index));
+  }
+
+  /**
+   * Find pairs of equal blocks by Myers algorithm. If number of differences is too big then no
+   * matches returned and whole area will be replaced.
+   */
+  private static List<int[]> findMatches(final Blocks a, final int aFrom, final int aTo,
+                                         final Blocks b, final int bFrom, final int bTo) {
+    final int n = aTo - aFrom;
+    final int m = bTo - bFrom;
+    final List<int[]> result = new ArrayList<>();
+    if (n == 0 || m == 0) {
+      return result;
+    }
+
+    final int limit = Math.min(n + m, MAX_EDIT_DISTANCE);
+    final int offset = limit + 1;
+    final int[] v = new int[2 * limit + 3];
+    final List<int[]> trace = new ArrayList<>();
+
+    for (int d = 0; d <= limit; d++) {
+      trace.add(v.clone());
+      for (int k = -d; k <= d; k += 2) {
+        int x;
+        if (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])) {
+          x = v[offset + k + 1];
+        } else {
+          x = v[offset + k - 1] + 1;
+        }
+        int y = x - k;
+        while (x < n && y < m && a.isEqual(aFrom + x, b, bFrom + y)) {
+          x++;
+          y++;
+        }
+        v[offset + k] = x;
+        if (x >= n && y >= m) {
+          backtrack(trace, d, offset, n, m, aFrom, bFrom, result);
+          Collections.reverse(result);
+          return result;
+        }
+      }
+    }
+    return result;
+  }
+
+  private static void backtrack(final List<int[]> trace, final int distance, final int offset,
+                                final int n, final int m, final int aFrom, final int bFrom,
+                                final List<int[]> result) {
+    int x = n;
+    int y = m;
+    for (int d = distance; d > 0; d--) {
+      final int[] v = trace.get(d);
+      final int k = x - y;
+      final int prevK;
+      if (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])) {
+        prevK = k + 1;
+      } else {
+        prevK = k - 1;
+      }
+      final int prevX = v[offset + prevK];
+      final int prevY = prevX - prevK;
+      final int startX = prevK == k + 1 ? prevX : prevX + 1;
+      while (x > startX && y > startX - k) {
+        x--;
+        y--;
+        result.add(new int[] {aFrom + x, bFrom + y});
+      }
+      x = prevX;
+      y = prevY;
+    }
+    while (x > 0 && y > 0) {
+      x--;
+      y--;
+      result.add(new int[] {aFrom + x, bFrom + y});
+    }
+  }
+
+  /**
+   * Text change.
+   */
+  public static final class Edit {
+
+    private final int start;
+    private final int end;
+    private final String text;
+
+    private Edit(final int start, final int end, final String text) {
+      this.start = start;
+      this.end = end;
+      this.text = text;
+    }
+
+    /**
+     * Get start offset of replaced area in old text.
+     *
+     * @return start offset, inclusive
+     */
+    public int getStart() {
+      return this.start;
+    }
+
+    /**
+     * Get end offset of replaced area in old text.
+     *
+     * @return end offset, exclusive
+     */
+    public int getEnd() {
+      return this.end;
+    }
+
+    /**
+     * Get text to be placed instead of replaced area.
+     *
+     * @return replacement text, can be empty for deletion
+     */
+    public String getText() {
+      return this.text;
+    }
+
+    @Override
+    public boolean equals(final Object that) {
+      if (this == that) {
+        return true;
+      }
+      if (that instanceof Edit) {
+        final Edit thatEdit = (Edit) that;
+        return this.start == thatEdit.start && this.end == thatEdit.end
+            && this.text.equals(thatEdit.text);
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(this.start, this.end, this.text);
+    }
+
+    @Override
+    public String toString() {
+      return "Edit(" + this.start + ',' + this.end + ",'" + this.text + "')";
+    }
+  }
+
+  private static final class Blocks {
+
+    private final String text;
+    private final int[] starts;
+    private final int[] hashes;
+
+    private Blocks(final String text) {
+      this.text = text;
+
+      final List<Integer> found = new ArrayList<>();
+      found.add(0);
+      for (int i = 1; i < text.length(); i++) {
+        if (text.charAt(i) == '#' && text.charAt(i - 1) == '\n') {
+          found.add(i);
+        }
+      }
+
+      this.starts = new int[found.size() + 1];
+      for (int i = 0; i < found.size(); i++) {
+        this.starts[i] = found.get(i);
+      }
+      this.starts[found.size()] = text.length();
+
+      this.hashes = new int[found.size()];
+      for (int i = 0; i < this.hashes.length; i++) {
+        int hash = 0;
+        for (int p = this.starts[i]; p < this.starts[i + 1]; p++) {
+          hash = 31 * hash + text.charAt(p);
+        }
+        this.hashes[i] = hash;
+      }
+    }
+
+    private int size() {
+      return this.hashes.length;
+    }
+
+    private int start(final int block) {
+      return this.starts[block];
+    }
+
+    private int length(final int block) {
+      return this.starts[block + 1] - this.starts[block];
+    }
+
+    private boolean isEqual(final int block, final Blocks that, final int thatBlock) {
+      return this.hashes[block] == that.hashes[thatBlock]
+          && this.length(block) == that.length(thatBlock)
+          && this.text.regionMatches(this.starts[block], that.text, that.starts[thatBlock],
+          this.length(block));
+    }
+  }
+}
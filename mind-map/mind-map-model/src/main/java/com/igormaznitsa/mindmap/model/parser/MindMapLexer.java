@@ -20,6 +20,19 @@ import static java.util.Objects.requireNonNull;
 
 /**
  * Allows to extract lexeme from mind map file.
+ * <p>
+ * Lexer doesn't keep any state between tokens except the token type expected at the current
+ * position, so lexing can be restarted from start of any token: call
+ * {@link #start(CharSequence, int, int, TokenType)} with the token start offset and the state
+ * returned by {@link #getTokenStartState()} for the token and the same tokens will be produced
+ * as during lexing from the document start. Main part of document after header is lexed in
+ * {@link TokenType#WHITESPACE} state, tokens started in the state are the most frequent restart
+ * points for IDE highlighters.
+ * </p>
+ * <p>
+ * End of code snippet body is detected by look-ahead to the closing line, so after document
+ * change lexing should be restarted not from the changed token but from the token before it.
+ * </p>
  */
 public final class MindMapLexer {
 
@@ -29,6 +42,7 @@ public final class MindMapLexer {
   private int tokenStart;
   private int tokenEnd;
   private TokenType tokenType = TokenType.UNKNOWN_LINE;
+  private TokenType tokenStartState = TokenType.UNKNOWN_LINE;
 
   /**
    * Returns start offset of token
@@ -64,6 +78,9 @@ public final class MindMapLexer {
   ) {
     this.buffer = buffer;
     this.tokenType = initialState;
+    this.tokenStartState = initialState;
+    this.tokenStart = startOffset;
+    this.tokenEnd = startOffset;
     this.position.offset = startOffset;
     this.position.tokenCompleted = true;
     this.position.state = this.tokenType;
@@ -106,6 +123,17 @@ public final class MindMapLexer {
     return this.tokenStart == this.tokenEnd ? null : this.tokenType;
   }
 
+  /**
+   * Get lexer state at start of the current token. Lexing restarted from the token start offset
+   * with the state produces the same tokens.
+   *
+   * @return state to restart lexing from start of the current token, must not be null
+   * @since 1.6.10
+   */
+  public TokenType getTokenStartState() {
+    return this.tokenStartState;
+  }
+
   /**
    * Generate token position.
    *
@@ -127,7 +155,10 @@ public final class MindMapLexer {
    */
   public void advance() {
     boolean tokenHasBeenCompleted = this.position.isTokenCompleted();
-    this.tokenStart = tokenHasBeenCompleted ? this.position.offset : this.tokenStart;
+    if (tokenHasBeenCompleted) {
+      this.tokenStart = this.position.offset;
+      this.tokenStartState = this.position.state;
+    }
     boolean inAction = true;
 
     while (inAction && !isBufferEnd()) {
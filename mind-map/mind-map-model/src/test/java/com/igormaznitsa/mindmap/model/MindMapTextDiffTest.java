@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mindmap.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class MindMapTextDiffTest {
+
+  private static MindMap makeMap(final int topics) {
+    final MindMap map = new MindMap(true);
+    map.getRoot().setText("Root");
+    for (int i = 0; i < topics; i++) {
+      final Topic child = new Topic(map, map.getRoot(), "Topic" + i);
+      child.setExtra(new ExtraNote("Note for topic " + i));
+      new Topic(map, child, "Leaf" + i);
+    }
+    return map;
+  }
+
+  private static void assertDiff(final String oldText, final String newText) {
+    final List<MindMapTextDiff.Edit> edits = MindMapTextDiff.diff(oldText, newText);
+    assertEquals(newText, MindMapTextDiff.apply(oldText, edits));
+    int last = -1;
+    for (final MindMapTextDiff.Edit e : edits) {
+      assertTrue(e.getStart() > last || (e.getStart() == last && e.getStart() == 0));
+      assertTrue(e.getEnd() >= e.getStart());
+      last = e.getEnd();
+    }
+  }
+
+  @Test
+  public void testEqualTexts() {
+    final String text = makeMap(10).asString();
+    assertTrue(MindMapTextDiff.diff(text, text).isEmpty());
+  }
+
+  @Test
+  public void testChangedTopicText() {
+    final MindMap map = makeMap(100);
+    final String oldText = map.asString();
+    map.getRoot().getChildren().get(50).setText("Changed");
+    final String newText = map.asString();
+
+    final List<MindMapTextDiff.Edit> edits = MindMapTextDiff.diff(oldText, newText);
+    assertEquals(1, edits.size());
+    assertEquals("Changed", edits.get(0).getText());
+    assertEquals("Topic50", oldText.substring(edits.get(0).getStart(), edits.get(0).getEnd()));
+    assertEquals(newText, MindMapTextDiff.apply(oldText, edits));
+  }
+
+  @Test
+  public void testSeveralChangesInDifferentTopics() {
+    final MindMap map = makeMap(100);
+    final String oldText = map.asString();
+    map.getRoot().getChildren().get(10).setText("First");
+    map.removeTopic(map.getRoot().getChildren().get(40));
+    new Topic(map, map.getRoot().getChildren().get(80), "Added");
+    final String newText = map.asString();
+
+    final List<MindMapTextDiff.Edit> edits = MindMapTextDiff.diff(oldText, newText);
+    assertEquals(3, edits.size());
+    assertEquals(newText, MindMapTextDiff.apply(oldText, edits));
+    final int changed = edits.stream().mapToInt(e -> e.getEnd() - e.getStart() + e.getText().length()).sum();
+    assertTrue(changed < 200);
+  }
+
+  @Test
+  public void testRandomChanges() {
+    final Random rnd = new Random(12345L);
+    for (int i = 0; i < 200; i++) {
+      final MindMap map = makeMap(1 + rnd.nextInt(30));
+      final String oldText = map.asString();
+      final List<Topic> children = map.getRoot().getChildren();
+      for (int c = rnd.nextInt(5); c >= 0; c--) {
+        final Topic topic = children.get(rnd.nextInt(children.size()));
+        switch (rnd.nextInt(4)) {
+          case 0:
+            topic.setText("Changed" + rnd.nextInt(3));
+            break;
+          case 1:
+            new Topic(map, topic, "New" + rnd.nextInt(3));
+            break;
+          case 2:
+            topic.removeExtra(Extra.ExtraType.NOTE);
+            break;
+          default:
+            if (children.size() > 1) {
+              map.removeTopic(topic);
+            }
+            break;
+        }
+      }
+      assertDiff(oldText, map.asString());
+    }
+  }
+
+  @Test
+  public void testNotMindMapTexts() {
+    assertDiff("", "abc");
+    assertDiff("abc", "");
+    assertDiff("#a\n#b\n#c", "#c\n#b\n#a");
+    assertDiff("😀\n#😁", "😀\n#😂");
+  }
+}
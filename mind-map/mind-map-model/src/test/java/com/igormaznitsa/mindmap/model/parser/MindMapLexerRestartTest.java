@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mindmap.model.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.igormaznitsa.mindmap.model.ExtraLink;
+import com.igormaznitsa.mindmap.model.ExtraNote;
+import com.igormaznitsa.mindmap.model.MMapURI;
+import com.igormaznitsa.mindmap.model.MindMap;
+import com.igormaznitsa.mindmap.model.Topic;
+import com.igormaznitsa.mindmap.model.parser.MindMapLexer.TokenType;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+/**
+ * Checks that lexing restarted from start of any token produces the same tokens as lexing of
+ * whole document, it is the contract used by IDE for incremental highlighting.
+ */
+public class MindMapLexerRestartTest {
+
+  private static List<Token> lex(final String text, final int startOffset, final TokenType state) {
+    final MindMapLexer lexer = new MindMapLexer();
+    lexer.start(text, startOffset, text.length(), state);
+    final List<Token> result = new ArrayList<>();
+    while (true) {
+      final int offset = lexer.getCurrentPosition().getOffset();
+      lexer.advance();
+      if (lexer.getTokenType() == null || offset == lexer.getCurrentPosition().getOffset()) {
+        break;
+      }
+      result.add(new Token(lexer.getTokenStartOffset(), lexer.getTokenEndOffset(),
+          lexer.getTokenType(), lexer.getTokenStartState()));
+    }
+    return result;
+  }
+
+  private static String makeMapText() throws Exception {
+    final MindMap map = new MindMap(true);
+    map.getRoot().setText("Root\nmultiline");
+    for (int i = 0; i < 8; i++) {
+      final Topic child = new Topic(map, map.getRoot(), "Topic " + i);
+      child.putAttribute("fillColor", "#FF00" + i + '0');
+      if (i % 2 == 0) {
+        child.setExtra(new ExtraNote("Note\n# not a topic\n```\n<pre>" + i));
+      }
+      if (i % 3 == 0) {
+        child.setExtra(new ExtraLink(new MMapURI("http://igormaznitsa.com/" + i)));
+      }
+      if (i % 4 == 0) {
+        child.putCodeSnippet("sh", "# comment\necho ```" + i + "\n");
+        child.putCodeSnippet("java", "");
+      }
+      new Topic(map, child, "Leaf " + i);
+    }
+    return map.asString()
+        + "\nsome unknown line\n- \n> \n<pre>not closed\n```java\nnot closed snippet\n";
+  }
+
+  private static void assertRestartFromAnyToken(final String text) {
+    final List<Token> full = lex(text, 0, TokenType.HEAD_LINE);
+    assertTrue(full.size() > 10);
+
+    int expectedStart = 0;
+    for (final Token t : full) {
+      assertEquals(expectedStart, t.start);
+      expectedStart = t.end;
+    }
+
+    for (int i = 0; i < full.size(); i++) {
+      final Token token = full.get(i);
+      assertEquals("Restart from token " + i + " " + token,
+          full.subList(i, full.size()), lex(text, token.start, token.startState));
+    }
+  }
+
+  @Test
+  public void testRestartFromAnyTokenOfGeneratedMap() throws Exception {
+    assertRestartFromAnyToken(makeMapText());
+  }
+
+  @Test
+  public void testRestartFromAnyTokenOfRealMap() throws Exception {
+    assertRestartFromAnyToken(IOUtils.toString(
+        MindMapLexerRestartTest.class.getResourceAsStream("cancer_risk.mmd"),
+        StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testIncrementalRelexingAfterEdits() throws Exception {
+    final String[] insertions = {"x", "\n", "#", "\n# ", "```", "\n```\n", "<pre>", "</pre>", "> ",
+        "- NOTE\n", "---\n", " "};
+    final Random rnd = new Random(7L);
+    String text = makeMapText();
+    List<Token> tokens = lex(text, 0, TokenType.HEAD_LINE);
+
+    for (int i = 0; i < 500; i++) {
+      final int editStart = rnd.nextInt(text.length() + 1);
+      final int removed = rnd.nextBoolean() ? 0 : Math.min(rnd.nextInt(8), text.length() - editStart);
+      final String inserted = insertions[rnd.nextInt(insertions.length)];
+      final String newText =
+          text.substring(0, editStart) + inserted + text.substring(editStart + removed);
+      final int delta = inserted.length() - removed;
+
+      int changedIndex = 0;
+      while (changedIndex < tokens.size() - 1 && tokens.get(changedIndex).end <= editStart) {
+        changedIndex++;
+      }
+      int restartIndex = Math.max(0, changedIndex - 1);
+      while (restartIndex > 0 && tokens.get(restartIndex).startState != TokenType.WHITESPACE) {
+        restartIndex--;
+      }
+      final Token restart = tokens.isEmpty() ? new Token(0, 0, null, TokenType.HEAD_LINE)
+          : tokens.get(restartIndex);
+
+      final List<Token> patched = new ArrayList<>(tokens.subList(0, restartIndex));
+      final MindMapLexer lexer = new MindMapLexer();
+      lexer.start(newText, restart.start, newText.length(), restart.startState);
+      int oldIndex = restartIndex;
+      boolean synced = false;
+      while (!synced) {
+        final int offset = lexer.getCurrentPosition().getOffset();
+        lexer.advance();
+        if (lexer.getTokenType() == null || offset == lexer.getCurrentPosition().getOffset()) {
+          break;
+        }
+        final int tokenStart = lexer.getTokenStartOffset();
+        while (oldIndex < tokens.size() && tokens.get(oldIndex).start + delta < tokenStart) {
+          oldIndex++;
+        }
+        if (tokenStart >= editStart + inserted.length()
+            && oldIndex < tokens.size()
+            && tokens.get(oldIndex).start + delta == tokenStart
+            && tokens.get(oldIndex).startState == lexer.getTokenStartState()) {
+          for (final Token old : tokens.subList(oldIndex, tokens.size())) {
+            patched.add(old.shift(delta));
+          }
+          synced = true;
+        } else {
+          patched.add(new Token(tokenStart, lexer.getTokenEndOffset(), lexer.getTokenType(),
+              lexer.getTokenStartState()));
+        }
+      }
+
+      final List<Token> full = lex(newText, 0, TokenType.HEAD_LINE);
+      assertEquals("Edit " + i + " at " + editStart, full, patched);
+
+      text = newText;
+      tokens = full;
+    }
+  }
+
+  private static final class Token {
+
+    private final int start;
+    private final int end;
+    private final TokenType type;
+    private final TokenType startState;
+
+    private Token(final int start, final int end, final TokenType type, final TokenType startState) {
+      this.start = start;
+      this.end = end;
+      this.type = type;
+      this.startState = startState;
+    }
+
+    private Token shift(final int delta) {
+      return new Token(this.start + delta, this.end + delta, this.type, this.startState);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (obj instanceof Token) {
+        final Token that = (Token) obj;
+        return this.start == that.start && this.end == that.end && this.type == that.type
+            && this.startState == that.startState;
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(this.start, this.end, this.type, this.startState);
+    }
+
+    @Override
+    public String toString() {
+      return this.type + "[" + this.start + ',' + this.end + ")@" + this.startState;
+    }
+  }
+}
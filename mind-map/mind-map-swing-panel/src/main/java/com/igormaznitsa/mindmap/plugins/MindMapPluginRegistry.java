@@ -58,76 +58,81 @@ import com.igormaznitsa.mindmap.plugins.tools.CollapseAllPlugin;
 import com.igormaznitsa.mindmap.plugins.tools.QuickNotePlugin;
 import com.igormaznitsa.mindmap.plugins.tools.ShowJumpsPlugin;
 import com.igormaznitsa.mindmap.plugins.tools.UnfoldAllPlugin;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 
+/**
+ * Registry of mind map plugins. Registered plugins are kept in immutable snapshot indexed by
+ * every class and interface implemented by plugins, the snapshot is replaced on any change of the
+ * registry, so that search of plugins doesn't need locking and doesn't make new objects.
+ */
 public final class MindMapPluginRegistry implements Iterable<MindMapPlugin> {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(MindMapPluginRegistry.class);
   private static final MindMapPluginRegistry INSTANCE = new MindMapPluginRegistry();
-  private final List<MindMapPlugin> pluginList = new ArrayList<>();
-  private final Map<Class<? extends MindMapPlugin>, List<? extends MindMapPlugin>> FIND_CACHE =
-          new HashMap<>();
+  private final Object lock = new Object();
+  private volatile Snapshot snapshot = new Snapshot(Collections.emptyList());
 
   private MindMapPluginRegistry() {
-    this.registerPlugin(new FreeMindExporter());
-    this.registerPlugin(new MDExporter());
-    this.registerPlugin(new ASCIIDocExporter());
-    this.registerPlugin(new MindmupExporter());
-    this.registerPlugin(new PNGImageExporter());
-    this.registerPlugin(new ORGMODEExporter());
-    this.registerPlugin(new TextExporter());
-    this.registerPlugin(new SVGImageExporter());
-    this.registerPlugin(new PUMLExporter());
-
-    this.registerPlugin(new ExtraFilePlugin());
-    this.registerPlugin(new ExtraNotePlugin());
-    this.registerPlugin(new ExtraJumpPlugin());
-    this.registerPlugin(new ExtraURIPlugin());
-
-    this.registerPlugin(new EditTextPlugin());
-    this.registerPlugin(new AddChildPlugin());
-    this.registerPlugin(new CloneTopicPlugin());
-    this.registerPlugin(new RemoveTopicPlugin());
-
-    this.registerPlugin(new OptionsPlugin());
-
-    this.registerPlugin(new ShowJumpsPlugin());
-    this.registerPlugin(new QuickNotePlugin());
-    this.registerPlugin(new CollapseAllPlugin());
-    this.registerPlugin(new UnfoldAllPlugin());
-    this.registerPlugin(new ChangeColorPlugin());
-    this.registerPlugin(new TextAlignMenuPlugin());
-
-    this.registerPlugin(new Text2MindMapImporter());
-    this.registerPlugin(new Mindmup2MindMapImporter());
-    this.registerPlugin(new Freemind2MindMapImporter());
-    this.registerPlugin(new XMind2MindMapImporter());
-    this.registerPlugin(new CoggleMM2MindMapImporter());
-    this.registerPlugin(new Novamind2MindMapImporter());
-
-    this.registerPlugin(new EmoticonPopUpMenuPlugin());
-    this.registerPlugin(new EmoticonVisualAttributePlugin());
-
-    this.registerPlugin(new ImagePopUpMenuPlugin());
-    this.registerPlugin(new ImageVisualAttributePlugin());
+    final List<MindMapPlugin> plugins = new ArrayList<>();
+    plugins.add(new FreeMindExporter());
+    plugins.add(new MDExporter());
+    plugins.add(new ASCIIDocExporter());
+    plugins.add(new MindmupExporter());
+    plugins.add(new PNGImageExporter());
+    plugins.add(new ORGMODEExporter());
+    plugins.add(new TextExporter());
+    plugins.add(new SVGImageExporter());
+    plugins.add(new PUMLExporter());
+
+    plugins.add(new ExtraFilePlugin());
+    plugins.add(new ExtraNotePlugin());
+    plugins.add(new ExtraJumpPlugin());
+    plugins.add(new ExtraURIPlugin());
+
+    plugins.add(new EditTextPlugin());
+    plugins.add(new AddChildPlugin());
+    plugins.add(new CloneTopicPlugin());
+    plugins.add(new RemoveTopicPlugin());
+
+    plugins.add(new OptionsPlugin());
+
+    plugins.add(new ShowJumpsPlugin());
+    plugins.add(new QuickNotePlugin());
+    plugins.add(new CollapseAllPlugin());
+    plugins.add(new UnfoldAllPlugin());
+    plugins.add(new ChangeColorPlugin());
+    plugins.add(new TextAlignMenuPlugin());
+
+    plugins.add(new Text2MindMapImporter());
+    plugins.add(new Mindmup2MindMapImporter());
+    plugins.add(new Freemind2MindMapImporter());
+    plugins.add(new XMind2MindMapImporter());
+    plugins.add(new CoggleMM2MindMapImporter());
+    plugins.add(new Novamind2MindMapImporter());
+
+    plugins.add(new EmoticonPopUpMenuPlugin());
+    plugins.add(new EmoticonVisualAttributePlugin());
+
+    plugins.add(new ImagePopUpMenuPlugin());
+    plugins.add(new ImageVisualAttributePlugin());
+
+    this.registerPlugins(plugins);
   }
 
   public Set<TopicFinder> findAllTopicFinders() {
-    final Set<TopicFinder> result = new HashSet<>();
-    for (final MindMapPlugin p : this.pluginList) {
-      if (p instanceof TopicFinder) {
-        result.add((TopicFinder) p);
-      }
-    }
-
-    return result;
+    return this.snapshot.topicFinders;
   }
 
   public static MindMapPluginRegistry getInstance() {
@@ -135,106 +140,143 @@ public final class MindMapPluginRegistry implements Iterable<MindMapPlugin> {
   }
 
   public void registerPlugin(final MindMapPlugin plugin) {
-    synchronized (FIND_CACHE) {
-      this.pluginList.add(requireNonNull(plugin));
-      LOGGER.info("Registered plugin " + plugin.getClass().getName());
-      Collections.sort(this.pluginList);
-      FIND_CACHE.clear();
+    this.registerPlugins(Collections.singletonList(requireNonNull(plugin)));
+  }
+
+  private void registerPlugins(final Collection<? extends MindMapPlugin> plugins) {
+    synchronized (this.lock) {
+      final List<MindMapPlugin> newList = new ArrayList<>(this.snapshot.plugins);
+      for (final MindMapPlugin plugin : plugins) {
+        newList.add(requireNonNull(plugin));
+        LOGGER.info("Registered plugin " + plugin.getClass().getName());
+      }
+      this.snapshot = new Snapshot(newList);
     }
   }
 
-  public void unregisterPluginForClass(final Class<? extends MindMapPlugin> pluginClass) {
-    synchronized (FIND_CACHE) {
-      final Iterator<MindMapPlugin> iterator = this.pluginList.iterator();
+  private void removePlugins(final Predicate<MindMapPlugin> filter, final String reason) {
+    synchronized (this.lock) {
+      final List<MindMapPlugin> newList = new ArrayList<>(this.snapshot.plugins);
+      final Iterator<MindMapPlugin> iterator = newList.iterator();
+      boolean removed = false;
       while (iterator.hasNext()) {
         final MindMapPlugin plugin = iterator.next();
-        if (pluginClass.isAssignableFrom(plugin.getClass())) {
-          LOGGER.info("Unregistered plugin " + plugin.getClass().getName() + " for class " +
-              pluginClass.getName());
+        if (filter.test(plugin)) {
+          LOGGER.info("Unregistered plugin " + plugin.getClass().getName() + reason);
           iterator.remove();
+          removed = true;
         }
       }
+      if (removed) {
+        this.snapshot = new Snapshot(newList);
+      }
     }
   }
 
+  public void unregisterPluginForClass(final Class<? extends MindMapPlugin> pluginClass) {
+    this.removePlugins(plugin -> pluginClass.isAssignableFrom(plugin.getClass()),
+        " for class " + pluginClass.getName());
+  }
+
   public void unregisterPlugin(final MindMapPlugin plugin) {
-    synchronized (FIND_CACHE) {
-      if (this.pluginList.remove(requireNonNull(plugin))) {
-        LOGGER.info("Unregistered plugin " + plugin.getClass().getName());
-        Collections.sort(this.pluginList);
-      }
-      FIND_CACHE.clear();
-    }
+    requireNonNull(plugin);
+    // plugins can be equal by their order so that only the same instance is removed
+    this.removePlugins(x -> x == plugin, "");
   }
 
   public int size() {
-    synchronized (FIND_CACHE) {
-      return this.pluginList.size();
-    }
+    return this.snapshot.plugins.size();
   }
 
   public void clear() {
-    synchronized (FIND_CACHE) {
-      this.pluginList.clear();
-      FIND_CACHE.clear();
+    synchronized (this.lock) {
+      this.snapshot = new Snapshot(Collections.emptyList());
     }
   }
 
   public AbstractExporter findExporterForMnemonic(final String mnemonic) {
-    AbstractExporter result = null;
-    synchronized (FIND_CACHE) {
-      for (final MindMapPlugin p : this.pluginList) {
-        if (p instanceof AbstractExporter) {
-          final AbstractExporter exporter = (AbstractExporter) p;
-          if (mnemonic.equals(exporter.getMnemonic())) {
-            result = exporter;
-            break;
-          }
-        }
-      }
-    }
-    return result;
+    return this.snapshot.exporters.get(mnemonic);
   }
 
   public AbstractImporter findImporterForMnemonic(final String mnemonic) {
-    AbstractImporter result = null;
-    synchronized (FIND_CACHE) {
-      for (final MindMapPlugin p : this.pluginList) {
-        if (p instanceof AbstractImporter) {
-          final AbstractImporter importer = (AbstractImporter) p;
-          if (mnemonic.equals(importer.getMnemonic())) {
-            result = importer;
-            break;
+    return this.snapshot.importers.get(mnemonic);
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T extends MindMapPlugin> List<T> findFor(final Class<T> klazz) {
+    final List<? extends MindMapPlugin> result = this.snapshot.pluginsForType.get(klazz);
+    return result == null ? Collections.emptyList() : (List<T>) result;
+  }
+
+  @Override
+  public Iterator<MindMapPlugin> iterator() {
+    return this.snapshot.plugins.iterator();
+  }
+
+  /**
+   * Immutable state of registry. Every list of plugins is sorted in the same order as the whole
+   * list of plugins.
+   */
+  private static final class Snapshot {
+
+    private final List<MindMapPlugin> plugins;
+    private final Map<Class<?>, List<MindMapPlugin>> pluginsForType;
+    private final Set<TopicFinder> topicFinders;
+    private final Map<String, AbstractExporter> exporters;
+    private final Map<String, AbstractImporter> importers;
+
+    private Snapshot(final List<MindMapPlugin> plugins) {
+      final List<MindMapPlugin> sorted = new ArrayList<>(plugins);
+      Collections.sort(sorted);
+      this.plugins = Collections.unmodifiableList(sorted);
+
+      final Map<Class<?>, List<MindMapPlugin>> byType = new HashMap<>();
+      final Set<TopicFinder> finders = new LinkedHashSet<>();
+      final Map<String, AbstractExporter> exportersForMnemonic = new HashMap<>();
+      final Map<String, AbstractImporter> importersForMnemonic = new HashMap<>();
+
+      for (final MindMapPlugin plugin : sorted) {
+        for (final Class<?> type : findAllTypes(plugin.getClass())) {
+          byType.computeIfAbsent(type, k -> new ArrayList<>()).add(plugin);
+        }
+        if (plugin instanceof TopicFinder) {
+          finders.add((TopicFinder) plugin);
+        }
+        if (plugin instanceof AbstractExporter) {
+          final String mnemonic = ((AbstractExporter) plugin).getMnemonic();
+          if (mnemonic != null) {
+            exportersForMnemonic.putIfAbsent(mnemonic, (AbstractExporter) plugin);
+          }
+        }
+        if (plugin instanceof AbstractImporter) {
+          final String mnemonic = ((AbstractImporter) plugin).getMnemonic();
+          if (mnemonic != null) {
+            importersForMnemonic.putIfAbsent(mnemonic, (AbstractImporter) plugin);
           }
         }
       }
+      byType.replaceAll((type, list) -> Collections.unmodifiableList(list));
+
+      this.pluginsForType = byType;
+      this.topicFinders = Collections.unmodifiableSet(finders);
+      this.exporters = exportersForMnemonic;
+      this.importers = importersForMnemonic;
     }
-    return result;
-  }
 
-  @SuppressWarnings("unchecked")
-  public <T extends MindMapPlugin> List<T> findFor(final Class<T> klazz) {
-    synchronized (FIND_CACHE) {
-      List<T> result = (List<T>) FIND_CACHE.get(klazz);
-
-      if (result == null) {
-        result = new ArrayList<>();
-        if (klazz != null) {
-          for (final MindMapPlugin p : this.pluginList) {
-            if (klazz.isInstance(p)) {
-              result.add(klazz.cast(p));
-            }
+    private static Set<Class<?>> findAllTypes(final Class<?> pluginClass) {
+      final Set<Class<?>> result = new HashSet<>();
+      final Deque<Class<?>> queue = new ArrayDeque<>();
+      queue.add(pluginClass);
+      while (!queue.isEmpty()) {
+        final Class<?> type = queue.poll();
+        if (type != Object.class && result.add(type)) {
+          if (type.getSuperclass() != null) {
+            queue.add(type.getSuperclass());
           }
+          Collections.addAll(queue, type.getInterfaces());
         }
-        result = Collections.unmodifiableList(result);
-        FIND_CACHE.put(klazz, result);
       }
       return result;
     }
   }
-
-  @Override
-  public Iterator<MindMapPlugin> iterator() {
-    return this.pluginList.iterator();
-  }
 }
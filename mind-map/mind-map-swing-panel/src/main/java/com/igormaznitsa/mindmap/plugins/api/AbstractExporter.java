@@ -36,7 +36,6 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.text.Format;
-import java.text.SimpleDateFormat;
 import java.util.Collections;
 import java.util.Set;
 import java.util.function.BiFunction;
@@ -44,6 +43,7 @@ import javax.swing.Icon;
 import javax.swing.JComponent;
 import javax.swing.JMenuItem;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.time.FastDateFormat;
 
 /**
  * Abstract auxiliary class automates way to implement an abstract exporter.
@@ -52,8 +52,8 @@ import org.apache.commons.io.FileUtils;
  */
 public abstract class AbstractExporter extends AbstractPopupMenuItem implements HasMnemonic {
 
-  protected static final Format DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd");
-  protected static final Format TIME_FORMAT = new SimpleDateFormat("HH:mm:ss z");
+  protected static final Format DATE_FORMAT = FastDateFormat.getInstance("yyyy-MM-dd");
+  protected static final Format TIME_FORMAT = FastDateFormat.getInstance("HH:mm:ss z");
   protected static final Logger LOGGER = LoggerFactory.getLogger(AbstractExporter.class);
   private static final ExtrasToStringConverter DEFAULT_STRING_CONVERTER =
       new ExtrasToStringConverter() {
@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mindmap.plugins.api;
+
+import com.igormaznitsa.mindmap.plugins.api.parameters.AbstractParameter;
+import com.igormaznitsa.mindmap.swing.panel.utils.MindMapUtils;
+import java.awt.Toolkit;
+import java.awt.datatransfer.Clipboard;
+import java.awt.datatransfer.StringSelection;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import javax.swing.SwingUtilities;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+
+/**
+ * Auxiliary class for exporters which generate UTF-8 text. Content is written into a streaming
+ * writer, independent parts of document (usually subtrees of the root topic) can be rendered in
+ * parallel through {@link #writeChunks(Writer, List, ChunkRenderer)} and stitched in their order.
+ *
+ * @since 1.6.10
+ */
+public abstract class AbstractTextExporter extends AbstractExporter {
+
+  private static final int WRITER_BUFFER_SIZE = 65536;
+  private static final int CHUNKS_IN_WORK_PER_THREAD = 2;
+
+  /**
+   * Render list of units into writer. Units are rendered by fork-join common pool and written in
+   * their order, number of rendered but not written chunks is limited so that the whole document
+   * is never kept in memory.
+   *
+   * @param out      target writer, must not be null
+   * @param units    units to be rendered, must not be null
+   * @param renderer renderer of units, must be thread safe and not change the model
+   * @param <T>      type of unit
+   * @throws IOException if any error during write
+   */
+  protected static <T> void writeChunks(final Writer out, final List<T> units,
+                                        final ChunkRenderer<T> renderer) throws IOException {
+    final ForkJoinPool pool = ForkJoinPool.commonPool();
+    if (units.size() < 2 || pool.getParallelism() < 2) {
+      for (int i = 0; i < units.size(); i++) {
+        out.write(renderer.render(units.get(i), i));
+      }
+      return;
+    }
+
+    final int maxChunksInWork = pool.getParallelism() * CHUNKS_IN_WORK_PER_THREAD;
+    final ArrayDeque<ForkJoinTask<String>> chunks = new ArrayDeque<>(maxChunksInWork);
+    try {
+      int nextUnit = 0;
+      while (nextUnit < units.size() && chunks.size() < maxChunksInWork) {
+        chunks.add(pool.submit(makeChunkTask(units, nextUnit++, renderer)));
+      }
+      while (!chunks.isEmpty()) {
+        final String chunk = chunks.poll().join();
+        if (nextUnit < units.size()) {
+          chunks.add(pool.submit(makeChunkTask(units, nextUnit++, renderer)));
+        }
+        out.write(chunk);
+      }
+    } finally {
+      chunks.forEach(x -> x.cancel(false));
+    }
+  }
+
+  private static <T> ForkJoinTask<String> makeChunkTask(final List<T> units, final int index,
+                                                        final ChunkRenderer<T> renderer) {
+    final T unit = units.get(index);
+    return ForkJoinTask.adapt(() -> renderer.render(unit, index));
+  }
+
+  /**
+   * Write exported content into writer.
+   *
+   * @param context         plugin context, must not be null
+   * @param options         export options, must not be null
+   * @param out             target writer, must not be null
+   * @param stringConverter converter of extras, must not be null
+   * @throws IOException if any IO error
+   */
+  protected abstract void writeContent(PluginContext context,
+                                       Set<AbstractParameter<?>> options,
+                                       Writer out,
+                                       ExtrasToStringConverter stringConverter)
+      throws IOException;
+
+  /**
+   * Get extension of exported file.
+   *
+   * @return extension with leading dot, like ".txt", must not be null
+   */
+  protected abstract String getFileExtension();
+
+  /**
+   * Get prefix of keys in resource bundle for save dialog texts.
+   *
+   * @return prefix of resource keys, must not be null
+   */
+  protected abstract String getResourceKeyPrefix();
+
+  @Override
+  public void doExportToClipboard(final PluginContext context,
+                                  final Set<AbstractParameter<?>> options,
+                                  final ExtrasToStringConverter stringConverter)
+      throws IOException {
+    final StringWriter buffer = new StringWriter(16384);
+    this.writeContent(context, options, buffer, stringConverter);
+    final String text = buffer.toString();
+    SwingUtilities.invokeLater(() -> {
+      final Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
+      if (clipboard != null) {
+        clipboard.setContents(new StringSelection(text), null);
+      }
+    });
+  }
+
+  @Override
+  public void doExport(final PluginContext context,
+                       final Set<AbstractParameter<?>> options,
+                       final OutputStream out,
+                       final ExtrasToStringConverter stringConverter) throws IOException {
+    File fileToSaveMap = null;
+    OutputStream theOut = out;
+    if (theOut == null) {
+      final String prefix = this.getResourceKeyPrefix();
+      fileToSaveMap = MindMapUtils.selectFileToSaveForFileFilter(
+          context.getPanel(),
+          context,
+          this.getClass().getName(),
+          this.getResourceBundle().getString(prefix + ".saveDialogTitle"),
+          null,
+          this.getFileExtension(),
+          this.getResourceBundle().getString(prefix + ".filterDescription"),
+          this.getResourceBundle().getString(prefix + ".approveButtonText"));
+      fileToSaveMap =
+          MindMapUtils.checkFileAndExtension(context.getPanel(), fileToSaveMap,
+              this.getFileExtension());
+      theOut = fileToSaveMap == null ? null : new FileOutputStream(fileToSaveMap, false);
+    }
+    if (theOut != null) {
+      try {
+        final Writer writer = new BufferedWriter(
+            new OutputStreamWriter(CloseShieldOutputStream.wrap(theOut), StandardCharsets.UTF_8),
+            WRITER_BUFFER_SIZE);
+        this.writeContent(context, options, writer, stringConverter);
+        writer.flush();
+      } finally {
+        if (fileToSaveMap != null) {
+          IOUtils.closeQuietly(theOut);
+        }
+      }
+    }
+  }
+
+  /**
+   * Renderer of a document chunk, called concurrently so it must not keep state between calls.
+   *
+   * @param <T> type of rendered unit
+   */
+  @FunctionalInterface
+  public interface ChunkRenderer<T> {
+    /**
+     * Render unit.
+     *
+     * @param unit  unit to be rendered, must not be null
+     * @param index index of the unit in the unit list
+     * @return rendered text, must not be null
+     */
+    String render(T unit, int index);
+  }
+}
@@ -25,11 +25,10 @@ import com.igormaznitsa.mindmap.plugins.api.RenderableImage;
 import com.igormaznitsa.mindmap.plugins.api.VisualAttributePlugin;
 import com.igormaznitsa.mindmap.swing.panel.MindMapPanelConfig;
 import com.igormaznitsa.mindmap.swing.panel.utils.MiscIcons;
+import com.igormaznitsa.mindmap.swing.panel.utils.ScaledImageCache;
 import com.igormaznitsa.mindmap.swing.panel.utils.Utils;
 import java.awt.Image;
 import java.io.File;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
 
@@ -37,7 +36,8 @@ public class EmoticonVisualAttributePlugin implements VisualAttributePlugin {
 
   static final String ATTR_KEY = "mmd.emoticon";
 
-  private final Map<String, ScaledImage> SCALED_IMAGE_CACHE = new HashMap<>();
+  private static final String CACHE_KIND = "emoticon";
+  private static final int ICON_SIZE = 32;
 
   @Override
   public Renderable getScaledImage(final MindMapPanelConfig config,
@@ -46,12 +46,12 @@ public class EmoticonVisualAttributePlugin implements VisualAttributePlugin {
     if (name == null) {
       return null;
     } else {
-      ScaledImage scaled = SCALED_IMAGE_CACHE.get(name);
-      if (scaled == null) {
-        scaled = new ScaledImage(name, config.getScale());
-        SCALED_IMAGE_CACHE.put(name, scaled);
-      }
-      return scaled.getImage(config.getScale());
+      final Image scaled = ScaledImageCache.getInstance()
+          .getImage(CACHE_KIND, name, config.getScale(), () -> MiscIcons.findForName(name),
+              (base, scale) -> Utils.scaleImage(base,
+                  (double) ICON_SIZE / (double) base.getWidth(null),
+                  (double) ICON_SIZE / (double) base.getHeight(null), scale));
+      return scaled == null ? null : new RenderableImage(scaled);
     }
   }
 
@@ -102,46 +102,4 @@ public class EmoticonVisualAttributePlugin implements VisualAttributePlugin {
     return Integer.compare(this.getOrder(), o.getOrder());
   }
 
-  private static final class ScaledImage {
-
-    private static final int ICON_SIZE = 32;
-
-    private final double BASE_SCALE_X;
-    private final double BASE_SCALE_Y;
-    private final Image baseImage;
-    private double scale = -1.0d;
-    private Renderable scaledImage;
-
-    public ScaledImage(final String imageName, final double scale) {
-      this.baseImage = MiscIcons.findForName(imageName);
-      if (this.baseImage != null) {
-        this.BASE_SCALE_X = (double) ICON_SIZE / (double) this.baseImage.getWidth(null);
-        this.BASE_SCALE_Y = (double) ICON_SIZE / (double) this.baseImage.getHeight(null);
-      } else {
-        this.BASE_SCALE_X = 1.0d;
-        this.BASE_SCALE_Y = 1.0d;
-      }
-      getImage(scale);
-    }
-
-    public Renderable getImage(final double scale) {
-      final Renderable result;
-      if (this.baseImage == null || Double.compare(this.scale, scale) == 0) {
-        result = this.scaledImage;
-      } else {
-        this.scale = scale;
-        final Image scaled = Utils.scaleImage(this.baseImage, BASE_SCALE_X, BASE_SCALE_Y, scale);
-        if (scaled == null) {
-          result = null;
-          this.scaledImage = null;
-        } else {
-          this.scaledImage = new RenderableImage(scaled);
-          result = this.scaledImage;
-        }
-      }
-      return result;
-    }
-
-  }
-
 }
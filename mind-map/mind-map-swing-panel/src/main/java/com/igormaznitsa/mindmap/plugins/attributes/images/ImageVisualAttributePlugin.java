@@ -28,26 +28,28 @@ import com.igormaznitsa.mindmap.plugins.api.VisualAttributePlugin;
 import com.igormaznitsa.mindmap.swing.i18n.MmdI18n;
 import com.igormaznitsa.mindmap.swing.ide.IDEBridgeFactory;
 import com.igormaznitsa.mindmap.swing.panel.MindMapPanelConfig;
+import com.igormaznitsa.mindmap.swing.panel.utils.ScaledImageCache;
 import com.igormaznitsa.mindmap.swing.panel.utils.Utils;
+import java.awt.Dimension;
 import java.awt.Image;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.net.URISyntaxException;
-import java.util.Map;
+import java.util.Iterator;
 import java.util.ResourceBundle;
 import java.util.Set;
-import java.util.WeakHashMap;
 import java.util.regex.Pattern;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 
 public class ImageVisualAttributePlugin implements VisualAttributePlugin {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(ImageVisualAttributePlugin.class);
-  private static final Map<Topic, Renderable> CACHED_IMAGES = new WeakHashMap<>();
   private final ResourceBundle resourceBundle = MmdI18n.getInstance().findBundle();
 
   public static void clearCachedImages() {
-    CACHED_IMAGES.clear();
+    ScaledImageCache.getInstance().invalidate(ScalableRenderableImage.CACHE_KIND);
   }
 
   @Override
@@ -85,23 +87,45 @@ public class ImageVisualAttributePlugin implements VisualAttributePlugin {
   @Override
   public Renderable getScaledImage(final MindMapPanelConfig config,
                                    final Topic activeTopic) {
-    Renderable result = CACHED_IMAGES.get(activeTopic);
-    if (result == null) {
-      result = new ScalableRenderableImage(extractImage(activeTopic));
-      CACHED_IMAGES.put(activeTopic, result);
+    final String encoded = activeTopic.getAttribute(MMD_TOPIC_ATTRIBUTE_IMAGE_DATA);
+    if (encoded == null) {
+      return null;
     }
-    return result;
+    final String contentId = ScaledImageCache.makeContentId(encoded);
+    final Dimension size = ScaledImageCache.getInstance()
+        .findSize(ScalableRenderableImage.CACHE_KIND, contentId, () -> readImageSize(encoded));
+    if (size == null || size.width <= 0 || size.height <= 0) {
+      return null;
+    }
+    return new ScalableRenderableImage(contentId, size.width, size.height,
+        () -> extractImage(encoded));
   }
 
-  private Image extractImage(final Topic topic) {
-    Image result = null;
-    final String encoded = topic.getAttribute(MMD_TOPIC_ATTRIBUTE_IMAGE_DATA);
-    if (encoded != null) {
-      try {
-        result = ImageIO.read(new ByteArrayInputStream(Utils.base64decode(encoded)));
-      } catch (Exception ex) {
-        LOGGER.error("Can't extract image", ex);
+  private static Dimension readImageSize(final String encoded) {
+    try (final ImageInputStream in = ImageIO.createImageInputStream(
+        new ByteArrayInputStream(Utils.base64decode(encoded)))) {
+      final Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+      if (readers.hasNext()) {
+        final ImageReader reader = readers.next();
+        try {
+          reader.setInput(in, true, true);
+          return new Dimension(reader.getWidth(0), reader.getHeight(0));
+        } finally {
+          reader.dispose();
+        }
       }
+    } catch (Exception ex) {
+      LOGGER.error("Can't read image size", ex);
+    }
+    return null;
+  }
+
+  private static Image extractImage(final String encoded) {
+    Image result = null;
+    try {
+      result = ImageIO.read(new ByteArrayInputStream(Utils.base64decode(encoded)));
+    } catch (Exception ex) {
+      LOGGER.error("Can't extract image", ex);
     }
     return result;
   }
@@ -19,27 +19,51 @@ package com.igormaznitsa.mindmap.plugins.attributes.images;
 import com.igormaznitsa.mindmap.plugins.api.Renderable;
 import com.igormaznitsa.mindmap.swing.panel.MindMapPanelConfig;
 import com.igormaznitsa.mindmap.swing.panel.ui.gfx.MMGraphics;
+import com.igormaznitsa.mindmap.swing.panel.utils.ScaledImageCache;
 import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.RenderingHints;
 import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
-import java.lang.ref.SoftReference;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.function.Supplier;
 
 final class ScalableRenderableImage implements Renderable {
 
-  private final Image baseImage;
+  static final String CACHE_KIND = "topic-image";
+
+  private final String contentId;
+  private final Supplier<Image> decoder;
   private final int width;
   private final int height;
-  private final Map<Double, SoftReference<Image>> cache = new HashMap<>();
-  private double cachedScale = Double.MIN_VALUE;
 
-  public ScalableRenderableImage(final Image baseImage) {
-    this.baseImage = baseImage;
-    this.width = baseImage.getWidth(null);
-    this.height = baseImage.getHeight(null);
+  ScalableRenderableImage(final String contentId, final int width, final int height,
+                          final Supplier<Image> decoder) {
+    this.contentId = contentId;
+    this.decoder = decoder;
+    this.width = width;
+    this.height = height;
+  }
+
+  private static Image scale(final Image baseImage, final double scale) {
+    final int sw = (int) Math.round(baseImage.getWidth(null) * scale);
+    final int sh = (int) Math.round(baseImage.getHeight(null) * scale);
+
+    if (sw <= 0 || sh <= 0) {
+      return null;
+    }
+
+    final BufferedImage scaled = new BufferedImage(sw, sh, BufferedImage.TYPE_INT_ARGB);
+    final Graphics2D gfx = scaled.createGraphics();
+
+    gfx.setRenderingHint(RenderingHints.KEY_ALPHA_INTERPOLATION, RenderingHints.VALUE_ALPHA_INTERPOLATION_QUALITY);
+    gfx.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    gfx.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+    gfx.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+    gfx.setRenderingHint(RenderingHints.KEY_COLOR_RENDERING, RenderingHints.VALUE_COLOR_RENDER_QUALITY);
+
+    gfx.drawImage(baseImage, AffineTransform.getScaleInstance(scale, scale), null);
+    gfx.dispose();
+    return scaled;
   }
 
   @Override
@@ -52,42 +76,12 @@ final class ScalableRenderableImage implements Renderable {
     return (int) Math.round(this.height * scale);
   }
 
-  private Image getCached(final double scale) {
-    Image result;
-    synchronized (this.cache) {
-      final SoftReference<Image> cachedImage = this.cache.get(scale);
-      result = cachedImage == null ? null : cachedImage.get();
-      if (result == null || Double.compare(this.cachedScale, scale) != 0) {
-        final int sw = getWidth(scale);
-        final int sh = getHeight(scale);
-
-        if (sw != 0 && sh != 0) {
-          final BufferedImage scaled = new BufferedImage(sw, sh, BufferedImage.TYPE_INT_ARGB);
-          final Graphics2D gfx = scaled.createGraphics();
-
-          gfx.setRenderingHint(RenderingHints.KEY_ALPHA_INTERPOLATION, RenderingHints.VALUE_ALPHA_INTERPOLATION_QUALITY);
-          gfx.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-          gfx.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-          gfx.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
-          gfx.setRenderingHint(RenderingHints.KEY_COLOR_RENDERING, RenderingHints.VALUE_COLOR_RENDER_QUALITY);
-
-          gfx.drawImage(this.baseImage, AffineTransform.getScaleInstance(scale, scale), null);
-          gfx.dispose();
-          result = scaled;
-          this.cache.put(scale, new SoftReference<>(result));
-        } else {
-          result = null;
-        }
-        this.cachedScale = scale;
-      }
-    }
-    return result;
-  }
-
   @Override
   public void renderAt(final MMGraphics gfx, final MindMapPanelConfig config, final int x,
                        final int y) {
-    final Image image = getCached(config.getScale());
+    final Image image = ScaledImageCache.getInstance()
+        .findImage(CACHE_KIND, this.contentId, config.getScale(), this.decoder,
+            ScalableRenderableImage::scale);
     gfx.drawImage(image, x, y);
   }
 
@@ -26,29 +26,20 @@ import com.igormaznitsa.mindmap.model.ExtraTopic;
 import com.igormaznitsa.mindmap.model.MMapURI;
 import com.igormaznitsa.mindmap.model.ModelUtils;
 import com.igormaznitsa.mindmap.model.Topic;
-import com.igormaznitsa.mindmap.plugins.api.AbstractExporter;
+import com.igormaznitsa.mindmap.plugins.api.AbstractTextExporter;
 import com.igormaznitsa.mindmap.plugins.api.PluginContext;
 import com.igormaznitsa.mindmap.plugins.api.parameters.AbstractParameter;
 import com.igormaznitsa.mindmap.swing.ide.IDEBridgeFactory;
-import com.igormaznitsa.mindmap.swing.panel.utils.MindMapUtils;
 import com.igormaznitsa.mindmap.swing.services.IconID;
 import com.igormaznitsa.mindmap.swing.services.ImageIconServiceProvider;
-import java.awt.Toolkit;
-import java.awt.datatransfer.Clipboard;
-import java.awt.datatransfer.StringSelection;
-import java.io.BufferedOutputStream;
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
+import java.io.Writer;
 import java.util.Date;
 import java.util.Map;
 import java.util.Set;
 import javax.swing.Icon;
-import javax.swing.SwingUtilities;
-import org.apache.commons.io.IOUtils;
 
-public class ASCIIDocExporter extends AbstractExporter {
+public class ASCIIDocExporter extends AbstractTextExporter {
 
   private static final Icon ICO = ImageIconServiceProvider.findInstance().getIconForId(IconID.POPUP_EXPORT_ASCIIDOC);
 
@@ -107,6 +98,17 @@ public class ASCIIDocExporter extends AbstractExporter {
       final Topic topic,
       final State state,
       final ExtrasToStringConverter stringConverter) {
+    this.writeTopicContent(pluginContext, topic, state, stringConverter);
+    for (final Topic childTopic : topic.getChildren()) {
+      writeTopic(pluginContext, childTopic, state, stringConverter);
+    }
+  }
+
+  private void writeTopicContent(
+      final PluginContext pluginContext,
+      final Topic topic,
+      final State state,
+      final ExtrasToStringConverter stringConverter) {
     final int level = topic.getTopicLevel();
     final String uid = getTopicUid(topic);
 
@@ -159,14 +161,13 @@ public class ASCIIDocExporter extends AbstractExporter {
       state.appendConditionalNextLine();
       state.append("----").appendNextLine().appendNextLine();
     }
-
-    for (final Topic childTopic : topic.getChildren()) {
-      writeTopic(pluginContext, childTopic, state, stringConverter);
-    }
   }
 
-  private String makeContent(final PluginContext context,
-                             final ExtrasToStringConverter stringConverter) {
+  @Override
+  protected void writeContent(final PluginContext context,
+                              final Set<AbstractParameter<?>> options,
+                              final Writer out,
+                              final ExtrasToStringConverter stringConverter) throws IOException {
     final State state = new State();
     state.append("// Generated by ")
         .append(IDEBridgeFactory.findInstance().getIDEGeneratorId())
@@ -177,58 +178,27 @@ public class ASCIIDocExporter extends AbstractExporter {
 
     final Topic root = context.getModel().getRoot();
     if (root != null) {
-      this.writeTopic(context, root, state, stringConverter);
+      this.writeTopicContent(context, root, state, stringConverter);
+    }
+    out.write(state.toString());
+
+    if (root != null) {
+      writeChunks(out, root.getChildren(), (t, index) -> {
+        final State chunk = new State();
+        this.writeTopic(context, t, chunk, stringConverter);
+        return chunk.toString();
+      });
     }
-    return state.toString();
   }
 
   @Override
-  public void doExportToClipboard(
-      final PluginContext context,
-      final Set<AbstractParameter<?>> options,
-      final ExtrasToStringConverter stringConverter)
-      throws IOException {
-    final String text = makeContent(context, stringConverter);
-    SwingUtilities.invokeLater(() -> {
-      final Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
-      if (clipboard != null) {
-        clipboard.setContents(new StringSelection(text), null);
-      }
-    });
+  protected String getFileExtension() {
+    return ".asciidoc";
   }
 
   @Override
-  public void doExport(final PluginContext context, final Set<AbstractParameter<?>> options,
-                       final OutputStream out, final ExtrasToStringConverter stringConverter)
-      throws IOException {
-    final String text = makeContent(context, stringConverter);
-
-    File fileToSaveMap = null;
-    OutputStream theOut = out;
-    if (theOut == null) {
-      fileToSaveMap = MindMapUtils.selectFileToSaveForFileFilter(
-          context.getPanel(),
-          context,
-          this.getClass().getName(),
-          this.getResourceBundle().getString("ASCIIDOCExporter.saveDialogTitle"),
-          null,
-          ".asciidoc",
-          this.getResourceBundle().getString("ASCIIDOCExporter.filterDescription"),
-          this.getResourceBundle().getString("ASCIIDOCExporter.approveButtonText"));
-      fileToSaveMap =
-          MindMapUtils.checkFileAndExtension(context.getPanel(), fileToSaveMap, ".asciidoc");
-      theOut = fileToSaveMap == null ? null :
-          new BufferedOutputStream(new FileOutputStream(fileToSaveMap, false));
-    }
-    if (theOut != null) {
-      try {
-        IOUtils.write(text, theOut, "UTF-8");
-      } finally {
-        if (fileToSaveMap != null) {
-          IOUtils.closeQuietly(theOut);
-        }
-      }
-    }
+  protected String getResourceKeyPrefix() {
+    return "ASCIIDOCExporter";
   }
 
   @Override
@@ -27,7 +27,7 @@ import com.igormaznitsa.mindmap.model.ExtraLinkable;
 import com.igormaznitsa.mindmap.model.ExtraNote;
 import com.igormaznitsa.mindmap.model.ExtraTopic;
 import com.igormaznitsa.mindmap.model.Topic;
-import com.igormaznitsa.mindmap.plugins.api.AbstractExporter;
+import com.igormaznitsa.mindmap.plugins.api.AbstractTextExporter;
 import com.igormaznitsa.mindmap.plugins.api.PluginContext;
 import com.igormaznitsa.mindmap.plugins.api.parameters.AbstractParameter;
 import com.igormaznitsa.mindmap.swing.ide.IDEBridgeFactory;
@@ -37,14 +37,8 @@ import com.igormaznitsa.mindmap.swing.panel.utils.MindMapUtils;
 import com.igormaznitsa.mindmap.swing.panel.utils.Utils;
 import com.igormaznitsa.mindmap.swing.services.IconID;
 import com.igormaznitsa.mindmap.swing.services.ImageIconServiceProvider;
-import java.awt.Toolkit;
-import java.awt.datatransfer.Clipboard;
-import java.awt.datatransfer.StringSelection;
-import java.io.BufferedOutputStream;
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
+import java.io.Writer;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
@@ -52,12 +46,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import javax.swing.Icon;
-import javax.swing.SwingUtilities;
-import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.text.StringEscapeUtils;
 
-public class FreeMindExporter extends AbstractExporter {
+public class FreeMindExporter extends AbstractTextExporter {
 
   private static final Icon ICO =
       ImageIconServiceProvider.findInstance().getIconForId(IconID.POPUP_EXPORT_FREEMIND);
@@ -106,7 +97,25 @@ public class FreeMindExporter extends AbstractExporter {
       final PluginContext pluginContext,
       final Topic topic,
       final MindMapPanelConfig cfg,
-      int shift,
+      final int shift,
+      final State state,
+      final ExtrasToStringConverter stringConverter) {
+    this.writeTopicStart(pluginContext, topic, cfg, shift, state, stringConverter);
+    for (final Topic ch : topic.getChildren()) {
+      writeTopicRecursively(pluginContext, ch, cfg, shift + 1, state, stringConverter);
+    }
+    writeTopicEnd(shift, state);
+  }
+
+  private static void writeTopicEnd(final int shift, final State state) {
+    state.append(generateString(' ', shift)).append("</node>").nextLine();
+  }
+
+  private void writeTopicStart(
+      final PluginContext pluginContext,
+      final Topic topic,
+      final MindMapPanelConfig cfg,
+      final int shift,
       final State state,
       final ExtrasToStringConverter stringConverter) {
     final String mainShiftStr = generateString(' ', shift);
@@ -168,8 +177,7 @@ public class FreeMindExporter extends AbstractExporter {
     }
     state.append(">").nextLine();
 
-    shift++;
-    final String childShift = generateString(' ', shift);
+    final String childShift = generateString(' ', shift + 1);
 
     state.append(childShift).append("<edge WIDTH=\"thin\"/>");
 
@@ -205,16 +213,13 @@ public class FreeMindExporter extends AbstractExporter {
           .append("<html><head></head><body>" + htmlTextForNode + "</body></html>")
           .append("</richcontent>").nextLine();
     }
-
-    for (final Topic ch : topic.getChildren()) {
-      writeTopicRecursively(pluginContext, ch, cfg, shift, state, stringConverter);
-    }
-
-    state.append(mainShiftStr).append("</node>").nextLine();
   }
 
-  private String makeContent(final PluginContext context,
-                             final ExtrasToStringConverter stringConverter) {
+  @Override
+  protected void writeContent(final PluginContext context,
+                              final Set<AbstractParameter<?>> options,
+                              final Writer out,
+                              final ExtrasToStringConverter stringConverter) throws IOException {
     final State state = new State()
         .append("<map version=\"1.0.1\">")
         .nextLine()
@@ -231,68 +236,35 @@ public class FreeMindExporter extends AbstractExporter {
         .append("-->")
         .nextLine();
 
+    final MindMapPanelConfig cfg = context.getPanelConfig();
     final Topic root = context.getModel().getRoot();
     if (root != null) {
-      writeTopicRecursively(context, root, context.getPanelConfig(), 1, state, stringConverter);
+      this.writeTopicStart(context, root, cfg, 1, state, stringConverter);
     }
+    out.write(state.toString());
 
-    state.append("</map>");
+    if (root != null) {
+      writeChunks(out, root.getChildren(), (t, index) -> {
+        final State chunk = new State();
+        this.writeTopicRecursively(context, t, cfg, 2, chunk, stringConverter);
+        return chunk.toString();
+      });
+      final State end = new State();
+      writeTopicEnd(1, end);
+      out.write(end.toString());
+    }
 
-    return state.toString();
+    out.write("</map>");
   }
 
   @Override
-  public void doExportToClipboard(
-      final PluginContext context,
-      final Set<AbstractParameter<?>> options,
-      final ExtrasToStringConverter extrasToStringConverter)
-      throws IOException {
-    final String text = makeContent(context, extrasToStringConverter);
-    SwingUtilities.invokeLater(() -> {
-      final Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
-      if (clipboard != null) {
-        clipboard.setContents(new StringSelection(text), null);
-      }
-    });
+  protected String getFileExtension() {
+    return ".mm";
   }
 
   @Override
-  public void doExport(
-      final PluginContext context,
-      final Set<AbstractParameter<?>> options,
-      final OutputStream out,
-      final ExtrasToStringConverter stringConverter) throws IOException {
-    final String text = makeContent(context, stringConverter);
-
-    File fileToSaveMap = null;
-    OutputStream theOut = out;
-    if (theOut == null) {
-      fileToSaveMap = MindMapUtils.selectFileToSaveForFileFilter(
-          context.getPanel(),
-          context,
-          this.getClass().getName(),
-          this.getResourceBundle().getString("FreeMindExporter.saveDialogTitle"),
-          null,
-          ".mm",
-          this.getResourceBundle().getString("FreeMindExporter.filterDescription"),
-          this.getResourceBundle().getString("FreeMindExporter.approveButtonText"));
-      fileToSaveMap = MindMapUtils.checkFileAndExtension(context.getPanel(), fileToSaveMap, ".mm");
-      theOut = fileToSaveMap == null ? null :
-          new BufferedOutputStream(new FileOutputStream(fileToSaveMap, false));
-    }
-    if (theOut != null) {
-      try {
-        IOUtils.write(text, theOut, "UTF-8");
-      } finally {
-        if (fileToSaveMap != null) {
-          IOUtils.closeQuietly(theOut);
-        }
-      }
-    }
-
-    if (fileToSaveMap != null) {
-      FileUtils.writeStringToFile(fileToSaveMap, text, "UTF-8");
-    }
+  protected String getResourceKeyPrefix() {
+    return "FreeMindExporter";
   }
 
   @Override
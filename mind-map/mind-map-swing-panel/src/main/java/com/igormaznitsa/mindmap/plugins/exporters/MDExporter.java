@@ -25,33 +25,24 @@ import com.igormaznitsa.mindmap.model.ExtraLink;
 import com.igormaznitsa.mindmap.model.ExtraNote;
 import com.igormaznitsa.mindmap.model.ExtraTopic;
 import com.igormaznitsa.mindmap.model.MMapURI;
-import com.igormaznitsa.mindmap.model.MindMap;
 import com.igormaznitsa.mindmap.model.Topic;
-import com.igormaznitsa.mindmap.plugins.api.AbstractExporter;
+import com.igormaznitsa.mindmap.plugins.api.AbstractTextExporter;
 import com.igormaznitsa.mindmap.plugins.api.PluginContext;
 import com.igormaznitsa.mindmap.plugins.api.parameters.AbstractParameter;
 import com.igormaznitsa.mindmap.swing.ide.IDEBridgeFactory;
-import com.igormaznitsa.mindmap.swing.panel.utils.MindMapUtils;
 import com.igormaznitsa.mindmap.swing.panel.utils.Utils;
 import com.igormaznitsa.mindmap.swing.services.IconID;
 import com.igormaznitsa.mindmap.swing.services.ImageIconServiceProvider;
-import java.awt.Toolkit;
-import java.awt.datatransfer.Clipboard;
-import java.awt.datatransfer.StringSelection;
-import java.io.BufferedOutputStream;
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Set;
 import javax.swing.Icon;
-import javax.swing.SwingUtilities;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.text.StringEscapeUtils;
 
-public class MDExporter extends AbstractExporter {
+public class MDExporter extends AbstractTextExporter {
 
   private static final int STARTING_INDEX_FOR_NUMERATION = 5;
   private static final Icon ICO =
@@ -240,8 +231,11 @@ public class MDExporter extends AbstractExporter {
     }
   }
 
-  private String makeContent(final PluginContext pluginContext, final MindMap model,
-                             final ExtrasToStringConverter stringConverter) {
+  @Override
+  protected void writeContent(final PluginContext context,
+                              final Set<AbstractParameter<?>> options,
+                              final Writer out,
+                              final ExtrasToStringConverter stringConverter) throws IOException {
     final MdWriter state = new MdWriter();
 
     state.append("<!--")
@@ -253,72 +247,34 @@ public class MDExporter extends AbstractExporter {
     state.append(DATE_FORMAT.format(new java.util.Date().getTime())).nextLine().append("-->")
         .nextLine();
 
-    final Topic root = model.getRoot();
+    final Topic root = context.getModel().getRoot();
     if (root != null) {
-      writeTopic(pluginContext, root, "", state, stringConverter);
+      writeTopic(context, root, "", state, stringConverter);
+    }
+    out.write(state.toString());
 
-      final Topic[] children = Utils.getLeftToRightOrderedChildrens(root);
-      for (final Topic t : children) {
-        writeInterTopicLine(state);
-        writeTopic(pluginContext, t, "", state, stringConverter);
+    if (root != null) {
+      writeChunks(out, Arrays.asList(Utils.getLeftToRightOrderedChildrens(root)), (t, index) -> {
+        final MdWriter chunk = new MdWriter();
+        writeInterTopicLine(chunk);
+        writeTopic(context, t, "", chunk, stringConverter);
         int indexChild = 0;
         for (final Topic tt : t.getChildren()) {
-          writeOtherTopicRecursively(pluginContext, tt, "", indexChild++, state, stringConverter);
+          writeOtherTopicRecursively(context, tt, "", indexChild++, chunk, stringConverter);
         }
-      }
+        return chunk.toString();
+      });
     }
-
-    return state.toString();
   }
 
   @Override
-  public void doExportToClipboard(
-      final PluginContext context,
-      final Set<AbstractParameter<?>> options,
-      final ExtrasToStringConverter stringConverter)
-      throws IOException {
-    final String text = makeContent(context, context.getModel(), stringConverter);
-    SwingUtilities.invokeLater(() -> {
-      final Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
-      if (clipboard != null) {
-        clipboard.setContents(new StringSelection(text), null);
-      }
-    });
+  protected String getFileExtension() {
+    return ".MD";
   }
 
   @Override
-  public void doExport(
-      final PluginContext context,
-      final Set<AbstractParameter<?>> options,
-      final OutputStream out,
-      final ExtrasToStringConverter stringConverter) throws IOException {
-    final String text = makeContent(context, context.getModel(), stringConverter);
-
-    File fileToSaveMap = null;
-    OutputStream theOut = out;
-    if (theOut == null) {
-      fileToSaveMap = MindMapUtils.selectFileToSaveForFileFilter(
-          context.getPanel(),
-          context,
-          this.getClass().getName(),
-          this.getResourceBundle().getString("MDExporter.saveDialogTitle"),
-          null,
-          ".MD",
-          this.getResourceBundle().getString("MDExporter.filterDescription"),
-          this.getResourceBundle().getString("MDExporter.approveButtonText"));
-      fileToSaveMap = MindMapUtils.checkFileAndExtension(context.getPanel(), fileToSaveMap, ".MD");
-      theOut = fileToSaveMap == null ? null :
-          new BufferedOutputStream(new FileOutputStream(fileToSaveMap, false));
-    }
-    if (theOut != null) {
-      try {
-        IOUtils.write(text, theOut, "UTF-8");
-      } finally {
-        if (fileToSaveMap != null) {
-          IOUtils.closeQuietly(theOut);
-        }
-      }
-    }
+  protected String getResourceKeyPrefix() {
+    return "MDExporter";
   }
 
   @Override
@@ -23,31 +23,23 @@ import com.igormaznitsa.mindmap.model.ExtraNote;
 import com.igormaznitsa.mindmap.model.ExtraTopic;
 import com.igormaznitsa.mindmap.model.ModelUtils;
 import com.igormaznitsa.mindmap.model.Topic;
-import com.igormaznitsa.mindmap.plugins.api.AbstractExporter;
+import com.igormaznitsa.mindmap.plugins.api.AbstractTextExporter;
 import com.igormaznitsa.mindmap.plugins.api.PluginContext;
 import com.igormaznitsa.mindmap.plugins.api.parameters.AbstractParameter;
 import com.igormaznitsa.mindmap.swing.ide.IDEBridgeFactory;
-import com.igormaznitsa.mindmap.swing.panel.utils.MindMapUtils;
 import com.igormaznitsa.mindmap.swing.panel.utils.Utils;
 import com.igormaznitsa.mindmap.swing.services.IconID;
 import com.igormaznitsa.mindmap.swing.services.ImageIconServiceProvider;
-import java.awt.Toolkit;
-import java.awt.datatransfer.Clipboard;
-import java.awt.datatransfer.StringSelection;
-import java.io.BufferedOutputStream;
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Map;
 import java.util.Set;
 import javax.swing.Icon;
-import javax.swing.SwingUtilities;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 
-public class ORGMODEExporter extends AbstractExporter {
+public class ORGMODEExporter extends AbstractTextExporter {
 
   private static final int STARTING_INDEX_FOR_NUMERATION = 5;
   private static final Icon ICO =
@@ -316,8 +308,11 @@ public class ORGMODEExporter extends AbstractExporter {
     }
   }
 
-  private String makeContent(final PluginContext context,
-                             final ExtrasToStringConverter stringConverter) {
+  @Override
+  protected void writeContent(final PluginContext context,
+                              final Set<AbstractParameter<?>> options,
+                              final Writer out,
+                              final ExtrasToStringConverter stringConverter) throws IOException {
     final State state = new State();
 
     final Topic root = context.getModel().getRoot();
@@ -337,71 +332,33 @@ public class ORGMODEExporter extends AbstractExporter {
 
     if (root != null) {
       writeTopic(context, root, "", state, stringConverter);
-
-      final Topic[] children = Utils.getLeftToRightOrderedChildrens(root);
-      for (final Topic child : children) {
-        this.writeInterTopicLine(state);
-        this.writeTopic(context, child, "", state, stringConverter);
-        int indexChild = 0;
-        for (final Topic subChild : child.getChildren()) {
-          this.writeOtherTopicRecursively(context, subChild, "", indexChild++, state,
-              stringConverter);
-        }
-      }
     }
+    out.write(state.toString());
 
-    return state.toString();
+    if (root != null) {
+      writeChunks(out, Arrays.asList(Utils.getLeftToRightOrderedChildrens(root)),
+          (child, index) -> {
+            final State chunk = new State();
+            this.writeInterTopicLine(chunk);
+            this.writeTopic(context, child, "", chunk, stringConverter);
+            int indexChild = 0;
+            for (final Topic subChild : child.getChildren()) {
+              this.writeOtherTopicRecursively(context, subChild, "", indexChild++, chunk,
+                  stringConverter);
+            }
+            return chunk.toString();
+          });
+    }
   }
 
   @Override
-  public void doExportToClipboard(
-      final PluginContext context,
-      final Set<AbstractParameter<?>> options,
-      final ExtrasToStringConverter stringConverter)
-      throws IOException {
-    final String text = this.makeContent(context, stringConverter);
-    SwingUtilities.invokeLater(() -> {
-      final Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
-      if (clipboard != null) {
-        clipboard.setContents(new StringSelection(text), null);
-      }
-    });
+  protected String getFileExtension() {
+    return ".org";
   }
 
   @Override
-  public void doExport(
-      final PluginContext context,
-      final Set<AbstractParameter<?>> options,
-      final OutputStream out,
-      final ExtrasToStringConverter stringConverter) throws IOException {
-    final String text = this.makeContent(context, stringConverter);
-
-    File fileToSaveMap = null;
-    OutputStream theOut = out;
-    if (theOut == null) {
-      fileToSaveMap = MindMapUtils.selectFileToSaveForFileFilter(
-          context.getPanel(),
-          context,
-          this.getClass().getName(),
-          this.getResourceBundle().getString("ORGMODEExporter.saveDialogTitle"),
-          null,
-          ".org",
-          this.getResourceBundle().getString("ORGMODEExporter.filterDescription"),
-          this.getResourceBundle().getString("ORGMODEExporter.approveButtonText"));
-      fileToSaveMap =
-          MindMapUtils.checkFileAndExtension(context.getPanel(), fileToSaveMap, ".org");
-      theOut = fileToSaveMap == null ? null :
-          new BufferedOutputStream(new FileOutputStream(fileToSaveMap, false));
-    }
-    if (theOut != null) {
-      try {
-        IOUtils.write(text, theOut, "UTF-8");
-      } finally {
-        if (fileToSaveMap != null) {
-          IOUtils.closeQuietly(theOut);
-        }
-      }
-    }
+  protected String getResourceKeyPrefix() {
+    return "ORGMODEExporter";
   }
 
   @Override
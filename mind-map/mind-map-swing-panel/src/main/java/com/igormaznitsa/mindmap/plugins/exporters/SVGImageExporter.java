@@ -39,7 +39,6 @@ import com.igormaznitsa.mindmap.swing.panel.ui.gfx.MMGraphics;
 import com.igormaznitsa.mindmap.swing.panel.ui.gfx.StrokeType;
 import com.igormaznitsa.mindmap.swing.panel.utils.MindMapUtils;
 import com.igormaznitsa.mindmap.swing.panel.utils.RenderQuality;
-import com.igormaznitsa.mindmap.swing.panel.utils.Utils;
 import com.igormaznitsa.mindmap.swing.services.IconID;
 import com.igormaznitsa.mindmap.swing.services.ImageIconServiceProvider;
 import java.awt.BasicStroke;
@@ -72,12 +71,15 @@ import java.io.FileFilter;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
-import java.text.DecimalFormat;
-import java.text.DecimalFormatSymbols;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
@@ -87,7 +89,6 @@ import javax.imageio.ImageIO;
 import javax.swing.Icon;
 import javax.swing.SwingUtilities;
 import org.apache.commons.io.IOUtils;
-import org.apache.commons.text.StringEscapeUtils;
 
 public class SVGImageExporter extends AbstractExporter {
 
@@ -114,17 +115,14 @@ public class SVGImageExporter extends AbstractExporter {
           IDEBridgeFactory.findInstance().getIDEGeneratorId() + ' ' +
           IDEBridgeFactory.findInstance().getIDEVersion() +
           " (https://sciareto.org) -->" + NEXT_LINE +
-          "<svg version=\"1.1\" baseProfile=\"tiny\" id=\"svg-root\" width=\"%d%%\" height=\"%d%%\" viewBox=\"0 0 %s %s\" xmlns=\"http://www.w3.org/2000/svg\" xmlns:xlink=\"http://www.w3.org/1999/xlink\">";
-  private static final DecimalFormat DOUBLE;
+          "<svg version=\"1.1\" baseProfile=\"tiny\" id=\"svg-root\" width=\"100%\" height=\"100%\" viewBox=\"0 0 ";
+  private static final String SVG_HEADER_END =
+      "\" xmlns=\"http://www.w3.org/2000/svg\" xmlns:xlink=\"http://www.w3.org/1999/xlink\">";
   private static final String KEY_PARAMETER_UNFOLD_ALL = "mmd.exporter.svg.unfold.all";
   private static final String KEY_PARAMETER_DRAW_BACKGROUND = "mmd.exporter.svg.background.draw";
   private static final String KEY_PARAMETER_CUSTOM_CONFIG_FILE =
       "mmd.exporter.svg.custom.config.file";
 
-  static {
-    DOUBLE = new DecimalFormat("#.###", DecimalFormatSymbols.getInstance(Locale.US));
-  }
-
   private static Optional<EmbeddedFont> findEmbeddedFont(final Font font) {
     final Map<String, Object> map = new HashMap<>();
     map.put(LOOKUP_PARAM_REQ_FONT, font);
@@ -138,10 +136,6 @@ public class SVGImageExporter extends AbstractExporter {
     }
   }
 
-  private static String dbl2str(final double value) {
-    return DOUBLE.format(value);
-  }
-
   private static String fontFamilyToSVG(final Font font) {
     String fontFamilyStr = font.getFamily();
     final String[] logicalFontFamily = LOCAL_FONT_MAP.get(font.getName().toLowerCase());
@@ -153,20 +147,18 @@ public class SVGImageExporter extends AbstractExporter {
     return fontFamilyStr;
   }
 
-  private static String font2style(final Font font) {
-    final StringBuilder result = new StringBuilder();
-
-    final String fontFamily = fontFamilyToSVG(font);
-    result.append("font-family: '").append(fontFamily).append("';").append(NEXT_LINE);
-
-    findEmbeddedFont(font).ifPresent(
-        fontData -> result.append("src:url(data:").append(fontData.mimeType)
-            .append(";charset=utf-8;base64,")
-            .append(Utils.base64encode(fontData.data)).append(") format(\"")
-            .append(fontData.asFormat()).append("\");")
-            .append(NEXT_LINE));
+  private static void writeFontFace(final SvgWriter out, final Font font) throws IOException {
+    out.append("  @font-face { ").append(NEXT_LINE)
+        .append("font-family: '").append(fontFamilyToSVG(font)).append("';").append(NEXT_LINE);
 
-    return result.toString();
+    final Optional<EmbeddedFont> embeddedFont = findEmbeddedFont(font);
+    if (embeddedFont.isPresent()) {
+      final EmbeddedFont fontData = embeddedFont.get();
+      out.append("src:url(data:").append(fontData.mimeType).append(";charset=utf-8;base64,");
+      out.base64(stream -> stream.write(fontData.data));
+      out.append(") format(\"").append(fontData.asFormat()).append("\");").append(NEXT_LINE);
+    }
+    out.append('}').append(NEXT_LINE);
   }
 
   @Override
@@ -228,7 +220,9 @@ public class SVGImageExporter extends AbstractExporter {
     }};
   }
 
-  private String makeContent(final PluginContext context, final Set<AbstractParameter<?>> options) throws IOException {
+  private void writeContent(final PluginContext context,
+                            final Set<AbstractParameter<?>> options,
+                            final OutputStream out) throws IOException {
     final boolean flagExpandAllNodes = options.stream()
         .filter(x -> KEY_PARAMETER_UNFOLD_ALL.equals(x.getId()))
         .findFirst()
@@ -277,34 +271,66 @@ public class SVGImageExporter extends AbstractExporter {
     final Dimension2D blockSize =
         calculateSizeOfMapInPixels(workMap, null, drawConfig, flagExpandAllNodes,
             RenderQuality.DEFAULT);
+
+    final SvgWriter writer = new SvgWriter(out);
+    writer.append(SVG_HEADER);
     if (blockSize == null) {
-      return SVG_HEADER + "</svg>";
+      writer.append("0 0").append(SVG_HEADER_END).append("</svg>");
+      writer.flush();
+      return;
     }
-
-    final StringBuilder buffer = new StringBuilder(16384);
+    writer.number(blockSize.getWidth()).append(' ').number(blockSize.getHeight())
+        .append(SVG_HEADER_END).append(NEXT_LINE);
 
     final ImageCache imageCache = new ImageCache();
+    final StyleCache styleCache = new StyleCache();
     final BufferedImage image = new BufferedImage(32, 32, BufferedImage.TYPE_INT_RGB);
     final Graphics2D g = image.createGraphics();
-    final MMGraphics gfx = new SVGMMGraphics(buffer, g, imageCache);
+    try {
+      final MMGraphics layoutGfx =
+          new SVGMMGraphics(SvgWriter.makeNull(), g, imageCache, styleCache);
+      try {
+        layoutFullDiagramWithCenteringToPaper(layoutGfx, workMap, drawConfig, blockSize);
+      } finally {
+        layoutGfx.dispose();
+      }
+
+      // the first pass only collects styles and images to be placed into definitions
+      drawMap(new SVGMMGraphics(SvgWriter.makeNull(), g, imageCache, styleCache), blockSize,
+          drawConfig, workMap);
+      styleCache.freeze();
+      imageCache.freeze();
+
+      writer.append("<defs>").append(NEXT_LINE)
+          .append("<style type=\"text/css\">").append(NEXT_LINE);
+      writeFontFace(writer, drawConfig.getFont());
+      styleCache.write(writer);
+      writer.append("</style>").append(NEXT_LINE);
+      imageCache.write(writer);
+      writer.append("</defs>").append(NEXT_LINE);
+
+      drawMap(new SVGMMGraphics(writer, g, imageCache, styleCache), blockSize, drawConfig,
+          workMap);
+    } catch (UncheckedIOException ex) {
+      throw ex.getCause();
+    } finally {
+      g.dispose();
+      imageCache.reset();
+    }
+
+    writer.append("</svg>");
+    writer.flush();
+  }
+
+  private static void drawMap(final MMGraphics gfx, final Dimension2D blockSize,
+                              final MindMapPanelConfig drawConfig, final MindMap workMap) {
     gfx.setClip(0, 0, (int) Math.round(blockSize.getWidth()),
         (int) Math.round(blockSize.getHeight()));
     try {
-      layoutFullDiagramWithCenteringToPaper(gfx, workMap, drawConfig, blockSize);
       drawOnGraphicsForConfiguration(gfx, drawConfig, workMap, false, null);
-      buffer.insert(0, imageCache.asString(prepareStylePart(drawConfig)));
     } finally {
       gfx.dispose();
-      imageCache.reset();
     }
-
-    buffer.insert(0, NEXT_LINE);
-    buffer.insert(0, String.format(SVG_HEADER, 100, 100, dbl2str(blockSize.getWidth()),
-        dbl2str(blockSize.getHeight())));
-
-    buffer.append("</svg>");
-
-    return buffer.toString();
   }
 
   @Override
@@ -312,7 +338,9 @@ public class SVGImageExporter extends AbstractExporter {
                                   final Set<AbstractParameter<?>> options,
                                   final ExtrasToStringConverter stringConverter)
       throws IOException {
-    final String text = makeContent(context, options);
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream(16384);
+    writeContent(context, options, buffer);
+    final String text = new String(buffer.toByteArray(), StandardCharsets.UTF_8);
     SwingUtilities.invokeLater(() -> {
       final Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
       if (clipboard != null) {
@@ -328,8 +356,6 @@ public class SVGImageExporter extends AbstractExporter {
       final OutputStream out,
       final ExtrasToStringConverter stringConverter
   ) throws IOException {
-    final String text = makeContent(context, options);
-
     File fileToSaveMap = null;
     OutputStream theOut = out;
     if (theOut == null) {
@@ -347,7 +373,7 @@ public class SVGImageExporter extends AbstractExporter {
     }
     if (theOut != null) {
       try {
-        IOUtils.write(text, theOut, "UTF-8");
+        writeContent(context, options, theOut);
       } finally {
         if (fileToSaveMap != null) {
           IOUtils.closeQuietly(theOut);
@@ -356,12 +382,6 @@ public class SVGImageExporter extends AbstractExporter {
     }
   }
 
-  private String prepareStylePart(final MindMapPanelConfig config) {
-    return "<style type=\"text/css\">" + NEXT_LINE
-        + "  @font-face { " + NEXT_LINE + font2style(config.getFont()) + "}" + NEXT_LINE
-        + "</style>";
-  }
-
   @Override
   public String getName(final PluginContext context, final Topic actionTopic) {
     return this.getResourceBundle().getString("SvgExporter.exporterName");
@@ -408,53 +428,45 @@ public class SVGImageExporter extends AbstractExporter {
   private static final class ImageCache {
     private final AtomicLong counter = new AtomicLong(1L);
 
-    private final Map<RenderedImage, String> map = new HashMap<>();
+    private final Map<RenderedImage, String> map = new IdentityHashMap<>();
+    private boolean frozen;
 
-    String add(final RenderedImage image) {
-      if (this.map.containsKey(image)) {
-        return this.map.get(image);
-      } else {
-        final String uid = "imageId-" + toHexString(this.counter.getAndIncrement()).toUpperCase(
+    String find(final RenderedImage image) {
+      String result = this.map.get(image);
+      if (result == null && !this.frozen) {
+        result = "imageId-" + toHexString(this.counter.getAndIncrement()).toUpperCase(
             Locale.ENGLISH);
-        this.map.put(image, uid);
-        return uid;
+        this.map.put(image, result);
       }
+      return result;
     }
 
-    public String asString(final String css) {
-      final StringWriter writer = new StringWriter(4096);
-      writer.write("<defs>");
-      writer.write(NEXT_LINE);
-
-      writer.write(css);
-      writer.write(NEXT_LINE);
+    void freeze() {
+      this.frozen = true;
+    }
 
-      this.map.entrySet().stream()
-          .sorted(Map.Entry.comparingByValue())
-          .forEach(e -> {
-            final ByteArrayOutputStream imageBuffer = new ByteArrayOutputStream(4096);
-            String pngBase64Encoded = "";
-            try {
-              if (ImageIO.write(e.getKey(), "png", imageBuffer)) {
-                pngBase64Encoded = Utils.base64encode(imageBuffer.toByteArray());
-              }
-            } catch (IOException ex) {
-              LOGGER.error("Can't render PNG image for internal IO error", ex);
-              pngBase64Encoded = "http://cant_render_image_for_io_error.org";
-            }
-            writer.write(
-                String.format(
-                    " <image id=\"%s\" width=\"%d\" height=\"%d\" xlink:href=\"data:image/png;charset=utf-8;base64,%s\"/>",
-                    e.getValue(),
-                    e.getKey().getWidth(),
-                    e.getKey().getHeight(),
-                    pngBase64Encoded));
-            writer.write(NEXT_LINE);
-          });
+    void write(final SvgWriter writer) throws IOException {
+      final List<Map.Entry<RenderedImage, String>> entries = new ArrayList<>(this.map.entrySet());
+      entries.sort(Map.Entry.comparingByValue());
+      for (final Map.Entry<RenderedImage, String> e : entries) {
+        writer.append(" <image id=\"").append(e.getValue())
+            .append("\" width=\"").append(e.getKey().getWidth())
+            .append("\" height=\"").append(e.getKey().getHeight())
+            .append('"');
+        writeImageData(writer, e.getKey());
+        writer.append("/>").append(NEXT_LINE);
+      }
+    }
 
-      writer.write("</defs>");
-      writer.write(NEXT_LINE);
-      return writer.toString();
+    static void writeImageData(final SvgWriter writer, final RenderedImage image)
+        throws IOException {
+      writer.append(" xlink:href=\"data:image/png;charset=utf-8;base64,");
+      writer.base64(out -> {
+        if (!ImageIO.write(image, "png", out)) {
+          LOGGER.error("Can't find PNG writer for image");
+        }
+      });
+      writer.append('"');
     }
 
     void reset() {
@@ -462,6 +474,31 @@ public class SVGImageExporter extends AbstractExporter {
     }
   }
 
+  private static final class StyleCache {
+    private final Map<String, String> map = new LinkedHashMap<>();
+    private boolean frozen;
+
+    String find(final String style) {
+      String result = this.map.get(style);
+      if (result == null && !this.frozen) {
+        result = "s" + Integer.toString(this.map.size(), 36);
+        this.map.put(style, result);
+      }
+      return result;
+    }
+
+    void freeze() {
+      this.frozen = true;
+    }
+
+    void write(final SvgWriter writer) {
+      for (final Map.Entry<String, String> e : this.map.entrySet()) {
+        writer.append('.').append(e.getValue()).append(" { ").append(e.getKey()).append('}')
+            .append(NEXT_LINE);
+      }
+    }
+  }
+
   public static class SvgClip implements Transferable {
 
     private static final DataFlavor SVG_FLAVOR =
@@ -510,22 +547,27 @@ public class SVGImageExporter extends AbstractExporter {
 
   private static final class SVGMMGraphics implements MMGraphics {
 
-    private static final DecimalFormat ALPHA = new DecimalFormat("#.##");
-    private final StringBuilder buffer;
+    private static final Set<String> GENERIC_FONT_FAMILIES = new HashSet<>(
+        Arrays.asList("serif", "sans-serif", "monospace", "cursive", "fantasy"));
+    private final SvgWriter out;
     private final Graphics2D context;
     private final ImageCache imageCache;
+    private final StyleCache styleCache;
+    private final StringBuilder style = new StringBuilder(128);
     private double translateX;
     private double translateY;
     private float strokeWidth = 1.0f;
     private StrokeType strokeType = StrokeType.SOLID;
 
     private SVGMMGraphics(
-        final StringBuilder buffer,
+        final SvgWriter out,
         final Graphics2D context,
-        final ImageCache imageCache
+        final ImageCache imageCache,
+        final StyleCache styleCache
     ) {
       this.imageCache = imageCache;
-      this.buffer = buffer;
+      this.styleCache = styleCache;
+      this.out = out;
       this.context = (Graphics2D) context.create();
     }
 
@@ -533,46 +575,69 @@ public class SVGImageExporter extends AbstractExporter {
       return "rgb(" + color.getRed() + ',' + color.getGreen() + ',' + color.getBlue() + ')';
     }
 
-    private void printFillOpacity(final Color color) {
+    private void styleFillOpacity(final Color color) {
       if (color.getAlpha() < 255) {
-        this.buffer.append(" fill-opacity=\"").append(ALPHA.format(color.getAlpha() / 255.0f))
-            .append("\" ");
+        this.style.append("fill-opacity:")
+            .append(SvgWriter.formatNumber(color.getAlpha() / 255.0f)).append(';');
       }
     }
 
-    private void printFontData(final Font font) {
-      final String fontStyle = font.isItalic() ? "italic" : "normal";
-      final String fontWeight = font.isBold() ? "bold" : "normal";
-      final String fontFamily = fontFamilyToSVG(font);
+    private void styleFill(final Color fill) {
+      if (fill == null) {
+        this.style.append("fill:none;");
+      } else {
+        this.style.append("fill:").append(svgRgb(fill)).append(';');
+        styleFillOpacity(fill);
+      }
+    }
 
-      this.buffer
-          .append("font-family=\"").append(fontFamily).append("\" ")
-          .append("font-size=\"").append(DOUBLE.format(font.getSize2D())).append("px\" ")
-          .append("font-style=\"").append(fontStyle).append("\" ")
-          .append("font-weight=\"").append(fontWeight).append('"');
+    private void styleFont(final Font font) {
+      final String fontFamily = fontFamilyToSVG(font);
+      this.style.append("font-family:");
+      if (fontFamily.startsWith("'") || GENERIC_FONT_FAMILIES.contains(fontFamily)) {
+        this.style.append(fontFamily);
+      } else {
+        this.style.append('\'').append(fontFamily).append('\'');
+      }
+      this.style.append(";font-size:").append(SvgWriter.formatNumber(font.getSize2D()))
+          .append("px;font-style:").append(font.isItalic() ? "italic" : "normal")
+          .append(";font-weight:").append(font.isBold() ? "bold" : "normal").append(';');
     }
 
-    private void printStrokeData(final Color color) {
-      this.buffer.append(" stroke=\"").append(svgRgb(color))
-          .append("\" stroke-width=\"").append(dbl2str(this.strokeWidth)).append("\"");
+    private void styleStroke(final Color color) {
+      this.style.append("stroke:").append(svgRgb(color))
+          .append(";stroke-width:").append(SvgWriter.formatNumber(this.strokeWidth)).append(';');
 
       switch (this.strokeType) {
         case SOLID:
-          this.buffer.append(" stroke-linecap=\"round\"");
+          this.style.append("stroke-linecap:round;");
           break;
         case DASHES:
-          this.buffer.append(" stroke-linecap=\"butt\" stroke-dasharray=\"")
-              .append(dbl2str(this.strokeWidth * 3.0f)).append(',')
-              .append(dbl2str(this.strokeWidth)).append("\"");
+          this.style.append("stroke-linecap:butt;stroke-dasharray:")
+              .append(SvgWriter.formatNumber(this.strokeWidth * 3.0f)).append(',')
+              .append(SvgWriter.formatNumber(this.strokeWidth)).append(';');
           break;
         case DOTS:
-          this.buffer.append(" stroke-linecap=\"butt\" stroke-dasharray=\"")
-              .append(dbl2str(this.strokeWidth)).append(',')
-              .append(dbl2str(this.strokeWidth * 2.0f)).append("\"");
+          this.style.append("stroke-linecap:butt;stroke-dasharray:")
+              .append(SvgWriter.formatNumber(this.strokeWidth)).append(',')
+              .append(SvgWriter.formatNumber(this.strokeWidth * 2.0f)).append(';');
           break;
       }
     }
 
+    private void writeStyle() {
+      if (this.style.length() > 0) {
+        final String styleText = this.style.toString();
+        final String styleClass = this.styleCache.find(styleText);
+        if (styleClass == null) {
+          this.out.append(" style=\"").append(styleText).append('"');
+        } else {
+          this.out.append(" class=\"").append(styleClass).append('"');
+        }
+        this.style.setLength(0);
+      }
+    }
+
     @Override
     public float getFontMaxAscent() {
       return this.context.getFontMetrics().getMaxAscent();
@@ -597,7 +662,8 @@ public class SVGImageExporter extends AbstractExporter {
 
     @Override
     public MMGraphics copy() {
-      final SVGMMGraphics result = new SVGMMGraphics(this.buffer, this.context, this.imageCache);
+      final SVGMMGraphics result =
+          new SVGMMGraphics(this.out, this.context, this.imageCache, this.styleCache);
       result.translateX = this.translateX;
       result.translateY = this.translateY;
       result.strokeType = this.strokeType;
@@ -655,51 +721,45 @@ public class SVGImageExporter extends AbstractExporter {
     @Override
     public void drawLine(final int startX, final int startY, final int endX, final int endY,
                          final Color color) {
-      this.buffer.append("<line x1=\"").append(dbl2str(startX + this.translateX))
-          .append("\" y1=\"").append(dbl2str(startY + this.translateY))
-          .append("\" x2=\"").append(dbl2str(endX + this.translateX))
-          .append("\" y2=\"").append(dbl2str(endY + this.translateY)).append("\" ");
+      this.out.append("<line x1=\"").number(startX + this.translateX)
+          .append("\" y1=\"").number(startY + this.translateY)
+          .append("\" x2=\"").number(endX + this.translateX)
+          .append("\" y2=\"").number(endY + this.translateY).append('"');
       if (color != null) {
-        printStrokeData(color);
-        printFillOpacity(color);
+        styleStroke(color);
+        styleFillOpacity(color);
       }
-      this.buffer.append("/>").append(NEXT_LINE);
+      writeStyle();
+      this.out.append("/>").append(NEXT_LINE);
     }
 
     @Override
     public void drawString(final String text, final int x, final int y, final Color color) {
-      this.buffer.append("<text x=\"").append(dbl2str(this.translateX + x)).append("\" y=\"")
-          .append(dbl2str(this.translateY + y)).append('\"');
+      this.out.append("<text x=\"").number(this.translateX + x).append("\" y=\"")
+          .number(this.translateY + y).append('"');
       if (color != null) {
-        this.buffer.append(" fill=\"").append(svgRgb(color)).append("\"");
-        printFillOpacity(color);
+        this.style.append("fill:").append(svgRgb(color)).append(';');
+        styleFillOpacity(color);
       }
-      this.buffer.append(' ');
-      printFontData(this.context.getFont());
-      this.buffer.append('>').append(StringEscapeUtils.escapeXml10(text)).append("</text>")
-          .append(NEXT_LINE);
+      styleFont(this.context.getFont());
+      writeStyle();
+      this.out.append('>').escaped(text).append("</text>").append(NEXT_LINE);
     }
 
     @Override
     public void drawRect(final int x, final int y, final int width, final int height,
                          final Color border, final Color fill) {
-      this.buffer.append("<rect x=\"").append(dbl2str(this.translateX + x))
-          .append("\" y=\"").append(dbl2str(translateY + y))
-          .append("\" width=\"").append(dbl2str(width))
-          .append("\" height=\"").append(dbl2str(height))
-          .append("\" ");
+      this.out.append("<rect x=\"").number(this.translateX + x)
+          .append("\" y=\"").number(this.translateY + y)
+          .append("\" width=\"").number(width)
+          .append("\" height=\"").number(height)
+          .append('"');
       if (border != null) {
-        printStrokeData(border);
+        styleStroke(border);
       }
-
-      if (fill == null) {
-        this.buffer.append(" fill=\"none\"");
-      } else {
-        this.buffer.append(" fill=\"").append(svgRgb(fill)).append("\"");
-        printFillOpacity(fill);
-      }
-
-      this.buffer.append("/>").append(NEXT_LINE);
+      styleFill(fill);
+      writeStyle();
+      this.out.append("/>").append(NEXT_LINE);
     }
 
     @Override
@@ -707,66 +767,66 @@ public class SVGImageExporter extends AbstractExporter {
       if (shape instanceof RoundRectangle2D) {
         final RoundRectangle2D rect = (RoundRectangle2D) shape;
 
-        this.buffer.append("<rect x=\"").append(dbl2str(this.translateX + rect.getX()))
-            .append("\" y=\"").append(dbl2str(translateY + rect.getY()))
-            .append("\" width=\"").append(dbl2str(rect.getWidth()))
-            .append("\" height=\"").append(dbl2str(rect.getHeight()))
-            .append("\" rx=\"").append(dbl2str(rect.getArcWidth() / 2.0d))
-            .append("\" ry=\"").append(dbl2str(rect.getArcHeight() / 2.0d))
-            .append("\" ");
+        this.out.append("<rect x=\"").number(this.translateX + rect.getX())
+            .append("\" y=\"").number(this.translateY + rect.getY())
+            .append("\" width=\"").number(rect.getWidth())
+            .append("\" height=\"").number(rect.getHeight())
+            .append("\" rx=\"").number(rect.getArcWidth() / 2.0d)
+            .append("\" ry=\"").number(rect.getArcHeight() / 2.0d)
+            .append('"');
 
       } else if (shape instanceof Rectangle2D) {
 
         final Rectangle2D rect = (Rectangle2D) shape;
-        this.buffer.append("<rect x=\"").append(dbl2str(this.translateX + rect.getX()))
-            .append("\" y=\"").append(dbl2str(translateY + rect.getY()))
-            .append("\" width=\"").append(dbl2str(rect.getWidth()))
-            .append("\" height=\"").append(dbl2str(rect.getHeight()))
-            .append("\" ");
+        this.out.append("<rect x=\"").number(this.translateX + rect.getX())
+            .append("\" y=\"").number(this.translateY + rect.getY())
+            .append("\" width=\"").number(rect.getWidth())
+            .append("\" height=\"").number(rect.getHeight())
+            .append('"');
 
       } else if (shape instanceof Path2D) {
         final Path2D path = (Path2D) shape;
         final double[] data = new double[6];
 
-        this.buffer.append("<path d=\"");
+        this.out.append("<path d=\"");
 
         boolean nofirst = false;
 
         for (final PathIterator pi = path.getPathIterator(null); !pi.isDone(); pi.next()) {
           if (nofirst) {
-            this.buffer.append(' ');
+            this.out.append(' ');
           }
           switch (pi.currentSegment(data)) {
             case PathIterator.SEG_MOVETO: {
-              this.buffer.append("M ").append(dbl2str(this.translateX + data[0])).append(' ')
-                  .append(dbl2str(this.translateY + data[1]));
+              this.out.append("M ").number(this.translateX + data[0]).append(' ')
+                  .number(this.translateY + data[1]);
             }
             break;
             case PathIterator.SEG_LINETO: {
-              this.buffer.append("L ").append(dbl2str(this.translateX + data[0])).append(' ')
-                  .append(dbl2str(this.translateY + data[1]));
+              this.out.append("L ").number(this.translateX + data[0]).append(' ')
+                  .number(this.translateY + data[1]);
             }
             break;
             case PathIterator.SEG_CUBICTO: {
-              this.buffer.append("C ")
-                  .append(dbl2str(this.translateX + data[0])).append(' ')
-                  .append(dbl2str(this.translateY + data[1])).append(',')
-                  .append(dbl2str(this.translateX + data[2])).append(' ')
-                  .append(dbl2str(this.translateY + data[3])).append(',')
-                  .append(dbl2str(this.translateX + data[4])).append(' ')
-                  .append(dbl2str(this.translateY + data[5]));
+              this.out.append("C ")
+                  .number(this.translateX + data[0]).append(' ')
+                  .number(this.translateY + data[1]).append(',')
+                  .number(this.translateX + data[2]).append(' ')
+                  .number(this.translateY + data[3]).append(',')
+                  .number(this.translateX + data[4]).append(' ')
+                  .number(this.translateY + data[5]);
             }
             break;
             case PathIterator.SEG_QUADTO: {
-              this.buffer.append("Q ")
-                  .append(dbl2str(this.translateX + data[0])).append(' ')
-                  .append(dbl2str(this.translateY + data[1])).append(',')
-                  .append(dbl2str(this.translateX + data[2])).append(' ')
-                  .append(dbl2str(this.translateY + data[3]));
+              this.out.append("Q ")
+                  .number(this.translateX + data[0]).append(' ')
+                  .number(this.translateY + data[1]).append(',')
+                  .number(this.translateX + data[2]).append(' ')
+                  .number(this.translateY + data[3]);
             }
             break;
             case PathIterator.SEG_CLOSE: {
-              this.buffer.append("Z");
+              this.out.append('Z');
             }
             break;
             default:
@@ -774,42 +834,39 @@ public class SVGImageExporter extends AbstractExporter {
           }
           nofirst = true;
         }
-        this.buffer.append("\" ");
+        this.out.append('"');
       } else {
         LOGGER.warn("Detected unexpected shape : " + shape.getClass().getName());
+        return;
       }
 
       if (border != null) {
-        printStrokeData(border);
+        styleStroke(border);
       }
-
-      if (fill == null) {
-        this.buffer.append(" fill=\"none\"");
-      } else {
-        this.buffer.append(" fill=\"").append(svgRgb(fill)).append("\"");
-        printFillOpacity(fill);
-      }
-
-      this.buffer.append("/>").append(NEXT_LINE);
+      styleFill(fill);
+      writeStyle();
+      this.out.append("/>").append(NEXT_LINE);
     }
 
     @Override
     public void drawCurve(final double startX, final double startY, final double endX,
                           final double endY, final Color color) {
-      this.buffer.append("<path d=\"M").append(dbl2str(startX + this.translateX)).append(',')
-          .append(startY + this.translateY)
-          .append(" C").append(dbl2str(startX))
-          .append(',').append(dbl2str(endY))
-          .append(' ').append(dbl2str(startX))
-          .append(',').append(dbl2str(endY))
-          .append(' ').append(dbl2str(endX))
-          .append(',').append(dbl2str(endY))
-          .append("\" fill=\"none\"");
-
+      this.out.append("<path d=\"M").number(startX + this.translateX).append(',')
+          .number(startY + this.translateY)
+          .append(" C").number(startX)
+          .append(',').number(endY)
+          .append(' ').number(startX)
+          .append(',').number(endY)
+          .append(' ').number(endX)
+          .append(',').number(endY)
+          .append('"');
+
+      this.style.append("fill:none;");
       if (color != null) {
-        printStrokeData(color);
+        styleStroke(color);
       }
-      this.buffer.append(" />").append(NEXT_LINE);
+      writeStyle();
+      this.out.append("/>").append(NEXT_LINE);
     }
 
     @Override
@@ -820,24 +877,18 @@ public class SVGImageExporter extends AbstractExporter {
       final double cx = (double) x + this.translateX + rx;
       final double cy = (double) y + this.translateY + ry;
 
-      this.buffer.append("<ellipse cx=\"").append(dbl2str(cx))
-          .append("\" cy=\"").append(dbl2str(cy))
-          .append("\" rx=\"").append(dbl2str(rx))
-          .append("\" ry=\"").append(dbl2str(ry))
-          .append("\" ");
+      this.out.append("<ellipse cx=\"").number(cx)
+          .append("\" cy=\"").number(cy)
+          .append("\" rx=\"").number(rx)
+          .append("\" ry=\"").number(ry)
+          .append('"');
 
       if (border != null) {
-        printStrokeData(border);
-      }
-
-      if (fill == null) {
-        this.buffer.append(" fill=\"none\"");
-      } else {
-        this.buffer.append(" fill=\"").append(svgRgb(fill)).append("\"");
-        printFillOpacity(fill);
+        styleStroke(border);
       }
-
-      this.buffer.append("/>").append(NEXT_LINE);
+      styleFill(fill);
+      writeStyle();
+      this.out.append("/>").append(NEXT_LINE);
     }
 
     @Override
@@ -845,12 +896,25 @@ public class SVGImageExporter extends AbstractExporter {
       if (image != null) {
         if (image instanceof RenderedImage) {
           final RenderedImage renderedImage = (RenderedImage) image;
-          final String imageUid = this.imageCache.add(renderedImage);
-          this.buffer.append("<use href=\"#").append(imageUid).append("\" xlink:href=\"#")
-              .append(imageUid).append("\" ")
-              .append("x=\"").append(dbl2str(this.translateX + x)).append("\" ")
-              .append("y=\"").append(dbl2str(this.translateY + y)).append("\"/>")
-              .append(NEXT_LINE);
+          final String imageUid = this.imageCache.find(renderedImage);
+          if (imageUid == null) {
+            this.out.append("<image x=\"").number(this.translateX + x)
+                .append("\" y=\"").number(this.translateY + y)
+                .append("\" width=\"").append(renderedImage.getWidth())
+                .append("\" height=\"").append(renderedImage.getHeight()).append('"');
+            try {
+              ImageCache.writeImageData(this.out, renderedImage);
+            } catch (IOException ex) {
+              throw new UncheckedIOException(ex);
+            }
+            this.out.append("/>").append(NEXT_LINE);
+          } else {
+            this.out.append("<use href=\"#").append(imageUid).append("\" xlink:href=\"#")
+                .append(imageUid).append("\" ")
+                .append("x=\"").number(this.translateX + x).append("\" ")
+                .append("y=\"").number(this.translateY + y).append("\"/>")
+                .append(NEXT_LINE);
+          }
         } else {
           LOGGER.warn(
               "Can't place image because it is not rendered one : " + image.getClass().getName());
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mindmap.plugins.exporters;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.commons.text.StringEscapeUtils;
+
+/**
+ * Buffered UTF-8 writer of SVG content directly into output stream. Numbers are formatted
+ * without intermediate objects, IO errors are wrapped into {@link UncheckedIOException} because
+ * the writer is called from graphics callbacks which can't throw checked exceptions.
+ */
+final class SvgWriter {
+
+  private static final int NUMBER_FRACTION_DIGITS = 3;
+  private static final long NUMBER_FRACTION_MULTIPLIER = 1000L;
+
+  private final OutputStream outputStream;
+  private final Writer writer;
+  private final char[] numberBuffer = new char[24];
+
+  SvgWriter(final OutputStream outputStream) {
+    this.outputStream = CloseShieldOutputStream.wrap(outputStream);
+    this.writer = new BufferedWriter(
+        new OutputStreamWriter(this.outputStream, StandardCharsets.UTF_8), 65536);
+  }
+
+  /**
+   * Make writer which drops all written data.
+   *
+   * @return writer, must not be null
+   */
+  static SvgWriter makeNull() {
+    return new SvgWriter(NullOutputStream.INSTANCE);
+  }
+
+  /**
+   * Format number in the same way as the writer does, for tests and rare cases.
+   *
+   * @param value value to be formatted
+   * @return formatted value, must not be null
+   */
+  static String formatNumber(final double value) {
+    final char[] buffer = new char[24];
+    final int start = formatNumber(value, buffer);
+    return new String(buffer, start, buffer.length - start);
+  }
+
+  /**
+   * Format number into end of buffer, max three fraction digits without trailing zeros.
+   *
+   * @param value  value to be formatted
+   * @param buffer buffer to be filled from its end
+   * @return index of the first char of the formatted value in the buffer
+   */
+  private static int formatNumber(final double value, final char[] buffer) {
+    int position = buffer.length;
+    if (Double.isNaN(value) || Double.isInfinite(value)) {
+      buffer[--position] = '0';
+      return position;
+    }
+
+    long scaled = Math.round(Math.abs(value) * NUMBER_FRACTION_MULTIPLIER);
+    final boolean negative = value < 0.0d && scaled != 0L;
+
+    long fraction = scaled % NUMBER_FRACTION_MULTIPLIER;
+    long integer = scaled / NUMBER_FRACTION_MULTIPLIER;
+
+    if (fraction != 0L) {
+      int digits = NUMBER_FRACTION_DIGITS;
+      while (fraction % 10L == 0L) {
+        fraction /= 10L;
+        digits--;
+      }
+      for (int i = 0; i < digits; i++) {
+        buffer[--position] = (char) ('0' + fraction % 10L);
+        fraction /= 10L;
+      }
+      buffer[--position] = '.';
+    }
+
+    do {
+      buffer[--position] = (char) ('0' + integer % 10L);
+      integer /= 10L;
+    } while (integer != 0L);
+
+    if (negative) {
+      buffer[--position] = '-';
+    }
+    return position;
+  }
+
+  SvgWriter append(final String text) {
+    try {
+      this.writer.write(text);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return this;
+  }
+
+  SvgWriter append(final char chr) {
+    try {
+      this.writer.write(chr);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return this;
+  }
+
+  SvgWriter append(final int value) {
+    return this.number(value);
+  }
+
+  SvgWriter number(final double value) {
+    final int start = formatNumber(value, this.numberBuffer);
+    try {
+      this.writer.write(this.numberBuffer, start, this.numberBuffer.length - start);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return this;
+  }
+
+  SvgWriter escaped(final String text) {
+    try {
+      StringEscapeUtils.ESCAPE_XML10.translate(text, this.writer);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return this;
+  }
+
+  /**
+   * Write binary data as Base64 directly into the output stream.
+   *
+   * @param data data to be written, must not be null
+   * @throws IOException if any IO error
+   */
+  void base64(final BinaryDataWriter data) throws IOException {
+    this.writer.flush();
+    try (final OutputStream base64 = Base64.getEncoder()
+        .wrap(CloseShieldOutputStream.wrap(this.outputStream))) {
+      data.write(base64);
+    }
+  }
+
+  void flush() throws IOException {
+    this.writer.flush();
+    this.outputStream.flush();
+  }
+
+  @FunctionalInterface
+  interface BinaryDataWriter {
+    void write(OutputStream out) throws IOException;
+  }
+}
@@ -24,33 +24,25 @@ import com.igormaznitsa.mindmap.model.ExtraLink;
 import com.igormaznitsa.mindmap.model.ExtraNote;
 import com.igormaznitsa.mindmap.model.ExtraTopic;
 import com.igormaznitsa.mindmap.model.Topic;
-import com.igormaznitsa.mindmap.plugins.api.AbstractExporter;
+import com.igormaznitsa.mindmap.plugins.api.AbstractTextExporter;
 import com.igormaznitsa.mindmap.plugins.api.PluginContext;
 import com.igormaznitsa.mindmap.plugins.api.parameters.AbstractParameter;
 import com.igormaznitsa.mindmap.swing.ide.IDEBridgeFactory;
-import com.igormaznitsa.mindmap.swing.panel.utils.MindMapUtils;
 import com.igormaznitsa.mindmap.swing.panel.utils.Utils;
 import com.igormaznitsa.mindmap.swing.services.IconID;
 import com.igormaznitsa.mindmap.swing.services.ImageIconServiceProvider;
-import java.awt.Toolkit;
-import java.awt.datatransfer.Clipboard;
-import java.awt.datatransfer.StringSelection;
-import java.io.BufferedOutputStream;
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
+import java.io.Writer;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Set;
 import javax.swing.Icon;
-import javax.swing.SwingUtilities;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 
-public class TextExporter extends AbstractExporter {
+public class TextExporter extends AbstractTextExporter {
 
   private static final int SHIFT_STEP = 1;
   private static final Icon ICO =
@@ -237,8 +229,11 @@ public class TextExporter extends AbstractExporter {
     }
   }
 
-  private String makeContent(final PluginContext context,
-                             final ExtrasToStringConverter stringConverter) {
+  @Override
+  protected void writeContent(final PluginContext context,
+                              final Set<AbstractParameter<?>> options,
+                              final Writer out,
+                              final ExtrasToStringConverter stringConverter) throws IOException {
     final State state = new State();
 
     state.append(
@@ -250,77 +245,33 @@ public class TextExporter extends AbstractExporter {
         .nextLine()
         .nextLine();
 
-    int shift = 0;
-
     final Topic root = context.getModel().getRoot();
     if (root != null) {
-      writeTopic(context, root, '=', shift, state, stringConverter);
-
-      shift += SHIFT_STEP;
+      writeTopic(context, root, '=', 0, state, stringConverter);
+    }
+    out.write(state.toString());
 
-      final Topic[] children = Utils.getLeftToRightOrderedChildrens(root);
-      for (final Topic t : children) {
-        writeInterTopicLine(state);
-        writeTopic(context, t, '-', shift, state, stringConverter);
-        shift += SHIFT_STEP;
+    if (root != null) {
+      writeChunks(out, Arrays.asList(Utils.getLeftToRightOrderedChildrens(root)), (t, index) -> {
+        final State chunk = new State();
+        writeInterTopicLine(chunk);
+        writeTopic(context, t, '-', SHIFT_STEP, chunk, stringConverter);
         for (final Topic tt : t.getChildren()) {
-          writeOtherTopicRecursively(context, tt, shift, state, stringConverter);
+          writeOtherTopicRecursively(context, tt, SHIFT_STEP * 2, chunk, stringConverter);
         }
-        shift -= SHIFT_STEP;
-      }
+        return chunk.toString();
+      });
     }
-
-    return state.toString();
   }
 
   @Override
-  public void doExportToClipboard(final PluginContext context,
-                                  final Set<AbstractParameter<?>> options,
-                                  final ExtrasToStringConverter stringConverter)
-      throws IOException {
-    final String text = makeContent(context, stringConverter);
-    SwingUtilities.invokeLater(() -> {
-      final Clipboard clipboard = Toolkit.getDefaultToolkit().getSystemClipboard();
-      if (clipboard != null) {
-        clipboard.setContents(new StringSelection(text), null);
-      }
-    });
+  protected String getFileExtension() {
+    return ".txt";
   }
 
   @Override
-  public void doExport(
-      final PluginContext context,
-      final Set<AbstractParameter<?>> options,
-      final OutputStream out,
-      final ExtrasToStringConverter stringConverter
-  ) throws IOException {
-    final String text = makeContent(context, stringConverter);
-
-    File fileToSaveMap = null;
-    OutputStream theOut = out;
-    if (theOut == null) {
-      fileToSaveMap = MindMapUtils.selectFileToSaveForFileFilter(
-          context.getPanel(),
-          context,
-          this.getClass().getName(),
-          this.getResourceBundle().getString("TextExporter.saveDialogTitle"),
-          null,
-          ".txt",
-          this.getResourceBundle().getString("TextExporter.filterDescription"),
-          this.getResourceBundle().getString("TextExporter.approveButtonText"));
-      fileToSaveMap = MindMapUtils.checkFileAndExtension(context.getPanel(), fileToSaveMap, ".txt");
-      theOut = fileToSaveMap == null ? null :
-          new BufferedOutputStream(new FileOutputStream(fileToSaveMap, false));
-    }
-    if (theOut != null) {
-      try {
-        IOUtils.write(text, theOut, "UTF-8");
-      } finally {
-        if (fileToSaveMap != null) {
-          IOUtils.closeQuietly(theOut);
-        }
-      }
-    }
+  protected String getResourceKeyPrefix() {
+    return "TextExporter";
   }
 
   @Override
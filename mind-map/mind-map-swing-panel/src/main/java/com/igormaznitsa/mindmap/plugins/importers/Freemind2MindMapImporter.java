@@ -40,6 +40,7 @@ import java.awt.Color;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
@@ -51,6 +52,9 @@ import java.util.Map;
 import java.util.Set;
 import javax.swing.Icon;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpressionException;
@@ -200,6 +204,167 @@ public class Freemind2MindMapImporter extends AbstractImporter {
   MindMap extractTopics(final File rootFolder,
                         final FileInputStream inputStream)
       throws ParserConfigurationException, IOException, XPathExpressionException {
+    final long startPosition = inputStream.getChannel().position();
+    try {
+      return streamTopics(rootFolder, inputStream);
+    } catch (XMLStreamException ex) {
+      LOGGER.warn("Can't stream freemind file as XML, trying lenient parser: " + ex.getMessage());
+      inputStream.getChannel().position(startPosition);
+      return parseTopics(rootFolder, inputStream);
+    }
+  }
+
+  private static MindMap makeResultMap() {
+    final MindMap resultedMap = new MindMap(true);
+    resultedMap.putAttribute(StandardMmdAttributes.MMD_ATTRIBUTE_GENERATOR_ID, IDEBridgeFactory.findInstance()
+        .getIDEGeneratorId());
+    resultedMap.putAttribute(StandardMmdAttributes.MMD_ATTRIBUTE_SHOW_JUMPS, "true");
+    return resultedMap;
+  }
+
+  private static void processLinks(final MindMap map,
+                                   final Map<String, Topic> idTopicMap,
+                                   final Map<String, String> linksMap) {
+    for (final Map.Entry<String, String> l : linksMap.entrySet()) {
+      final Topic start = idTopicMap.get(l.getKey());
+      final Topic end = idTopicMap.get(l.getValue());
+      if (start != null && end != null) {
+        start.setExtra(ExtraTopic.makeLinkTo(map, end));
+      }
+    }
+  }
+
+  private static MindMap streamTopics(final File rootFolder, final InputStream inputStream)
+      throws XMLStreamException {
+    final XMLStreamReader reader = Utils.makeXmlStreamReader(inputStream, "UTF-8");
+    try {
+      if (!"map".equals(XmlStreamUtils.toRootElement(reader))) {
+        throw new IllegalArgumentException("Can't parse freemind file as xhtml");
+      }
+
+      final Map<String, Topic> idTopicMap = new HashMap<>();
+      final Map<String, String> linksMap = new HashMap<>();
+      final MindMap resultedMap = makeResultMap();
+
+      boolean rootFound = false;
+      while (XmlStreamUtils.nextChildElement(reader)) {
+        if (!rootFound && "node".equals(XmlStreamUtils.getName(reader))) {
+          rootFound = true;
+          streamTopic(rootFolder, reader, null, resultedMap.getRoot(), idTopicMap, linksMap);
+        } else {
+          XmlStreamUtils.skipElement(reader);
+        }
+      }
+
+      if (!rootFound) {
+        requireNonNull(resultedMap.getRoot()).setText("Empty");
+      }
+
+      processLinks(resultedMap, idTopicMap, linksMap);
+      return resultedMap;
+    } finally {
+      reader.close();
+    }
+  }
+
+  private static void streamTopic(final File rootFolder, final XMLStreamReader reader,
+                                  final Topic parent, final Topic preGeneratedTopic,
+                                  final Map<String, Topic> idTopicMap,
+                                  final Map<String, String> linksMap)
+      throws XMLStreamException {
+    final String id = XmlStreamUtils.getAttribute(reader, "id", true);
+
+    final Topic topicToProcess = startTopic(parent, preGeneratedTopic,
+        XmlStreamUtils.getAttribute(reader, "text", true),
+        XmlStreamUtils.getAttribute(reader, "position", true),
+        XmlStreamUtils.getAttribute(reader, "color", true),
+        XmlStreamUtils.getAttribute(reader, "background_color", true));
+
+    registerTopic(topicToProcess, id, XmlStreamUtils.getAttribute(reader, "link", true),
+        idTopicMap, linksMap);
+
+    boolean arrowlinkFound = false;
+    while (XmlStreamUtils.nextChildElement(reader)) {
+      switch (XmlStreamUtils.getName(reader)) {
+        case "node": {
+          streamTopic(rootFolder, reader, topicToProcess, null, idTopicMap, linksMap);
+        }
+        break;
+        case "richcontent": {
+          final String textType = XmlStreamUtils.getAttribute(reader, "type", true);
+          final List<String> foundImageUrls = new ArrayList<>();
+          final String text =
+              streamHtmlElement(reader, new StringBuilder(), foundImageUrls).toString()
+                  .replace("\r", "");
+          try {
+            applyRichContent(rootFolder, topicToProcess,
+                new RichContent(RichContentType.valueOf(textType), text, foundImageUrls));
+          } catch (IllegalArgumentException ex) {
+            LOGGER.warn("Unknown node type : " + textType);
+          }
+        }
+        break;
+        case "arrowlink": {
+          if (!arrowlinkFound) {
+            arrowlinkFound = true;
+            final String destination = XmlStreamUtils.getAttribute(reader, "destination", true);
+            if (!id.isEmpty() && !destination.isEmpty()) {
+              linksMap.put(id, destination);
+            }
+          }
+          XmlStreamUtils.skipElement(reader);
+        }
+        break;
+        default: {
+          XmlStreamUtils.skipElement(reader);
+        }
+        break;
+      }
+    }
+  }
+
+  private static StringBuilder streamHtmlElement(final XMLStreamReader reader,
+                                                 final StringBuilder builder,
+                                                 final List<String> imageURLs)
+      throws XMLStreamException {
+    int depth = 1;
+    while (depth > 0) {
+      switch (reader.next()) {
+        case XMLStreamConstants.START_ELEMENT: {
+          depth++;
+          final String tag = XmlStreamUtils.getName(reader);
+          if ("img".equals(tag)) {
+            final String source = XmlStreamUtils.getAttribute(reader, "src", true);
+            if (!source.isEmpty()) {
+              imageURLs.add(source);
+            }
+          }
+          if (TOKEN_NEEDS_NEXT_LINE.contains(tag)) {
+            builder.append('\n');
+          }
+        }
+        break;
+        case XMLStreamConstants.END_ELEMENT: {
+          depth--;
+        }
+        break;
+        case XMLStreamConstants.CHARACTERS:
+        case XMLStreamConstants.SPACE: {
+          builder.append(reader.getText());
+        }
+        break;
+        default: {
+          // just ignoring  other elements
+        }
+        break;
+      }
+    }
+    return builder;
+  }
+
+  private static MindMap parseTopics(final File rootFolder,
+                                     final InputStream inputStream)
+      throws ParserConfigurationException, IOException, XPathExpressionException {
     final Document document = Utils.load(inputStream, "UTF-8", Parser.xmlParser(), true);
 
     final XPath xpath = XPathFactory.newInstance().newXPath();
@@ -212,45 +377,52 @@ public class Freemind2MindMapImporter extends AbstractImporter {
 
     final Map<String, Topic> idTopicMap = new HashMap<>();
     final Map<String, String> linksMap = new HashMap<>();
-    final MindMap resultedMap = new MindMap(true);
-    resultedMap.putAttribute(StandardMmdAttributes.MMD_ATTRIBUTE_GENERATOR_ID, IDEBridgeFactory.findInstance()
-        .getIDEGeneratorId());
-    resultedMap.putAttribute(StandardMmdAttributes.MMD_ATTRIBUTE_SHOW_JUMPS, "true");
+    final MindMap resultedMap = makeResultMap();
 
     final List<Element> list = Utils.findDirectChildrenForName(rootElement, "node");
     if (list.isEmpty()) {
       requireNonNull(resultedMap.getRoot()).setText("Empty");
     } else {
-      parseTopic(rootFolder, resultedMap, null, resultedMap.getRoot(), list.get(0), idTopicMap,
-          linksMap);
+      parseTopic(rootFolder, null, resultedMap.getRoot(), list.get(0), idTopicMap, linksMap);
     }
 
-    for (final Map.Entry<String, String> l : linksMap.entrySet()) {
-      final Topic start = idTopicMap.get(l.getKey());
-      final Topic end = idTopicMap.get(l.getValue());
-      if (start != null && end != null) {
-        start.setExtra(ExtraTopic.makeLinkTo(resultedMap, end));
-      }
-    }
+    processLinks(resultedMap, idTopicMap, linksMap);
 
     return resultedMap;
   }
 
-  private void parseTopic(final File rootFolder, final MindMap map,
-                          final Topic parent, final Topic preGeneratedTopic,
-                          final Element element, final Map<String, Topic> idTopicMap,
-                          final Map<String, String> linksMap) {
+  private static void parseTopic(final File rootFolder,
+                                 final Topic parent, final Topic preGeneratedTopic,
+                                 final Element element, final Map<String, Topic> idTopicMap,
+                                 final Map<String, String> linksMap) {
 
-    final String text = findAttribute(element, "text");
     final String id = findAttribute(element, "id");
-    final String position = findAttribute(element, "position");
     final String arrowDestination = findArrowlinkDestination(element);
-    final String backgroundColor = findAttribute(element, "background_color");
-    final String color = findAttribute(element, "color");
-    final String link = findAttribute(element, "link");
 
-    final List<RichContent> foundRichContent = extractRichContent(element);
+    final Topic topicToProcess = startTopic(parent, preGeneratedTopic,
+        findAttribute(element, "text"),
+        findAttribute(element, "position"),
+        findAttribute(element, "color"),
+        findAttribute(element, "background_color"));
+
+    for (final RichContent r : extractRichContent(element)) {
+      applyRichContent(rootFolder, topicToProcess, r);
+    }
 
+    registerTopic(topicToProcess, id, findAttribute(element, "link"), idTopicMap, linksMap);
+
+    if (!id.isEmpty() && !arrowDestination.isEmpty()) {
+      linksMap.put(id, arrowDestination);
+    }
+
+    for (final Element e : Utils.findDirectChildrenForName(element, "node")) {
+      parseTopic(rootFolder, topicToProcess, null, e, idTopicMap, linksMap);
+    }
+  }
+
+  private static Topic startTopic(final Topic parent, final Topic preGeneratedTopic,
+                                  final String text, final String position,
+                                  final String color, final String backgroundColor) {
     final Topic topicToProcess;
     if (preGeneratedTopic == null) {
       topicToProcess = requireNonNull(parent).makeChild(text, null);
@@ -284,25 +456,31 @@ public class Freemind2MindMapImporter extends AbstractImporter {
     }
 
     topicToProcess.setText(text);
+    return topicToProcess;
+  }
 
-    for (final RichContent r : foundRichContent) {
-      switch (r.getType()) {
-        case NODE: {
-          if (!r.getText().isEmpty()) {
-            topicToProcess.setText(r.getText().trim());
-          }
+  private static void applyRichContent(final File rootFolder, final Topic topic,
+                                       final RichContent richContent) {
+    switch (richContent.getType()) {
+      case NODE: {
+        if (!richContent.getText().isEmpty()) {
+          topic.setText(richContent.getText().trim());
         }
-        break;
-        case NOTE: {
-          if (!r.getText().isEmpty()) {
-            topicToProcess.setExtra(new ExtraNote(r.getText().trim()));
-          }
+      }
+      break;
+      case NOTE: {
+        if (!richContent.getText().isEmpty()) {
+          topic.setExtra(new ExtraNote(richContent.getText().trim()));
         }
-        break;
       }
-      processImageLinkForTopic(rootFolder, topicToProcess, r.getFoundImageURLs());
+      break;
     }
+    processImageLinkForTopic(rootFolder, topic, richContent.getFoundImageURLs());
+  }
 
+  private static void registerTopic(final Topic topic, final String id, final String link,
+                                    final Map<String, Topic> idTopicMap,
+                                    final Map<String, String> linksMap) {
     if (!link.isEmpty()) {
       if (link.startsWith("#")) {
         if (!id.isEmpty()) {
@@ -310,7 +488,7 @@ public class Freemind2MindMapImporter extends AbstractImporter {
         }
       } else {
         try {
-          topicToProcess.setExtra(new ExtraLink(link));
+          topic.setExtra(new ExtraLink(link));
         } catch (URISyntaxException ex) {
           LOGGER.warn("Can't convert link: " + link);
         }
@@ -318,14 +496,7 @@ public class Freemind2MindMapImporter extends AbstractImporter {
     }
 
     if (!id.isEmpty()) {
-      idTopicMap.put(id, topicToProcess);
-      if (!arrowDestination.isEmpty()) {
-        linksMap.put(id, arrowDestination);
-      }
-    }
-
-    for (final Element e : Utils.findDirectChildrenForName(element, "node")) {
-      parseTopic(rootFolder, map, topicToProcess, null, e, idTopicMap, linksMap);
+      idTopicMap.put(id, topic);
     }
   }
 
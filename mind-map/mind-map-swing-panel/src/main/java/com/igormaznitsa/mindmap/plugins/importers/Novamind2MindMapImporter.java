@@ -39,7 +39,6 @@ import com.igormaznitsa.mindmap.swing.panel.utils.Utils;
 import com.igormaznitsa.mindmap.swing.services.IconID;
 import com.igormaznitsa.mindmap.swing.services.ImageIconServiceProvider;
 import java.awt.Color;
-import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -50,10 +49,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.zip.ZipFile;
 import javax.swing.Icon;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.apache.commons.io.IOUtils;
 
 public class Novamind2MindMapImporter extends AbstractImporter {
 
@@ -277,20 +276,31 @@ public class Novamind2MindMapImporter extends AbstractImporter {
       try {
         final InputStream resourceIn = Utils.findInputStreamForResource(zipFile, manifestPath);
         if (resourceIn != null) {
-          final Document document = Utils.loadXmlDocument(resourceIn, null, true);
-          final Element main = document.getDocumentElement();
-          if ("manifest".equals(main.getTagName())) {
-            for (final Element e : Utils.findDirectChildrenForName(main, "resources")) {
-              for (final Element r : Utils.findDirectChildrenForName(e, "resource")) {
-                final String id = r.getAttribute("id");
-                final String url = r.getAttribute("url");
-                if (!id.isEmpty() && !url.isEmpty()) {
-                  resourceMap.put(id, new Resource(url));
+          final XMLStreamReader reader = Utils.makeXmlStreamReader(resourceIn, null);
+          try {
+            if ("manifest".equals(XmlStreamUtils.toRootElement(reader))) {
+              while (XmlStreamUtils.nextChildElement(reader)) {
+                if ("resources".equals(XmlStreamUtils.getName(reader))) {
+                  while (XmlStreamUtils.nextChildElement(reader)) {
+                    if ("resource".equals(XmlStreamUtils.getName(reader))) {
+                      final String id = XmlStreamUtils.getAttribute(reader, "id", false);
+                      final String url = XmlStreamUtils.getAttribute(reader, "url", false);
+                      if (!id.isEmpty() && !url.isEmpty()) {
+                        resourceMap.put(id, new Resource(url));
+                      }
+                    }
+                    XmlStreamUtils.skipElement(reader);
+                  }
+                } else {
+                  XmlStreamUtils.skipElement(reader);
                 }
               }
+            } else {
+              LOGGER.warn("Can't find manifest tag, looks like that format changed");
             }
-          } else {
-            LOGGER.warn("Can't find manifest tag, looks like that format changed");
+          } finally {
+            reader.close();
+            IOUtils.closeQuietly(resourceIn);
           }
         }
       } catch (final Exception ex) {
@@ -303,15 +313,17 @@ public class Novamind2MindMapImporter extends AbstractImporter {
 
       final Resource resource = findResource(id);
       if (resource != null) {
-        final byte[] imageFile = resource.extractResourceBody();
-        if (imageFile != null) {
+        final InputStream imageStream = resource.openResourceBody();
+        if (imageStream != null) {
           try {
-            result = Utils.rescaleImageAndEncodeAsBase64(new ByteArrayInputStream(imageFile), -1);
+            result = Utils.rescaleImageAndEncodeAsBase64(imageStream, -1);
             if (result == null) {
               LOGGER.warn("Impossible to read image: " + resource.getUrl());
             }
           } catch (Exception ex) {
             LOGGER.error("Can't find or convert image resource : " + resource.getUrl(), ex);
+          } finally {
+            IOUtils.closeQuietly(imageStream);
           }
         }
       }
@@ -335,11 +347,11 @@ public class Novamind2MindMapImporter extends AbstractImporter {
         return this.url;
       }
 
-      byte[] extractResourceBody() {
-        byte[] result = null;
+      InputStream openResourceBody() {
+        InputStream result = null;
         final String path = "Resources/" + url;
         try {
-          result = Utils.toByteArray(zipFile, path);
+          result = Utils.findInputStreamForResource(zipFile, path);
         } catch (Exception ex) {
           LOGGER.error("Can't extract resource data : " + path, ex);
         }
@@ -360,42 +372,34 @@ public class Novamind2MindMapImporter extends AbstractImporter {
       try {
         final InputStream resourceIn = Utils.findInputStreamForResource(file, path);
         if (resourceIn != null) {
-          final Document document = Utils.loadXmlDocument(resourceIn, null, true);
-          final Element main = document.getDocumentElement();
-          if ("document".equals(main.getTagName())) {
-            for (final Element e : Utils.findDirectChildrenForName(main, "topics")) {
-              for (final Element r : Utils.findDirectChildrenForName(e, "topic")) {
-                final String id = r.getAttribute("id");
-                this.topicsMap.put(id, new ContentTopic(id, r));
-              }
-            }
-
-            final Element maps = Utils.findFirstElement(main, "maps");
-            if (maps != null) {
-              final Element firstMap = Utils.findFirstElement(maps, "map");
-              if (firstMap != null) {
-                final Element rootTopicNode = Utils.findFirstElement(firstMap, "topic-node");
-                if (rootTopicNode != null) {
-                  mapRoot = new TopicReference(rootTopicNode, this.topicsMap);
-                }
-
-                for (final Element l : Utils.findDirectChildrenForName(firstMap, "link-lines")) {
-                  for (final Element tn : Utils.findDirectChildrenForName(l, "topic-node")) {
-                    for (final Element lld : Utils.findDirectChildrenForName(tn, "link-line-data")) {
-                      this.linksBetweenTopics.put(lld.getAttribute("start-topic-node-ref"), lld.getAttribute("end-topic-node-ref"));
+          final XMLStreamReader reader = Utils.makeXmlStreamReader(resourceIn, null);
+          try {
+            if ("document".equals(XmlStreamUtils.toRootElement(reader))) {
+              boolean mapsFound = false;
+              while (XmlStreamUtils.nextChildElement(reader)) {
+                final String name = XmlStreamUtils.getName(reader);
+                if ("topics".equals(name)) {
+                  while (XmlStreamUtils.nextChildElement(reader)) {
+                    if ("topic".equals(XmlStreamUtils.getName(reader))) {
+                      final String id = XmlStreamUtils.getAttribute(reader, "id", false);
+                      this.topicsMap.put(id, new ContentTopic(id, reader));
+                    } else {
+                      XmlStreamUtils.skipElement(reader);
                     }
                   }
+                } else if (!mapsFound && "maps".equals(name)) {
+                  mapsFound = true;
+                  mapRoot = this.readFirstMap(reader);
+                } else {
+                  XmlStreamUtils.skipElement(reader);
                 }
-
-              } else {
-                mapRoot = null;
               }
             } else {
-              mapRoot = null;
+              LOGGER.warn("Can't find document, looks like that format changed");
             }
-
-          } else {
-            LOGGER.warn("Can't find document, looks like that format changed");
+          } finally {
+            reader.close();
+            IOUtils.closeQuietly(resourceIn);
           }
         }
       } catch (final Exception ex) {
@@ -405,6 +409,48 @@ public class Novamind2MindMapImporter extends AbstractImporter {
       this.rootRef = mapRoot;
     }
 
+    private TopicReference readFirstMap(final XMLStreamReader reader) throws XMLStreamException {
+      TopicReference mapRoot = null;
+      boolean mapFound = false;
+      while (XmlStreamUtils.nextChildElement(reader)) {
+        if (!mapFound && "map".equals(XmlStreamUtils.getName(reader))) {
+          mapFound = true;
+          boolean rootFound = false;
+          while (XmlStreamUtils.nextChildElement(reader)) {
+            final String name = XmlStreamUtils.getName(reader);
+            if (!rootFound && "topic-node".equals(name)) {
+              rootFound = true;
+              mapRoot = new TopicReference(reader, this.topicsMap);
+            } else if ("link-lines".equals(name)) {
+              this.readLinkLines(reader);
+            } else {
+              XmlStreamUtils.skipElement(reader);
+            }
+          }
+        } else {
+          XmlStreamUtils.skipElement(reader);
+        }
+      }
+      return mapRoot;
+    }
+
+    private void readLinkLines(final XMLStreamReader reader) throws XMLStreamException {
+      while (XmlStreamUtils.nextChildElement(reader)) {
+        if ("topic-node".equals(XmlStreamUtils.getName(reader))) {
+          while (XmlStreamUtils.nextChildElement(reader)) {
+            if ("link-line-data".equals(XmlStreamUtils.getName(reader))) {
+              this.linksBetweenTopics.put(
+                  XmlStreamUtils.getAttribute(reader, "start-topic-node-ref", false),
+                  XmlStreamUtils.getAttribute(reader, "end-topic-node-ref", false));
+            }
+            XmlStreamUtils.skipElement(reader);
+          }
+        } else {
+          XmlStreamUtils.skipElement(reader);
+        }
+      }
+    }
+
     TopicReference findForTopicId(final TopicReference startTopicRef, final String contentTopicId) {
       TopicReference result = null;
 
@@ -433,7 +479,8 @@ public class Novamind2MindMapImporter extends AbstractImporter {
     private static final class TopicReference {
 
       private final String id;
-      private final ContentTopic linkedTopic;
+      private final String topicRef;
+      private final Map<String, ContentTopic> topicMap;
 
       private final Color colorBorder;
       private final Color colorText;
@@ -441,42 +488,71 @@ public class Novamind2MindMapImporter extends AbstractImporter {
 
       private final List<TopicReference> children = new ArrayList<>();
 
-      private TopicReference(final Element topicNode, final Map<String, ContentTopic> topicMap) {
-        this.id = topicNode.getAttribute("id");
-        this.linkedTopic = topicMap.get(topicNode.getAttribute("topic-ref"));
-
-        final Element subTopics = Utils.findFirstElement(topicNode, "sub-topics");
-        if (subTopics != null) {
-          for (final Element t : Utils.findDirectChildrenForName(subTopics, "topic-node")) {
-            this.children.add(new TopicReference(t, topicMap));
-          }
-        }
+      private TopicReference(final XMLStreamReader reader,
+                             final Map<String, ContentTopic> topicMap)
+          throws XMLStreamException {
+        this.id = XmlStreamUtils.getAttribute(reader, "id", false);
+        this.topicRef = XmlStreamUtils.getAttribute(reader, "topic-ref", false);
+        this.topicMap = topicMap;
 
         Color tmpColorBackground = null;
         Color tmpColorText = null;
         Color tmpColorBorder = null;
 
-        final Element topicNodeView = Utils.findFirstElement(topicNode, "topic-node-view");
-        if (topicNodeView != null) {
-          final Element style = Utils.findFirstElement(topicNodeView, "topic-node-style");
-          if (style != null) {
-            final Element fillStyle = Utils.findFirstElement(style, "fill-style");
-            final Element lineStyle = Utils.findFirstElement(style, "line-style");
-
-            if (fillStyle != null) {
-              final Element solidColor = Utils.findFirstElement(fillStyle, "solid-color");
-              if (solidColor != null) {
-                tmpColorBackground = Utils.html2color(solidColor.getAttribute("color"), false);
-                if (tmpColorBackground != null) {
-                  tmpColorText = Utils.makeContrastColor(tmpColorBackground);
-                }
+        boolean subTopicsFound = false;
+        boolean topicNodeViewFound = false;
+
+        while (XmlStreamUtils.nextChildElement(reader)) {
+          final String name = XmlStreamUtils.getName(reader);
+          if (!subTopicsFound && "sub-topics".equals(name)) {
+            subTopicsFound = true;
+            while (XmlStreamUtils.nextChildElement(reader)) {
+              if ("topic-node".equals(XmlStreamUtils.getName(reader))) {
+                this.children.add(new TopicReference(reader, topicMap));
+              } else {
+                XmlStreamUtils.skipElement(reader);
               }
             }
-
-            if (lineStyle != null) {
-              tmpColorBorder = Utils.html2color(lineStyle.getAttribute("color"), false);
+          } else if (!topicNodeViewFound && "topic-node-view".equals(name)) {
+            topicNodeViewFound = true;
+            boolean styleFound = false;
+            while (XmlStreamUtils.nextChildElement(reader)) {
+              if (!styleFound && "topic-node-style".equals(XmlStreamUtils.getName(reader))) {
+                styleFound = true;
+                boolean fillStyleFound = false;
+                boolean lineStyleFound = false;
+                while (XmlStreamUtils.nextChildElement(reader)) {
+                  final String styleName = XmlStreamUtils.getName(reader);
+                  if (!fillStyleFound && "fill-style".equals(styleName)) {
+                    fillStyleFound = true;
+                    boolean solidColorFound = false;
+                    while (XmlStreamUtils.nextChildElement(reader)) {
+                      if (!solidColorFound
+                          && "solid-color".equals(XmlStreamUtils.getName(reader))) {
+                        solidColorFound = true;
+                        tmpColorBackground = Utils.html2color(
+                            XmlStreamUtils.getAttribute(reader, "color", false), false);
+                        if (tmpColorBackground != null) {
+                          tmpColorText = Utils.makeContrastColor(tmpColorBackground);
+                        }
+                      }
+                      XmlStreamUtils.skipElement(reader);
+                    }
+                  } else {
+                    if (!lineStyleFound && "line-style".equals(styleName)) {
+                      lineStyleFound = true;
+                      tmpColorBorder = Utils.html2color(
+                          XmlStreamUtils.getAttribute(reader, "color", false), false);
+                    }
+                    XmlStreamUtils.skipElement(reader);
+                  }
+                }
+              } else {
+                XmlStreamUtils.skipElement(reader);
+              }
             }
-
+          } else {
+            XmlStreamUtils.skipElement(reader);
           }
         }
 
@@ -502,7 +578,7 @@ public class Novamind2MindMapImporter extends AbstractImporter {
       }
 
       ContentTopic getContentTopic() {
-        return this.linkedTopic;
+        return this.topicMap.get(this.topicRef);
       }
 
       public List<TopicReference> getChildren() {
@@ -515,77 +591,103 @@ public class Novamind2MindMapImporter extends AbstractImporter {
       private final String id;
       private final String richText;
       private final String notes;
-      private final List<String> linkUrls;
+      private final List<String> linkUrls = new ArrayList<>();
       private final String imageResourceId;
 
-      private ContentTopic(final String id, final Element nodeElement) {
+      private ContentTopic(final String id, final XMLStreamReader reader)
+          throws XMLStreamException {
         this.id = id;
-        this.imageResourceId = extractImageId(nodeElement);
-        this.notes = extractNotes(nodeElement);
-        this.linkUrls = extractLinkUrls(nodeElement);
-        this.richText = extractRichTextBlock(nodeElement);
-      }
-
-      private static String extractRichText(final Element richText) {
-        final StringBuilder result = new StringBuilder();
-
-        for (final Element r : Utils.findDirectChildrenForName(richText, "text-run")) {
-          NodeList list = r.getChildNodes();
-          for (int i = 0; i < list.getLength(); i++) {
-            final Node n = list.item(i);
 
-            if (n.getNodeType() == Node.ELEMENT_NODE) {
-              if (n.getNodeName().equals("br")) {
-                result.append('\n');
-              } else {
-                result.append(n.getTextContent());
+        String imageId = null;
+        boolean imageFound = false;
+        final StringBuilder notesText = new StringBuilder();
+        final StringBuilder text = new StringBuilder();
+
+        while (XmlStreamUtils.nextChildElement(reader)) {
+          switch (XmlStreamUtils.getName(reader)) {
+            case "top-image": {
+              if (!imageFound) {
+                imageFound = true;
+                final String resourceRef =
+                    XmlStreamUtils.getAttribute(reader, "resource-ref", false);
+                imageId = resourceRef.isEmpty() ? null : resourceRef;
               }
-            } else if (n.getNodeType() == Node.TEXT_NODE) {
-              result.append(n.getTextContent());
+              XmlStreamUtils.skipElement(reader);
             }
+            break;
+            case "notes": {
+              while (XmlStreamUtils.nextChildElement(reader)) {
+                if ("rich-text".equals(XmlStreamUtils.getName(reader))) {
+                  readRichText(reader, notesText);
+                } else {
+                  XmlStreamUtils.skipElement(reader);
+                }
+              }
+            }
+            break;
+            case "links": {
+              while (XmlStreamUtils.nextChildElement(reader)) {
+                if ("link".equals(XmlStreamUtils.getName(reader))) {
+                  final String url = XmlStreamUtils.getAttribute(reader, "url", false);
+                  if (!url.isEmpty()) {
+                    this.linkUrls.add(url);
+                  }
+                }
+                XmlStreamUtils.skipElement(reader);
+              }
+            }
+            break;
+            case "rich-text": {
+              readRichText(reader, text);
+            }
+            break;
+            default: {
+              XmlStreamUtils.skipElement(reader);
+            }
+            break;
           }
         }
 
-        return result.toString();
-      }
-
-      private static String extractImageId(final Element node) {
-        final Element imageElement = Utils.findFirstElement(node, "top-image");
-        final String resourceRef =
-            imageElement == null ? "" : imageElement.getAttribute("resource-ref");
-        return resourceRef.isEmpty() ? null : resourceRef;
-      }
-
-      private static String extractNotes(final Element node) {
-        final StringBuilder result = new StringBuilder();
-        for (final Element e : Utils.findDirectChildrenForName(node, "notes")) {
-          final String rtext = extractRichTextBlock(e);
-          if (rtext != null) {
-            result.append(rtext);
-          }
-        }
-        return result.length() == 0 ? null : result.toString();
-      }
-
-      private static String extractRichTextBlock(final Element element) {
-        final StringBuilder result = new StringBuilder();
-        for (final Element rc : Utils.findDirectChildrenForName(element, "rich-text")) {
-          result.append(extractRichText(rc));
-        }
-        return result.length() == 0 ? null : result.toString();
+        this.imageResourceId = imageId;
+        this.notes = notesText.length() == 0 ? null : notesText.toString();
+        this.richText = text.length() == 0 ? null : text.toString();
       }
 
-      private static List<String> extractLinkUrls(final Element node) {
-        final List<String> result = new ArrayList<>();
-        for (final Element links : Utils.findDirectChildrenForName(node, "links")) {
-          for (final Element l : Utils.findDirectChildrenForName(links, "link")) {
-            final String url = l.getAttribute("url");
-            if (!url.isEmpty()) {
-              result.add(url);
+      private static void readRichText(final XMLStreamReader reader, final StringBuilder result)
+          throws XMLStreamException {
+        while (XmlStreamUtils.nextChildElement(reader)) {
+          if ("text-run".equals(XmlStreamUtils.getName(reader))) {
+            boolean inside = true;
+            while (inside) {
+              switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT: {
+                  if ("br".equals(XmlStreamUtils.getName(reader))) {
+                    result.append('\n');
+                    XmlStreamUtils.skipElement(reader);
+                  } else {
+                    result.append(XmlStreamUtils.readTextContent(reader));
+                  }
+                }
+                break;
+                case XMLStreamConstants.END_ELEMENT: {
+                  inside = false;
+                }
+                break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.SPACE: {
+                  result.append(reader.getText());
+                }
+                break;
+                default: {
+                  // ignoring other events
+                }
+                break;
+              }
             }
+          } else {
+            XmlStreamUtils.skipElement(reader);
           }
         }
-        return result;
       }
 
       String getId() {
@@ -40,6 +40,7 @@ import com.igormaznitsa.mindmap.swing.services.ImageIconServiceProvider;
 import java.awt.Color;
 import java.io.File;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
@@ -51,9 +52,12 @@ import java.util.Map;
 import java.util.UUID;
 import java.util.zip.ZipFile;
 import javax.swing.Icon;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.apache.commons.io.IOUtils;
 import org.json.JSONArray;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
@@ -68,32 +72,14 @@ public class XMind2MindMapImporter extends AbstractImporter {
     return new IllegalArgumentException("Wrong or unsupported XMind file format");
   }
 
-  private static String extractTopicTitle(final Element topic) {
-    final List<Element> title = Utils.findDirectChildrenForName(topic, "title");
-    return title.isEmpty() ? "" : title.get(0).getTextContent();
-  }
-
-  private static List<Element> getChildTopics(final Element topic) {
-    List<Element> result = new ArrayList<>();
-
-    for (final Element c : Utils.findDirectChildrenForName(topic, "children")) {
-      for (Element t : Utils.findDirectChildrenForName(c, "topics")) {
-        result.addAll(Utils.findDirectChildrenForName(t, "topic"));
-      }
-    }
-
-    return result;
-  }
-
   private static void convertTopic(
       final ZipFile zipFile,
       final XMindStyles styles,
-      final MindMap map,
       final Topic parent,
       final Topic pregeneratedOne,
-      final Element topicElement,
+      final XMLStreamReader reader,
       final Map<String, Topic> idTopicMap,
-      final Map<String, String> linksBetweenTopics) {
+      final Map<String, String> linksBetweenTopics) throws XMLStreamException {
     final Topic topicToProcess;
 
     if (pregeneratedOne == null) {
@@ -102,24 +88,18 @@ public class XMind2MindMapImporter extends AbstractImporter {
       topicToProcess = pregeneratedOne;
     }
 
-    topicToProcess.setText(extractTopicTitle(topicElement));
+    topicToProcess.setText("");
 
-    final String theTopicId = topicElement.getAttribute("id");
+    final String theTopicId = XmlStreamUtils.getAttribute(reader, "id", false);
 
     idTopicMap.put(theTopicId, topicToProcess);
 
-    final String styleId = topicElement.getAttribute("style-id");
+    final String styleId = XmlStreamUtils.getAttribute(reader, "style-id", false);
     if (!styleId.isEmpty()) {
       styles.setStyle(styleId, topicToProcess);
     }
 
-    final String attachedImage = extractFirstAttachedImageAsBase64(zipFile, topicElement);
-    if (attachedImage != null && !attachedImage.isEmpty()) {
-      topicToProcess.putAttribute(ImageVisualAttributePlugin.MMD_TOPIC_ATTRIBUTE_IMAGE_DATA,
-          attachedImage);
-    }
-
-    final String xlink = topicElement.getAttribute("xlink:href");
+    final String xlink = XmlStreamUtils.getAttribute(reader, "xlink:href", false);
     if (!xlink.isEmpty()) {
       if (xlink.startsWith("file:")) {
         try {
@@ -138,88 +118,122 @@ public class XMind2MindMapImporter extends AbstractImporter {
       }
     }
 
-    final String extractedNote = extractNote(topicElement);
+    boolean titleFound = false;
+    String attachedImage = null;
+    final StringBuilder note = new StringBuilder();
 
-    if (!extractedNote.isEmpty()) {
-      topicToProcess.setExtra(new ExtraNote(extractedNote));
-    }
-
-    for (final Element c : getChildTopics(topicElement)) {
-      convertTopic(zipFile, styles, map, topicToProcess, null, c, idTopicMap, linksBetweenTopics);
-    }
-  }
-
-  private static String extractFirstAttachedImageAsBase64(final ZipFile file,
-                                                          final Element topic) {
-    String result = null;
-
-    for (final Element e : Utils.findDirectChildrenForName(topic, "xhtml:img")) {
-      final String link = e.getAttribute("xhtml:src");
-      if (!link.isEmpty()) {
-        if (link.startsWith("xap:")) {
-          InputStream inStream = null;
-          try {
-            inStream = Utils.findInputStreamForResource(file, link.substring(4));
-            if (inStream != null) {
-              result = Utils.rescaleImageAndEncodeAsBase64(inStream, -1);
-              if (result != null) {
-                break;
+    while (XmlStreamUtils.nextChildElement(reader)) {
+      switch (XmlStreamUtils.getName(reader)) {
+        case "title": {
+          if (titleFound) {
+            XmlStreamUtils.skipElement(reader);
+          } else {
+            titleFound = true;
+            topicToProcess.setText(XmlStreamUtils.readTextContent(reader));
+          }
+        }
+        break;
+        case "xhtml:img": {
+          if (attachedImage == null) {
+            attachedImage = loadAttachedImageAsBase64(zipFile,
+                XmlStreamUtils.getAttribute(reader, "xhtml:src", false));
+            if (attachedImage != null && !attachedImage.isEmpty()) {
+              topicToProcess.putAttribute(ImageVisualAttributePlugin.MMD_TOPIC_ATTRIBUTE_IMAGE_DATA,
+                  attachedImage);
+            }
+          }
+          XmlStreamUtils.skipElement(reader);
+        }
+        break;
+        case "notes": {
+          appendNote(reader, note);
+        }
+        break;
+        case "children": {
+          while (XmlStreamUtils.nextChildElement(reader)) {
+            if ("topics".equals(XmlStreamUtils.getName(reader))) {
+              while (XmlStreamUtils.nextChildElement(reader)) {
+                if ("topic".equals(XmlStreamUtils.getName(reader))) {
+                  convertTopic(zipFile, styles, topicToProcess, null, reader, idTopicMap,
+                      linksBetweenTopics);
+                } else {
+                  XmlStreamUtils.skipElement(reader);
+                }
               }
+            } else {
+              XmlStreamUtils.skipElement(reader);
             }
-          } catch (final Exception ex) {
-            LOGGER.error("Can't decode attached image : " + link, ex);
-          } finally {
-            IOUtils.closeQuietly(inStream);
           }
         }
+        break;
+        default: {
+          XmlStreamUtils.skipElement(reader);
+        }
+        break;
       }
     }
-    return result;
-  }
 
-  private static String extractFirstAttachedImageAsBase64(final ZipFile file,
-                                                          final JSONObject topic) {
+    if (note.length() > 0) {
+      topicToProcess.setExtra(new ExtraNote(note.toString()));
+    }
+  }
 
+  private static String loadAttachedImageAsBase64(final ZipFile file, final String link) {
     String result = null;
-    JSONObject image = topic.has("image") ? topic.getJSONObject("image") : null;
-    if (image != null) {
-      final String link = requireNonNull(image.getString("src"));
-      if (link.startsWith("xap:")) {
-        InputStream inStream = null;
-        try {
-          inStream = Utils.findInputStreamForResource(file, link.substring(4));
-          if (inStream != null) {
-            result = Utils.rescaleImageAndEncodeAsBase64(inStream, -1);
-          }
-        } catch (final Exception ex) {
-          LOGGER.error("Can't decode attached image : " + link, ex);
-        } finally {
-          IOUtils.closeQuietly(inStream);
+    if (link.startsWith("xap:")) {
+      InputStream inStream = null;
+      try {
+        inStream = Utils.findInputStreamForResource(file, link.substring(4));
+        if (inStream != null) {
+          result = Utils.rescaleImageAndEncodeAsBase64(inStream, -1);
         }
+      } catch (final Exception ex) {
+        LOGGER.error("Can't decode attached image : " + link, ex);
+      } finally {
+        IOUtils.closeQuietly(inStream);
       }
     }
     return result;
   }
 
-  private static String extractNote(final Element topic) {
-    final StringBuilder result = new StringBuilder();
+  private static String extractFirstAttachedImageAsBase64(final ZipFile file,
+                                                          final JSONObject topic) {
+    final JSONObject image = topic.has("image") ? topic.getJSONObject("image") : null;
+    return image == null ? null
+        : loadAttachedImageAsBase64(file, requireNonNull(image.getString("src")));
+  }
 
-    for (final Element note : Utils.findDirectChildrenForName(topic, "notes")) {
-      final String plain = extractTextContentFrom(note, "plain");
-      final String html = extractTextContentFrom(note, "html");
+  private static void appendNote(final XMLStreamReader reader, final StringBuilder result)
+      throws XMLStreamException {
+    final StringBuilder plain = new StringBuilder();
+    final StringBuilder html = new StringBuilder();
 
-      if (result.length() > 0) {
-        result.append('\n');
+    while (XmlStreamUtils.nextChildElement(reader)) {
+      switch (XmlStreamUtils.getName(reader)) {
+        case "plain": {
+          plain.append(XmlStreamUtils.readTextContent(reader).replace("\r", ""));
+        }
+        break;
+        case "html": {
+          html.append(XmlStreamUtils.readTextContent(reader).replace("\r", ""));
+        }
+        break;
+        default: {
+          XmlStreamUtils.skipElement(reader);
+        }
+        break;
       }
+    }
 
-      if (!plain.isEmpty()) {
-        result.append(plain);
-      } else if (!html.isEmpty()) {
-        result.append(html);
-      }
+    if (result.length() > 0) {
+      result.append('\n');
     }
 
-    return result.toString();
+    if (plain.length() > 0) {
+      result.append(plain);
+    } else if (html.length() > 0) {
+      result.append(html);
+    }
   }
 
   private static String extractNote(final JSONObject topic) {
@@ -242,20 +256,6 @@ public class XMind2MindMapImporter extends AbstractImporter {
     return result.toString();
   }
 
-  private static String extractTextContentFrom(final Element element,
-                                               final String tag) {
-    final StringBuilder result = new StringBuilder();
-
-    for (final Element c : Utils.findDirectChildrenForName(element, tag)) {
-      final String found = c.getTextContent();
-      if (found != null && !found.isEmpty()) {
-        result.append(found.replace("\r", ""));
-      }
-    }
-
-    return result.toString();
-  }
-
   private static String extractTextContentFrom(final JSONObject element,
                                                final String tag) {
     final StringBuilder result = new StringBuilder();
@@ -463,7 +463,7 @@ public class XMind2MindMapImporter extends AbstractImporter {
       final ZipFile zipFile,
       final InputStream content
   ) throws Exception {
-    final JSONArray parsed = new JSONArray(IOUtils.toString(content, StandardCharsets.UTF_8));
+    final JSONArray parsed = new JSONArray(new JSONTokener(new InputStreamReader(content, StandardCharsets.UTF_8)));
 
     final List<JSONObject> sheets = new ArrayList<>();
 
@@ -557,33 +557,37 @@ public class XMind2MindMapImporter extends AbstractImporter {
       final ZipFile zipFile,
       final InputStream content
   ) throws Exception {
-    final Document document =
-        Utils.loadXmlDocument(requireNonNull(content), null, true);
-
-    final Element rootElement = document.getDocumentElement();
-    if (!rootElement.getTagName().equals("xmap-content")) {
-      throw makeWrongFormatException();
-    }
+    final XMLStreamReader reader = Utils.makeXmlStreamReader(requireNonNull(content), null);
+    try {
+      if (!"xmap-content".equals(XmlStreamUtils.toRootElement(reader))) {
+        throw makeWrongFormatException();
+      }
 
-    final List<Element> xmlSheets =
-        Utils.findDirectChildrenForName(document.getDocumentElement(), "sheet");
+      MindMap result = null;
+      while (XmlStreamUtils.nextChildElement(reader)) {
+        if (result == null && "sheet".equals(XmlStreamUtils.getName(reader))) {
+          result = convertXmlSheet(style, zipFile, reader);
+        } else {
+          XmlStreamUtils.skipElement(reader);
+        }
+      }
 
-    final MindMap result;
+      if (result == null) {
+        result = new MindMap(true);
+        result.putAttribute(StandardMmdAttributes.MMD_ATTRIBUTE_GENERATOR_ID, IDEBridgeFactory.findInstance()
+            .getIDEGeneratorId());
+        requireNonNull(result.getRoot()).setText("Empty");
+      }
 
-    if (xmlSheets.isEmpty()) {
-      result = new MindMap(true);
-      result.putAttribute(StandardMmdAttributes.MMD_ATTRIBUTE_GENERATOR_ID, IDEBridgeFactory.findInstance()
-          .getIDEGeneratorId());
-      requireNonNull(result.getRoot()).setText("Empty");
-    } else {
-      result = convertXmlSheet(style, zipFile, xmlSheets.get(0));
+      return result;
+    } finally {
+      reader.close();
+      IOUtils.closeQuietly(content);
     }
-
-    return result;
   }
 
   private MindMap convertXmlSheet(final XMindStyles styles, final ZipFile file,
-                                  final Element sheet) {
+                                  final XMLStreamReader reader) throws XMLStreamException {
     final MindMap resultedMap = new MindMap(true);
     resultedMap.putAttribute(StandardMmdAttributes.MMD_ATTRIBUTE_GENERATOR_ID, IDEBridgeFactory.findInstance()
         .getIDEGeneratorId());
@@ -594,23 +598,36 @@ public class XMind2MindMapImporter extends AbstractImporter {
 
     final Map<String, Topic> topicIdMap = new HashMap<>();
     final Map<String, String> linksBetweenTopics = new HashMap<>();
-
-    final List<Element> rootTopics = Utils.findDirectChildrenForName(sheet, "topic");
-    if (!rootTopics.isEmpty()) {
-      convertTopic(file, styles, resultedMap, null, rootTopic, rootTopics.get(0), topicIdMap,
-          linksBetweenTopics);
+    final List<String[]> relationships = new ArrayList<>();
+
+    boolean rootTopicFound = false;
+    while (XmlStreamUtils.nextChildElement(reader)) {
+      final String name = XmlStreamUtils.getName(reader);
+      if (!rootTopicFound && "topic".equals(name)) {
+        rootTopicFound = true;
+        convertTopic(file, styles, null, rootTopic, reader, topicIdMap, linksBetweenTopics);
+      } else if ("relationships".equals(name)) {
+        while (XmlStreamUtils.nextChildElement(reader)) {
+          if ("relationship".equals(XmlStreamUtils.getName(reader))) {
+            relationships.add(new String[] {
+                XmlStreamUtils.getAttribute(reader, "end1", false),
+                XmlStreamUtils.getAttribute(reader, "end2", false)});
+          }
+          XmlStreamUtils.skipElement(reader);
+        }
+      } else {
+        XmlStreamUtils.skipElement(reader);
+      }
     }
 
-    for (final Element l : Utils.findDirectChildrenForName(sheet, "relationships")) {
-      for (final Element r : Utils.findDirectChildrenForName(l, "relationship")) {
-        final String end1 = r.getAttribute("end1");
-        final String end2 = r.getAttribute("end2");
-        if (!linksBetweenTopics.containsKey(end1)) {
-          final Topic startTopic = topicIdMap.get(end1);
-          final Topic endTopic = topicIdMap.get(end2);
-          if (startTopic != null && endTopic != null) {
-            startTopic.setExtra(ExtraTopic.makeLinkTo(resultedMap, endTopic));
-          }
+    for (final String[] r : relationships) {
+      final String end1 = r[0];
+      final String end2 = r[1];
+      if (!linksBetweenTopics.containsKey(end1)) {
+        final Topic startTopic = topicIdMap.get(end1);
+        final Topic endTopic = topicIdMap.get(end2);
+        if (startTopic != null && endTopic != null) {
+          startTopic.setExtra(ExtraTopic.makeLinkTo(resultedMap, endTopic));
         }
       }
     }
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mindmap.plugins.importers;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Auxiliary methods to walk through XML document by StAX reader. Element and attribute names are
+ * processed as qualified names (prefix:name) because readers are not namespace aware.
+ *
+ * @see com.igormaznitsa.mindmap.swing.panel.utils.Utils#makeXmlStreamReader
+ */
+final class XmlStreamUtils {
+
+  private XmlStreamUtils() {
+  }
+
+  /**
+   * Get qualified name of the current element.
+   *
+   * @param reader reader placed on element start or end
+   * @return qualified name of the element
+   */
+  static String getName(final XMLStreamReader reader) {
+    return makeName(reader.getPrefix(), reader.getLocalName());
+  }
+
+  /**
+   * Find value of attribute of the current element.
+   *
+   * @param reader     reader placed on element start
+   * @param name       qualified name of attribute
+   * @param ignoreCase true if name should be compared in case-insensitive manner
+   * @return value of attribute or empty string if not found
+   */
+  static String getAttribute(final XMLStreamReader reader, final String name,
+                             final boolean ignoreCase) {
+    for (int i = 0; i < reader.getAttributeCount(); i++) {
+      final String attributeName =
+          makeName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i));
+      if (ignoreCase ? name.equalsIgnoreCase(attributeName) : name.equals(attributeName)) {
+        return reader.getAttributeValue(i);
+      }
+    }
+    return "";
+  }
+
+  /**
+   * Move reader to the next direct child element of the current element.
+   *
+   * @param reader reader placed on start of parent element or on end of its previous child
+   * @return true if reader placed on start of the child element, false if reader placed on end of
+   * the parent element
+   * @throws XMLStreamException if document is broken
+   */
+  static boolean nextChildElement(final XMLStreamReader reader) throws XMLStreamException {
+    while (reader.hasNext()) {
+      switch (reader.next()) {
+        case XMLStreamConstants.START_ELEMENT:
+          return true;
+        case XMLStreamConstants.END_ELEMENT:
+          return false;
+        default:
+          break;
+      }
+    }
+    throw new XMLStreamException("Unexpected end of document");
+  }
+
+  /**
+   * Skip the current element with all its content.
+   *
+   * @param reader reader placed on element start, will be placed on its end
+   * @throws XMLStreamException if document is broken
+   */
+  static void skipElement(final XMLStreamReader reader) throws XMLStreamException {
+    int depth = 1;
+    while (depth > 0) {
+      switch (reader.next()) {
+        case XMLStreamConstants.START_ELEMENT:
+          depth++;
+          break;
+        case XMLStreamConstants.END_ELEMENT:
+          depth--;
+          break;
+        default:
+          break;
+      }
+    }
+  }
+
+  /**
+   * Read whole text content of the current element including text of its descendants.
+   *
+   * @param reader reader placed on element start, will be placed on its end
+   * @return concatenated text, can be empty
+   * @throws XMLStreamException if document is broken
+   */
+  static String readTextContent(final XMLStreamReader reader) throws XMLStreamException {
+    final StringBuilder result = new StringBuilder();
+    int depth = 1;
+    while (depth > 0) {
+      switch (reader.next()) {
+        case XMLStreamConstants.START_ELEMENT:
+          depth++;
+          break;
+        case XMLStreamConstants.END_ELEMENT:
+          depth--;
+          break;
+        case XMLStreamConstants.CHARACTERS:
+        case XMLStreamConstants.CDATA:
+        case XMLStreamConstants.SPACE:
+          result.append(reader.getText());
+          break;
+        default:
+          break;
+      }
+    }
+    return result.toString();
+  }
+
+  /**
+   * Move reader to the root element of document.
+   *
+   * @param reader reader placed on document start
+   * @return qualified name of the root element
+   * @throws XMLStreamException if document is broken or doesn't have root element
+   */
+  static String toRootElement(final XMLStreamReader reader) throws XMLStreamException {
+    while (reader.hasNext()) {
+      if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+        return getName(reader);
+      }
+    }
+    throw new XMLStreamException("Root element not found");
+  }
+
+  private static String makeName(final String prefix, final String localName) {
+    return prefix == null || prefix.isEmpty() ? localName : prefix + ':' + localName;
+  }
+}
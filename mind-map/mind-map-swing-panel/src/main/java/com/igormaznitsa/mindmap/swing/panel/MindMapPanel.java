@@ -55,6 +55,7 @@ import com.igormaznitsa.mindmap.swing.panel.utils.KeyEventType;
 import com.igormaznitsa.mindmap.swing.panel.utils.MindMapUtils;
 import com.igormaznitsa.mindmap.swing.panel.utils.Pair;
 import com.igormaznitsa.mindmap.swing.panel.utils.RenderQuality;
+import com.igormaznitsa.mindmap.swing.panel.utils.ScaledImageCache;
 import com.igormaznitsa.mindmap.swing.panel.utils.Utils;
 import com.igormaznitsa.mindmap.swing.services.UIComponentFactory;
 import com.igormaznitsa.mindmap.swing.services.UIComponentFactoryProvider;
@@ -154,6 +155,7 @@ public class MindMapPanel extends JComponent implements ClipboardOwner {
   private final AtomicBoolean popupMenuActive = new AtomicBoolean();
   private final AtomicBoolean removeEditedTopicForRollback = new AtomicBoolean();
   private final UUID uuid = UUID.randomUUID();
+  private final transient Runnable imageReadyListener = () -> Utils.safeSwingCall(this::repaint);
   private final transient ResourceBundle bundle = MmdI18n.getInstance().findBundle();
   private boolean birdsEyeMode;
   private Dimension mindMapImageSize = new Dimension();
@@ -2183,6 +2185,18 @@ public class MindMapPanel extends JComponent implements ClipboardOwner {
     }
   }
 
+  @Override
+  public void addNotify() {
+    super.addNotify();
+    ScaledImageCache.getInstance().addImageReadyListener(this.imageReadyListener);
+  }
+
+  @Override
+  public void removeNotify() {
+    ScaledImageCache.getInstance().removeImageReadyListener(this.imageReadyListener);
+    super.removeNotify();
+  }
+
   @Override
   public boolean isFocusable() {
     return true;
@@ -2430,8 +2444,9 @@ public class MindMapPanel extends JComponent implements ClipboardOwner {
         if (this.model.getRoot().getPayload() == null) {
           updateElementsAndSizeForGraphics(gfx, true, false);
         }
-        drawOnGraphicsForConfiguration(new MMGraphics2DWrapper(gfx), this.config, this.model,
-            true, this.selectedTopics);
+        ScaledImageCache.runWithAsyncDecoding(
+            () -> drawOnGraphicsForConfiguration(new MMGraphics2DWrapper(gfx), this.config,
+                this.model, true, this.selectedTopics));
         drawDestinationElement(gfx, this.config);
       }
 
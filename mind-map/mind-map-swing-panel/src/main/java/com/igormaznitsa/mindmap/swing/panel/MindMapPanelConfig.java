@@ -36,14 +36,16 @@ import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.prefs.BackingStoreException;
 import java.util.prefs.Preferences;
@@ -127,18 +129,130 @@ public final class MindMapPanelConfig implements Serializable {
   private RenderQuality renderQuality = Utils.getDefaultRenderQialityForOs();
   private MouseButton birdseyeMouseButton = MouseButton.BUTTON_3;
   private transient volatile boolean notificationEnabled = true;
+  private transient boolean immutable;
+  private transient volatile Preferences syncedPreferences;
+  private transient volatile Set<String> changedProperties;
+
+  private static final String PROPERTY_SHORTCUTS = "mapShortCut";
+  private static final String PROPERTY_OPTIONAL_PROPERTIES = "optionalProperties";
+
+  private static final List<PanelConfigProperty<?>> PROPERTIES =
+      Collections.unmodifiableList(Arrays.asList(
+          PanelConfigProperty.ofInt("collapsatorSize",
+              MindMapPanelConfig::getCollapsatorSize, MindMapPanelConfig::setCollapsatorSize),
+          PanelConfigProperty.ofInt("textMargins",
+              MindMapPanelConfig::getTextMargins, MindMapPanelConfig::setTextMargins),
+          PanelConfigProperty.ofInt("otherLevelVerticalInset",
+              MindMapPanelConfig::getOtherLevelVerticalInset,
+              MindMapPanelConfig::setOtherLevelVerticalInset),
+          PanelConfigProperty.ofInt("otherLevelHorizontalInset",
+              MindMapPanelConfig::getOtherLevelHorizontalInset,
+              MindMapPanelConfig::setOtherLevelHorizontalInset),
+          PanelConfigProperty.ofInt("firstLevelVerticalInset",
+              MindMapPanelConfig::getFirstLevelVerticalInset,
+              MindMapPanelConfig::setFirstLevelVerticalInset),
+          PanelConfigProperty.ofInt("firstLevelHorizontalInset",
+              MindMapPanelConfig::getFirstLevelHorizontalInset,
+              MindMapPanelConfig::setFirstLevelHorizontalInset),
+          PanelConfigProperty.ofInt("paperMargins",
+              MindMapPanelConfig::getPaperMargins, MindMapPanelConfig::setPaperMargins),
+          PanelConfigProperty.ofInt("selectLineGap",
+              MindMapPanelConfig::getSelectLineGap, MindMapPanelConfig::setSelectLineGap),
+          PanelConfigProperty.ofInt("horizontalBlockGap",
+              MindMapPanelConfig::getHorizontalBlockGap, MindMapPanelConfig::setHorizontalBlockGap),
+          PanelConfigProperty.ofInt("scaleModifiers",
+              MindMapPanelConfig::getScaleModifiers, MindMapPanelConfig::setScaleModifiers),
+          PanelConfigProperty.ofBoolean("drawBackground",
+              MindMapPanelConfig::isDrawBackground, MindMapPanelConfig::setDrawBackground),
+          PanelConfigProperty.ofColor("paperColor",
+              MindMapPanelConfig::getPaperColor, MindMapPanelConfig::setPaperColor),
+          PanelConfigProperty.ofColor("gridColor",
+              MindMapPanelConfig::getGridColor, MindMapPanelConfig::setGridColor),
+          PanelConfigProperty.ofBoolean("showGrid",
+              MindMapPanelConfig::isShowGrid, MindMapPanelConfig::setShowGrid),
+          PanelConfigProperty.ofInt("gridStep",
+              MindMapPanelConfig::getGridStep, MindMapPanelConfig::setGridStep),
+          PanelConfigProperty.ofColor("rootBackgroundColor",
+              MindMapPanelConfig::getRootBackgroundColor,
+              MindMapPanelConfig::setRootBackgroundColor),
+          PanelConfigProperty.ofColor("firstLevelBackgroundColor",
+              MindMapPanelConfig::getFirstLevelBackgroundColor,
+              MindMapPanelConfig::setFirstLevelBackgroundColor),
+          PanelConfigProperty.ofColor("otherLevelBackgroundColor",
+              MindMapPanelConfig::getOtherLevelBackgroundColor,
+              MindMapPanelConfig::setOtherLevelBackgroundColor),
+          PanelConfigProperty.ofColor("rootTextColor",
+              MindMapPanelConfig::getRootTextColor, MindMapPanelConfig::setRootTextColor),
+          PanelConfigProperty.ofColor("firstLevelTextColor",
+              MindMapPanelConfig::getFirstLevelTextColor,
+              MindMapPanelConfig::setFirstLevelTextColor),
+          PanelConfigProperty.ofColor("otherLevelTextColor",
+              MindMapPanelConfig::getOtherLevelTextColor,
+              MindMapPanelConfig::setOtherLevelTextColor),
+          PanelConfigProperty.ofColor("elementBorderColor",
+              MindMapPanelConfig::getElementBorderColor, MindMapPanelConfig::setElementBorderColor),
+          PanelConfigProperty.ofColor("connectorColor",
+              MindMapPanelConfig::getConnectorColor, MindMapPanelConfig::setConnectorColor),
+          PanelConfigProperty.ofColor("shadowColor",
+              MindMapPanelConfig::getShadowColor, MindMapPanelConfig::setShadowColor),
+          PanelConfigProperty.ofColor("collapsatorBorderColor",
+              MindMapPanelConfig::getCollapsatorBorderColor,
+              MindMapPanelConfig::setCollapsatorBorderColor),
+          PanelConfigProperty.ofColor("collapsatorBackgroundColor",
+              MindMapPanelConfig::getCollapsatorBackgroundColor,
+              MindMapPanelConfig::setCollapsatorBackgroundColor),
+          PanelConfigProperty.ofColor("selectLineColor",
+              MindMapPanelConfig::getSelectLineColor, MindMapPanelConfig::setSelectLineColor),
+          PanelConfigProperty.ofColor("jumpLinkColor",
+              MindMapPanelConfig::getJumpLinkColor, MindMapPanelConfig::setJumpLinkColor),
+          PanelConfigProperty.ofColor("birdseyeBackground",
+              MindMapPanelConfig::getBirdseyeBackground, MindMapPanelConfig::setBirdseyeBackground),
+          PanelConfigProperty.ofColor("birdseyeFront",
+              MindMapPanelConfig::getBirdseyeFront, MindMapPanelConfig::setBirdseyeFront),
+          PanelConfigProperty.ofFloat("shadowOffset",
+              MindMapPanelConfig::getShadowOffset, MindMapPanelConfig::setShadowOffset),
+          PanelConfigProperty.ofFloat("elementBorderWidth",
+              MindMapPanelConfig::getElementBorderWidth, MindMapPanelConfig::setElementBorderWidth),
+          PanelConfigProperty.ofFloat("collapsatorBorderWidth",
+              MindMapPanelConfig::getCollapsatorBorderWidth,
+              MindMapPanelConfig::setCollapsatorBorderWidth),
+          PanelConfigProperty.ofFloat("connectorWidth",
+              MindMapPanelConfig::getConnectorWidth, MindMapPanelConfig::setConnectorWidth),
+          PanelConfigProperty.ofFloat("selectLineWidth",
+              MindMapPanelConfig::getSelectLineWidth, MindMapPanelConfig::setSelectLineWidth),
+          PanelConfigProperty.ofFloat("jumpLinkWidth",
+              MindMapPanelConfig::getJumpLinkWidth, MindMapPanelConfig::setJumpLinkWidth),
+          PanelConfigProperty.ofBoolean("smartTextPaste",
+              MindMapPanelConfig::isSmartTextPaste, MindMapPanelConfig::setSmartTextPaste),
+          PanelConfigProperty.ofFont("font",
+              MindMapPanelConfig::getFont, MindMapPanelConfig::setFont,
+              MindMapPanelConfig::findDefaultFont),
+          PanelConfigProperty.ofDouble("scale",
+              MindMapPanelConfig::getScale, MindMapPanelConfig::setScale),
+          PanelConfigProperty.ofBoolean("dropShadow",
+              MindMapPanelConfig::isDropShadow, MindMapPanelConfig::setDropShadow),
+          PanelConfigProperty.ofEnum("renderQuality", RenderQuality.class,
+              MindMapPanelConfig::getRenderQuality, MindMapPanelConfig::setRenderQuality),
+          PanelConfigProperty.ofEnum("birdseyeMouseButton", MouseButton.class,
+              MindMapPanelConfig::getBirdseyeMouseButton,
+              MindMapPanelConfig::setBirdseyeMouseButton)
+      ));
 
 
   public MindMapPanelConfig(final MindMapPanelConfig cfg, final boolean copyListeners) {
-    this();
+    // font is taken from the source config to avoid search among system fonts
+    this(cfg == null ? findDefaultFont() : cloneFont(cfg.getFont()));
     this.makeFullCopyOf(cfg, copyListeners, false);
   }
 
   public MindMapPanelConfig() {
+    this(findDefaultFont());
+  }
+
+  private MindMapPanelConfig(final Font font) {
     this.mapShortCut = new HashMap<>();
     this.optionalProperties = new HashMap<>();
-    this.font =
-        findDefaultFont(Font.PLAIN, 18, Font.MONOSPACED, new String[] {"JetBrains Mono SemiBold"});
+    this.font = font;
     if (SystemUtils.IS_OS_MAC) {
       // key map for MAC
       this.mapShortCut.put(KEY_ADD_CHILD_AND_START_EDIT,
@@ -248,6 +362,11 @@ public final class MindMapPanelConfig implements Serializable {
         || "es".equalsIgnoreCase(hostLang));
   }
 
+  private static Font findDefaultFont() {
+    return findDefaultFont(Font.PLAIN, 18, Font.MONOSPACED,
+        new String[] {"JetBrains Mono SemiBold"});
+  }
+
   public static Font findDefaultFont(final int style, final int size,
                                      final String defaultFontFamily,
                                      final String[] fontNameStartsWith) {
@@ -318,9 +437,11 @@ public final class MindMapPanelConfig implements Serializable {
   }
 
   public void setOptionalProperty(final String id, final Serializable value) {
+    this.assertMutable();
     synchronized (this.optionalProperties) {
       this.optionalProperties.put(id, value == null ? NULL_OPTIONAL_OBJECT : value);
     }
+    this.recordPropertyChange(PROPERTY_OPTIONAL_PROPERTIES);
   }
 
   public KeyShortcut getKeyShortCut(final String id) {
@@ -328,7 +449,9 @@ public final class MindMapPanelConfig implements Serializable {
   }
 
   public void setKeyShortCut(final KeyShortcut shortCut) {
+    this.assertMutable();
     this.mapShortCut.put(shortCut.getID(), shortCut);
+    this.recordPropertyChange(PROPERTY_SHORTCUTS);
   }
 
   @SettingsAccessor(name = "optionalProperties")
@@ -338,10 +461,12 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "optionalProperties")
   public void setOptionalProperties(final Map<String, Serializable> properties) {
+    this.assertMutable();
     synchronized (this.optionalProperties) {
       this.optionalProperties.clear();
       this.optionalProperties.putAll(properties);
     }
+    this.recordPropertyChange(PROPERTY_OPTIONAL_PROPERTIES);
   }
 
   @SettingsAccessor(name = "mapShortCut")
@@ -351,30 +476,16 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "mapShortCut")
   public void setKeyShortcutMap(final Map<String, KeyShortcut> map) {
+    this.assertMutable();
     this.mapShortCut.clear();
     this.mapShortCut.putAll(map);
+    this.recordPropertyChange(PROPERTY_SHORTCUTS);
   }
 
   public boolean hasDifferenceInParameters(final MindMapPanelConfig etalon) {
-    for (final Field f : MindMapPanelConfig.class.getDeclaredFields()) {
-      if ((f.getModifiers() & (Modifier.STATIC | Modifier.TRANSIENT | Modifier.FINAL)) != 0) {
-        continue;
-      }
-      try {
-        final Object thisValue = f.get(this);
-        final Object thatValue = f.get(etalon);
-
-        if (thisValue == null && thatValue == null) {
-          continue;
-        }
-        if (thisValue == null || !thisValue.equals(thatValue)) {
-          return true;
-        }
-
-      } catch (IllegalAccessException ex) {
-        throw new Error("IllegalAccessException [" + f.getName() + ']', ex);
-      } catch (IllegalArgumentException ex) {
-        throw new Error("IllegalArgumentException [" + f.getName() + ']', ex);
+    for (final PanelConfigProperty<?> p : PROPERTIES) {
+      if (p.hasDifference(this, etalon)) {
+        return true;
       }
     }
 
@@ -382,76 +493,53 @@ public final class MindMapPanelConfig implements Serializable {
         || !this.optionalProperties.equals(etalon.optionalProperties);
   }
 
+  /**
+   * Save config into preferences. If the config has been loaded from or saved into the same
+   * preferences object then only properties changed since that are written.
+   *
+   * @param prefs target preferences, can be null
+   * @return the same preferences object
+   */
   public Preferences saveTo(final Preferences prefs) {
     if (prefs != null) {
-      final String prefix = MindMapPanelConfig.class.getSimpleName();
+      final Set<String> changed = prefs == this.syncedPreferences ? this.changedProperties : null;
+      this.syncedPreferences = prefs;
+      this.changedProperties = ConcurrentHashMap.newKeySet();
 
-      for (final Field f : MindMapPanelConfig.class.getDeclaredFields()) {
-        if ((f.getModifiers() & (Modifier.STATIC | Modifier.TRANSIENT | Modifier.FINAL)) != 0) {
-          continue;
+      for (final PanelConfigProperty<?> p : PROPERTIES) {
+        if (changed == null || changed.contains(p.getName())) {
+          p.save(this, prefs);
         }
+      }
 
-        final Class<?> fieldClass = f.getType();
-        final String fieldName = prefix + '.' + f.getName();
+      if (changed == null || changed.contains(PROPERTY_SHORTCUTS)) {
+        for (final Map.Entry<String, KeyShortcut> e : this.mapShortCut.entrySet()) {
+          prefs.put(PREFIX_SHORTCUT + e.getValue().getID(), e.getValue().packToString());
+        }
+      }
 
-        try {
-          if (fieldClass == boolean.class) {
-            prefs.putBoolean(fieldName, f.getBoolean(this));
-          } else if (fieldClass == int.class) {
-            prefs.putInt(fieldName, f.getInt(this));
-          } else if (fieldClass == float.class) {
-            prefs.putFloat(fieldName, f.getFloat(this));
-          } else if (fieldClass == double.class) {
-            prefs.putDouble(fieldName, f.getDouble(this));
-          } else if (fieldClass == Font.class) {
-            final Font theFont = (Font) f.get(this);
-            prefs.put(fieldName + ".name", theFont.getName());
-            prefs.putInt(fieldName + ".size", theFont.getSize());
-            prefs.putInt(fieldName + ".style", theFont.getStyle());
-          } else if (fieldClass == Color.class) {
-            prefs.putInt(fieldName, ((Color) f.get(this)).getRGB());
-          } else if (fieldClass == String.class) {
-            prefs.put(fieldName, (String) f.get(this));
-          } else if (fieldClass == RenderQuality.class) {
-            prefs.put(fieldName, ((RenderQuality) f.get(this)).name());
-          } else if (fieldClass == MouseButton.class) {
-            prefs.put(fieldName, ((MouseButton) f.get(this)).name());
-          } else if (fieldClass == Map.class) {
-            if (f.getName().equals("mapShortCut")) {
-              for (final Map.Entry<String, KeyShortcut> e : this.mapShortCut.entrySet()) {
-                prefs.put(PREFIX_SHORTCUT + e.getValue().getID(), e.getValue().packToString());
-              }
+      if (changed == null || changed.contains(PROPERTY_OPTIONAL_PROPERTIES)) {
+        synchronized (this.optionalProperties) {
+          for (final Map.Entry<String, Serializable> e : this.optionalProperties.entrySet()) {
+            final String key = PREFIX_OPTIONAL_PROPERTY + e.getKey();
+            if (e.getValue() == NULL_OPTIONAL_OBJECT) {
+              prefs.remove(key);
             } else {
-              synchronized (this.optionalProperties) {
-                for (final Map.Entry<String, Serializable> e : this.optionalProperties.entrySet()) {
-                  final String key = PREFIX_OPTIONAL_PROPERTY + e.getKey();
-                  if (e.getValue() == NULL_OPTIONAL_OBJECT) {
-                    prefs.remove(key);
-                  } else {
-                    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-                    try {
-                      final ObjectOutputStream objectOutputStream =
-                          new ObjectOutputStream(outputStream);
-                      objectOutputStream.writeObject(e.getValue());
-                      objectOutputStream.close();
-                      final String encodedValue =
-                          Base64.getEncoder().encodeToString(outputStream.toByteArray());
-                      prefs.put(key, encodedValue);
-                    } catch (final IOException ex) {
-                      throw new RuntimeException("Error during write optional property: " + e, ex);
-                    }
-                  }
-                }
-                this.optionalProperties.values().removeIf(x -> x == NULL_OPTIONAL_OBJECT);
+              final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+              try {
+                final ObjectOutputStream objectOutputStream =
+                    new ObjectOutputStream(outputStream);
+                objectOutputStream.writeObject(e.getValue());
+                objectOutputStream.close();
+                final String encodedValue =
+                    Base64.getEncoder().encodeToString(outputStream.toByteArray());
+                prefs.put(key, encodedValue);
+              } catch (final IOException ex) {
+                throw new RuntimeException("Error during write optional property: " + e, ex);
               }
             }
-          } else {
-            throw new Error("Unexpected field type " + fieldClass.getName());
           }
-        } catch (IllegalAccessException ex) {
-          throw new Error("IllegalAccessException [" + fieldClass.getName() + ']', ex);
-        } catch (IllegalArgumentException ex) {
-          throw new Error("IllegalArgumentException [" + fieldClass.getName() + ']', ex);
+          this.optionalProperties.values().removeIf(x -> x == NULL_OPTIONAL_OBJECT);
         }
       }
     }
@@ -460,108 +548,149 @@ public final class MindMapPanelConfig implements Serializable {
 
   public Preferences loadFrom(final Preferences prefs) {
     if (prefs != null) {
-      final String prefix = MindMapPanelConfig.class.getSimpleName();
+      this.assertMutable();
+      final MindMapPanelConfig defaults = DefaultsHolder.DEFAULTS;
 
-      final MindMapPanelConfig etalon = new MindMapPanelConfig();
+      final boolean notification = this.notificationEnabled;
+      this.notificationEnabled = false;
+      try {
+        for (final PanelConfigProperty<?> p : PROPERTIES) {
+          p.load(this, prefs, defaults);
+        }
+      } finally {
+        this.notificationEnabled = notification;
+      }
 
-      for (final Field f : MindMapPanelConfig.class.getDeclaredFields()) {
-        if ((f.getModifiers() & (Modifier.STATIC | Modifier.TRANSIENT | Modifier.FINAL)) != 0) {
-          continue;
+      this.mapShortCut.clear();
+      this.mapShortCut.putAll(defaults.mapShortCut);
+      try {
+        for (final String k : prefs.keys()) {
+          if (k.startsWith(PREFIX_SHORTCUT)) {
+            final String packedValue = prefs.get(k, "");
+            if (packedValue.isEmpty()) {
+              throw new Error("Unexpected situation, short cut value is empty [" + k + ']');
+            }
+            final KeyShortcut unpacked = new KeyShortcut(packedValue);
+            this.mapShortCut.put(unpacked.getID(), unpacked);
+          }
         }
+      } catch (BackingStoreException ex) {
+        throw new Error("Can't get list of keys from storage", ex);
+      }
 
-        final Class<?> fieldClass = f.getType();
-        final String fieldName = prefix + '.' + f.getName();
+      synchronized (this.optionalProperties) {
+        this.optionalProperties.clear();
+        this.optionalProperties.putAll(defaults.optionalProperties);
 
         try {
-          if (fieldClass == boolean.class) {
-            f.setBoolean(this, prefs.getBoolean(fieldName, f.getBoolean(etalon)));
-          } else if (fieldClass == int.class) {
-            f.setInt(this, prefs.getInt(fieldName, f.getInt(etalon)));
-          } else if (fieldClass == float.class) {
-            f.setFloat(this, prefs.getFloat(fieldName, f.getFloat(etalon)));
-          } else if (fieldClass == double.class) {
-            f.setDouble(this, prefs.getDouble(fieldName, f.getDouble(etalon)));
-          } else if (fieldClass == Font.class) {
-            final Font etalonFont = etalon.getFont();
-
-            final String fontName = prefs.get(fieldName + ".name", etalonFont.getName());
-            final int fontSize = prefs.getInt(fieldName + ".size", etalonFont.getSize());
-            final int fontStyle = prefs.getInt(fieldName + ".style", etalonFont.getStyle());
-
-            f.set(this, new Font(fontName, fontStyle, fontSize));
-          } else if (fieldClass == Color.class) {
-            final int argb = prefs.getInt(fieldName, ((Color) f.get(etalon)).getRGB());
-            f.set(this, new Color(argb, true));
-          } else if (fieldClass == String.class) {
-            f.set(this, prefs.get(fieldName, (String) f.get(etalon)));
-          } else if (fieldClass == RenderQuality.class) {
-            final String name = prefs.get(fieldName, ((RenderQuality) f.get(etalon)).name());
-            f.set(this, RenderQuality.valueOf(name));
-          } else if (fieldClass == MouseButton.class) {
-            final String name = prefs.get(fieldName, ((MouseButton) f.get(etalon)).name());
-            f.set(this, MouseButton.valueOf(name));
-          } else if (fieldClass == Map.class) {
-            if (f.getName().equals("mapShortCut")) {
-              this.mapShortCut.clear();
-              this.mapShortCut.putAll(etalon.mapShortCut);
-              try {
-                for (final String k : prefs.keys()) {
-                  if (k.startsWith(PREFIX_SHORTCUT)) {
-//            final int dotIndex = k.indexOf('.');
-//            final String id = k.substring(dotIndex + 1);
-                    final String packedValue = prefs.get(k, "");
-                    if (packedValue.isEmpty()) {
-                      throw new Error("Unexpected situation, short cut value is empty [" + k + ']');
-                    }
-                    final KeyShortcut unpacked = new KeyShortcut(packedValue);
-                    this.mapShortCut.put(unpacked.getID(), unpacked);
-                  }
-                }
-              } catch (BackingStoreException ex) {
-                throw new Error("Can't get list of keys from storage", ex);
+          for (final String k : prefs.keys()) {
+            if (k.startsWith(PREFIX_OPTIONAL_PROPERTY)) {
+              final String propertyName = k.substring(k.indexOf('.') + 1);
+              final String value = prefs.get(k, null);
+              if (value == null) {
+                throw new Error("Unexpected situation, property value is null [" + k + ']');
               }
-            } else {
-              this.optionalProperties.clear();
-              this.optionalProperties.putAll(etalon.optionalProperties);
-
-              try {
-                for (final String k : prefs.keys()) {
-                  if (k.startsWith(PREFIX_OPTIONAL_PROPERTY)) {
-                    final String propertyName = k.substring(k.indexOf('.') + 1);
-                    final String value = prefs.get(k, null);
-                    if (value == null) {
-                      throw new Error("Unexpected situation, property value is null [" + k + ']');
-                    }
-                    try {
-                      final Serializable readValue =
-                          (Serializable) new ObjectInputStream(
-                              new ByteArrayInputStream(
-                                  Base64.getDecoder().decode(value))).readObject();
-                      if (readValue != null) {
-                        this.optionalProperties.put(propertyName, readValue);
-                      }
-                    } catch (ClassNotFoundException | IOException ex) {
-                      // ignore error to save possibility to load config
-                    }
-                  }
-                }
-              } catch (BackingStoreException ex) {
-                throw new Error("Can't get list of keys from storage", ex);
+              final Serializable readValue = decodeOptionalProperty(value);
+              if (readValue != null) {
+                this.optionalProperties.put(propertyName, readValue);
               }
             }
-          } else {
-            throw new Error("Unexpected field type " + fieldClass.getName());
           }
-        } catch (IllegalAccessException ex) {
-          throw new Error("IllegalAccessException [" + fieldClass.getName() + ']', ex);
-        } catch (IllegalArgumentException ex) {
-          throw new Error("IllegalArgumentException [" + fieldClass.getName() + ']', ex);
+        } catch (BackingStoreException ex) {
+          throw new Error("Can't get list of keys from storage", ex);
         }
       }
+
+      this.syncedPreferences = prefs;
+      this.changedProperties = ConcurrentHashMap.newKeySet();
     }
     return prefs;
   }
 
+  /**
+   * Read single optional property from preferences without loading of whole config.
+   *
+   * @param prefs        source preferences, must not be null
+   * @param id           identifier of optional property
+   * @param defaultValue value to be returned if there is no such property
+   * @param <T>          type of property value
+   * @return saved value of the property or default value
+   * @since 1.6.10
+   */
+  @SuppressWarnings("unchecked")
+  public static <T extends Serializable> T loadOptionalProperty(final Preferences prefs,
+                                                                final String id,
+                                                                final T defaultValue) {
+    final String value = prefs.get(PREFIX_OPTIONAL_PROPERTY + id, null);
+    final Serializable result = value == null ? null : decodeOptionalProperty(value);
+    return result == null ? defaultValue : (T) result;
+  }
+
+  private static Serializable decodeOptionalProperty(final String encodedValue) {
+    try {
+      return (Serializable) new ObjectInputStream(
+          new ByteArrayInputStream(Base64.getDecoder().decode(encodedValue))).readObject();
+    } catch (ClassNotFoundException | IOException | IllegalArgumentException ex) {
+      // ignore error to save possibility to load config
+      return null;
+    }
+  }
+
+  /**
+   * Get descriptors of all scalar properties of config. Key shortcuts and optional properties
+   * are not among them.
+   *
+   * @return unmodifiable list of property descriptors
+   * @since 1.6.10
+   */
+  public static List<PanelConfigProperty<?>> getProperties() {
+    return PROPERTIES;
+  }
+
+  /**
+   * Make immutable copy of the config, it can be shared between threads, for instance for
+   * background rendering. Any attempt to change the copy throws UnsupportedOperationException.
+   *
+   * @return immutable copy of the config or the same object if it is immutable
+   * @since 1.6.10
+   */
+  public MindMapPanelConfig makeImmutableCopy() {
+    if (this.immutable) {
+      return this;
+    }
+    final MindMapPanelConfig result = new MindMapPanelConfig(this, false);
+    result.immutable = true;
+    return result;
+  }
+
+  /**
+   * Check that the config is immutable.
+   *
+   * @return true if the config can't be changed
+   * @see #makeImmutableCopy()
+   * @since 1.6.10
+   */
+  public boolean isImmutable() {
+    return this.immutable;
+  }
+
+  private void assertMutable() {
+    if (this.immutable) {
+      throw new UnsupportedOperationException("Config is immutable");
+    }
+  }
+
+  private void recordPropertyChange(final String name) {
+    final Set<String> changed = this.changedProperties;
+    if (changed != null) {
+      changed.add(name);
+    }
+  }
+
+  private void onPropertyChanged(final String name) {
+    this.recordPropertyChange(name);
+    this.notifyCfgListenersAboutChange();
+  }
   public void makeAtomicChange(final Runnable runnable) {
     this.notificationEnabled = false;
     try {
@@ -597,35 +726,35 @@ public final class MindMapPanelConfig implements Serializable {
   private static Font cloneFont(final Font font) {
     return new Font(font.getName(), font.getStyle(), font.getSize());
   }
+
   public void makeFullCopyOf(final MindMapPanelConfig src, final boolean copyListeners,
                              final boolean makeNotification) {
     if (src != null) {
-      for (final Field f : MindMapPanelConfig.class.getDeclaredFields()) {
-        if (f.getName().equals("listeners")) {
-          if (copyListeners) {
-            this.listeners.clear();
-            this.listeners.addAll(src.listeners);
-          }
-        } else if ((f.getModifiers() & (Modifier.STATIC | Modifier.FINAL)) == 0 &&
-            f.getType() != Map.class) {
-          try {
-            Object value = f.get(src);
-            if (value instanceof Font) {
-              final Font font = (Font)value;
-              value = cloneFont(font); // prevent possible bugs in deserialization of font object in IDE like IDEA
-            }
-            f.set(this, value);
-          } catch (Exception ex) {
-            throw new Error("Unexpected state during cloning field " + f, ex);
+      this.assertMutable();
+      if (copyListeners) {
+        this.listeners.clear();
+        this.listeners.addAll(src.listeners);
+      }
+
+      final boolean notification = this.notificationEnabled;
+      this.notificationEnabled = false;
+      try {
+        for (final PanelConfigProperty<?> p : PROPERTIES) {
+          if (p.hasDifference(src, this)) {
+            p.copy(src, this);
           }
         }
+      } finally {
+        this.notificationEnabled = notification;
       }
 
-      this.mapShortCut.clear();
-      this.mapShortCut.putAll(src.mapShortCut);
+      if (!this.mapShortCut.equals(src.mapShortCut)) {
+        this.setKeyShortcutMap(src.mapShortCut);
+      }
 
-      this.optionalProperties.clear();
-      this.optionalProperties.putAll(src.optionalProperties);
+      if (!this.optionalProperties.equals(src.optionalProperties)) {
+        this.setOptionalProperties(src.optionalProperties);
+      }
 
       if (makeNotification) {
         this.notifyCfgListenersAboutChange();
@@ -704,8 +833,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "horizontalBlockGap")
   public void setHorizontalBlockGap(final int gap) {
+    this.assertMutable();
     this.horizontalBlockGap = gap;
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("horizontalBlockGap");
   }
 
   @SettingsAccessor(name = "selectLineWidth")
@@ -715,8 +845,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "selectLineWidth")
   public void setSelectLineWidth(final float f) {
+    this.assertMutable();
     this.selectLineWidth = f;
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("selectLineWidth");
   }
 
   @SettingsAccessor(name = "jumpLinkWidth")
@@ -726,8 +857,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "jumpLinkWidth")
   public void setJumpLinkWidth(final float f) {
+    this.assertMutable();
     this.jumpLinkWidth = f;
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("jumpLinkWidth");
   }
 
   @SettingsAccessor(name = "jumpLinkColor")
@@ -737,8 +869,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "jumpLinkColor")
   public void setJumpLinkColor(final Color color) {
+    this.assertMutable();
     this.jumpLinkColor = color;
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("jumpLinkColor");
   }
 
   @SettingsAccessor(name = "birdseyeBackground")
@@ -748,8 +881,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "birdseyeBackground")
   public void setBirdseyeBackground(final Color color) {
+    this.assertMutable();
     this.birdseyeBackground = color;
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("birdseyeBackground");
   }
 
   @SettingsAccessor(name = "birdseyeFront")
@@ -759,8 +893,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "birdseyeFront")
   public void setBirdseyeFront(final Color color) {
+    this.assertMutable();
     this.birdseyeFront = color;
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("birdseyeFront");
   }
 
   @SettingsAccessor(name = "scaleModifiers")
@@ -770,8 +905,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "scaleModifiers")
   public void setScaleModifiers(final int value) {
+    this.assertMutable();
     this.scaleModifiers = value;
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("scaleModifiers");
   }
 
   @SettingsAccessor(name = "selectLineColor")
@@ -781,8 +917,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "selectLineColor")
   public void setSelectLineColor(final Color color) {
+    this.assertMutable();
     this.selectLineColor = color;
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("selectLineColor");
   }
 
   @SettingsAccessor(name = "paperMargins")
@@ -792,8 +929,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "paperMargins")
   public void setPaperMargins(final int size) {
+    this.assertMutable();
     this.paperMargins = size;
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("paperMargins");
   }
 
   @SettingsAccessor(name = "smartTextPaste")
@@ -803,8 +941,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "smartTextPaste")
   public void setSmartTextPaste(final boolean flag) {
+    this.assertMutable();
     this.smartTextPaste = flag;
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("smartTextPaste");
   }
 
   @SettingsAccessor(name = "drawBackground")
@@ -814,8 +953,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "drawBackground")
   public void setDrawBackground(final boolean flag) {
+    this.assertMutable();
     this.drawBackground = flag;
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("drawBackground");
   }
 
   @SettingsAccessor(name = "otherLevelVerticalInset")
@@ -825,8 +965,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "otherLevelVerticalInset")
   public void setOtherLevelVerticalInset(final int value) {
+    this.assertMutable();
     this.otherLevelVerticalInset = value;
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("otherLevelVerticalInset");
   }
 
   @SettingsAccessor(name = "otherLevelHorizontalInset")
@@ -836,8 +977,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "otherLevelHorizontalInset")
   public void setOtherLevelHorizontalInset(final int value) {
+    this.assertMutable();
     this.otherLevelHorizontalInset = value;
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("otherLevelHorizontalInset");
   }
 
   @SettingsAccessor(name = "firstLevelVerticalInset")
@@ -847,8 +989,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "firstLevelVerticalInset")
   public void setFirstLevelVerticalInset(final int value) {
+    this.assertMutable();
     this.firstLevelVerticalInset = value;
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("firstLevelVerticalInset");
   }
 
   @SettingsAccessor(name = "firstLevelHorizontalInset")
@@ -858,8 +1001,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "firstLevelHorizontalInset")
   public void setFirstLevelHorizontalInset(final int value) {
+    this.assertMutable();
     this.firstLevelHorizontalInset = value;
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("firstLevelHorizontalInset");
   }
 
   @SettingsAccessor(name = "paperColor")
@@ -869,8 +1013,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "paperColor")
   public void setPaperColor(final Color color) {
+    this.assertMutable();
     this.paperColor = requireNonNull(color);
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("paperColor");
   }
 
   @SettingsAccessor(name = "gridColor")
@@ -880,8 +1025,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "gridColor")
   public void setGridColor(final Color color) {
+    this.assertMutable();
     this.gridColor = color;
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("gridColor");
   }
 
   @SettingsAccessor(name = "showGrid")
@@ -891,8 +1037,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "showGrid")
   public void setShowGrid(final boolean flag) {
+    this.assertMutable();
     this.showGrid = flag;
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("showGrid");
   }
 
   @SettingsAccessor(name = "gridStep")
@@ -902,8 +1049,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "gridStep")
   public void setGridStep(final int step) {
+    this.assertMutable();
     this.gridStep = step;
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("gridStep");
   }
 
   @SettingsAccessor(name = "rootBackgroundColor")
@@ -913,8 +1061,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "rootBackgroundColor")
   public void setRootBackgroundColor(final Color color) {
+    this.assertMutable();
     this.rootBackgroundColor = requireNonNull(color);
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("rootBackgroundColor");
   }
 
   @SettingsAccessor(name = "firstLevelBackgroundColor")
@@ -924,8 +1073,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "firstLevelBackgroundColor")
   public void setFirstLevelBackgroundColor(final Color color) {
+    this.assertMutable();
     this.firstLevelBackgroundColor = color;
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("firstLevelBackgroundColor");
   }
 
   @SettingsAccessor(name = "otherLevelBackgroundColor")
@@ -935,8 +1085,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "otherLevelBackgroundColor")
   public void setOtherLevelBackgroundColor(final Color color) {
+    this.assertMutable();
     this.otherLevelBackgroundColor = color;
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("otherLevelBackgroundColor");
   }
 
   @SettingsAccessor(name = "rootTextColor")
@@ -946,8 +1097,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "rootTextColor")
   public void setRootTextColor(final Color color) {
+    this.assertMutable();
     this.rootTextColor = requireNonNull(color);
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("rootTextColor");
   }
 
   @SettingsAccessor(name = "firstLevelTextColor")
@@ -957,8 +1109,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "firstLevelTextColor")
   public void setFirstLevelTextColor(final Color color) {
+    this.assertMutable();
     this.firstLevelTextColor = requireNonNull(color);
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("firstLevelTextColor");
   }
 
   @SettingsAccessor(name = "otherLevelTextColor")
@@ -968,8 +1121,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "otherLevelTextColor")
   public void setOtherLevelTextColor(final Color color) {
+    this.assertMutable();
     this.otherLevelTextColor = requireNonNull(color);
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("otherLevelTextColor");
   }
 
   @SettingsAccessor(name = "elementBorderColor")
@@ -979,8 +1133,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "elementBorderColor")
   public void setElementBorderColor(final Color color) {
+    this.assertMutable();
     this.elementBorderColor = requireNonNull(color);
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("elementBorderColor");
   }
 
   @SettingsAccessor(name = "connectorColor")
@@ -990,8 +1145,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "connectorColor")
   public void setConnectorColor(final Color color) {
+    this.assertMutable();
     this.connectorColor = requireNonNull(color);
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("connectorColor");
   }
 
   @SettingsAccessor(name = "shadowColor")
@@ -1001,8 +1157,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "shadowColor")
   public void setShadowColor(final Color color) {
+    this.assertMutable();
     this.shadowColor = requireNonNull(color);
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("shadowColor");
   }
 
   @SettingsAccessor(name = "collapsatorBorderColor")
@@ -1012,8 +1169,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "collapsatorBorderColor")
   public void setCollapsatorBorderColor(final Color color) {
+    this.assertMutable();
     this.collapsatorBorderColor = requireNonNull(color);
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("collapsatorBorderColor");
   }
 
   @SettingsAccessor(name = "collapsatorBackgroundColor")
@@ -1023,8 +1181,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "collapsatorBackgroundColor")
   public void setCollapsatorBackgroundColor(final Color color) {
+    this.assertMutable();
     this.collapsatorBackgroundColor = requireNonNull(color);
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("collapsatorBackgroundColor");
   }
 
   @SettingsAccessor(name = "elementBorderWidth")
@@ -1034,8 +1193,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "elementBorderWidth")
   public void setElementBorderWidth(final float value) {
+    this.assertMutable();
     this.elementBorderWidth = value;
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("elementBorderWidth");
   }
 
   @SettingsAccessor(name = "collapsatorBorderWidth")
@@ -1045,8 +1205,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "collapsatorBorderWidth")
   public void setCollapsatorBorderWidth(final float width) {
+    this.assertMutable();
     this.collapsatorBorderWidth = width;
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("collapsatorBorderWidth");
   }
 
   @SettingsAccessor(name = "shadowOffset")
@@ -1056,7 +1217,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "shadowOffset")
   public void setShadowOffset(final float value) {
+    this.assertMutable();
     this.shadowOffset = value;
+    this.recordPropertyChange("shadowOffset");
   }
 
   @SettingsAccessor(name = "connectorWidth")
@@ -1066,8 +1229,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "connectorWidth")
   public void setConnectorWidth(final float value) {
+    this.assertMutable();
     this.connectorWidth = value;
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("connectorWidth");
   }
 
   @SettingsAccessor(name = "font")
@@ -1077,8 +1241,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "font")
   public void setFont(final Font f) {
+    this.assertMutable();
     this.font = requireNonNull(f);
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("font");
   }
 
   @SettingsAccessor(name = "scale")
@@ -1088,12 +1253,15 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "scale")
   public void setScale(final double value) {
+    this.assertMutable();
     this.scale = Math.max(0.01d, value);
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("scale");
   }
 
   public void setScaleWithoutListenerNotification(final double value) {
+    this.assertMutable();
     this.scale = Math.max(0.01d, value);
+    this.recordPropertyChange("scale");
   }
 
   @SettingsAccessor(name = "dropShadow")
@@ -1103,8 +1271,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "dropShadow")
   public void setDropShadow(final boolean value) {
+    this.assertMutable();
     this.dropShadow = value;
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("dropShadow");
   }
 
   @SettingsAccessor(name = "renderQuality")
@@ -1114,8 +1283,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "renderQuality")
   public void setRenderQuality(final RenderQuality value) {
+    this.assertMutable();
     this.renderQuality = MiscUtils.ensureNotNull(value, Utils.getDefaultRenderQialityForOs());
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("renderQuality");
   }
 
   @SettingsAccessor(name = "birdseyeMouseButton")
@@ -1125,8 +1295,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "birdseyeMouseButton")
   public void setBirdseyeMouseButton(final MouseButton value) {
+    this.assertMutable();
     this.birdseyeMouseButton = MiscUtils.ensureNotNull(value, MouseButton.BUTTON_3);
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("birdseyeMouseButton");
   }
 
   @SettingsAccessor(name = "collapsatorSize")
@@ -1136,8 +1307,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "collapsatorSize")
   public void setCollapsatorSize(final int size) {
+    this.assertMutable();
     this.collapsatorSize = size;
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("collapsatorSize");
   }
 
   @SettingsAccessor(name = "textMargins")
@@ -1147,8 +1319,9 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "textMargins")
   public void setTextMargins(final int value) {
+    this.assertMutable();
     this.textMargins = value;
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("textMargins");
   }
 
   @SettingsAccessor(name = "selectLineGap")
@@ -1158,8 +1331,17 @@ public final class MindMapPanelConfig implements Serializable {
 
   @SettingsAccessor(name = "selectLineGap")
   public void setSelectLineGap(final int value) {
+    this.assertMutable();
     this.selectLineGap = value;
-    notifyCfgListenersAboutChange();
+    this.onPropertyChanged("selectLineGap");
   }
 
+  /**
+   * Holder of config with default values, it is used during loading to get values missing in
+   * preferences. Default font is not formed for the config because its search is expensive.
+   */
+  private static final class DefaultsHolder {
+
+    private static final MindMapPanelConfig DEFAULTS = new MindMapPanelConfig((Font) null);
+  }
 }
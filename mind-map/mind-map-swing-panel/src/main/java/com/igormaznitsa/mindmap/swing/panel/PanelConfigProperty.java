@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mindmap.swing.panel;
+
+import static java.util.Objects.requireNonNull;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.prefs.Preferences;
+
+/**
+ * Descriptor of a scalar property of mind map panel config. Descriptors are formed once and
+ * provide typed access to the property value and its storage in preferences, so that config
+ * doesn't need reflection to copy, compare, save and load its values.
+ *
+ * @param <T> type of property value
+ * @see MindMapPanelConfig#getProperties()
+ * @since 1.6.10
+ */
+public final class PanelConfigProperty<T> {
+
+  private final String name;
+  private final String preferencesKey;
+  private final Class<T> type;
+  private final Function<MindMapPanelConfig, T> getter;
+  private final BiConsumer<MindMapPanelConfig, T> setter;
+  private final PreferencesWriter<T> writer;
+  private final PreferencesReader<T> reader;
+  private final UnaryOperator<T> cloner;
+
+  private PanelConfigProperty(final String name,
+                              final Class<T> type,
+                              final Function<MindMapPanelConfig, T> getter,
+                              final BiConsumer<MindMapPanelConfig, T> setter,
+                              final PreferencesWriter<T> writer,
+                              final PreferencesReader<T> reader,
+                              final UnaryOperator<T> cloner) {
+    this.name = requireNonNull(name);
+    this.preferencesKey = MindMapPanelConfig.class.getSimpleName() + '.' + name;
+    this.type = requireNonNull(type);
+    this.getter = requireNonNull(getter);
+    this.setter = requireNonNull(setter);
+    this.writer = requireNonNull(writer);
+    this.reader = requireNonNull(reader);
+    this.cloner = requireNonNull(cloner);
+  }
+
+  static PanelConfigProperty<Boolean> ofBoolean(final String name,
+                                                final Function<MindMapPanelConfig, Boolean> getter,
+                                                final BiConsumer<MindMapPanelConfig, Boolean> setter) {
+    return new PanelConfigProperty<>(name, Boolean.class, getter, setter,
+        Preferences::putBoolean,
+        (prefs, key, defaultValue) -> prefs.getBoolean(key, defaultValue.get()),
+        UnaryOperator.identity());
+  }
+
+  static PanelConfigProperty<Integer> ofInt(final String name,
+                                            final Function<MindMapPanelConfig, Integer> getter,
+                                            final BiConsumer<MindMapPanelConfig, Integer> setter) {
+    return new PanelConfigProperty<>(name, Integer.class, getter, setter,
+        Preferences::putInt,
+        (prefs, key, defaultValue) -> prefs.getInt(key, defaultValue.get()),
+        UnaryOperator.identity());
+  }
+
+  static PanelConfigProperty<Float> ofFloat(final String name,
+                                            final Function<MindMapPanelConfig, Float> getter,
+                                            final BiConsumer<MindMapPanelConfig, Float> setter) {
+    return new PanelConfigProperty<>(name, Float.class, getter, setter,
+        Preferences::putFloat,
+        (prefs, key, defaultValue) -> prefs.getFloat(key, defaultValue.get()),
+        UnaryOperator.identity());
+  }
+
+  static PanelConfigProperty<Double> ofDouble(final String name,
+                                              final Function<MindMapPanelConfig, Double> getter,
+                                              final BiConsumer<MindMapPanelConfig, Double> setter) {
+    return new PanelConfigProperty<>(name, Double.class, getter, setter,
+        Preferences::putDouble,
+        (prefs, key, defaultValue) -> prefs.getDouble(key, defaultValue.get()),
+        UnaryOperator.identity());
+  }
+
+  static PanelConfigProperty<Color> ofColor(final String name,
+                                            final Function<MindMapPanelConfig, Color> getter,
+                                            final BiConsumer<MindMapPanelConfig, Color> setter) {
+    return new PanelConfigProperty<>(name, Color.class, getter, setter,
+        (prefs, key, value) -> prefs.putInt(key, value.getRGB()),
+        (prefs, key, defaultValue) -> new Color(prefs.getInt(key, defaultValue.get().getRGB()),
+            true),
+        UnaryOperator.identity());
+  }
+
+  static <E extends Enum<E>> PanelConfigProperty<E> ofEnum(final String name,
+                                                           final Class<E> type,
+                                                           final Function<MindMapPanelConfig, E> getter,
+                                                           final BiConsumer<MindMapPanelConfig, E> setter) {
+    return new PanelConfigProperty<>(name, type, getter, setter,
+        (prefs, key, value) -> prefs.put(key, value.name()),
+        (prefs, key, defaultValue) -> Enum.valueOf(type,
+            prefs.get(key, defaultValue.get().name())),
+        UnaryOperator.identity());
+  }
+
+  /**
+   * Font is stored as three values: name, size and style. Default font is requested only if some
+   * of them is not presented in preferences because its search can be expensive.
+   */
+  static PanelConfigProperty<Font> ofFont(final String name,
+                                          final Function<MindMapPanelConfig, Font> getter,
+                                          final BiConsumer<MindMapPanelConfig, Font> setter,
+                                          final Supplier<Font> defaultFont) {
+    return new PanelConfigProperty<>(name, Font.class, getter, setter,
+        (prefs, key, value) -> {
+          prefs.put(key + ".name", value.getName());
+          prefs.putInt(key + ".size", value.getSize());
+          prefs.putInt(key + ".style", value.getStyle());
+        },
+        (prefs, key, defaultValue) -> {
+          final String fontName = prefs.get(key + ".name", null);
+          final int fontSize = prefs.getInt(key + ".size", -1);
+          final int fontStyle = prefs.getInt(key + ".style", -1);
+          if (fontName == null || fontSize < 0 || fontStyle < 0) {
+            final Font font = defaultFont.get();
+            return new Font(fontName == null ? font.getName() : fontName,
+                fontStyle < 0 ? font.getStyle() : fontStyle,
+                fontSize < 0 ? font.getSize() : fontSize);
+          }
+          return new Font(fontName, fontStyle, fontSize);
+        },
+        // prevent possible bugs in deserialization of font object in IDE like IDEA
+        font -> new Font(font.getName(), font.getStyle(), font.getSize()));
+  }
+
+  /**
+   * Get name of property, it is the same as in {@link SettingsAccessor} of its accessors.
+   *
+   * @return name of property, must not be null
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  /**
+   * Get type of property value, wrapper type is used for primitive types.
+   *
+   * @return type of value, must not be null
+   */
+  public Class<T> getType() {
+    return this.type;
+  }
+
+  /**
+   * Get property value from config.
+   *
+   * @param config source config, must not be null
+   * @return value of property in the config
+   */
+  public T get(final MindMapPanelConfig config) {
+    return this.getter.apply(config);
+  }
+
+  /**
+   * Set property value in config through its setter, so that listeners of config are notified.
+   *
+   * @param config target config, must not be null and must not be immutable
+   * @param value  value to be set
+   * @throws UnsupportedOperationException if config is immutable
+   */
+  public void set(final MindMapPanelConfig config, final T value) {
+    this.setter.accept(config, value);
+  }
+
+  boolean hasDifference(final MindMapPanelConfig one, final MindMapPanelConfig two) {
+    return !Objects.equals(this.get(one), this.get(two));
+  }
+
+  void copy(final MindMapPanelConfig source, final MindMapPanelConfig target) {
+    this.set(target, this.cloner.apply(this.get(source)));
+  }
+
+  void save(final MindMapPanelConfig config, final Preferences prefs) {
+    this.writer.write(prefs, this.preferencesKey, this.get(config));
+  }
+
+  void load(final MindMapPanelConfig config, final Preferences prefs,
+            final MindMapPanelConfig defaults) {
+    this.set(config, this.reader.read(prefs, this.preferencesKey, () -> this.get(defaults)));
+  }
+
+  @Override
+  public String toString() {
+    return "PanelConfigProperty(" + this.name + ')';
+  }
+
+  @FunctionalInterface
+  private interface PreferencesWriter<T> {
+    void write(Preferences prefs, String key, T value);
+  }
+
+  @FunctionalInterface
+  private interface PreferencesReader<T> {
+    T read(Preferences prefs, String key, Supplier<T> defaultValue);
+  }
+}
@@ -0,0 +1,544 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mindmap.swing.panel.utils;
+
+import static java.util.Objects.requireNonNull;
+
+import com.igormaznitsa.mindmap.model.logger.Logger;
+import com.igormaznitsa.mindmap.model.logger.LoggerFactory;
+import java.awt.Dimension;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Shared cache of decoded and scaled images used by visual attributes (embedded topic images,
+ * emoticons). Entries are keyed by content identifier and quantized scale, the cache is bounded
+ * by summary size of stored pixel data and evicts the least recently used entries.
+ * <p>
+ * Images are decoded synchronously by default, inside {@link #runWithAsyncDecoding(Runnable)}
+ * (used for on-screen painting) missing images are decoded by background threads and registered
+ * listeners are notified when they become available.
+ *
+ * @since 1.6.10
+ */
+public final class ScaledImageCache {
+
+  /**
+   * System property to define max size of the cache in bytes.
+   */
+  public static final String PROPERTY_MAX_CACHE_SIZE_BYTES = "mmap.image.cache.max.bytes";
+  /**
+   * Default max size of the cache in bytes.
+   */
+  public static final long DEFAULT_MAX_CACHE_SIZE_BYTES = 64L * 1024L * 1024L;
+  /**
+   * Scale value used for base (non-scaled) images.
+   */
+  public static final double BASE_SCALE = 0.0d;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ScaledImageCache.class);
+  private static final int SCALE_QUANTS = 100;
+  private static final long SIZE_ENTRY_WEIGHT = 64L;
+  private static final ScaledImageCache INSTANCE = new ScaledImageCache(findMaxCacheSize());
+  private static final ThreadLocal<AtomicInteger> ASYNC_DECODING =
+      ThreadLocal.withInitial(AtomicInteger::new);
+  private static final Map<String, String> DIGEST_CACHE = new WeakHashMap<>();
+
+  private final long maxBytes;
+  private final LinkedHashMap<Key, Object> entries = new LinkedHashMap<>(64, 0.75f, true);
+  private final Map<Key, CompletableFuture<Image>> pending = new ConcurrentHashMap<>();
+  private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+  private final AtomicLong decodes = new AtomicLong();
+  private final ExecutorService decoder;
+  private long currentBytes;
+
+  ScaledImageCache(final long maxBytes) {
+    this.maxBytes = maxBytes;
+    final AtomicInteger threadCounter = new AtomicInteger();
+    this.decoder = Executors.newFixedThreadPool(
+        Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2)), r -> {
+          final Thread thread =
+              new Thread(r, "mindmap-image-decoder-" + threadCounter.incrementAndGet());
+          thread.setDaemon(true);
+          thread.setPriority(Thread.NORM_PRIORITY - 1);
+          return thread;
+        });
+  }
+
+  public static ScaledImageCache getInstance() {
+    return INSTANCE;
+  }
+
+  private static long findMaxCacheSize() {
+    long result = DEFAULT_MAX_CACHE_SIZE_BYTES;
+    try {
+      final String defined = System.getProperty(PROPERTY_MAX_CACHE_SIZE_BYTES);
+      if (defined != null) {
+        LOGGER.info("Detected redefined max size of image cache : " + defined);
+        result = Math.max(1024L * 1024L, Long.parseLong(defined.trim()));
+      }
+    } catch (NumberFormatException ex) {
+      LOGGER.error("Error during image cache size decoding : ", ex);
+    }
+    return result;
+  }
+
+  /**
+   * Make content identifier for text data (for instance Base64 encoded image). Results are
+   * memorized for string instances, so that repeated calls for the same attribute value are cheap.
+   *
+   * @param data text data, must not be null
+   * @return SHA-256 based identifier of the content, must not be null
+   */
+  public static String makeContentId(final String data) {
+    synchronized (DIGEST_CACHE) {
+      final String found = DIGEST_CACHE.get(data);
+      if (found != null) {
+        return found;
+      }
+    }
+    final String result;
+    try {
+      final byte[] digest = MessageDigest.getInstance("SHA-256")
+          .digest(data.getBytes(StandardCharsets.UTF_8));
+      final StringBuilder buffer = new StringBuilder(digest.length * 2);
+      for (final byte b : digest) {
+        buffer.append(Character.forDigit((b >> 4) & 0xF, 16))
+            .append(Character.forDigit(b & 0xF, 16));
+      }
+      result = buffer.toString();
+    } catch (NoSuchAlgorithmException ex) {
+      throw new Error("Can't find SHA-256", ex);
+    }
+    synchronized (DIGEST_CACHE) {
+      DIGEST_CACHE.put(data, result);
+    }
+    return result;
+  }
+
+  /**
+   * Quantize scale to reduce number of cached variants for close scale values.
+   *
+   * @param scale scale value
+   * @return quantized scale
+   */
+  public static double quantizeScale(final double scale) {
+    return Math.max(1L, Math.round(scale * SCALE_QUANTS)) / (double) SCALE_QUANTS;
+  }
+
+  /**
+   * Execute code in mode allowing background decoding of missing images. Images requested in the
+   * mode but not presented in the cache are returned as null and listeners are notified when they
+   * are ready.
+   *
+   * @param runnable code to be executed, must not be null
+   */
+  public static void runWithAsyncDecoding(final Runnable runnable) {
+    final AtomicInteger counter = ASYNC_DECODING.get();
+    counter.incrementAndGet();
+    try {
+      runnable.run();
+    } finally {
+      counter.decrementAndGet();
+    }
+  }
+
+  private static boolean isAsyncDecodingAllowed() {
+    return ASYNC_DECODING.get().get() > 0;
+  }
+
+  private static long weightOf(final Object value) {
+    if (value instanceof BufferedImage) {
+      final BufferedImage image = (BufferedImage) value;
+      return Math.max(SIZE_ENTRY_WEIGHT,
+          (long) image.getWidth() * image.getHeight() * Math.max(1,
+              image.getColorModel().getPixelSize() / 8));
+    } else if (value instanceof Image) {
+      final Image image = (Image) value;
+      return Math.max(SIZE_ENTRY_WEIGHT,
+          (long) Math.max(0, image.getWidth(null)) * Math.max(0, image.getHeight(null)) * 4L);
+    } else {
+      return SIZE_ENTRY_WEIGHT;
+    }
+  }
+
+  /**
+   * Add listener to be notified when an image decoded in background becomes available.
+   *
+   * @param listener listener, must not be null
+   */
+  public void addImageReadyListener(final Runnable listener) {
+    this.listeners.add(requireNonNull(listener));
+  }
+
+  /**
+   * Remove listener.
+   *
+   * @param listener listener, must not be null
+   */
+  public void removeImageReadyListener(final Runnable listener) {
+    this.listeners.remove(listener);
+  }
+
+  /**
+   * Find size of image in the cache or get it through provided supplier and place into cache.
+   *
+   * @param kind         kind of images (namespace of identifiers), must not be null
+   * @param id           content identifier, must not be null
+   * @param sizeSupplier supplier of size, can return null
+   * @return size of image or null if it is unknown
+   */
+  public Dimension findSize(final String kind, final String id,
+                            final Supplier<Dimension> sizeSupplier) {
+    final Key key = new Key(kind, id, -1L);
+    Dimension result = (Dimension) this.get(key);
+    if (result == null) {
+      final Image base = (Image) this.get(new Key(kind, id, 0L));
+      if (base == null) {
+        result = sizeSupplier.get();
+      } else {
+        result = new Dimension(base.getWidth(null), base.getHeight(null));
+      }
+      if (result != null) {
+        this.put(key, new Dimension(result));
+      }
+    }
+    return result == null ? null : new Dimension(result);
+  }
+
+  /**
+   * Find image for scale in the cache or make it through provided decoder and scaler.
+   * In async decoding mode the method returns null if image is not in the cache yet.
+   *
+   * @param kind        kind of images (namespace of identifiers), must not be null
+   * @param id          content identifier, must not be null
+   * @param scale       needed scale, {@link #BASE_SCALE} for non-scaled base image
+   * @param baseDecoder decoder of base image, can return null
+   * @param scaler      makes scaled version of base image for scale, can return null
+   * @return found or prepared image, can be null
+   */
+  public Image findImage(final String kind,
+                         final String id,
+                         final double scale,
+                         final Supplier<Image> baseDecoder,
+                         final ScaleFunction scaler) {
+    return this.find(kind, id, scale, baseDecoder, scaler, isAsyncDecodingAllowed());
+  }
+
+  /**
+   * Find image for scale in the cache or make it through provided decoder and scaler in the
+   * current thread, the async decoding mode is ignored.
+   *
+   * @param kind        kind of images (namespace of identifiers), must not be null
+   * @param id          content identifier, must not be null
+   * @param scale       needed scale, {@link #BASE_SCALE} for non-scaled base image
+   * @param baseDecoder decoder of base image, can return null
+   * @param scaler      makes scaled version of base image for scale, can return null
+   * @return found or prepared image, can be null
+   */
+  public Image getImage(final String kind,
+                        final String id,
+                        final double scale,
+                        final Supplier<Image> baseDecoder,
+                        final ScaleFunction scaler) {
+    return this.find(kind, id, scale, baseDecoder, scaler, false);
+  }
+
+  private Image find(final String kind,
+                     final String id,
+                     final double scale,
+                     final Supplier<Image> baseDecoder,
+                     final ScaleFunction scaler,
+                     final boolean async) {
+    final Key key = new Key(kind, id,
+        Double.compare(scale, BASE_SCALE) == 0 ? 0L : Math.round(quantizeScale(scale) * SCALE_QUANTS));
+    final Image cached = (Image) this.get(key);
+    if (cached != null) {
+      this.hits.incrementAndGet();
+      return cached;
+    }
+    this.misses.incrementAndGet();
+
+    if (async) {
+      final CompletableFuture<Image> future = new CompletableFuture<>();
+      if (this.pending.putIfAbsent(key, future) == null) {
+        future.whenComplete((image, error) -> {
+          this.pending.remove(key, future);
+          if (error != null) {
+            LOGGER.error("Can't prepare image " + key, error);
+          } else if (image != null) {
+            this.fireImageReady();
+          }
+        });
+        this.decoder.execute(() -> {
+          try {
+            future.complete(this.make(key, baseDecoder, scaler));
+          } catch (Throwable ex) {
+            future.completeExceptionally(ex);
+          }
+        });
+      }
+      return null;
+    } else {
+      final CompletableFuture<Image> inProgress = this.pending.get(key);
+      if (inProgress != null) {
+        try {
+          return inProgress.join();
+        } catch (RuntimeException ex) {
+          LOGGER.error("Error during background preparation of image " + key, ex);
+        }
+      }
+      return this.make(key, baseDecoder, scaler);
+    }
+  }
+
+  private Image make(final Key key, final Supplier<Image> baseDecoder,
+                     final ScaleFunction scaler) {
+    final Key baseKey = new Key(key.kind, key.id, 0L);
+    Image base = (Image) this.get(baseKey);
+    if (base == null) {
+      this.decodes.incrementAndGet();
+      base = baseDecoder.get();
+      if (base == null) {
+        return null;
+      }
+      this.put(baseKey, base);
+      this.put(new Key(key.kind, key.id, -1L),
+          new Dimension(base.getWidth(null), base.getHeight(null)));
+    }
+    if (key.quantizedScale == 0L) {
+      return base;
+    }
+    final Image scaled = scaler.scale(base, key.quantizedScale / (double) SCALE_QUANTS);
+    if (scaled != null) {
+      this.put(key, scaled);
+    }
+    return scaled;
+  }
+
+  private void fireImageReady() {
+    for (final Runnable r : this.listeners) {
+      try {
+        r.run();
+      } catch (Exception ex) {
+        LOGGER.error("Error in image ready listener", ex);
+      }
+    }
+  }
+
+  private Object get(final Key key) {
+    synchronized (this.entries) {
+      return this.entries.get(key);
+    }
+  }
+
+  private void put(final Key key, final Object value) {
+    final long weight = weightOf(value);
+    if (weight > this.maxBytes) {
+      return;
+    }
+    synchronized (this.entries) {
+      final Object prev = this.entries.put(key, value);
+      if (prev != null) {
+        this.currentBytes -= weightOf(prev);
+      }
+      this.currentBytes += weight;
+      final Iterator<Map.Entry<Key, Object>> iterator = this.entries.entrySet().iterator();
+      while (this.currentBytes > this.maxBytes && iterator.hasNext()) {
+        final Map.Entry<Key, Object> eldest = iterator.next();
+        if (eldest.getKey().equals(key)) {
+          continue;
+        }
+        iterator.remove();
+        this.currentBytes -= weightOf(eldest.getValue());
+        this.evictions.incrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * Remove all entries of kind from the cache.
+   *
+   * @param kind kind of images, must not be null
+   */
+  public void invalidate(final String kind) {
+    synchronized (this.entries) {
+      final Iterator<Map.Entry<Key, Object>> iterator = this.entries.entrySet().iterator();
+      while (iterator.hasNext()) {
+        final Map.Entry<Key, Object> entry = iterator.next();
+        if (entry.getKey().kind.equals(kind)) {
+          iterator.remove();
+          this.currentBytes -= weightOf(entry.getValue());
+        }
+      }
+    }
+  }
+
+  /**
+   * Remove all entries from the cache.
+   */
+  public void clear() {
+    synchronized (this.entries) {
+      this.entries.clear();
+      this.currentBytes = 0L;
+    }
+  }
+
+  /**
+   * Get snapshot of the cache statistics.
+   *
+   * @return statistics, must not be null
+   */
+  public Stats getStats() {
+    synchronized (this.entries) {
+      return new Stats(this.hits.get(), this.misses.get(), this.evictions.get(),
+          this.decodes.get(), this.entries.size(), this.currentBytes, this.maxBytes);
+    }
+  }
+
+  /**
+   * Function to make scaled version of image.
+   */
+  @FunctionalInterface
+  public interface ScaleFunction {
+    /**
+     * Make scaled image.
+     *
+     * @param base  base image, must not be null
+     * @param scale scale factor
+     * @return scaled image, can be null
+     */
+    Image scale(Image base, double scale);
+  }
+
+  /**
+   * Immutable snapshot of cache statistics.
+   */
+  public static final class Stats {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long decodes;
+    private final int entries;
+    private final long bytes;
+    private final long maxBytes;
+
+    private Stats(final long hits, final long misses, final long evictions, final long decodes,
+                  final int entries, final long bytes, final long maxBytes) {
+      this.hits = hits;
+      this.misses = misses;
+      this.evictions = evictions;
+      this.decodes = decodes;
+      this.entries = entries;
+      this.bytes = bytes;
+      this.maxBytes = maxBytes;
+    }
+
+    public long getHits() {
+      return this.hits;
+    }
+
+    public long getMisses() {
+      return this.misses;
+    }
+
+    public long getEvictions() {
+      return this.evictions;
+    }
+
+    public long getDecodes() {
+      return this.decodes;
+    }
+
+    public int getEntries() {
+      return this.entries;
+    }
+
+    public long getBytes() {
+      return this.bytes;
+    }
+
+    public long getMaxBytes() {
+      return this.maxBytes;
+    }
+
+    @Override
+    public String toString() {
+      return "ScaledImageCache.Stats(hits=" + this.hits + ",misses=" + this.misses + ",evictions="
+          + this.evictions + ",decodes=" + this.decodes + ",entries=" + this.entries + ",bytes="
+          + this.bytes + '/' + this.maxBytes + ')';
+    }
+  }
+
+  private static final class Key {
+    private final String kind;
+    private final String id;
+    private final long quantizedScale;
+    private final int hash;
+
+    private Key(final String kind, final String id, final long quantizedScale) {
+      this.kind = requireNonNull(kind);
+      this.id = requireNonNull(id);
+      this.quantizedScale = quantizedScale;
+      this.hash = Objects.hash(kind, id, quantizedScale);
+    }
+
+    @Override
+    public boolean equals(final Object that) {
+      if (this == that) {
+        return true;
+      }
+      if (!(that instanceof Key)) {
+        return false;
+      }
+      final Key thatKey = (Key) that;
+      return this.quantizedScale == thatKey.quantizedScale
+          && this.kind.equals(thatKey.kind)
+          && this.id.equals(thatKey.id);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+
+    @Override
+    public String toString() {
+      return this.kind + ':' + this.id + '@' + this.quantizedScale;
+    }
+  }
+}
@@ -96,6 +96,9 @@ import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.SystemUtils;
 import org.jsoup.Jsoup;
@@ -121,10 +124,21 @@ public final class Utils {
       "^(?:([^:\\s]+):)(?://(?:[^?/@\\s]*@)?([^/?\\s]*)/?)?([^?\\s]+)?(?:\\?([^#\\s]*))?(?:#\\S*)?$");
   private static final int MAX_IMAGE_SIDE_SIZE_IN_PIXELS = 350;
   private static final Pattern STRIP_PATTERN = Pattern.compile("^(\\s*)(.*[^\\s])(\\s*)$");
+  private static final XMLInputFactory XML_INPUT_FACTORY = makeXmlInputFactory();
 
   private Utils() {
   }
 
+  private static XMLInputFactory makeXmlInputFactory() {
+    final XMLInputFactory factory = XMLInputFactory.newFactory();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+    factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    factory.setProperty(XMLInputFactory.IS_VALIDATING, false);
+    return factory;
+  }
+
   /**
    * Get input stream for resource in zip file.
    *
@@ -246,6 +260,23 @@ public final class Utils {
     return document;
   }
 
+  /**
+   * Make StAX reader to stream XML document without building its tree. DTD and external entities
+   * are not supported, adjacent text and CDATA parts are coalesced.
+   *
+   * @param inStream stream to read document, it will not be closed by the reader
+   * @param charset  charset to be used for reading, can be null for auto-detection
+   * @return created reader, must be closed after use
+   * @throws XMLStreamException will be thrown if reader can't be created
+   * @since 1.6.10
+   */
+  public static XMLStreamReader makeXmlStreamReader(final InputStream inStream,
+                                                    final String charset)
+      throws XMLStreamException {
+    return charset == null ? XML_INPUT_FACTORY.createXMLStreamReader(inStream)
+        : XML_INPUT_FACTORY.createXMLStreamReader(inStream, charset);
+  }
+
   /**
    * Get first direct child for name.
    *
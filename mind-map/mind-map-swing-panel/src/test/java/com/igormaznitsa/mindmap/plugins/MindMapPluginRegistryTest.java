@@ -16,13 +16,24 @@
 
 package com.igormaznitsa.mindmap.plugins;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 
+import com.igormaznitsa.mindmap.model.TopicFinder;
 import com.igormaznitsa.mindmap.plugins.api.AbstractExporter;
+import com.igormaznitsa.mindmap.plugins.api.MindMapPlugin;
+import com.igormaznitsa.mindmap.plugins.api.PopUpMenuItemPlugin;
+import com.igormaznitsa.mindmap.plugins.tools.ShowJumpsPlugin;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import org.junit.Test;
 
 public class MindMapPluginRegistryTest {
@@ -43,4 +54,47 @@ public class MindMapPluginRegistryTest {
     }
   }
 
+  @Test
+  public void testTypeIndexReplacedOnChange() {
+    final MindMapPluginRegistry registry = MindMapPluginRegistry.getInstance();
+    final List<PopUpMenuItemPlugin> before = registry.findFor(PopUpMenuItemPlugin.class);
+    final Set<TopicFinder> findersBefore = registry.findAllTopicFinders();
+    assertSame(before, registry.findFor(PopUpMenuItemPlugin.class));
+    assertTrue(registry.findFor(TestPlugin.class).isEmpty());
+
+    final TestPlugin plugin = new TestPlugin();
+    registry.registerPlugin(plugin);
+    try {
+      final List<PopUpMenuItemPlugin> after = registry.findFor(PopUpMenuItemPlugin.class);
+      assertEquals(before.size() + 1, after.size());
+      assertTrue(after.contains(plugin));
+      assertEquals(Collections.singletonList(plugin), registry.findFor(TestPlugin.class));
+      assertTrue(registry.findFor(ShowJumpsPlugin.class).contains(plugin));
+
+      for (final Class<? extends MindMapPlugin> type : Arrays.asList(MindMapPlugin.class,
+          PopUpMenuItemPlugin.class, ShowJumpsPlugin.class)) {
+        final List<? extends MindMapPlugin> found = registry.findFor(type);
+        final List<MindMapPlugin> expected = new ArrayList<>();
+        for (final MindMapPlugin p : registry) {
+          if (type.isInstance(p)) {
+            expected.add(p);
+          }
+        }
+        assertEquals(expected, found);
+      }
+      assertEquals(findersBefore, registry.findAllTopicFinders());
+    } finally {
+      registry.unregisterPlugin(plugin);
+    }
+    assertEquals(before, registry.findFor(PopUpMenuItemPlugin.class));
+    assertTrue(registry.findFor(TestPlugin.class).isEmpty());
+    assertNull(registry.findExporterForMnemonic("unknown-mnemonic"));
+    assertSame(registry.findFor(AbstractExporter.class).stream()
+            .filter(x -> "png".equals(x.getMnemonic())).findFirst().orElse(null),
+        registry.findExporterForMnemonic("png"));
+  }
+
+  private static final class TestPlugin extends ShowJumpsPlugin {
+
+  }
 }
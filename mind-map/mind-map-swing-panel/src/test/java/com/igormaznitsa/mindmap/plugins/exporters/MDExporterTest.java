@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mindmap.plugins.exporters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.igormaznitsa.mindmap.model.MindMap;
+import com.igormaznitsa.mindmap.model.Topic;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+public class MDExporterTest extends AbstractStandardExporterTest<MDExporter> {
+
+  @Test
+  public void testSubtreesWrittenInOrder() throws Exception {
+    final MindMap map = new MindMap(true);
+    map.getRoot().setText("Root");
+    for (int i = 0; i < 200; i++) {
+      final Topic child = new Topic(map, map.getRoot(), "Child" + i);
+      new Topic(map, child, "Leaf" + i);
+    }
+
+    final String text = new String(export(map, null), StandardCharsets.UTF_8);
+
+    assertTrue(text.contains("# Root\n"));
+    int position = text.indexOf("# Root\n");
+    for (int i = 0; i < 200; i++) {
+      final int child = text.indexOf("## Child" + i + '\n', position);
+      assertTrue("Child" + i, child > position);
+      final int leaf = text.indexOf("### Leaf" + i + '\n', child);
+      assertTrue("Leaf" + i, leaf > child);
+      position = leaf;
+    }
+    assertEquals(-1, text.indexOf("## Child", position));
+  }
+
+  @Override
+  public MDExporter generateExporterInstance() {
+    return new MDExporter();
+  }
+}
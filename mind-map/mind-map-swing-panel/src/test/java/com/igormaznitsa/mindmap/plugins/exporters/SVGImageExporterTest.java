@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mindmap.plugins.exporters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.igormaznitsa.mindmap.model.MindMap;
+import com.igormaznitsa.mindmap.model.Topic;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.junit.Test;
+import org.w3c.dom.Document;
+
+public class SVGImageExporterTest extends AbstractStandardExporterTest<SVGImageExporter> {
+
+  @Test
+  public void testNumberFormat() {
+    assertEquals("0", SvgWriter.formatNumber(0.0d));
+    assertEquals("0", SvgWriter.formatNumber(-0.0001d));
+    assertEquals("12", SvgWriter.formatNumber(12.0d));
+    assertEquals("-12.5", SvgWriter.formatNumber(-12.5d));
+    assertEquals("3.142", SvgWriter.formatNumber(Math.PI));
+    assertEquals("0.05", SvgWriter.formatNumber(0.05d));
+    assertEquals("1234567.001", SvgWriter.formatNumber(1234567.001d));
+    assertEquals("0", SvgWriter.formatNumber(Double.NaN));
+  }
+
+  @Test
+  public void testWellFormedAndUsesStyleClasses() throws Exception {
+    final MindMap map = new MindMap(true);
+    map.getRoot().setText("Root <&>");
+    for (int i = 0; i < 10; i++) {
+      new Topic(map, map.getRoot(), "Child " + i);
+    }
+
+    final byte[] exported = export(map, null);
+    final String text = new String(exported, StandardCharsets.UTF_8);
+
+    final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+    factory.setNamespaceAware(true);
+    final Document document =
+        factory.newDocumentBuilder().parse(new ByteArrayInputStream(exported));
+
+    assertEquals("svg", document.getDocumentElement().getLocalName());
+    assertEquals(11, document.getElementsByTagName("text").getLength());
+    assertTrue(text.contains("Root &lt;&amp;&gt;"));
+    assertTrue(text.contains(" class=\"s0\""));
+    assertFalse(text.contains(" style=\""));
+  }
+
+  @Override
+  public SVGImageExporter generateExporterInstance() {
+    return new SVGImageExporter();
+  }
+}
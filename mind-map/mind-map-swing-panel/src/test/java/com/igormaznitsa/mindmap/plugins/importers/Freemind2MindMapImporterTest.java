@@ -1,6 +1,7 @@
 package com.igormaznitsa.mindmap.plugins.importers;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import com.igormaznitsa.mindmap.model.Extra;
 import com.igormaznitsa.mindmap.model.MindMap;
@@ -61,5 +62,18 @@ public class Freemind2MindMapImporterTest extends AbstractImporterTest {
     }
   }
 
+  @Test
+  public void testFileWithNotWellFormedHtml() throws Exception {
+    final File file = findFile("freemind3.mm");
+    try (final FileInputStream in = new FileInputStream(file)) {
+      final MindMap mindMap = INSTANCE.extractTopics(file, in);
+      final Topic root = mindMap.getRoot();
+      assertEquals("Root", root.getText());
+      assertEquals(2, root.getChildren().size());
+      assertTrue(root.getChildren().get(0).getText().startsWith("Line"));
+      assertTrue(root.getChildren().get(0).getText().endsWith("Line two"));
+      assertEquals("Leaf", root.getChildren().get(1).getText());
+    }
+  }
 
-}
\ No newline at end of file
+}
@@ -33,6 +33,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.igormaznitsa.mindmap.swing.panel.utils.KeyShortcut;
+import com.igormaznitsa.mindmap.swing.panel.utils.PropertiesPreferences;
 import com.igormaznitsa.mindmap.swing.panel.utils.RenderQuality;
 import java.awt.Color;
 import java.awt.Font;
@@ -41,8 +42,15 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.prefs.Preferences;
 import org.junit.Test;
 import org.mockito.invocation.InvocationOnMock;
@@ -310,6 +318,98 @@ public class MindMapPanelConfigTest {
     assertNotNull(newConfig.getKeyShortCut(MindMapPanelConfig.KEY_ADD_CHILD_AND_START_EDIT));
   }
 
+  @Test
+  public void testPropertiesCoverAllFields() {
+    final Set<String> fields = new HashSet<>();
+    for (final Field f : MindMapPanelConfig.class.getDeclaredFields()) {
+      if ((f.getModifiers() & (Modifier.STATIC | Modifier.TRANSIENT | Modifier.FINAL)) == 0
+          && f.getType() != Map.class) {
+        fields.add(f.getName());
+      }
+    }
+    final Set<String> properties = MindMapPanelConfig.getProperties().stream()
+        .map(PanelConfigProperty::getName)
+        .collect(Collectors.toSet());
+    assertEquals(fields, properties);
+  }
+
+  @Test
+  public void testSaveTo_OnlyChangedPropertiesWritten() throws Exception {
+    final PropertiesPreferences prefs = new PropertiesPreferences("test");
+    new MindMapPanelConfig().saveTo(prefs);
+
+    final List<String> writtenKeys = new ArrayList<>();
+    prefs.addPreferenceChangeListener(e -> writtenKeys.add(e.getKey()));
+
+    final MindMapPanelConfig config = new MindMapPanelConfig();
+    config.loadFrom(prefs);
+    assertTrue(writtenKeys.isEmpty());
+
+    config.setGridStep(config.getGridStep() + 7);
+    config.saveTo(prefs);
+    assertEquals(1, writtenKeys.size());
+    assertEquals("MindMapPanelConfig.gridStep", writtenKeys.get(0));
+
+    writtenKeys.clear();
+    config.saveTo(prefs);
+    assertTrue(writtenKeys.isEmpty());
+
+    config.setOptionalProperty("some", 1234);
+    config.saveTo(prefs);
+    assertEquals(1, writtenKeys.size());
+    assertEquals(MindMapPanelConfig.PREFIX_OPTIONAL_PROPERTY + "some", writtenKeys.get(0));
+
+    writtenKeys.clear();
+    new MindMapPanelConfig(config, false).saveTo(prefs);
+    assertTrue(writtenKeys.size() > MindMapPanelConfig.getProperties().size());
+
+    final MindMapPanelConfig loaded = new MindMapPanelConfig();
+    loaded.loadFrom(prefs);
+    assertEquals(config, loaded);
+    assertEquals(Integer.valueOf(1234),
+        MindMapPanelConfig.loadOptionalProperty(prefs, "some", 0));
+    assertEquals(Integer.valueOf(-1),
+        MindMapPanelConfig.loadOptionalProperty(prefs, "unknown", -1));
+  }
+
+  @Test
+  public void testImmutableCopy() {
+    final MindMapPanelConfig config = new MindMapPanelConfig();
+    config.setGridStep(123);
+    config.setOptionalProperty("one", TestEnum.ONE);
+
+    final MindMapPanelConfig immutable = config.makeImmutableCopy();
+    assertTrue(immutable.isImmutable());
+    assertFalse(config.isImmutable());
+    assertEquals(config, immutable);
+    assertTrue(immutable == immutable.makeImmutableCopy());
+
+    try {
+      immutable.setGridStep(1);
+      fail("Must throw UOE");
+    } catch (UnsupportedOperationException ex) {
+      // expected
+    }
+    try {
+      immutable.setOptionalProperty("one", TestEnum.TWO);
+      fail("Must throw UOE");
+    } catch (UnsupportedOperationException ex) {
+      // expected
+    }
+    try {
+      immutable.loadFrom(new PropertiesPreferences("test"));
+      fail("Must throw UOE");
+    } catch (UnsupportedOperationException ex) {
+      // expected
+    }
+    assertEquals(123, immutable.getGridStep());
+
+    final MindMapPanelConfig copy = new MindMapPanelConfig(immutable, false);
+    assertFalse(copy.isImmutable());
+    copy.setGridStep(1);
+    assertEquals(1, copy.getGridStep());
+  }
+
   private enum TestEnum {
     ONE, TWO
   }
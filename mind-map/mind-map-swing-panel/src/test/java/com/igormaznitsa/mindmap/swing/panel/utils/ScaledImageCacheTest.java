@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.igormaznitsa.mindmap.swing.panel.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Dimension;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+public class ScaledImageCacheTest {
+
+  private static Image scale(final Image base, final double scale) {
+    return new BufferedImage((int) Math.round(base.getWidth(null) * scale),
+        (int) Math.round(base.getHeight(null) * scale), BufferedImage.TYPE_INT_ARGB);
+  }
+
+  @Test
+  public void testContentId() {
+    final String id = ScaledImageCache.makeContentId("Hello world");
+    assertEquals(64, id.length());
+    assertEquals(id, ScaledImageCache.makeContentId(new String("Hello world".toCharArray())));
+    assertNotEquals(id, ScaledImageCache.makeContentId("Hello world!"));
+  }
+
+  @Test
+  public void testQuantizeScale() {
+    assertEquals(1.0d, ScaledImageCache.quantizeScale(1.001d), 0.0d);
+    assertEquals(1.23d, ScaledImageCache.quantizeScale(1.2345d), 0.0d);
+    assertEquals(0.01d, ScaledImageCache.quantizeScale(0.0001d), 0.0d);
+  }
+
+  @Test
+  public void testBaseDecodedOnceForDifferentScales() {
+    final ScaledImageCache cache = new ScaledImageCache(1024L * 1024L);
+    final AtomicInteger decodeCounter = new AtomicInteger();
+
+    final Image scaled1 = cache.getImage("test", "id", 2.0d, () -> {
+      decodeCounter.incrementAndGet();
+      return new BufferedImage(10, 20, BufferedImage.TYPE_INT_ARGB);
+    }, ScaledImageCacheTest::scale);
+    final Image scaled2 = cache.getImage("test", "id", 2.001d, () -> {
+      decodeCounter.incrementAndGet();
+      return null;
+    }, ScaledImageCacheTest::scale);
+    final Image scaled3 = cache.getImage("test", "id", 3.0d, () -> {
+      decodeCounter.incrementAndGet();
+      return null;
+    }, ScaledImageCacheTest::scale);
+
+    assertEquals(1, decodeCounter.get());
+    assertSame(scaled1, scaled2);
+    assertEquals(20, scaled1.getWidth(null));
+    assertEquals(60, scaled3.getHeight(null));
+    assertEquals(new Dimension(10, 20), cache.findSize("test", "id", () -> null));
+
+    final ScaledImageCache.Stats stats = cache.getStats();
+    assertEquals(1L, stats.getHits());
+    assertEquals(2L, stats.getMisses());
+    assertEquals(1L, stats.getDecodes());
+  }
+
+  @Test
+  public void testEvictionOfLeastRecentlyUsed() {
+    final ScaledImageCache cache = new ScaledImageCache(3L * 100L * 100L * 4L);
+    for (int i = 0; i < 5; i++) {
+      cache.getImage("test", "id" + i, ScaledImageCache.BASE_SCALE,
+          () -> new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB),
+          ScaledImageCacheTest::scale);
+    }
+    final ScaledImageCache.Stats stats = cache.getStats();
+    assertTrue(stats.getBytes() <= stats.getMaxBytes());
+    assertTrue(stats.getEvictions() > 0L);
+    assertEquals(5L, stats.getDecodes());
+
+    assertNull(cache.getImage("test", "id0", ScaledImageCache.BASE_SCALE, () -> null,
+        ScaledImageCacheTest::scale));
+    assertNotNull(cache.getImage("test", "id4", ScaledImageCache.BASE_SCALE, () -> null,
+        ScaledImageCacheTest::scale));
+  }
+
+  @Test
+  public void testInvalidateKind() {
+    final ScaledImageCache cache = new ScaledImageCache(1024L * 1024L);
+    cache.getImage("kind1", "id", 1.0d,
+        () -> new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB), ScaledImageCacheTest::scale);
+    cache.getImage("kind2", "id", 1.0d,
+        () -> new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB), ScaledImageCacheTest::scale);
+    cache.invalidate("kind1");
+    assertNull(cache.getImage("kind1", "id", 1.0d, () -> null, ScaledImageCacheTest::scale));
+    assertNotNull(cache.getImage("kind2", "id", 1.0d, () -> null, ScaledImageCacheTest::scale));
+  }
+
+  @Test(timeout = 10000L)
+  public void testAsyncDecoding() throws Exception {
+    final ScaledImageCache cache = new ScaledImageCache(1024L * 1024L);
+    final CountDownLatch latch = new CountDownLatch(1);
+    cache.addImageReadyListener(latch::countDown);
+
+    final AtomicReference<Image> asyncResult = new AtomicReference<>();
+    ScaledImageCache.runWithAsyncDecoding(() -> asyncResult.set(
+        cache.findImage("test", "id", 1.5d,
+            () -> new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB),
+            ScaledImageCacheTest::scale)));
+    assertNull(asyncResult.get());
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+    final Image ready = cache.findImage("test", "id", 1.5d, () -> null,
+        ScaledImageCacheTest::scale);
+    assertNotNull(ready);
+    assertEquals(15, ready.getWidth(null));
+  }
+}
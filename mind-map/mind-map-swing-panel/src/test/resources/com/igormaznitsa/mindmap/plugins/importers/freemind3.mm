@@ -0,0 +1,15 @@
+<map version="0.8.1">
+    <node ID="ID_1" TEXT="Root">
+        <node ID="ID_2" POSITION="right">
+            <richcontent TYPE="NODE">
+                <html>
+                    <body>
+                        Line&nbsp;one<br>
+                        Line two
+                    </body>
+                </html>
+            </richcontent>
+        </node>
+        <node ID="ID_3" POSITION="left" TEXT="Leaf"/>
+    </node>
+</map>
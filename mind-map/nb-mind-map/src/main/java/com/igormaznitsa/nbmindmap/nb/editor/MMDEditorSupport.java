@@ -16,6 +16,7 @@
 
 package com.igormaznitsa.nbmindmap.nb.editor;
 
+import com.igormaznitsa.mindmap.model.MindMapTextDiff;
 import com.igormaznitsa.mindmap.model.logger.Logger;
 import com.igormaznitsa.mindmap.model.logger.LoggerFactory;
 import java.io.File;
@@ -151,8 +152,16 @@ public class MMDEditorSupport extends DataEditorSupport
         @Override
         public void run() {
           try {
-            doc.remove(0, doc.getLength());
-            doc.insertString(0, text, null);
+            final List<MindMapTextDiff.Edit> edits = MindMapTextDiff.diff(doc.getText(0, doc.getLength()), text);
+            for (int i = edits.size() - 1; i >= 0; i--) {
+              final MindMapTextDiff.Edit edit = edits.get(i);
+              if (edit.getEnd() > edit.getStart()) {
+                doc.remove(edit.getStart(), edit.getEnd() - edit.getStart());
+              }
+              if (!edit.getText().isEmpty()) {
+                doc.insertString(edit.getStart(), edit.getText(), null);
+              }
+            }
           } catch (Exception ex) {
             LOGGER.error("Can't replace text", ex); //NOI18N
           }
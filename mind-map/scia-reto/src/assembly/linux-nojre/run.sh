@@ -8,6 +8,12 @@ SCIARETO_HOME="$(dirname ${BASH_SOURCE[0]})"
 JAVA_FLAGS="-client -XX:+IgnoreUnrecognizedVMOptions -Xmx2G --add-opens=java.base/java.lang=ALL-UNNAMED --add-opens=java.base/java.io=ALL-UNNAMED --add-opens=java.base/java.util=ALL-UNNAMED -Dsun.java2d.dpiaware=true -Dswing.aatext=true -Dawt.useSystemAAFontSettings=on"
 JAVA_LOG_CONFIG=$SCIARETO_HOME/logger.properties
 
+# class data sharing archive speeds up start, JVM creates it and refreshes it if it is outdated
+SR_CDS_ARCHIVE=$SCIARETO_HOME/scia-reto.jsa
+if [ -f "$SR_CDS_ARCHIVE" ] || [ -w "$SCIARETO_HOME" ]; then
+    JAVA_CDS_FLAGS="-XX:SharedArchiveFile=$SR_CDS_ARCHIVE -XX:+AutoCreateSharedArchive"
+fi
+
 if [[ -n "$JAVA_HOME" ]] && [[ -x "$JAVA_HOME/bin/java" ]];  then
     echo detected JAVA_HOME variable
     JAVA_RUN="$JAVA_HOME/bin/java"
@@ -28,4 +34,4 @@ fi
 
 JAVA_RUN=java
 
-$JAVA_RUN $JAVA_FLAGS $JAVA_EXTRA_GFX_FLAGS "-Djava.util.logging.config.file=$JAVA_LOG_CONFIG" -jar $SCIARETO_HOME/scia-reto.jar $@
+$JAVA_RUN $JAVA_FLAGS $JAVA_EXTRA_GFX_FLAGS $JAVA_CDS_FLAGS "-Djava.util.logging.config.file=$JAVA_LOG_CONFIG" -jar $SCIARETO_HOME/scia-reto.jar $@
@@ -8,6 +8,16 @@ set "JAVA_FLAGS=-client -XX:+IgnoreUnrecognizedVMOptions -Xmx2G --add-opens=java
 set "JAVA_RUN=java.exe"
 set "JAVA_LOG=-Djava.util.logging.config.file=%SCIARETO_HOME%\logger.properties"
 
+rem class data sharing archive speeds up start, JVM creates it and refreshes it if it is outdated
+rem the archive is used only if it exists or the application folder is writable
+set "JAVA_CDS_FLAGS="
+set "SR_CDS_ARCHIVE=%SCIARETO_HOME%\scia-reto.jsa"
+if exist "%SR_CDS_ARCHIVE%" (
+  set "JAVA_CDS_FLAGS=-XX:SharedArchiveFile=%SR_CDS_ARCHIVE% -XX:+AutoCreateSharedArchive"
+) else (
+  copy /y nul "%SCIARETO_HOME%\.cds_check" >nul 2>&1 && del "%SCIARETO_HOME%\.cds_check" >nul 2>&1 && set "JAVA_CDS_FLAGS=-XX:SharedArchiveFile=%SR_CDS_ARCHIVE% -XX:+AutoCreateSharedArchive"
+)
+
 echo %%JAVA_RUN%%=%JAVA_RUN% > %LOG_FILE%
 
 echo ------JAVA_VERSION------ >> %LOG_FILE%
@@ -16,4 +26,4 @@ echo ------JAVA_VERSION------ >> %LOG_FILE%
 
 echo ------------------------ >> %LOG_FILE%
 
-"%JAVA_RUN%" %JAVA_FLAGS% %JAVA_EXTRA_GFX_FLAGS% %JAVA_LOG% -jar "%SCIARETO_HOME%\scia-reto.jar" %* >> %LOG_FILE% 2>>&1
+"%JAVA_RUN%" %JAVA_FLAGS% %JAVA_EXTRA_GFX_FLAGS% %JAVA_CDS_FLAGS% %JAVA_LOG% -jar "%SCIARETO_HOME%\scia-reto.jar" %* >> %LOG_FILE% 2>>&1
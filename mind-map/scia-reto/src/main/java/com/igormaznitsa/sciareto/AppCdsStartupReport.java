@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.igormaznitsa.sciareto;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import javax.annotation.Nonnull;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Summary of startup time with and without class data sharing archive, used by build profile
+ * appcds. Every start writes time since JVM start till shown main frame into file defined by
+ * system property {@code sciareto.startup.time.file}, the class reads two such files and prints
+ * one line with comparison.
+ */
+public final class AppCdsStartupReport {
+
+  private AppCdsStartupReport() {
+  }
+
+  static long readMillis(@Nonnull final File file) throws IOException {
+    return Long.parseLong(FileUtils.readFileToString(file, StandardCharsets.UTF_8).trim());
+  }
+
+  @Nonnull
+  static String makeReport(final long withoutArchiveMillis, final long withArchiveMillis) {
+    final long difference = withoutArchiveMillis - withArchiveMillis;
+    final double percent = withoutArchiveMillis == 0L ? 0.0d : difference * 100.0d / withoutArchiveMillis;
+    return String.format(Locale.ROOT,
+        "AppCDS startup since JVM start: without archive %d ms, with archive %d ms, difference %d ms (%.1f%%)", //NOI18N
+        withoutArchiveMillis, withArchiveMillis, difference, percent);
+  }
+
+  /**
+   * Print comparison of startup time.
+   *
+   * @param args file with startup time without archive and file with startup time with archive
+   * @throws IOException if some file can't be read
+   */
+  public static void main(@Nonnull final String... args) throws IOException {
+    if (args.length != 2) {
+      System.err.println("Usage: AppCdsStartupReport <time-without-archive-file> <time-with-archive-file>"); //NOI18N
+      System.exit(2);
+    }
+    System.out.println(makeReport(readMillis(new File(args[0])), readMillis(new File(args[1]))));
+  }
+}
@@ -73,6 +73,7 @@ import com.igormaznitsa.mindmap.swing.panel.MindMapPanelController;
 import com.igormaznitsa.mindmap.swing.panel.ui.AbstractElement;
 import com.igormaznitsa.mindmap.swing.panel.ui.ElementPart;
 import com.igormaznitsa.mindmap.swing.panel.utils.PropertiesPreferences;
+import com.igormaznitsa.sciareto.batch.BatchExporter;
 import com.igormaznitsa.sciareto.metrics.MetricsService;
 import com.igormaznitsa.sciareto.notifications.MessagesService;
 import com.igormaznitsa.sciareto.plugins.services.PrinterPlugin;
@@ -102,9 +103,13 @@ import java.io.OutputStream;
 import java.io.PrintStream;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
@@ -144,7 +149,19 @@ public class SciaRetoStarter {
   private static final AtomicReference<SplashScreen> splash = new AtomicReference<>();
   private static final Logger LOGGER = LoggerFactory.getLogger(SciaRetoStarter.class);
   private static final String PROPERTY = "nbmmd.plugin.folder"; //NOI18N
+  /**
+   * Delay in milliseconds to close application after start, used by training run to make class
+   * data sharing archive.
+   */
+  private static final String PROPERTY_EXIT_AFTER_START = "sciareto.exit.after.start"; //NOI18N
+  /**
+   * File to write time since JVM start till shown main frame, used by startup comparison of class
+   * data sharing archive.
+   */
+  private static final String PROPERTY_STARTUP_TIME_FILE = "sciareto.startup.time.file"; //NOI18N
   private static final long STATISTICS_DELAY = 7L * 24L * 3600L * 1000L;
+  private static final int BATCH_STATUS_FAILED = 1;
+  private static final int BATCH_STATUS_WRONG_ARGUMENTS = 2;
   private static MainFrame MAIN_FRAME;
 
   public static void disposeSplash() {
@@ -164,6 +181,8 @@ public class SciaRetoStarter {
   }
 
   private static void loadPlugins() {
+    // classes of built-in and external plugins are loaded here, so that it can be done in background
+    MindMapPluginRegistry.getInstance();
     final String pluginFolder = System.getProperty(PROPERTY);
     if (pluginFolder != null) {
       final File folder = new File(pluginFolder);
@@ -218,6 +237,22 @@ public class SciaRetoStarter {
   }
 
   public static void main(@Nonnull @MustNotContainNull final String... args) {
+    if (args.length > 0 && "--batch".equalsIgnoreCase(args[0])) { //NOI18N
+      // batch mode must not touch any screen device
+      System.setProperty("java.awt.headless", "true"); //NOI18N
+      SystemUtils.setDebugLevelForJavaLogger(Level.WARNING);
+      loadPlugins();
+      final int status = batchExport(args);
+      if (status == BATCH_STATUS_WRONG_ARGUMENTS) {
+        printBatchHelp(System.out);
+      }
+      System.exit(status);
+    }
+
+    final StartupPipeline startup = new StartupPipeline();
+    startup.startStage("plugins", SciaRetoStarter::loadPlugins); //NOI18N
+    startup.startStage("fonts", MainFrame::registerApplicationFonts); //NOI18N
+
     final GraphicsConfiguration primaryScreen = findPrimaryScreen();
 
     // -- Properties for MAC OSX --
@@ -237,7 +272,7 @@ public class SciaRetoStarter {
     final double screenScale =
         UiUtils.findDeviceScale(primaryScreen == null ? null : primaryScreen.getDevice());
 
-    PlatformProvider.getPlatform().init();
+    startup.runStage("platform", () -> PlatformProvider.getPlatform().init()); //NOI18N
     final boolean foundScaling = Math.abs(screenScale - 1.0d) >
         0.00001d;
 
@@ -297,6 +332,7 @@ public class SciaRetoStarter {
       }
 
       timeTakenBySplashStart = currentTimeMillis() - splashTimerStart;
+      startup.recordStage("splash", timeTakenBySplashStart); //NOI18N
     } else {
       timeTakenBySplashStart = 0L;
     }
@@ -322,7 +358,7 @@ public class SciaRetoStarter {
       }
     }));
 
-    loadPlugins();
+    startup.awaitStage("plugins"); //NOI18N
 
     boolean doShowGUI = true;
 
@@ -397,6 +433,8 @@ public class SciaRetoStarter {
               JOptionPane.WARNING_MESSAGE);
         }
 
+        startup.awaitStage("fonts"); //NOI18N
+        final long frameStart = currentTimeMillis();
         try {
           MAIN_FRAME = new MainFrame(primaryScreen, args);
         } catch (IOException ex) {
@@ -406,6 +444,7 @@ public class SciaRetoStarter {
           System.exit(1);
         }
         MAIN_FRAME.setSize(Math.round(width * 0.75f), Math.round(height * 0.75f));
+        startup.recordStage("frame", currentTimeMillis() - frameStart); //NOI18N
 
         if (splash.get() != null) {
           final long delay =
@@ -422,6 +461,25 @@ public class SciaRetoStarter {
         }
 
         MAIN_FRAME.setVisible(true);
+        final long startupMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        startup.logTimings(startupMillis);
+
+        final String startupTimeFile = System.getProperty(PROPERTY_STARTUP_TIME_FILE);
+        if (startupTimeFile != null) {
+          try {
+            FileUtils.writeStringToFile(new File(startupTimeFile), Long.toString(startupMillis), StandardCharsets.UTF_8);
+          } catch (IOException ex) {
+            LOGGER.error("Can't write startup time file: " + startupTimeFile, ex); //NOI18N
+          }
+        }
+
+        final Long exitDelay = Long.getLong(PROPERTY_EXIT_AFTER_START);
+        if (exitDelay != null) {
+          LOGGER.info("Application will be closed after " + exitDelay + "ms"); //NOI18N
+          final Timer exitTimer = new Timer((int) Math.max(0L, exitDelay), e -> System.exit(0));
+          exitTimer.setRepeats(false);
+          exitTimer.start();
+        }
 
         MAIN_FRAME.setExtendedState(MAIN_FRAME.getExtendedState() | JFrame.MAXIMIZED_BOTH);
         final JHtmlLabel label = new JHtmlLabel(
@@ -591,6 +649,24 @@ public class SciaRetoStarter {
     return allOk;
   }
 
+  private static int batchExport(@Nonnull @MustNotContainNull final String[] args) {
+    MindMapPluginRegistry.getInstance().registerPlugin(new LocalMMDExporter());
+
+    try {
+      return BatchExporter.fromArguments(Arrays.asList(args).subList(1, args.length))
+          .export(System.out).isOk() ? 0 : BATCH_STATUS_FAILED;
+    } catch (IllegalArgumentException ex) {
+      LOGGER.error(ex.getMessage());
+      return BATCH_STATUS_WRONG_ARGUMENTS;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return BATCH_STATUS_FAILED;
+    } catch (Exception ex) {
+      LOGGER.error("Unexpected error during batch export", ex); //NOI18N
+      return BATCH_STATUS_FAILED;
+    }
+  }
+
   private static boolean exportSettings(@Nonnull final File settingsFile) {
     boolean result = true;
 
@@ -906,9 +982,32 @@ public class SciaRetoStarter {
     out.println();
     out.println("Usage from command line:"); //NOI18N
     out.println(
-        "   java -jar sciareto.jar [--help|--importsettings FILE|--exportsettings FILE|--convert <>]|[FILE FILE ... FILE]"); //NOI18N
+        "   java -jar sciareto.jar [--help|--importsettings FILE|--exportsettings FILE|--convert <>|--batch <>]|[FILE FILE ... FILE]"); //NOI18N
     out.println();
     printConversionHelp(out);
+    printBatchHelp(out);
+  }
+
+  private static void printBatchHelp(@Nonnull final PrintStream out) {
+    final String allowedFormatsTo =
+        makeMnemonicList(MindMapPluginRegistry.getInstance().findFor(AbstractExporter.class));
+    out.println();
+    out.println("Usage in headless batch mode:"); //NOI18N
+    out.println(
+        " --batch --in IN_FOLDER --out OUT_FOLDER --to FORMAT[,FORMAT...] [--settings FILE] [--threads NUMBER] [--option NAME=VALUE...]"); //NOI18N
+    out.println();
+    out.println("   --batch - command to export all mind maps of folder tree, must be the first argument"); //NOI18N
+    out.println("   --in FOLDER - folder to be scanned recursively for .mmd files"); //NOI18N
+    out.println("   --out FOLDER - destination folder, relative paths of source files are kept"); //NOI18N
+    out.println("   --to FORMATS - comma separated list of destination formats (allowed " +
+        allowedFormatsTo + ')'); //NOI18N
+    out.println("   --settings FILE - use graphic settings defined in Java property file"); //NOI18N
+    out.println("   --threads NUMBER - number of export threads, by default number of processors"); //NOI18N
+    out.println(
+        "   --option NAME=VALUE - an option to tune export process, specific for each exporter, see documentation"); //NOI18N
+    out.println(
+        "   exit status is 0 if all files exported, 1 if any file failed, 2 for wrong arguments"); //NOI18N
+    out.println();
   }
 
   private static void printConversionHelp(@Nonnull final PrintStream out) {
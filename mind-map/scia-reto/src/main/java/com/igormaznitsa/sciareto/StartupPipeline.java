@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.igormaznitsa.sciareto;
+
+import com.igormaznitsa.mindmap.model.logger.Logger;
+import com.igormaznitsa.mindmap.model.logger.LoggerFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Pipeline of application start. Independent stages are started in background and the main
+ * thread waits for them only in the point where their result is needed. Time spent by every stage
+ * is recorded and can be printed into log.
+ */
+final class StartupPipeline {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(StartupPipeline.class);
+
+  private final Map<String, Mono<Void>> stages = new ConcurrentHashMap<>();
+  private final Map<String, Long> timings = new LinkedHashMap<>();
+
+  /**
+   * Start stage in background.
+   *
+   * @param name   name of stage
+   * @param action action of stage
+   */
+  void startStage(@Nonnull final String name, @Nonnull final Runnable action) {
+    final Mono<Void> stage = Mono.<Void>fromRunnable(() -> this.runStage(name, action))
+        .subscribeOn(Schedulers.boundedElastic())
+        .onErrorResume(ex -> {
+          LOGGER.error("Error in startup stage " + name, ex); //NOI18N
+          return Mono.empty();
+        })
+        .cache();
+    this.stages.put(name, stage);
+    stage.subscribe();
+  }
+
+  /**
+   * Wait for end of stage started in background, does nothing if there is no such stage.
+   *
+   * @param name name of stage
+   */
+  void awaitStage(@Nonnull final String name) {
+    final Mono<Void> stage = this.stages.get(name);
+    if (stage != null) {
+      stage.block();
+    }
+  }
+
+  /**
+   * Execute stage in the current thread.
+   *
+   * @param name   name of stage
+   * @param action action of stage
+   */
+  void runStage(@Nonnull final String name, @Nonnull final Runnable action) {
+    final long start = System.nanoTime();
+    try {
+      action.run();
+    } finally {
+      this.recordStage(name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+  }
+
+  /**
+   * Record time of stage executed outside of the pipeline.
+   *
+   * @param name        name of stage
+   * @param spentMillis time spent by the stage
+   */
+  void recordStage(@Nonnull final String name, final long spentMillis) {
+    synchronized (this.timings) {
+      this.timings.put(name, spentMillis);
+    }
+  }
+
+  /**
+   * Print time spent by every finished stage into log.
+   *
+   * @param totalMillis total time of start since JVM start
+   */
+  void logTimings(final long totalMillis) {
+    final StringBuilder buffer = new StringBuilder();
+    synchronized (this.timings) {
+      this.timings.forEach((name, spent) -> buffer.append(buffer.length() == 0 ? "" : ", ") //NOI18N
+          .append(name).append('=').append(spent).append("ms")); //NOI18N
+    }
+    LOGGER.info("Startup took " + totalMillis + "ms since JVM start, stages: " + buffer); //NOI18N
+  }
+}
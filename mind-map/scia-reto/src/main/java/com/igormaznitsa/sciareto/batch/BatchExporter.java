@@ -0,0 +1,485 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.igormaznitsa.sciareto.batch;
+
+import com.igormaznitsa.meta.annotation.MustNotContainNull;
+import com.igormaznitsa.mindmap.model.MindMap;
+import com.igormaznitsa.mindmap.model.Topic;
+import com.igormaznitsa.mindmap.model.logger.Logger;
+import com.igormaznitsa.mindmap.model.logger.LoggerFactory;
+import com.igormaznitsa.mindmap.plugins.MindMapPluginRegistry;
+import com.igormaznitsa.mindmap.plugins.api.AbstractExporter;
+import com.igormaznitsa.mindmap.plugins.api.ExternallyExecutedPlugin;
+import com.igormaznitsa.mindmap.plugins.api.PluginContext;
+import com.igormaznitsa.mindmap.plugins.api.parameters.AbstractParameter;
+import com.igormaznitsa.mindmap.swing.panel.DialogProvider;
+import com.igormaznitsa.mindmap.swing.panel.MindMapPanel;
+import com.igormaznitsa.mindmap.swing.panel.MindMapPanelConfig;
+import com.igormaznitsa.mindmap.swing.panel.utils.PropertiesPreferences;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+
+/**
+ * Headless exporter of a directory tree of mind map files into formats provided by exporter plugins.
+ * Each mind map file is parsed once and exported by all requested exporters, files are processed in
+ * parallel. Exporters get a plugin context without panel so that the process doesn't need any
+ * display and can be started with {@code java.awt.headless=true}.
+ */
+public final class BatchExporter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(BatchExporter.class);
+
+  private static final String MMD_EXTENSION = "mmd"; //NOI18N
+
+  private static final Map<String, String> EXTENSIONS;
+
+  static {
+    final Map<String, String> extensions = new HashMap<>();
+    extensions.put("asciidoc", "asciidoc"); //NOI18N
+    extensions.put("freemind", "mm"); //NOI18N
+    extensions.put("markdown", "MD"); //NOI18N
+    extensions.put("mindmup", "mup"); //NOI18N
+    extensions.put("orgmode", "org"); //NOI18N
+    extensions.put("png", "png"); //NOI18N
+    extensions.put("puml", "puml"); //NOI18N
+    extensions.put("svg", "svg"); //NOI18N
+    extensions.put("text", "txt"); //NOI18N
+    EXTENSIONS = Collections.unmodifiableMap(extensions);
+  }
+
+  private final File sourceFolder;
+  private final File targetFolder;
+  private final List<AbstractExporter> exporters;
+  private final MindMapPanelConfig config;
+  private final Properties options;
+  private final int threads;
+
+  public BatchExporter(@Nonnull final File sourceFolder,
+                       @Nonnull final File targetFolder,
+                       @Nonnull @MustNotContainNull final List<AbstractExporter> exporters,
+                       @Nonnull final MindMapPanelConfig config,
+                       @Nonnull final Properties options,
+                       final int threads) {
+    if (exporters.isEmpty()) {
+      throw new IllegalArgumentException("Exporter list must not be empty"); //NOI18N
+    }
+    this.sourceFolder = sourceFolder;
+    this.targetFolder = targetFolder;
+    this.exporters = Collections.unmodifiableList(new ArrayList<>(exporters));
+    this.config = config;
+    this.options = options;
+    this.threads = threads <= 0 ? Runtime.getRuntime().availableProcessors() : threads;
+  }
+
+  /**
+   * Make exporter for command line arguments of batch mode. Arguments are pairs of name and value:
+   * required --in (source folder), --out (target folder), --to (comma separated exporter
+   * mnemonics) and optional --settings (exported panel settings file), --threads (number of
+   * threads, all processors if zero), --option (exporter parameter as name=value).
+   *
+   * @param args arguments without batch mode flag, must not be null
+   * @return prepared exporter, must not be null
+   * @throws IllegalArgumentException if arguments are wrong, source folder not found or exporter
+   *                                  unknown
+   */
+  @Nonnull
+  public static BatchExporter fromArguments(@Nonnull @MustNotContainNull final List<String> args) {
+    final Properties options = new Properties();
+    String inFolder = null;
+    String outFolder = null;
+    String formats = null;
+    String settings = null;
+    int threads = 0;
+
+    for (int i = 0; i < args.size(); i++) {
+      final String arg = args.get(i);
+      if (i + 1 >= args.size()) {
+        throw new IllegalArgumentException("Expected value for argument : " + arg); //NOI18N
+      }
+      final String value = args.get(++i);
+      if ("--in".equalsIgnoreCase(arg)) { //NOI18N
+        inFolder = value;
+      } else if ("--out".equalsIgnoreCase(arg)) { //NOI18N
+        outFolder = value;
+      } else if ("--to".equalsIgnoreCase(arg)) { //NOI18N
+        formats = value;
+      } else if ("--settings".equalsIgnoreCase(arg)) { //NOI18N
+        settings = value;
+      } else if ("--threads".equalsIgnoreCase(arg)) { //NOI18N
+        try {
+          threads = Integer.parseInt(value.trim());
+        } catch (NumberFormatException ex) {
+          throw new IllegalArgumentException("Wrong thread number : " + value); //NOI18N
+        }
+      } else if ("--option".equalsIgnoreCase(arg)) { //NOI18N
+        final String[] splitted = value.split("\\="); //NOI18N
+        options.put(splitted[0], splitted.length < 2 ? "true" : splitted[1]); //NOI18N
+      } else {
+        throw new IllegalArgumentException("Unexpected argument : " + arg); //NOI18N
+      }
+    }
+
+    if (inFolder == null || outFolder == null || formats == null) {
+      throw new IllegalArgumentException("Not provided required parameter"); //NOI18N
+    }
+
+    final File sourceFolder = new File(inFolder);
+    if (!sourceFolder.isDirectory()) {
+      throw new IllegalArgumentException("Can't find source folder : " + sourceFolder); //NOI18N
+    }
+
+    final List<AbstractExporter> exporters = new ArrayList<>();
+    for (final String format : formats.split(",")) { //NOI18N
+      final String mnemonic = format.trim();
+      if (mnemonic.isEmpty()) {
+        continue;
+      }
+      final AbstractExporter exporter =
+          MindMapPluginRegistry.getInstance().findExporterForMnemonic(mnemonic);
+      if (exporter == null) {
+        throw new IllegalArgumentException("Unknown exporter : " + mnemonic); //NOI18N
+      }
+      exporters.add(exporter);
+    }
+    if (exporters.isEmpty()) {
+      throw new IllegalArgumentException("Export format list is empty"); //NOI18N
+    }
+
+    final MindMapPanelConfig config = new MindMapPanelConfig();
+    if (settings != null) {
+      final File settingsFile = new File(settings);
+      try {
+        config.loadFrom(
+            new PropertiesPreferences(FileUtils.readFileToString(settingsFile, "UTF-8"))); //NOI18N
+      } catch (IOException ex) {
+        throw new IllegalArgumentException("Can't load settings file : " + settingsFile, ex); //NOI18N
+      }
+    }
+
+    return new BatchExporter(sourceFolder, new File(outFolder), exporters, config, options, threads);
+  }
+
+  /**
+   * Find file extension for exporter output.
+   *
+   * @param mnemonic exporter mnemonic, must not be null
+   * @return extension without dot, must not be null
+   */
+  @Nonnull
+  public static String findExtensionForMnemonic(@Nonnull final String mnemonic) {
+    return EXTENSIONS.getOrDefault(mnemonic.toLowerCase(Locale.ENGLISH), mnemonic);
+  }
+
+  @Nonnull
+  private static String formatMillis(final long nanos) {
+    return String.format(Locale.ENGLISH, "%.1f ms", nanos / 1000000.0d); //NOI18N
+  }
+
+  /**
+   * Find all mind map files in the source folder.
+   *
+   * @return sorted list of found files, must not be null
+   * @throws IOException if any error during folder walking
+   */
+  @Nonnull
+  @MustNotContainNull
+  public List<Path> findSourceFiles() throws IOException {
+    final List<Path> result = new ArrayList<>();
+    Files.walkFileTree(this.sourceFolder.toPath(), new SimpleFileVisitor<Path>() {
+      @Override
+      @Nonnull
+      public FileVisitResult visitFile(@Nonnull final Path file,
+                                       @Nonnull final BasicFileAttributes attrs) {
+        if (attrs.isRegularFile()
+            && MMD_EXTENSION.equalsIgnoreCase(FilenameUtils.getExtension(file.toString()))) {
+          result.add(file);
+        }
+        return FileVisitResult.CONTINUE;
+      }
+    });
+    Collections.sort(result);
+    return result;
+  }
+
+  /**
+   * Export all found mind map files, progress and failures are printed into stream.
+   *
+   * @param out stream to print report, must not be null
+   * @return result of export, must not be null
+   * @throws IOException          if source folder can't be walked
+   * @throws InterruptedException if thread interrupted during wait
+   */
+  @Nonnull
+  public Result export(@Nonnull final PrintStream out) throws IOException, InterruptedException {
+    final long start = System.nanoTime();
+    final List<Path> files = this.findSourceFiles();
+
+    out.println(String.format("Found %d file(s), formats: %s, threads: %d", files.size(), //NOI18N
+        this.makeFormatList(), this.threads));
+
+    final AtomicInteger threadCounter = new AtomicInteger();
+    final ThreadFactory threadFactory = r -> {
+      final Thread thread = new Thread(r, "sciareto-batch-export-" + threadCounter.incrementAndGet()); //NOI18N
+      thread.setDaemon(true);
+      return thread;
+    };
+
+    final ExecutorService executor = Executors.newFixedThreadPool(this.threads, threadFactory);
+    final List<Future<FileResult>> futures = new ArrayList<>(files.size());
+    try {
+      for (final Path file : files) {
+        futures.add(executor.submit(() -> this.exportFile(file, out)));
+      }
+
+      int processed = 0;
+      int failed = 0;
+      for (final Future<FileResult> future : futures) {
+        try {
+          final FileResult fileResult = future.get();
+          processed++;
+          if (!fileResult.isOk()) {
+            failed++;
+          }
+        } catch (ExecutionException ex) {
+          LOGGER.error("Unexpected error in batch export", ex.getCause()); //NOI18N
+          processed++;
+          failed++;
+        }
+      }
+
+      final Result result = new Result(processed, failed, System.nanoTime() - start);
+      out.println(String.format("Processed %d file(s), failed %d, total time %s", //NOI18N
+          result.getProcessed(), result.getFailed(), formatMillis(result.getNanos())));
+      return result;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Nonnull
+  private String makeFormatList() {
+    final StringBuilder result = new StringBuilder();
+    for (final AbstractExporter e : this.exporters) {
+      if (result.length() > 0) {
+        result.append(',');
+      }
+      result.append(e.getMnemonic());
+    }
+    return result.toString();
+  }
+
+  @Nonnull
+  private FileResult exportFile(@Nonnull final Path file, @Nonnull final PrintStream out) {
+    final Path relative = this.sourceFolder.toPath().relativize(file);
+    final String baseName = FilenameUtils.removeExtension(relative.toString());
+
+    final long parseStart = System.nanoTime();
+    final MindMap map;
+    try {
+      map = new MindMap(
+          new StringReader(FileUtils.readFileToString(file.toFile(), StandardCharsets.UTF_8)));
+    } catch (Exception ex) {
+      out.println(String.format("[FAILED] %s : can't parse, %s", relative, ex)); //NOI18N
+      return new FileResult(false);
+    }
+    final long parseTime = System.nanoTime() - parseStart;
+
+    final PluginContext context = new HeadlessPluginContext(this.config, map,
+        this.sourceFolder, file.toFile());
+
+    boolean ok = true;
+    final StringBuilder timings = new StringBuilder();
+    for (final AbstractExporter exporter : this.exporters) {
+      final File target = new File(this.targetFolder,
+          baseName + '.' + findExtensionForMnemonic(exporter.getMnemonic()));
+      final long exportStart = System.nanoTime();
+      try {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream(16384);
+        exporter.doExport(context, this.makeParameters(exporter), buffer);
+        FileUtils.writeByteArrayToFile(target, buffer.toByteArray(), false);
+        timings.append(' ').append(exporter.getMnemonic()).append('=')
+            .append(formatMillis(System.nanoTime() - exportStart));
+      } catch (Exception ex) {
+        ok = false;
+        timings.append(' ').append(exporter.getMnemonic()).append("=FAILED"); //NOI18N
+        out.println(String.format("[FAILED] %s -> %s : %s", relative, exporter.getMnemonic(), //NOI18N
+            ex));
+        LOGGER.error("Can't export " + file + " as " + exporter.getMnemonic(), ex); //NOI18N
+      }
+    }
+
+    out.println(String.format("[%s] %s parse=%s%s", ok ? "OK" : "FAILED", relative, //NOI18N
+        formatMillis(parseTime), timings));
+    return new FileResult(ok);
+  }
+
+  @Nonnull
+  @MustNotContainNull
+  private Set<AbstractParameter<?>> makeParameters(@Nonnull final AbstractExporter exporter) {
+    final Set<AbstractParameter<?>> parameters = exporter.makeDefaultParameters();
+    for (final String k : this.options.stringPropertyNames()) {
+      final String value = this.options.getProperty(k, ""); //NOI18N
+      parameters.stream()
+          .filter(x -> x.getId().equals(k))
+          .forEach(x -> x.fromString(value));
+    }
+    return parameters;
+  }
+
+  /**
+   * Summary of batch export.
+   */
+  public static final class Result {
+    private final int processed;
+    private final int failed;
+    private final long nanos;
+
+    private Result(final int processed, final int failed, final long nanos) {
+      this.processed = processed;
+      this.failed = failed;
+      this.nanos = nanos;
+    }
+
+    public int getProcessed() {
+      return this.processed;
+    }
+
+    public int getFailed() {
+      return this.failed;
+    }
+
+    public long getNanos() {
+      return this.nanos;
+    }
+
+    public boolean isOk() {
+      return this.failed == 0;
+    }
+  }
+
+  private static final class FileResult {
+    private final boolean ok;
+
+    private FileResult(final boolean ok) {
+      this.ok = ok;
+    }
+
+    boolean isOk() {
+      return this.ok;
+    }
+  }
+
+  private static final class HeadlessPluginContext implements PluginContext {
+    private final MindMapPanelConfig config;
+    private final MindMap map;
+    private final File projectFolder;
+    private final File file;
+
+    private HeadlessPluginContext(@Nonnull final MindMapPanelConfig config,
+                                  @Nonnull final MindMap map,
+                                  @Nonnull final File projectFolder,
+                                  @Nonnull final File file) {
+      this.config = config;
+      this.map = map;
+      this.projectFolder = projectFolder;
+      this.file = file;
+    }
+
+    @Override
+    @Nonnull
+    public MindMapPanelConfig getPanelConfig() {
+      return this.config;
+    }
+
+    @Override
+    @Nullable
+    public MindMapPanel getPanel() {
+      return null;
+    }
+
+    @Override
+    @Nonnull
+    public MindMap getModel() {
+      return this.map;
+    }
+
+    @Override
+    @Nullable
+    public DialogProvider getDialogProvider() {
+      return null;
+    }
+
+    @Override
+    @Nonnull
+    public File getProjectFolder() {
+      return this.projectFolder;
+    }
+
+    @Override
+    @Nonnull
+    public File getMindMapFile() {
+      return this.file;
+    }
+
+    @Override
+    @Nonnull
+    @MustNotContainNull
+    public Topic[] getSelectedTopics() {
+      return new Topic[0];
+    }
+
+    @Override
+    public void openFile(@Nonnull final File file, final boolean preferSystemBrowser) {
+      throw new UnsupportedOperationException("Not supported in batch mode"); //NOI18N
+    }
+
+    @Override
+    public void processPluginActivation(@Nonnull final ExternallyExecutedPlugin plugin,
+                                        @Nullable final Topic activeTopic) {
+      throw new UnsupportedOperationException("Not supported in batch mode"); //NOI18N
+    }
+  }
+}
@@ -93,9 +93,8 @@ public class MetricsService implements AdditionalPreferences {
   }
 
   public void refreshConfig() {
-    final MindMapPanelConfig config = new MindMapPanelConfig();
-    config.loadFrom(PreferencesManager.getInstance().getPreferences());
-    this.sendMetricsDataEnabled = config.getOptionalProperty(PROPERTY_METRICS_SENDING_FLAG, true);
+    this.sendMetricsDataEnabled = MindMapPanelConfig.loadOptionalProperty(
+        PreferencesManager.getInstance().getPreferences(), PROPERTY_METRICS_SENDING_FLAG, true);
   }
 
   public boolean isEnabled() {
@@ -16,9 +16,14 @@ public interface AdditionalPreferences {
   String PROPERTY_LANGUAGE = "language";
 
   String PROPERTY_BACKUP_LAST_EDIT_BEFORE_SAVE = "backup_last_edit_before_save";
+  String PROPERTY_BACKUP_COMPRESSION_LEVEL = "backup_compression_level";
 
   String PROPERTY_EXTENSIONS_TO_BE_OPENED_IN_SYSTEM = "extensions_open_in_system";
 
   String PROPERTY_TRY_KEEP_NON_SAVED_DOCS = "try_keep_non_saved_docs";
 
+  String PROPERTY_RENDER_IN_WORKER_PROCESS = "render_in_worker_process";
+
+  String PROPERTY_LAZY_TREE_LOADING = "lazy_tree_loading";
+
 }
@@ -31,6 +31,7 @@ import com.igormaznitsa.sciareto.ui.SrI18n;
 import com.igormaznitsa.sciareto.ui.UiUtils;
 import com.igormaznitsa.sciareto.ui.editors.PlantUmlSecurityProfile;
 import com.igormaznitsa.sciareto.ui.editors.ScalableRsyntaxTextArea;
+import com.igormaznitsa.sciareto.ui.editors.TextFileBackup;
 import com.igormaznitsa.sciareto.ui.misc.AboutPanel;
 import com.igormaznitsa.sciareto.ui.misc.DonateButton;
 import com.igormaznitsa.sciareto.ui.misc.SysFileExtensionEditorPanel;
@@ -54,7 +55,9 @@ import javax.swing.JFileChooser;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
+import javax.swing.JSpinner;
 import javax.swing.JTextField;
+import javax.swing.SpinnerNumberModel;
 
 public final class PreferencesPanel extends AbstractPreferencesPanel
     implements AdditionalPreferences {
@@ -64,11 +67,14 @@ public final class PreferencesPanel extends AbstractPreferencesPanel
   private FontSelectPanel fontSelectPanelTextEditor;
   private JComboBox<PlantUmlSecurityProfile> comboBoxPlantUmlSecurityProfile;
   private JCheckBox checkBoxShowHiddenFiles;
+  private JCheckBox checkBoxLazyTreeLoading;
   private JCheckBox checkBoxTryKeepNonSavedDocs;
+  private JCheckBox checkBoxRenderInWorkerProcess;
   private JCheckBox checkboxTrimTopicText;
   private JCheckBox checkboxUseInsideBrowser;
   private JCheckBox checkboxEnableMetricsUpload;
   private JCheckBox checkboxBackupLastEdit;
+  private JSpinner spinnerBackupCompressionLevel;
   private JCheckBox checkboxRelativePathsForFilesInTheProject;
 
   private JCheckBox checkBoxUnfoldCollapsedTarget;
@@ -116,10 +122,17 @@ public final class PreferencesPanel extends AbstractPreferencesPanel
 
     this.checkBoxTryKeepNonSavedDocs = uiComponentFactory.makeCheckBox();
     this.checkBoxTryKeepNonSavedDocs.setText(bundle.getString("PreferencesPanel.tryKeepNonSavedDocs"));
+
+    this.checkBoxRenderInWorkerProcess = uiComponentFactory.makeCheckBox();
+    this.checkBoxRenderInWorkerProcess.setText(
+        bundle.getString("PreferencesPanel.renderInWorkerProcess"));
     
     this.checkBoxShowHiddenFiles = uiComponentFactory.makeCheckBox();
     this.checkBoxShowHiddenFiles.setText(bundle.getString("PreferencesPanel.checkShowHiddenFiles"));
 
+    this.checkBoxLazyTreeLoading = uiComponentFactory.makeCheckBox();
+    this.checkBoxLazyTreeLoading.setText(bundle.getString("PreferencesPanel.lazyTreeLoading"));
+
     this.checkboxTrimTopicText = uiComponentFactory.makeCheckBox();
     this.checkboxTrimTopicText.setText(bundle.getString("PreferencesPanel.checkTrimTopicText"));
 
@@ -135,6 +148,10 @@ public final class PreferencesPanel extends AbstractPreferencesPanel
     this.checkboxBackupLastEdit.setText(
         bundle.getString("PreferencesPanel.checkAutoBackupLastEdit"));
 
+    this.spinnerBackupCompressionLevel = uiComponentFactory.makeSpinner();
+    this.spinnerBackupCompressionLevel.setModel(
+        new SpinnerNumberModel(TextFileBackup.DEFAULT_COMPRESSION_LEVEL, 0, 9, 1));
+
     this.checkboxRelativePathsForFilesInTheProject = uiComponentFactory.makeCheckBox();
     this.checkboxRelativePathsForFilesInTheProject.setText(
         bundle.getString("PreferencesPanel.checkUseRelativePaths"));
@@ -248,6 +265,15 @@ public final class PreferencesPanel extends AbstractPreferencesPanel
     panel.add(this.comboBoxPlantUmlSecurityProfile);
     result.add(panel);
 
+    result.add(this.checkBoxRenderInWorkerProcess);
+
+    panel = componentFactory.makePanel();
+    panel.setLayout(new BorderLayout());
+    panel.setBorder(BorderFactory.createTitledBorder(
+        bundle.getString("PreferencesPanel.panelBackupCompression.title")));
+    panel.add(this.spinnerBackupCompressionLevel);
+    result.add(panel);
+
     panel = componentFactory.makePanel();
     panel.setLayout(new BorderLayout());
     panel.setBorder(BorderFactory.createTitledBorder(
@@ -287,6 +313,7 @@ public final class PreferencesPanel extends AbstractPreferencesPanel
     final List<JComponent> components = new ArrayList<>();
 
     components.add(this.checkBoxShowHiddenFiles);
+    components.add(this.checkBoxLazyTreeLoading);
     components.add(this.checkboxTrimTopicText);
     components.add(this.checkboxUseInsideBrowser);
     components.add(this.checkboxEnableMetricsUpload);
@@ -309,10 +336,16 @@ public final class PreferencesPanel extends AbstractPreferencesPanel
 
     config.setOptionalProperty(PROPERTY_TRY_KEEP_NON_SAVED_DOCS,
         this.checkBoxTryKeepNonSavedDocs.isSelected());
+    config.setOptionalProperty(PROPERTY_RENDER_IN_WORKER_PROCESS,
+        this.checkBoxRenderInWorkerProcess.isSelected());
     config.setOptionalProperty(PROPERTY_SHOW_HIDDEN_FILES,
         this.checkBoxShowHiddenFiles.isSelected());
+    config.setOptionalProperty(PROPERTY_LAZY_TREE_LOADING,
+        this.checkBoxLazyTreeLoading.isSelected());
     config.setOptionalProperty(PROPERTY_BACKUP_LAST_EDIT_BEFORE_SAVE,
         this.checkboxBackupLastEdit.isSelected());
+    config.setOptionalProperty(PROPERTY_BACKUP_COMPRESSION_LEVEL,
+        (Integer) this.spinnerBackupCompressionLevel.getValue());
     config.setOptionalProperty(PROPERTY_TRIM_TOPIC_TEXT, this.checkboxTrimTopicText.isSelected());
     config.setOptionalProperty(PROPERTY_USE_INTERNAL_BROWSER,
         this.checkboxUseInsideBrowser.isSelected());
@@ -354,11 +387,18 @@ public final class PreferencesPanel extends AbstractPreferencesPanel
 
     this.checkboxBackupLastEdit.setSelected(
         config.getOptionalProperty(PROPERTY_BACKUP_LAST_EDIT_BEFORE_SAVE, true));
+    this.spinnerBackupCompressionLevel.setValue(
+        config.getOptionalProperty(PROPERTY_BACKUP_COMPRESSION_LEVEL,
+            TextFileBackup.DEFAULT_COMPRESSION_LEVEL));
 
     this.checkBoxShowHiddenFiles.setSelected(
         config.getOptionalProperty(PROPERTY_SHOW_HIDDEN_FILES, true));
+    this.checkBoxLazyTreeLoading.setSelected(
+        config.getOptionalProperty(PROPERTY_LAZY_TREE_LOADING, false));
     this.checkBoxTryKeepNonSavedDocs.setSelected(
         config.getOptionalProperty(PROPERTY_TRY_KEEP_NON_SAVED_DOCS, false));
+    this.checkBoxRenderInWorkerProcess.setSelected(
+        config.getOptionalProperty(PROPERTY_RENDER_IN_WORKER_PROCESS, false));
     this.checkboxTrimTopicText.setSelected(
         config.getOptionalProperty(PROPERTY_TRIM_TOPIC_TEXT, false));
     this.checkboxUseInsideBrowser.setSelected(
@@ -26,7 +26,9 @@ import com.igormaznitsa.mindmap.swing.panel.utils.Focuser;
 import com.igormaznitsa.sciareto.Context;
 import com.igormaznitsa.sciareto.ui.misc.FileExaminator;
 import com.igormaznitsa.sciareto.ui.misc.NodeListRenderer;
+import com.igormaznitsa.sciareto.ui.tree.MindMapContentIndex;
 import com.igormaznitsa.sciareto.ui.tree.NodeFileOrFolder;
+import com.igormaznitsa.sciareto.ui.tree.NodeProject;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import org.apache.commons.io.FilenameUtils;
@@ -61,6 +63,7 @@ public final class FindFilesForTextPanel extends javax.swing.JPanel {
     private final AtomicReference<Thread> searchingThread = new AtomicReference<>();
     private final transient List<NodeFileOrFolder> foundFiles = new ArrayList<>();
     private final transient List<ListDataListener> listListeners = new ArrayList<>();
+    private final transient Map<NodeFileOrFolder, String> foundTopicPaths = new HashMap<>();
 
     private static final int MIN_TEXT_LENGTH = 1;
 
@@ -157,7 +160,7 @@ public final class FindFilesForTextPanel extends javax.swing.JPanel {
 
         });
 
-        this.listOfFoundElements.setCellRenderer(new NodeListRenderer());
+        this.listOfFoundElements.setCellRenderer(new NodeListRenderer(this.foundTopicPaths::get));
         this.listOfFoundElements.setModel(new ListModel<>() {
             @Override
             public int getSize() {
@@ -234,11 +237,14 @@ public final class FindFilesForTextPanel extends javax.swing.JPanel {
         }
     }
 
-    private void addFileIntoList(@Nonnull final NodeFileOrFolder file) {
+    private void addFileIntoList(@Nonnull final NodeFileOrFolder file, @Nullable final String topicPath) {
         SwingUtilities.invokeLater(() -> {
             final boolean first = foundFiles.isEmpty();
 
             foundFiles.add(file);
+            if (topicPath != null) {
+                foundTopicPaths.put(file, topicPath);
+            }
             listListeners.forEach((l) -> {
                 l.intervalAdded(new ListDataEvent(listOfFoundElements, ListDataEvent.INTERVAL_ADDED, foundFiles.size() - 1, foundFiles.size() - 1));
             });
@@ -251,6 +257,7 @@ public final class FindFilesForTextPanel extends javax.swing.JPanel {
 
     private void startSearchThread(@Nonnull @MustNotContainNull final List<NodeFileOrFolder> scope, 
             final boolean findInFilenames,
+            @Nonnull final String textToSearch,
             @Nullable final Pattern searchPatternForMmd, 
             @Nonnull final byte[] dataToFindVariant1, 
             @Nonnull final byte[] dataToFindVariant2
@@ -262,27 +269,59 @@ public final class FindFilesForTextPanel extends javax.swing.JPanel {
 
         final Runnable runnable = new Runnable() {
             int value = 0;
+            final Set<NodeFileOrFolder> reported = new HashSet<>();
+
+            private void addFoundFile(@Nonnull final NodeFileOrFolder file, @Nullable final String topicPath) {
+                if (reported.add(file)) {
+                    addFileIntoList(file, topicPath);
+                }
+            }
+
+            private void findInContentIndex(@Nonnull final NodeFileOrFolder folder) {
+                final NodeProject project = folder.findProject();
+                final File folderFile = folder.makeFileForNode();
+                if (project == null || folderFile == null || searchPatternForMmd == null) {
+                    return;
+                }
+                safeSetProgressValue(-1);
+                for (final MindMapContentIndex.Hit hit : project.getContentIndex().find(textToSearch, Integer.MAX_VALUE)) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                    final File mapFile = hit.getNode().makeFileForNode();
+                    if (mapFile != null && mapFile.toPath().startsWith(folderFile.toPath())) {
+                        addFoundFile(hit.getNode(), hit.getTopicPath());
+                    }
+                }
+            }
 
             private void processFile(final NodeFileOrFolder file) {
                 value++;
                 final File f = file.makeFileForNode();
-                boolean alreadyProcessed = false;
+                boolean alreadyProcessed = this.reported.contains(file);
 
                 if (f == null) {
                     return;
                 }
 
-                if (findInFilenames
+                if (!alreadyProcessed
+                        && findInFilenames
                         && f.isFile() 
                         && (searchPatternForMmd == null || searchPatternForMmd.matcher(f.getName()).find())) {
                     alreadyProcessed = true;
-                    addFileIntoList(file);
+                    addFoundFile(file, null);
                 }
-                
+
+                final boolean mindMapFile = "mmd".equalsIgnoreCase(FilenameUtils.getExtension(f.getName())); //NOI18N
+                if (!alreadyProcessed && mindMapFile) {
+                    final NodeProject project = file.findProject();
+                    alreadyProcessed = project != null && project.getContentIndex().isIndexed(f);
+                }
+
                 if (!alreadyProcessed 
                         && searchPatternForMmd != null 
                         && f.isFile() && f.length() > 0L 
-                        && "mmd".equalsIgnoreCase(FilenameUtils.getExtension(f.getName()))
+                        && mindMapFile
                         ) {
                     MindMap mindMap;
                     try (Reader reader = new InputStreamReader(Files.newInputStream(f.toPath()), StandardCharsets.UTF_8)) {
@@ -292,7 +331,7 @@ public final class FindFilesForTextPanel extends javax.swing.JPanel {
                     }
                     if (mindMap != null) {
                         if (mindMap.findNext(f.getParentFile(), mindMap.getRoot(), searchPatternForMmd, true, SEARCH_SCOPE_FOR_MMD_FILE) != null) {
-                            addFileIntoList(file);
+                            addFoundFile(file, null);
                         }
                         alreadyProcessed = true;
                     }
@@ -301,7 +340,7 @@ public final class FindFilesForTextPanel extends javax.swing.JPanel {
                 if (!alreadyProcessed) {
                     try {
                         if (new FileExaminator(f).doesContainData(fileOpBuffer, dataToFindVariant1, dataToFindVariant2)) {
-                            addFileIntoList(file);
+                            addFoundFile(file, null);
                         }
                     } catch (Exception ex) {
                         LOGGER.error("Error during text search in '" + f + '\'', ex);
@@ -329,6 +368,12 @@ public final class FindFilesForTextPanel extends javax.swing.JPanel {
 
             @Override
             public void run() {
+                for (final NodeFileOrFolder p : scope) {
+                    p.ensureSubtreeLoaded();
+                }
+                for (final NodeFileOrFolder p : scope) {
+                    findInContentIndex(p);
+                }
                 for (final NodeFileOrFolder p : scope) {
                     for (final NodeFileOrFolder f : p) {
                         if (Thread.currentThread().isInterrupted()) {
@@ -512,6 +557,7 @@ public final class FindFilesForTextPanel extends javax.swing.JPanel {
 
       this.listOfFoundElements.clearSelection();
       this.foundFiles.clear();
+      this.foundTopicPaths.clear();
       this.listOfFoundElements.revalidate();
       this.listOfFoundElements.repaint();
 
@@ -527,7 +573,7 @@ public final class FindFilesForTextPanel extends javax.swing.JPanel {
           final Pattern pattern = Pattern.compile(Pattern.quote(textToSearch), Pattern.CASE_INSENSITIVE);
           final boolean findInFileNames = this.checkboxFindInFilenames.isSelected();
           LOGGER.info("Start find byte patterns: " + SystemUtils.toString(str1) + ", " + SystemUtils.toString(str2));
-          startSearchThread(folders, findInFileNames, pattern, str1, str2);
+          startSearchThread(folders, findInFileNames, textToSearch, pattern, str1, str2);
       } catch (UnsupportedEncodingException ex) {
           JOptionPane.showMessageDialog(this, ex, "Error", JOptionPane.ERROR_MESSAGE);
       }
@@ -545,8 +591,14 @@ public final class FindFilesForTextPanel extends javax.swing.JPanel {
       if (index < 0) {
           this.listOfFoundElements.setToolTipText(null);
       } else {
-          final File file = ((NodeFileOrFolder) model.getElementAt(index)).makeFileForNode();
-          this.listOfFoundElements.setToolTipText(file == null ? null : file.getAbsolutePath());
+          final NodeFileOrFolder node = (NodeFileOrFolder) model.getElementAt(index);
+          final File file = node.makeFileForNode();
+          final String topicPath = this.foundTopicPaths.get(node);
+          if (file == null) {
+              this.listOfFoundElements.setToolTipText(null);
+          } else {
+              this.listOfFoundElements.setToolTipText(topicPath == null ? file.getAbsolutePath() : file.getAbsolutePath() + " : " + topicPath); //NOI18N
+          }
       }
   }//GEN-LAST:event_listOfFoundElementsMouseMoved
 
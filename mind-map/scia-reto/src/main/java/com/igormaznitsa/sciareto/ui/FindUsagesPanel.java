@@ -23,6 +23,7 @@ import com.igormaznitsa.mindmap.model.logger.Logger;
 import com.igormaznitsa.mindmap.model.logger.LoggerFactory;
 import com.igormaznitsa.sciareto.Context;
 import com.igormaznitsa.sciareto.ui.misc.NodeListRenderer;
+import com.igormaznitsa.sciareto.ui.tree.MindMapContentIndex;
 import com.igormaznitsa.sciareto.ui.tree.NodeFileOrFolder;
 import com.igormaznitsa.sciareto.ui.tree.NodeProject;
 import java.io.BufferedReader;
@@ -31,8 +32,12 @@ import java.io.FileInputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -54,6 +59,7 @@ public class FindUsagesPanel extends javax.swing.JPanel {
 
   private final transient List<NodeFileOrFolder> foundFiles = new ArrayList<>();
   private final transient  List<ListDataListener> listListeners = new ArrayList<>();
+  private final transient Map<NodeFileOrFolder, String> foundTopicPaths = new HashMap<>();
 
   private final String fullNormalizedPath;
 
@@ -76,7 +82,7 @@ public class FindUsagesPanel extends javax.swing.JPanel {
     this.textFieldSearchPath.setText(this.fullNormalizedPath);
     this.textFieldSearchPath.setEnabled(false);
 
-    this.listOfFoundElements.setCellRenderer(new NodeListRenderer());
+    this.listOfFoundElements.setCellRenderer(new NodeListRenderer(this.foundTopicPaths::get));
     this.listOfFoundElements.setModel(new ListModel<NodeFileOrFolder>() {
       @Override
       public int getSize() {
@@ -116,13 +122,16 @@ public class FindUsagesPanel extends javax.swing.JPanel {
     return this.listOfFoundElements.getSelectedValue();
   }
 
-  private void addFileIntoList(@Nonnull final NodeFileOrFolder file) {
+  private void addFileIntoList(@Nonnull final NodeFileOrFolder file, @Nullable final String topicPath) {
     SwingUtilities.invokeLater(new Runnable() {
       @Override
       public void run() {
         final boolean first = foundFiles.isEmpty();
         
         foundFiles.add(file);
+        if (topicPath != null) {
+          foundTopicPaths.put(file, topicPath);
+        }
         for (final ListDataListener l : listListeners) {
           l.intervalAdded(new ListDataEvent(listOfFoundElements, ListDataEvent.INTERVAL_ADDED, foundFiles.size() - 1, foundFiles.size() - 1));
         }
@@ -150,26 +159,44 @@ public class FindUsagesPanel extends javax.swing.JPanel {
       final Runnable runnable = new Runnable() {
 
         int value = 0;
+        final Set<NodeFileOrFolder> reported = new HashSet<>();
+
+        private void addFoundFile(@Nonnull final NodeFileOrFolder file, @Nullable final String topicPath) {
+          if (reported.add(file)) {
+            addFileIntoList(file, topicPath);
+          }
+        }
+
+        private void findInContentIndex(@Nonnull final NodeProject project) {
+          for (final MindMapContentIndex.Hit hit : project.getContentIndex().findLinksToFile(nodeFileToSearch)) {
+            if (Thread.currentThread().isInterrupted()) {
+              return;
+            }
+            addFoundFile(hit.getNode(), hit.getTopicPath());
+          }
+        }
 
         private void processFile(final NodeFileOrFolder file) {
           value++;
 
           final File f = file.makeFileForNode();
           final NodeProject project = file.findProject();
-          if (project != null) {
+          if (project != null && !this.reported.contains(file)) {
             final String extension = FilenameUtils.getExtension(f.getName()).toLowerCase(Locale.ENGLISH);
             if ("mmd".equals(extension)) { //NOI18N
-              Reader reader = null;
-              try {
-                reader = new BufferedReader(new InputStreamReader(new FileInputStream(f), "UTF-8")); //NOI18N
-                final MindMap map = new MindMap(reader);
-                if (!MapUtils.findTopicsRelatedToFile(project.getFolder(), nodeFileToSearch, map).isEmpty()) {
-                  addFileIntoList(file);
+              if (!project.getContentIndex().isIndexed(f)) {
+                Reader reader = null;
+                try {
+                  reader = new BufferedReader(new InputStreamReader(new FileInputStream(f), "UTF-8")); //NOI18N
+                  final MindMap map = new MindMap(reader);
+                  if (!MapUtils.findTopicsRelatedToFile(project.getFolder(), nodeFileToSearch, map).isEmpty()) {
+                    addFoundFile(file, null);
+                  }
+                } catch (Exception ex) {
+                  LOGGER.error("Can't parse map", ex); //NOI18N
+                } finally {
+                  IOUtils.closeQuietly(reader);
                 }
-              } catch (Exception ex) {
-                LOGGER.error("Can't parse map", ex); //NOI18N
-              } finally {
-                IOUtils.closeQuietly(reader);
               }
             } else if (findEverywhere){
               try {
@@ -181,7 +208,7 @@ public class FindUsagesPanel extends javax.swing.JPanel {
                     }
                     final String lineFromFile = lineIterator.nextLine();
                     if (lineFromFile.contains(fullNormalizedPath)) {
-                      addFileIntoList(file);
+                      addFoundFile(file, null);
                       break;
                     }
                   }
@@ -215,6 +242,13 @@ public class FindUsagesPanel extends javax.swing.JPanel {
 
         @Override
         public void run() {
+          safeSetProgressValue(-1);
+          for (final NodeProject p : scope) {
+            p.ensureSubtreeLoaded();
+          }
+          for (final NodeProject p : scope) {
+            findInContentIndex(p);
+          }
           for (final NodeProject p : scope) {
             for (final NodeFileOrFolder f : p) {
               if (Thread.currentThread().isInterrupted()) {
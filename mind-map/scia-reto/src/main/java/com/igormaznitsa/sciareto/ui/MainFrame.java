@@ -161,6 +161,8 @@ public final class MainFrame extends javax.swing.JFrame implements Context, Plat
 
     private static final String FILE_NAME_UNSAVED_DOC_CONTAINER = ".sr_unsaved_docs.$$$";
 
+    private static boolean fontsRegistered;
+
     public static final Scheduler REACTOR_SCHEDULER = Schedulers
             .newBoundedElastic(Runtime.getRuntime().availableProcessors(), Integer.MAX_VALUE,
                     "sr-reactor", 15, true);
@@ -239,7 +241,10 @@ public final class MainFrame extends javax.swing.JFrame implements Context, Plat
 
         this.tabPane = new EditorTabPane(this);
 
-        this.explorerTree = new ExplorerTree(node -> this.mindMapPanelConfig.getOptionalProperty(AdditionalPreferences.PROPERTY_SHOW_HIDDEN_FILES, true), this);
+        this.explorerTree = new ExplorerTree(
+            node -> this.mindMapPanelConfig.getOptionalProperty(AdditionalPreferences.PROPERTY_SHOW_HIDDEN_FILES, true),
+            () -> this.mindMapPanelConfig.getOptionalProperty(AdditionalPreferences.PROPERTY_LAZY_TREE_LOADING, false),
+            this);
 
         this.mainSplitPane = new SplitPaneExt(JSplitPane.HORIZONTAL_SPLIT);
         this.mainSplitPane.setOneTouchExpandable(true);
@@ -477,7 +482,15 @@ public final class MainFrame extends javax.swing.JFrame implements Context, Plat
         return this.mindMapPanelConfig.getOptionalProperty(PROPERTY_TRY_KEEP_NON_SAVED_DOCS, false);
     }
 
-    private static void registerApplicationFonts() {
+    /**
+     * Register fonts provided by the application, the fonts are registered only once, concurrent
+     * callers wait for end of registration.
+     */
+    public static synchronized void registerApplicationFonts() {
+        if (fontsRegistered) {
+            return;
+        }
+        fontsRegistered = true;
         LOGGER.info("Registering application fonts");
         final String[] fontFiles = new String[]{
             "JetBrainsMono-BoldItalic.ttf",
@@ -719,6 +732,7 @@ public final class MainFrame extends javax.swing.JFrame implements Context, Plat
         }
 
         this.getCurrentGroup().cancelLoading();
+        this.getCurrentGroup().dispose();
         REACTOR_SCHEDULER.dispose();
 
         return true;
@@ -30,6 +30,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.ResourceBundle;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.Nonnull;
@@ -100,7 +101,21 @@ public abstract class AbstractDotEditor extends AbstractPlUmlEditor {
   }
 
   @Nonnull
-  protected byte[] executeDot(@Nonnull final String script, @Nonnull final String type) {
+  protected byte[] executeDot(@Nonnull final String script, @Nonnull final String type)
+      throws IOException, InterruptedException {
+    if (this.isRenderInWorkerProcess()) {
+      return RenderWorkerPool.getInstance().renderDot(type, this.findDotPath(), script);
+    } else {
+      return executeDot(script, type, SrI18n.getInstance().findBundle());
+    }
+  }
+
+  @Nonnull
+  static byte[] executeDot(
+      @Nonnull final String script,
+      @Nonnull final String type,
+      @Nonnull final ResourceBundle bundle
+  ) {
     final Graphviz wizard = GraphvizRuntimeEnvironment.getInstance()
         .create(null, script, type);
 
@@ -112,14 +127,14 @@ public abstract class AbstractDotEditor extends AbstractPlUmlEditor {
       final byte[] formedContent = bos.toByteArray();
 
       if (processState.differs(ProcessState.TERMINATED_OK())) {
-        throw new IllegalStateException(String.format(SrI18n.getInstance().findBundle().getString("editorDot.cantRenderImage"),processState));
+        throw new IllegalStateException(String.format(bundle.getString("editorDot.cantRenderImage"),processState));
       } else if (formedContent.length == 0) {
-        throw new IllegalArgumentException(SrI18n.getInstance().findBundle().getString("editorDot.cantRenderSyntaxError"));
+        throw new IllegalArgumentException(bundle.getString("editorDot.cantRenderSyntaxError"));
       } else {
         return formedContent;
       }
     } else {
-      throw new IllegalStateException(String.format(SrI18n.getInstance().findBundle().getString("editorDot.cantRenderStatusNotOk"),state.getTextMessage()));
+      throw new IllegalStateException(String.format(bundle.getString("editorDot.cantRenderStatusNotOk"),state.getTextMessage()));
     }
   }
 
@@ -36,6 +36,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.Deflater;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.swing.ImageIcon;
@@ -169,6 +170,11 @@ public abstract class AbstractEditor implements TabProvider, Disposable {
     return this.mindMapPanelConfig.getOptionalProperty(AdditionalPreferences.PROPERTY_BACKUP_LAST_EDIT_BEFORE_SAVE, true);
   }
 
+  protected int getBackupCompressionLevel() {
+    final int level = this.mindMapPanelConfig.getOptionalProperty(AdditionalPreferences.PROPERTY_BACKUP_COMPRESSION_LEVEL, TextFileBackup.DEFAULT_COMPRESSION_LEVEL);
+    return Math.max(Deflater.NO_COMPRESSION, Math.min(Deflater.BEST_COMPRESSION, level));
+  }
+
   public void deleteBackup() {
     if (this.isEditable() && !this.isDisposed()) {
       final File associatedFile = this.getTabTitle().getAssociatedFile();
@@ -182,7 +188,7 @@ public abstract class AbstractEditor implements TabProvider, Disposable {
     if (this.isEditable() && !this.isDisposed() && text != null) {
         final File associatedFile = this.getTabTitle().getAssociatedFile();
         if (isAutoBackupAllowed() && associatedFile != null) {
-          TextFileBackup.getInstance().add(new TextFileBackup.BackupContent(associatedFile, text));
+          TextFileBackup.getInstance().add(new TextFileBackup.BackupContent(associatedFile, text, this.getBackupCompressionLevel()));
         }
       }
   }
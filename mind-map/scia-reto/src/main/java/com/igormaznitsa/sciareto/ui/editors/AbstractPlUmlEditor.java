@@ -69,7 +69,6 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
@@ -156,6 +155,10 @@ public abstract class AbstractPlUmlEditor extends AbstractTextEditor {
   private final Disposable eventChain;
   private final ScaleStatusIndicator scaleLabel;
   private volatile LastRendered lastSuccessfullyRenderedText = null;
+  private final AtomicInteger renderGeneration = new AtomicInteger();
+  private final AtomicInteger renderDividerLocation = new AtomicInteger();
+  private volatile Disposable currentRender;
+  private PropertyChangeListener dividerListener;
   private File lastExportedFile = null;
   private boolean ignoreChange;
   private int pageNumberToRender = 0;
@@ -247,7 +250,7 @@ public abstract class AbstractPlUmlEditor extends AbstractTextEditor {
     buttonRefresh.setToolTipText(
         this.bundle.getString("editorAbstractPlUml.buttonRefresh.tooltip"));
     buttonRefresh.addActionListener((ActionEvent e) -> {
-      startRenderScript();
+      startRenderScript(true);
     });
 
     final JButton buttonEditScript = new JButton(loadMenuIcon("edit_script")) {
@@ -731,6 +734,11 @@ public abstract class AbstractPlUmlEditor extends AbstractTextEditor {
   protected void doDispose() {
     eventProcessor.onComplete();
     eventChain.dispose();
+    this.renderGeneration.incrementAndGet();
+    final Disposable render = this.currentRender;
+    if (render != null) {
+      render.dispose();
+    }
   }
 
   protected int countNewPages(@Nonnull final String text) {
@@ -775,6 +783,29 @@ public abstract class AbstractPlUmlEditor extends AbstractTextEditor {
     this.labelWarningNoGraphwiz.setVisible(show);
   }
 
+  /**
+   * Check that diagrams should be rendered in worker processes.
+   *
+   * @return true if rendering in worker processes is turned on in preferences
+   * @see RenderWorkerPool
+   */
+  protected boolean isRenderInWorkerProcess() {
+    return this.mindMapPanelConfig
+        .getOptionalProperty(AdditionalPreferences.PROPERTY_RENDER_IN_WORKER_PROCESS, false);
+  }
+
+  @Nullable
+  protected String findDotPath() {
+    return this.mindMapPanelConfig
+        .getOptionalProperty(AdditionalPreferences.PROPERTY_PLANTUML_DOT_PATH, null);
+  }
+
+  @Nonnull
+  private PlantUmlSecurityProfile findSecurityProfile() {
+    return this.mindMapPanelConfig.getOptionalProperty(
+        AdditionalPreferences.PROPERTY_PLANTUML_SECURITY_PROFILE, PlantUmlSecurityProfile.LEGACY);
+  }
+
   private void initPlantUml() {
     GraphvizRuntimeEnvironment.getInstance()
         .setDotExecutable(this.mindMapPanelConfig.getOptionalProperty(
@@ -915,6 +946,11 @@ public abstract class AbstractPlUmlEditor extends AbstractTextEditor {
           if (this.isCustomRendering()) {
             bytearray = Assertions.assertNotNull("Unexpected NULL result",
                 this.makeCustomExport(exportType, pageIndex, textToRender));
+          } else if (this.isRenderInWorkerProcess()
+              && (exportType == ExportType.PNG || exportType == ExportType.SVG)) {
+            bytearray = RenderWorkerPool.getInstance().renderPlantUml(
+                exportType.name().toLowerCase(Locale.ENGLISH), true, pageIndex,
+                this.findSecurityProfile(), this.findDotPath(), textToRender);
           } else {
             final ByteArrayOutputStream buffer = new ByteArrayOutputStream(131072);
             final SourceStringReader reader = new SourceStringReader(textToRender);
@@ -1150,6 +1186,16 @@ public abstract class AbstractPlUmlEditor extends AbstractTextEditor {
   }
 
   protected final void startRenderScript() {
+    this.startRenderScript(false);
+  }
+
+  /**
+   * Start rendering of current page in background. Not completed rendering started before is
+   * cancelled, already rendered page is taken from cache of render service.
+   *
+   * @param force true if page must be rendered even if it is cached
+   */
+  protected final void startRenderScript(final boolean force) {
     try {
       final String editorText = this.editor.getText();
       final String theText = this.preprocessEditorText(editorText);
@@ -1175,87 +1221,69 @@ public abstract class AbstractPlUmlEditor extends AbstractTextEditor {
 
       final LastRendered currentText = new LastRendered(imageIndex, editorText);
 
-      if (!currentText.equals(this.lastSuccessfullyRenderedText)) {
+      if (force || !currentText.equals(this.lastSuccessfullyRenderedText)) {
         if (this.labelPageNumber != null) {
           updatePageNumberInfo(currentText.page, totalPages);
         }
 
-        final AtomicInteger dividerLocation =
-            new AtomicInteger(Math.max(0, this.mainPanel.getDividerLocation()));
-        final PropertyChangeListener dividerListener =
-            evt -> dividerLocation.set(Math.max(0, mainPanel.getDividerLocation()));
-
-        this.mainPanel
-            .addPropertyChangeListener(JSplitPane.DIVIDER_LOCATION_PROPERTY, dividerListener);
-
-        MainFrame.REACTOR_SCHEDULER.schedule(() -> {
-          BigLoaderIconAnimationConroller.getInstance().registerLabel(progressLabel);
-          try {
-            try {
-              SwingUtilities.invokeAndWait(() -> {
-                setMenuItemsEnable(false);
-                renderedPanel.remove(renderedScrollPane);
-                for (final Component c : renderedPanel.getComponents()) {
-                  if ("ERROR_LABEL".equals(c.getName())) {
-                    renderedPanel.remove(c);
-                    break;
-                  }
-                }
-                renderedPanel.add(progressLabel, BorderLayout.CENTER);
-                mainPanel.setDividerLocation(dividerLocation.get());
-              });
-            } catch (InterruptedException ex) {
-              Thread.currentThread().interrupt();
-              return;
-            } catch (InvocationTargetException ex) {
-              throw new RuntimeException(ex);
-            }
+        final Disposable prevRender = this.currentRender;
+        if (prevRender != null) {
+          prevRender.dispose();
+        }
+        final int generation = this.renderGeneration.incrementAndGet();
+
+        final DiagramRenderService.RenderKey renderKey = new DiagramRenderService.RenderKey(
+            this.getClass().getName(),
+            theText,
+            imageIndex - 1,
+            customRendering ? null : this.findSecurityProfile());
+
+        final BufferedImage cachedImage =
+            force ? null : DiagramRenderService.getInstance().findCached(renderKey);
+        if (cachedImage != null) {
+          this.currentRender = null;
+          this.onRenderCompleted(currentText, cachedImage, null);
+          return;
+        }
+
+        this.showRenderProgress();
 
+        this.currentRender = DiagramRenderService.getInstance().render(renderKey, force, () -> {
+          if (customRendering) {
             final AtomicReference<Exception> detectedError = new AtomicReference<>();
             final AtomicReference<BufferedImage> generatedImage = new AtomicReference<>();
-
-            if (customRendering) {
-              this.doCustomRendering(currentText.editorText, imageIndex - 1, generatedImage,
-                  detectedError);
+            this.doCustomRendering(currentText.editorText, imageIndex - 1, generatedImage,
+                detectedError);
+            if (detectedError.get() != null) {
+              throw detectedError.get();
+            }
+            return Objects.requireNonNull(generatedImage.get(), "Image is not rendered");
+          } else {
+            final byte[] png;
+            if (this.isRenderInWorkerProcess()) {
+              png = RenderWorkerPool.getInstance().renderPlantUml("png", false, imageIndex - 1,
+                  this.findSecurityProfile(), this.findDotPath(), theText);
             } else {
               final ByteArrayOutputStream buffer = new ByteArrayOutputStream(131072);
-              try {
-                final DiagramDescription description = reader.outputImage(buffer, imageIndex - 1,
-                    new FileFormatOption(FileFormat.PNG, false));
-                generatedImage.set(ImageIO.read(new ByteArrayInputStream(buffer.toByteArray())));
-              } catch (Exception ex) {
-                detectedError.set(ex);
-              }
+              reader.outputImage(buffer, imageIndex - 1,
+                  new FileFormatOption(FileFormat.PNG, false));
+              png = buffer.toByteArray();
             }
-
-            SwingUtilities.invokeLater(() -> {
-              mainPanel.removePropertyChangeListener(dividerListener);
-
-              final Exception error = detectedError.get();
-              if (error == null) {
-                lastSuccessfullyRenderedText = currentText;
-                imageComponent.setImage(generatedImage.get(), false);
-                renderedScrollPane.revalidate();
-                renderedPanel.remove(progressLabel);
-                renderedPanel.add(renderedScrollPane, BorderLayout.CENTER);
-                setMenuItemsEnable(true);
-              } else {
-                final JLabel errorLabel = new JLabel(
-                    "<html><h1>ERROR: " + escapeHtml3(error.getMessage()) + "</h1></html>",
-                    JLabel.CENTER);
-                errorLabel.setName("ERROR_LABEL");
-                renderedPanel.remove(progressLabel);
-                renderedPanel.add(errorLabel, BorderLayout.CENTER);
-              }
-
-              mainPanel.setDividerLocation(dividerLocation.get());
-            });
-
-          } finally {
-            this.lastSuccessfullyRenderedText = null;
-            BigLoaderIconAnimationConroller.getInstance().unregisterLabel(progressLabel);
+            return Objects.requireNonNull(ImageIO.read(new ByteArrayInputStream(png)),
+                "Can't decode rendered image");
           }
-        });
+        }).subscribe(
+            image -> SwingUtilities.invokeLater(() -> {
+              if (generation == this.renderGeneration.get()) {
+                this.onRenderCompleted(currentText, image, null);
+              }
+            }),
+            error -> SwingUtilities.invokeLater(() -> {
+              if (generation == this.renderGeneration.get()) {
+                this.onRenderCompleted(currentText, null,
+                    error instanceof Exception ? (Exception) error : new Exception(error));
+              }
+            }));
       }
     } catch (final Exception ex) {
       logger.error("Error of script rendering:" + ex);
@@ -1272,6 +1300,71 @@ public abstract class AbstractPlUmlEditor extends AbstractTextEditor {
     }
   }
 
+  @UiThread
+  private void showRenderProgress() {
+    if (this.dividerListener == null) {
+      this.renderDividerLocation.set(Math.max(0, this.mainPanel.getDividerLocation()));
+      this.dividerListener = evt -> this.renderDividerLocation.set(
+          Math.max(0, this.mainPanel.getDividerLocation()));
+      this.mainPanel
+          .addPropertyChangeListener(JSplitPane.DIVIDER_LOCATION_PROPERTY, this.dividerListener);
+    }
+
+    this.setMenuItemsEnable(false);
+    this.renderedPanel.remove(this.renderedScrollPane);
+    for (final Component c : this.renderedPanel.getComponents()) {
+      if ("ERROR_LABEL".equals(c.getName())) {
+        this.renderedPanel.remove(c);
+        break;
+      }
+    }
+    if (this.progressLabel.getParent() != this.renderedPanel) {
+      BigLoaderIconAnimationConroller.getInstance().registerLabel(this.progressLabel);
+      this.renderedPanel.add(this.progressLabel, BorderLayout.CENTER);
+    }
+    this.mainPanel.setDividerLocation(this.renderDividerLocation.get());
+    this.renderedPanel.revalidate();
+    this.renderedPanel.repaint();
+  }
+
+  @UiThread
+  private void onRenderCompleted(
+      @Nonnull final LastRendered renderedText,
+      @Nullable final BufferedImage image,
+      @Nullable final Exception error
+  ) {
+    this.currentRender = null;
+    if (this.dividerListener != null) {
+      this.mainPanel
+          .removePropertyChangeListener(JSplitPane.DIVIDER_LOCATION_PROPERTY, this.dividerListener);
+      this.dividerListener = null;
+    }
+    final int dividerLocation = Math.max(0, this.mainPanel.getDividerLocation());
+
+    BigLoaderIconAnimationConroller.getInstance().unregisterLabel(this.progressLabel);
+    this.renderedPanel.remove(this.progressLabel);
+
+    if (error == null) {
+      this.lastSuccessfullyRenderedText = renderedText;
+      this.imageComponent.setImage(image, false);
+      this.renderedScrollPane.revalidate();
+      this.renderedPanel.add(this.renderedScrollPane, BorderLayout.CENTER);
+      this.setMenuItemsEnable(true);
+    } else {
+      this.lastSuccessfullyRenderedText = null;
+      this.renderedPanel.remove(this.renderedScrollPane);
+      final JLabel errorLabel = new JLabel(
+          "<html><h1>ERROR: " + escapeHtml3(error.getMessage()) + "</h1></html>",
+          JLabel.CENTER);
+      errorLabel.setName("ERROR_LABEL");
+      this.renderedPanel.add(errorLabel, BorderLayout.CENTER);
+    }
+
+    this.renderedPanel.revalidate();
+    this.renderedPanel.repaint();
+    this.mainPanel.setDividerLocation(dividerLocation);
+  }
+
   @Nullable
   @UiThread
   private String renderPageAsAscII() {
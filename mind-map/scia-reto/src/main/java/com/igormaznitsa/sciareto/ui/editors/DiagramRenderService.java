@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.igormaznitsa.sciareto.ui.editors;
+
+import com.igormaznitsa.mindmap.model.logger.Logger;
+import com.igormaznitsa.mindmap.model.logger.LoggerFactory;
+import java.awt.image.BufferedImage;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Shared service to render diagram pages in background. Rendered pages are cached by hash of
+ * rendered text, page index and PlantUML security profile, so that switching between tabs or
+ * reopening of file doesn't render the same text again. Number of concurrent renders is limited
+ * to keep UI responsive when many diagram tabs are open. Requests are started after short delay
+ * and can be cancelled through disposing of subscription, so that obsolete renders are not
+ * executed.
+ */
+public final class DiagramRenderService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DiagramRenderService.class);
+
+  private static final DiagramRenderService INSTANCE = new DiagramRenderService();
+
+  private static final long MAX_CACHED_PIXELS = 24L * 1024L * 1024L;
+  private static final Duration START_DELAY = Duration.ofMillis(200L);
+
+  private final Scheduler renderScheduler = Schedulers.newBoundedElastic(
+      Math.max(1, Runtime.getRuntime().availableProcessors() / 2), Integer.MAX_VALUE,
+      "sr-diagram-render", 30, true);
+
+  private final Map<RenderKey, BufferedImage> cache = new LinkedHashMap<>(16, 0.75f, true);
+  private long cachedPixels;
+
+  private DiagramRenderService() {
+  }
+
+  @Nonnull
+  public static DiagramRenderService getInstance() {
+    return INSTANCE;
+  }
+
+  private static long pixels(@Nonnull final BufferedImage image) {
+    return (long) image.getWidth() * (long) image.getHeight();
+  }
+
+  /**
+   * Find rendered page in cache.
+   *
+   * @param key key of page, must not be null
+   * @return cached image or null if not found
+   */
+  @Nullable
+  public BufferedImage findCached(@Nonnull final RenderKey key) {
+    synchronized (this.cache) {
+      return this.cache.get(key);
+    }
+  }
+
+  /**
+   * Remove all cached pages.
+   */
+  public void clearCache() {
+    synchronized (this.cache) {
+      this.cache.clear();
+      this.cachedPixels = 0L;
+    }
+  }
+
+  /**
+   * Make rendering request. Cached image is returned without rendering if not forced, successfully
+   * rendered image is placed into cache.
+   *
+   * @param key      key of rendered page, must not be null
+   * @param force    true if cached image must be ignored
+   * @param renderer renderer of the page, called in thread of the service, must not be null
+   * @return mono which emits rendered image, rendering is started on subscribe and can be
+   * cancelled by dispose of subscription
+   */
+  @Nonnull
+  public Mono<BufferedImage> render(
+      @Nonnull final RenderKey key,
+      final boolean force,
+      @Nonnull final Callable<BufferedImage> renderer
+  ) {
+    if (!force) {
+      final BufferedImage cached = this.findCached(key);
+      if (cached != null) {
+        return Mono.just(cached);
+      }
+    }
+    return Mono.delay(START_DELAY)
+        .then(Mono.fromCallable(renderer).subscribeOn(this.renderScheduler))
+        .doOnNext(image -> this.putCache(key, image));
+  }
+
+  private void putCache(@Nonnull final RenderKey key, @Nonnull final BufferedImage image) {
+    final long imagePixels = pixels(image);
+    if (imagePixels > MAX_CACHED_PIXELS) {
+      LOGGER.info("Too big image to be cached: " + image.getWidth() + 'x' + image.getHeight());
+      return;
+    }
+    synchronized (this.cache) {
+      final BufferedImage prev = this.cache.put(key, image);
+      if (prev != null) {
+        this.cachedPixels -= pixels(prev);
+      }
+      this.cachedPixels += imagePixels;
+      final Iterator<BufferedImage> iterator = this.cache.values().iterator();
+      while (this.cachedPixels > MAX_CACHED_PIXELS && iterator.hasNext()) {
+        this.cachedPixels -= pixels(iterator.next());
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * Key of rendered page. Text is not kept in the key but only its hash.
+   */
+  public static final class RenderKey {
+
+    private final String renderer;
+    private final byte[] textHash;
+    private final int page;
+    private final PlantUmlSecurityProfile securityProfile;
+    private final int hash;
+
+    /**
+     * Constructor.
+     *
+     * @param renderer        identifier of renderer, must not be null
+     * @param text            rendered text, must not be null
+     * @param page            zero based page index
+     * @param securityProfile security profile active during rendering, can be null
+     */
+    public RenderKey(
+        @Nonnull final String renderer,
+        @Nonnull final String text,
+        final int page,
+        @Nullable final PlantUmlSecurityProfile securityProfile
+    ) {
+      this.renderer = renderer;
+      try {
+        this.textHash =
+            MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+      } catch (NoSuchAlgorithmException ex) {
+        throw new Error("Unexpected missing SHA-256 digest", ex);
+      }
+      this.page = page;
+      this.securityProfile = securityProfile;
+      this.hash = Objects.hash(renderer, Arrays.hashCode(this.textHash), page, securityProfile);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+
+    @Override
+    public boolean equals(@Nullable final Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (obj instanceof RenderKey) {
+        final RenderKey that = (RenderKey) obj;
+        return this.page == that.page
+            && this.securityProfile == that.securityProfile
+            && this.renderer.equals(that.renderer)
+            && Arrays.equals(this.textHash, that.textHash);
+      }
+      return false;
+    }
+  }
+}
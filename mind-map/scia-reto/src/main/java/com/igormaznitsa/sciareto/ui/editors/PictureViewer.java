@@ -73,6 +73,14 @@ public final class PictureViewer extends AbstractEditor {
           "gif", //NOI18N
           "svg");
 
+  /**
+   * Raster images which have more pixels are shown by tiles decoded only for visible area.
+   */
+  private static final long TILED_IMAGE_PIXELS = 4096L * 4096L;
+  /**
+   * Max width and height of rasterized SVG image.
+   */
+  private static final float SVG_MAX_SIZE = 8192.0f;
 
   private final FileFilter fileFilterImage = new FileFilter() {
     @Override
@@ -98,6 +106,7 @@ public final class PictureViewer extends AbstractEditor {
   private final ScaleStatusIndicator scaleLabel;
   private final JLabel imageInfoLabel;
   private transient BufferedImage image;
+  private transient TiledImageSource tiledImage;
 
   public PictureViewer(@Nonnull final Context context, @Nonnull final File file)
       throws IOException {
@@ -168,6 +177,8 @@ public final class PictureViewer extends AbstractEditor {
     transcoderHints.put(ImageTranscoder.KEY_DOCUMENT_ELEMENT, "svg");
     transcoderHints.put(ImageTranscoder.KEY_DOM_IMPLEMENTATION,
         SVGDOMImplementation.getDOMImplementation());
+    transcoderHints.put(ImageTranscoder.KEY_MAX_WIDTH, SVG_MAX_SIZE);
+    transcoderHints.put(ImageTranscoder.KEY_MAX_HEIGHT, SVG_MAX_SIZE);
 
     final AtomicReference<BufferedImage> imagePointer = new AtomicReference<>();
     try (InputStream in = Files.newInputStream(svgFile.toPath())) {
@@ -234,10 +245,13 @@ public final class PictureViewer extends AbstractEditor {
   @Override
   public void loadContent(@Nullable final File file) throws IOException {
     BufferedImage loaded = null;
+    TiledImageSource tiled = null;
     if (file != null) {
       try {
         if (file.getName().toLowerCase(Locale.ENGLISH).endsWith(".svg")) {
           loaded = renderSvg(file);
+        } else if (TiledImageSource.findPixelNumber(file) > TILED_IMAGE_PIXELS) {
+          tiled = TiledImageSource.open(file);
         } else {
           loaded = ImageIO.read(file);
         }
@@ -246,23 +260,42 @@ public final class PictureViewer extends AbstractEditor {
       }
     }
 
+    if (this.tiledImage != null) {
+      this.tiledImage.close();
+    }
     this.image = loaded;
-
-    this.imageInfoLabel.setText(String
-        .format(
-            this.bundle.getString("editorPictureViewer.buttonClipboardImage.imageInfoLabel"),
-            this.image.getWidth(null), this.image.getHeight(null)));
-
-    this.imageViewer.setImage(this.image, true);
+    this.tiledImage = tiled;
+
+    if (tiled == null) {
+      this.imageInfoLabel.setText(String
+          .format(
+              this.bundle.getString("editorPictureViewer.buttonClipboardImage.imageInfoLabel"),
+              this.image.getWidth(null), this.image.getHeight(null)));
+      this.imageViewer.setImage(this.image, true);
+    } else {
+      this.imageInfoLabel.setText(String
+          .format(
+              this.bundle.getString("editorPictureViewer.buttonClipboardImage.imageInfoLabel"),
+              tiled.getWidth(), tiled.getHeight()));
+      this.imageViewer.setTiledImage(tiled, true);
+    }
     this.scrollPane.setViewportView(this.imageViewer);
     this.scrollPane.revalidate();
   }
 
+  @Override
+  protected void doDispose() {
+    if (this.tiledImage != null) {
+      this.tiledImage.close();
+      this.tiledImage = null;
+    }
+  }
+
   @Override
   public boolean saveDocument() throws IOException {
     boolean result = false;
     final File docFile = this.title.getAssociatedFile();
-    if (docFile != null) {
+    if (docFile != null && this.image != null) {
       final String ext =
           FilenameUtils.getExtension(docFile.getName()).trim().toLowerCase(Locale.ENGLISH);
       if (SUPPORTED_FORMATS.contains(ext)) {
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.igormaznitsa.sciareto.ui.editors;
+
+import com.igormaznitsa.sciareto.preferences.PrefUtils;
+import com.igormaznitsa.sciareto.ui.SrI18n;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import javax.annotation.Nonnull;
+import net.sourceforge.plantuml.FileFormat;
+import net.sourceforge.plantuml.FileFormatOption;
+import net.sourceforge.plantuml.SourceStringReader;
+import net.sourceforge.plantuml.dot.GraphvizRuntimeEnvironment;
+
+/**
+ * Entry point of render worker process started by {@link RenderWorkerPool}. Worker reads render
+ * requests from stdin and writes rendered bytes into stdout, all other output is redirected into
+ * stderr. Worker exits when stdin is closed.
+ */
+public final class RenderWorker {
+
+  static final byte KIND_PLANTUML = 0;
+  static final byte KIND_DOT = 1;
+
+  static final byte RESPONSE_OK = 0;
+  static final byte RESPONSE_ERROR = 1;
+
+  private static final int MAX_ERROR_MESSAGE_LENGTH = 16384;
+
+  private RenderWorker() {
+  }
+
+  public static void main(@Nonnull final String... args) throws IOException {
+    final DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+    System.setOut(new PrintStream(new FileOutputStream(FileDescriptor.err), true));
+
+    final DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+    while (true) {
+      final byte kind;
+      try {
+        kind = in.readByte();
+      } catch (EOFException ex) {
+        break;
+      }
+      final String format = in.readUTF();
+      final boolean metadata = in.readBoolean();
+      final int page = in.readInt();
+      final String securityProfile = in.readUTF();
+      final String dotPath = in.readUTF();
+      final byte[] text = new byte[in.readInt()];
+      in.readFully(text);
+
+      byte[] result = null;
+      String error = null;
+      try {
+        result = render(kind, format, metadata, page, securityProfile,
+            dotPath.isEmpty() ? null : dotPath, new String(text, StandardCharsets.UTF_8));
+      } catch (Throwable ex) {
+        error = ex.getMessage() == null ? ex.getClass().getName() : ex.getMessage();
+        if (error.length() > MAX_ERROR_MESSAGE_LENGTH) {
+          error = error.substring(0, MAX_ERROR_MESSAGE_LENGTH);
+        }
+        if (ex instanceof OutOfMemoryError) {
+          writeResponse(out, null, error);
+          System.exit(2);
+        }
+      }
+      writeResponse(out, result, error);
+    }
+  }
+
+  private static void writeResponse(
+      @Nonnull final DataOutputStream out,
+      final byte[] result,
+      final String error
+  ) throws IOException {
+    if (error == null) {
+      out.writeByte(RESPONSE_OK);
+      out.writeInt(result.length);
+      out.write(result);
+    } else {
+      out.writeByte(RESPONSE_ERROR);
+      out.writeUTF(error);
+    }
+    out.flush();
+  }
+
+  @Nonnull
+  private static byte[] render(
+      final byte kind,
+      @Nonnull final String format,
+      final boolean metadata,
+      final int page,
+      @Nonnull final String securityProfile,
+      final String dotPath,
+      @Nonnull final String text
+  ) throws Exception {
+    System.setProperty(PrefUtils.ENV_PLANTUML_SECURITY_PROFILE, securityProfile);
+    GraphvizRuntimeEnvironment.getInstance().setDotExecutable(dotPath);
+
+    switch (kind) {
+      case KIND_PLANTUML: {
+        final FileFormat fileFormat = FileFormat.valueOf(format.toUpperCase(Locale.ENGLISH));
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream(131072);
+        new SourceStringReader(text, "UTF-8")
+            .outputImage(buffer, page, new FileFormatOption(fileFormat, metadata));
+        return buffer.toByteArray();
+      }
+      case KIND_DOT: {
+        return AbstractDotEditor.executeDot(text, format,
+            SrI18n.getInstance().findBundle(Locale.getDefault()));
+      }
+      default:
+        throw new IllegalArgumentException("Unsupported render kind: " + kind);
+    }
+  }
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.igormaznitsa.sciareto.ui.editors;
+
+import com.igormaznitsa.mindmap.model.logger.Logger;
+import com.igormaznitsa.mindmap.model.logger.LoggerFactory;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Pool of local worker processes to render PlantUML and DOT scripts out of the editor JVM, so
+ * that big diagrams don't make memory spikes and GC pauses in the editor and hanging script can
+ * be terminated. Each worker is a separate JVM with limited heap communicating through its stdin
+ * and stdout, worker is killed and restarted if it is failed, hanging or rendering obsolete job.
+ */
+public final class RenderWorkerPool {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RenderWorkerPool.class);
+
+  private static final RenderWorkerPool INSTANCE = new RenderWorkerPool();
+
+  private static final String WORKER_MAX_HEAP = "-Xmx512m";
+  private static final long RENDER_TIMEOUT_MS = 60000L;
+  private static final long POLL_DELAY_MS = 20L;
+
+  private final int maxWorkers = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+  private final Semaphore permits = new Semaphore(this.maxWorkers);
+  private final LinkedBlockingDeque<Worker> idleWorkers = new LinkedBlockingDeque<>();
+  private final List<Worker> allWorkers = new ArrayList<>();
+
+  private RenderWorkerPool() {
+    Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "sr-render-workers-stop"));
+  }
+
+  @Nonnull
+  public static RenderWorkerPool getInstance() {
+    return INSTANCE;
+  }
+
+  @Nonnull
+  private static String findJavaExecutable() {
+    return ProcessHandle.current().info().command().orElseGet(() ->
+        new File(new File(System.getProperty("java.home"), "bin"),
+            File.separatorChar == '\\' ? "java.exe" : "java").getAbsolutePath());
+  }
+
+  /**
+   * Render PlantUML script page in worker process.
+   *
+   * @param format          name of PlantUML file format (png, svg)
+   * @param metadata        true if metadata should be added into image
+   * @param pageIndex       zero based page index
+   * @param securityProfile PlantUML security profile
+   * @param dotPath         path to DOT executable, can be null
+   * @param text            script text
+   * @return rendered image content
+   * @throws IOException          if error during render or communication with worker
+   * @throws InterruptedException if thread interrupted, the worker is killed in the case
+   */
+  @Nonnull
+  public byte[] renderPlantUml(
+      @Nonnull final String format,
+      final boolean metadata,
+      final int pageIndex,
+      @Nonnull final PlantUmlSecurityProfile securityProfile,
+      @Nullable final String dotPath,
+      @Nonnull final String text
+  ) throws IOException, InterruptedException {
+    return this.render(RenderWorker.KIND_PLANTUML, format, metadata, pageIndex,
+        securityProfile, dotPath, text);
+  }
+
+  /**
+   * Render DOT script in worker process.
+   *
+   * @param format  DOT output format (png, svg)
+   * @param dotPath path to DOT executable, can be null
+   * @param text    script text
+   * @return rendered image content
+   * @throws IOException          if error during render or communication with worker
+   * @throws InterruptedException if thread interrupted, the worker is killed in the case
+   */
+  @Nonnull
+  public byte[] renderDot(
+      @Nonnull final String format,
+      @Nullable final String dotPath,
+      @Nonnull final String text
+  ) throws IOException, InterruptedException {
+    return this.render(RenderWorker.KIND_DOT, format, false, 0, PlantUmlSecurityProfile.LEGACY,
+        dotPath, text);
+  }
+
+  @Nonnull
+  private byte[] render(
+      final byte kind,
+      @Nonnull final String format,
+      final boolean metadata,
+      final int pageIndex,
+      @Nonnull final PlantUmlSecurityProfile securityProfile,
+      @Nullable final String dotPath,
+      @Nonnull final String text
+  ) throws IOException, InterruptedException {
+    this.permits.acquire();
+    try {
+      Worker worker = this.idleWorkers.pollFirst();
+      if (worker == null || !worker.isAlive()) {
+        if (worker != null) {
+          this.kill(worker);
+        }
+        worker = this.start();
+      }
+
+      boolean reusable = false;
+      try {
+        final byte[] result =
+            worker.render(kind, format, metadata, pageIndex, securityProfile, dotPath, text);
+        reusable = true;
+        return result;
+      } catch (WorkerRenderException ex) {
+        reusable = true;
+        throw ex;
+      } finally {
+        if (reusable && worker.isAlive()) {
+          this.idleWorkers.offerFirst(worker);
+        } else {
+          this.kill(worker);
+        }
+      }
+    } finally {
+      this.permits.release();
+    }
+  }
+
+  @Nonnull
+  private Worker start() throws IOException {
+    final List<String> command = new ArrayList<>();
+    command.add(findJavaExecutable());
+    command.add(WORKER_MAX_HEAP);
+    command.add("-Djava.awt.headless=true");
+    for (final Map.Entry<Object, Object> e : System.getProperties().entrySet()) {
+      final String key = String.valueOf(e.getKey());
+      if (key.startsWith("PLANTUML") || key.startsWith("GRAPHVIZ")) {
+        command.add("-D" + key + '=' + e.getValue());
+      }
+    }
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    command.add(RenderWorker.class.getName());
+
+    final Process process = new ProcessBuilder(command)
+        .redirectError(ProcessBuilder.Redirect.INHERIT)
+        .start();
+    final Worker result = new Worker(process);
+    synchronized (this.allWorkers) {
+      this.allWorkers.add(result);
+    }
+    LOGGER.info("Started render worker process, pid=" + process.pid());
+    return result;
+  }
+
+  private void kill(@Nonnull final Worker worker) {
+    synchronized (this.allWorkers) {
+      this.allWorkers.remove(worker);
+    }
+    this.idleWorkers.remove(worker);
+    worker.process.destroyForcibly();
+  }
+
+  /**
+   * Stop all worker processes.
+   */
+  public void shutdown() {
+    final List<Worker> workers;
+    synchronized (this.allWorkers) {
+      workers = new ArrayList<>(this.allWorkers);
+    }
+    workers.forEach(this::kill);
+  }
+
+  private static final class WorkerRenderException extends IOException {
+
+    private WorkerRenderException(@Nonnull final String message) {
+      super(message);
+    }
+  }
+
+  private static final class Worker {
+
+    private final Process process;
+    private final DataOutputStream out;
+    private final DataInputStream in;
+
+    private Worker(@Nonnull final Process process) {
+      this.process = process;
+      this.out = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+      this.in = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+    }
+
+    private boolean isAlive() {
+      return this.process.isAlive();
+    }
+
+    @Nonnull
+    private byte[] render(
+        final byte kind,
+        @Nonnull final String format,
+        final boolean metadata,
+        final int pageIndex,
+        @Nonnull final PlantUmlSecurityProfile securityProfile,
+        @Nullable final String dotPath,
+        @Nonnull final String text
+    ) throws IOException, InterruptedException {
+      final byte[] textBytes = text.getBytes(StandardCharsets.UTF_8);
+      this.out.writeByte(kind);
+      this.out.writeUTF(format);
+      this.out.writeBoolean(metadata);
+      this.out.writeInt(pageIndex);
+      this.out.writeUTF(securityProfile.name());
+      this.out.writeUTF(dotPath == null ? "" : dotPath);
+      this.out.writeInt(textBytes.length);
+      this.out.write(textBytes);
+      this.out.flush();
+
+      final long deadline = System.currentTimeMillis() + RENDER_TIMEOUT_MS;
+      while (this.in.available() == 0) {
+        if (!this.process.isAlive()) {
+          throw new IOException(
+              "Render worker process is terminated, exit code " + this.process.exitValue());
+        }
+        if (System.currentTimeMillis() > deadline) {
+          throw new IOException("Render timeout, worker is killed");
+        }
+        if (Thread.interrupted()) {
+          throw new InterruptedException();
+        }
+        this.process.waitFor(POLL_DELAY_MS, TimeUnit.MILLISECONDS);
+      }
+
+      final byte status = this.in.readByte();
+      if (status == RenderWorker.RESPONSE_OK) {
+        final byte[] result = new byte[this.in.readInt()];
+        this.in.readFully(result);
+        return result;
+      } else {
+        throw new WorkerRenderException(this.in.readUTF());
+      }
+    }
+  }
+}
@@ -46,6 +46,7 @@ final class ScalableImage extends JComponent implements ScaleStatusIndicator.Sca
   private static final long serialVersionUID = 6804581090800919466L;
   private static final float SCALE_STEP = 0.05f;
   private BufferedImage image;
+  private TiledImageSource tiledSource;
   private float scale = 1.0f;
 
   public static final int IMG_UNIT_INCREMENT = 16;
@@ -239,7 +240,9 @@ final class ScalableImage extends JComponent implements ScaleStatusIndicator.Sca
   @Override
   @Nonnull
   public Dimension getPreferredSize() {
-    if (image == null) {
+    if (this.tiledSource != null) {
+      return new Dimension(Math.round(this.tiledSource.getWidth() * this.scale), Math.round(this.tiledSource.getHeight() * this.scale));
+    } else if (image == null) {
       return new Dimension(16, 16);
     } else {
       return new Dimension(Math.round(this.image.getWidth() * this.scale), Math.round(this.image.getHeight() * this.scale));
@@ -257,7 +260,10 @@ final class ScalableImage extends JComponent implements ScaleStatusIndicator.Sca
     this.config.getRenderQuality().prepare(gfx);
 
     final Rectangle bounds = this.getBounds();
-    if (this.image == null) {
+    if (this.tiledSource != null) {
+      final Dimension size = getPreferredSize();
+      this.tiledSource.paint(gfx, Math.max(0, (bounds.width - size.width) / 2), Math.max(0, (bounds.height - size.height) / 2), this.scale, this.getVisibleRect(), this::repaint);
+    } else if (this.image == null) {
       gfx.setColor(Color.BLACK);
       gfx.fillRect(0, 0, bounds.width, bounds.height);
       gfx.setColor(Color.RED);
@@ -269,13 +275,35 @@ final class ScalableImage extends JComponent implements ScaleStatusIndicator.Sca
     }
   }
 
+  /**
+   * Get shown image.
+   *
+   * @return shown image, for tiled image source it is its reduced overview
+   */
   @Nullable
   public BufferedImage getImage() {
-    return this.image;
+    return this.tiledSource == null ? this.image : this.tiledSource.getOverview();
   }
 
   public void setImage(@Nullable final BufferedImage image, final boolean resetZoom) {
     this.image = image;
+    this.tiledSource = null;
+    if (resetZoom) {
+      setScale(1.0f);
+    }
+    revalidate();
+    repaint();
+  }
+
+  /**
+   * Show big image which is decoded by tiles only for visible area.
+   *
+   * @param source    tiled image source, must not be null
+   * @param resetZoom true if scale should be reset
+   */
+  public void setTiledImage(@Nonnull final TiledImageSource source, final boolean resetZoom) {
+    this.image = null;
+    this.tiledSource = source;
     if (resetZoom) {
       setScale(1.0f);
     }
@@ -28,10 +28,15 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.zip.CRC32;
 import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
@@ -41,14 +46,37 @@ import javax.annotation.Nullable;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 
+/**
+ * Background writer of backups for edited text content. Only the latest pending snapshot of each
+ * file is kept, so that frequent edits of the same file produce only one backup write. Number of
+ * files waiting for backup is limited, a new file waits for free place for short time.
+ */
 public class TextFileBackup {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(TextFileBackup.class);
 
-  private static final BackupContent END_WORK =
-      new BackupContent(new File("/some/non-existing/fake/file"), null);
   private static final AtomicReference<TextFileBackup> instance = new AtomicReference<>();
-  private final BlockingQueue<BackupContent> contentQueue = new ArrayBlockingQueue<>(32);
+
+  private static final int MAX_PENDING_FILES = 32;
+  private static final long ADD_TIMEOUT_MS = 1000L;
+  private static final int WORKERS = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() / 2));
+
+  /**
+   * Default level of compression for backup content.
+   */
+  public static final int DEFAULT_COMPRESSION_LEVEL = 2;
+
+  /**
+   * Content bigger than the size is packed with the fastest compression level if higher level is
+   * requested.
+   */
+  private static final int BIG_CONTENT_SIZE = 1024 * 1024;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition changed = this.lock.newCondition();
+  private final Map<File, BackupContent> pending = new LinkedHashMap<>();
+  private final Set<File> inProgress = new HashSet<>();
+  private boolean finishing;
 
   private TextFileBackup() {
 
@@ -97,12 +125,22 @@ public class TextFileBackup {
     return instance.get();
   }
 
+  /**
+   * Stop backup workers after write of all pending content. Content added after the call is
+   * ignored.
+   */
   public void finish() {
-    this.add(END_WORK);
+    this.lock.lock();
+    try {
+      this.finishing = true;
+      this.changed.signalAll();
+    } finally {
+      this.lock.unlock();
+    }
   }
 
   @Nonnull
-  private byte[] prepareContent(@Nonnull final String content) {
+  private byte[] prepareContent(@Nonnull final String content, final int compressionLevel) {
     final ByteArrayOutputStream bao = new ByteArrayOutputStream(content.length() << 1);
     final byte[] textAsBytes = content.getBytes(StandardCharsets.UTF_8);
     final CRC32 crc32 = new CRC32();
@@ -114,10 +152,15 @@ public class TextFileBackup {
       writeLong(timestamp, bao);
       writeLong(crc32value, bao);
       final ByteArrayOutputStream packedDataBuffer = new ByteArrayOutputStream(content.length());
-      final DeflaterOutputStream zos = new DeflaterOutputStream(packedDataBuffer, new Deflater(2));
-      IOUtils.write(textAsBytes, zos);
-      zos.flush();
-      zos.finish();
+      final Deflater deflater = new Deflater(textAsBytes.length > BIG_CONTENT_SIZE
+          ? Math.min(compressionLevel, Deflater.BEST_SPEED) : compressionLevel);
+      final DeflaterOutputStream zos = new DeflaterOutputStream(packedDataBuffer, deflater);
+      try {
+        IOUtils.write(textAsBytes, zos);
+        zos.finish();
+      } finally {
+        deflater.end();
+      }
       final byte[] packedContent = packedDataBuffer.toByteArray();
       writeLong(textAsBytes.length, bao);
       writeLong(packedContent.length, bao);
@@ -131,9 +174,11 @@ public class TextFileBackup {
   }
 
   private void start() {
-    final Thread thread = new Thread(this::run, "edit-text-content-backuper");
-    thread.setDaemon(false);
-    thread.start();
+    for (int i = 0; i < WORKERS; i++) {
+      final Thread thread = new Thread(this::run, "edit-text-content-backuper-" + i);
+      thread.setDaemon(false);
+      thread.start();
+    }
   }
 
   private void removeBackup(@Nonnull final File file) {
@@ -168,42 +213,115 @@ public class TextFileBackup {
     }
   }
 
+  /**
+   * Take the oldest pending content which file is not processed by another worker.
+   *
+   * @return content to be processed or null if the worker must be stopped
+   * @throws InterruptedException if the thread is interrupted
+   */
+  @Nullable
+  private BackupContent take() throws InterruptedException {
+    this.lock.lock();
+    try {
+      while (true) {
+        final Iterator<BackupContent> iterator = this.pending.values().iterator();
+        while (iterator.hasNext()) {
+          final BackupContent item = iterator.next();
+          if (!this.inProgress.contains(item.originalFile)) {
+            iterator.remove();
+            this.inProgress.add(item.originalFile);
+            this.changed.signalAll();
+            return item;
+          }
+        }
+        if (this.finishing && this.pending.isEmpty()) {
+          return null;
+        }
+        this.changed.await();
+      }
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private void done(@Nonnull final BackupContent item) {
+    this.lock.lock();
+    try {
+      this.inProgress.remove(item.originalFile);
+      this.changed.signalAll();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
   private void run() {
     while (!Thread.currentThread().isInterrupted()) {
       try {
-        final BackupContent item = this.contentQueue.poll(5, TimeUnit.SECONDS);
-        if (item != null) {
-          if (item == END_WORK) {
-            break;
-          }
+        final BackupContent item = this.take();
+        if (item == null) {
+          break;
+        }
+        try {
           if (item.content == null) {
             removeBackup(item.originalFile);
           } else {
-            backup(item.originalFile, prepareContent(item.content));
+            backup(item.originalFile, prepareContent(item.content, item.compressionLevel));
           }
+        } finally {
+          this.done(item);
         }
       } catch (InterruptedException ex) {
         Thread.currentThread().interrupt();
       }
     }
-
   }
 
+  /**
+   * Wait till all added content is written.
+   *
+   * @throws InterruptedException if the thread is interrupted
+   */
   public void waitQueueEmpty() throws InterruptedException {
-    while (!this.contentQueue.isEmpty()) {
-      Thread.sleep(100L);
+    this.lock.lock();
+    try {
+      while (!this.pending.isEmpty() || !this.inProgress.isEmpty()) {
+        this.changed.await();
+      }
+    } finally {
+      this.lock.unlock();
     }
   }
 
+  /**
+   * Add content to be backed up. If there is pending content for the same file then it is replaced
+   * by the new one. If there are too many files waiting for backup then the call waits for free
+   * place for short time.
+   *
+   * @param content content to be written, null text means removing of backup
+   */
   public void add(@Nonnull final BackupContent content) {
+    this.lock.lock();
     try {
-      final boolean placed = this.contentQueue.offer(content, 1, TimeUnit.SECONDS);
-      if (!placed) {
-        LOGGER.error("Can't place content into queue for timeout, content is " + content);
+      if (this.finishing) {
+        LOGGER.warn("Backup is finished, content is ignored: " + content.originalFile);
+        return;
+      }
+      long nanos = TimeUnit.MILLISECONDS.toNanos(ADD_TIMEOUT_MS);
+      while (!this.pending.containsKey(content.originalFile)
+          && this.pending.size() >= MAX_PENDING_FILES) {
+        if (nanos <= 0L) {
+          LOGGER.error("Can't place content into queue for timeout, content is " + content.originalFile);
+          return;
+        }
+        nanos = this.changed.awaitNanos(nanos);
       }
+      this.pending.put(content.originalFile, content);
+      this.changed.signalAll();
     } catch (InterruptedException ex) {
-      LOGGER.error("Can't place content into queue for interruption, content is " + content);
+      LOGGER.error("Can't place content into queue for interruption, content is " + content.originalFile);
       Thread.currentThread().interrupt();
+    } finally {
+      this.lock.unlock();
     }
   }
 
@@ -279,10 +397,27 @@ public class TextFileBackup {
 
     private final File originalFile;
     private final String content;
+    private final int compressionLevel;
 
     public BackupContent(@Nonnull final File file, @Nullable final String content) {
+      this(file, content, DEFAULT_COMPRESSION_LEVEL);
+    }
+
+    /**
+     * Make backup content.
+     *
+     * @param file             original file
+     * @param content          text to backup, null if backup should be removed
+     * @param compressionLevel compression level from {@link Deflater#NO_COMPRESSION} to
+     *                         {@link Deflater#BEST_COMPRESSION}
+     */
+    public BackupContent(@Nonnull final File file, @Nullable final String content, final int compressionLevel) {
+      if (compressionLevel < Deflater.NO_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+        throw new IllegalArgumentException("Wrong compression level: " + compressionLevel);
+      }
       this.originalFile = file;
       this.content = content;
+      this.compressionLevel = compressionLevel;
     }
   }
 }
@@ -0,0 +1,345 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.igormaznitsa.sciareto.ui.editors;
+
+import com.igormaznitsa.mindmap.model.logger.Logger;
+import com.igormaznitsa.mindmap.model.logger.LoggerFactory;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.swing.SwingUtilities;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Source of big raster image which is decoded by horizontal bands only for visible area. Bands
+ * are decoded with subsampling for current scale, so that memory needed to show image is
+ * proportional to screen size but not to image size. Standard PNG and JPEG readers can't seek to
+ * a row and decode all rows above requested region, so that all visible bands of a subsampling
+ * level are decoded by one read call and every band has full image width, decoded bands are
+ * cached and painted for any horizontal position without new decoding. Small overview of whole
+ * image is decoded during open and shown till bands with better quality are decoded.
+ */
+final class TiledImageSource implements Closeable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TiledImageSource.class);
+
+  private static final Scheduler DECODER = Schedulers.newSingle("sr-image-tile-decoder", true);
+
+  private static final int BAND_HEIGHT = 512;
+  private static final int OVERVIEW_SIZE = 1024;
+  private static final long MAX_CACHED_PIXELS = 96L * 512L * 512L;
+
+  private final ImageInputStream stream;
+  private final ImageReader reader;
+  private final int width;
+  private final int height;
+  private final BufferedImage overview;
+  private final int overviewSubsampling;
+
+  private final Map<Long, BufferedImage> bands = new LinkedHashMap<>(16, 0.75f, true);
+  private long cachedPixels;
+  private final Set<Long> requestedBands = ConcurrentHashMap.newKeySet();
+  private volatile Set<Long> visibleBands = Set.of();
+  private volatile boolean closed;
+
+  private TiledImageSource(@Nonnull final ImageInputStream stream,
+                           @Nonnull final ImageReader reader) throws IOException {
+    this.stream = stream;
+    this.reader = reader;
+    this.width = reader.getWidth(0);
+    this.height = reader.getHeight(0);
+
+    this.overviewSubsampling =
+        Math.max(1, (Math.max(this.width, this.height) + OVERVIEW_SIZE - 1) / OVERVIEW_SIZE);
+    final ImageReadParam param = reader.getDefaultReadParam();
+    param.setSourceSubsampling(this.overviewSubsampling, this.overviewSubsampling, 0, 0);
+    this.overview = reader.read(0, param);
+  }
+
+  /**
+   * Open image file to be shown by bands.
+   *
+   * @param file image file, must not be null
+   * @return opened image source or null if there is no reader for the image format
+   * @throws IOException if any error during image reading
+   */
+  @Nullable
+  static TiledImageSource open(@Nonnull final File file) throws IOException {
+    final ImageInputStream stream = ImageIO.createImageInputStream(file);
+    if (stream == null) {
+      return null;
+    }
+    final Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+    if (!readers.hasNext()) {
+      stream.close();
+      return null;
+    }
+    final ImageReader reader = readers.next();
+    try {
+      reader.setInput(stream, true, true);
+      return new TiledImageSource(stream, reader);
+    } catch (IOException | RuntimeException ex) {
+      reader.dispose();
+      stream.close();
+      throw ex;
+    }
+  }
+
+  /**
+   * Read only size of image without its decoding.
+   *
+   * @param file image file, must not be null
+   * @return number of pixels in image or -1 if it can't be detected
+   */
+  static long findPixelNumber(@Nonnull final File file) {
+    try (ImageInputStream stream = ImageIO.createImageInputStream(file)) {
+      if (stream != null) {
+        final Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+        if (readers.hasNext()) {
+          final ImageReader reader = readers.next();
+          try {
+            reader.setInput(stream, true, true);
+            return (long) reader.getWidth(0) * (long) reader.getHeight(0);
+          } finally {
+            reader.dispose();
+          }
+        }
+      }
+    } catch (IOException ex) {
+      LOGGER.warn("Can't read image size: " + ex.getMessage());
+    }
+    return -1L;
+  }
+
+  private static long makeKey(final int subsampling, final int band) {
+    return ((long) Integer.numberOfTrailingZeros(subsampling) << 32) | (long) band;
+  }
+
+  int getWidth() {
+    return this.width;
+  }
+
+  int getHeight() {
+    return this.height;
+  }
+
+  @Nonnull
+  BufferedImage getOverview() {
+    return this.overview;
+  }
+
+  /**
+   * Paint visible part of image. Not decoded bands are painted from overview and requested for
+   * decoding in background, the repaint callback is called when bands are decoded.
+   *
+   * @param gfx      graphics, must not be null
+   * @param x        x coordinate of image left top corner in graphics
+   * @param y        y coordinate of image left top corner in graphics
+   * @param scale    image scale
+   * @param clip     area to be painted, must not be null
+   * @param onTileReady called in swing thread when requested bands are decoded
+   */
+  void paint(
+      @Nonnull final Graphics2D gfx,
+      final int x,
+      final int y,
+      final float scale,
+      @Nonnull final Rectangle clip,
+      @Nonnull final Runnable onTileReady
+  ) {
+    int subsampling = 1;
+    while (subsampling * 2 <= 1.0f / scale) {
+      subsampling *= 2;
+    }
+    final int bandSourceHeight = BAND_HEIGHT * subsampling;
+
+    final int imageX1 = Math.max(0, (int) Math.floor((clip.x - x) / scale)) / subsampling * subsampling;
+    final int imageY1 = Math.max(0, (int) Math.floor((clip.y - y) / scale));
+    final int imageX2 = Math.min(this.width,
+        ((int) Math.ceil((clip.x + clip.width - x) / scale) + subsampling - 1) / subsampling * subsampling);
+    final int imageY2 = Math.min(this.height, (int) Math.ceil((clip.y + clip.height - y) / scale));
+    if (imageX1 >= imageX2 || imageY1 >= imageY2) {
+      return;
+    }
+
+    final int dx1 = x + Math.round(imageX1 * scale);
+    final int dx2 = x + Math.round(imageX2 * scale);
+
+    final Set<Long> visible = new HashSet<>();
+    int firstMissing = -1;
+    int lastMissing = -1;
+    for (int band = imageY1 / bandSourceHeight; band * bandSourceHeight < imageY2; band++) {
+      final int sourceY = band * bandSourceHeight;
+      final int sourceHeight = Math.min(bandSourceHeight, this.height - sourceY);
+
+      final int dy1 = y + Math.round(sourceY * scale);
+      final int dy2 = y + Math.round((sourceY + sourceHeight) * scale);
+
+      final long key = makeKey(subsampling, band);
+      visible.add(key);
+      final BufferedImage decoded;
+      synchronized (this.bands) {
+        decoded = this.bands.get(key);
+      }
+      if (decoded == null) {
+        gfx.drawImage(this.overview, dx1, dy1, dx2, dy2,
+            imageX1 / this.overviewSubsampling,
+            sourceY / this.overviewSubsampling,
+            imageX2 / this.overviewSubsampling,
+            (sourceY + sourceHeight) / this.overviewSubsampling, null);
+        if (!this.requestedBands.contains(key)) {
+          if (firstMissing < 0) {
+            firstMissing = band;
+          }
+          lastMissing = band;
+        }
+      } else {
+        gfx.drawImage(decoded, dx1, dy1, dx2, dy2,
+            imageX1 / subsampling, 0,
+            Math.min(decoded.getWidth(), (imageX2 + subsampling - 1) / subsampling),
+            decoded.getHeight(), null);
+      }
+    }
+    this.visibleBands = visible;
+
+    if (firstMissing >= 0) {
+      this.requestBands(subsampling, firstMissing, lastMissing, onTileReady);
+    }
+  }
+
+  private void requestBands(
+      final int subsampling,
+      final int firstBand,
+      final int lastBand,
+      @Nonnull final Runnable onTileReady
+  ) {
+    final List<Long> keys = new ArrayList<>();
+    for (int band = firstBand; band <= lastBand; band++) {
+      final long key = makeKey(subsampling, band);
+      if (this.requestedBands.add(key)) {
+        keys.add(key);
+      }
+    }
+    if (keys.isEmpty()) {
+      return;
+    }
+    DECODER.schedule(() -> {
+      try {
+        if (!this.closed && keys.stream().anyMatch(this.visibleBands::contains)) {
+          this.decodeBands(subsampling, firstBand, lastBand);
+          SwingUtilities.invokeLater(onTileReady);
+        }
+      } catch (Exception ex) {
+        LOGGER.error("Can't decode image bands " + firstBand + ".." + lastBand, ex);
+      } finally {
+        this.requestedBands.removeAll(keys);
+      }
+    });
+  }
+
+  /**
+   * Decode bands by one read call, so that rows above the first band are passed by reader only
+   * once for all bands.
+   */
+  private void decodeBands(final int subsampling, final int firstBand, final int lastBand)
+      throws IOException {
+    final int bandSourceHeight = BAND_HEIGHT * subsampling;
+    final int sourceY = firstBand * bandSourceHeight;
+    final ImageReadParam param = this.reader.getDefaultReadParam();
+    param.setSourceRegion(new Rectangle(0, sourceY, this.width,
+        Math.min((lastBand - firstBand + 1) * bandSourceHeight, this.height - sourceY)));
+    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+    final BufferedImage decoded = this.reader.read(0, param);
+
+    for (int band = firstBand; band <= lastBand; band++) {
+      final int offset = (band - firstBand) * BAND_HEIGHT;
+      if (offset >= decoded.getHeight()) {
+        break;
+      }
+      final BufferedImage image;
+      if (firstBand == lastBand) {
+        image = decoded;
+      } else {
+        // copy to own raster, so that a cached band doesn't keep whole decoded area in memory
+        final int bandHeight = Math.min(BAND_HEIGHT, decoded.getHeight() - offset);
+        final WritableRaster raster = decoded.getRaster().createCompatibleWritableRaster(decoded.getWidth(), bandHeight);
+        raster.setRect(decoded.getRaster().createChild(0, offset, decoded.getWidth(), bandHeight, 0, 0, null));
+        image = new BufferedImage(decoded.getColorModel(), raster, decoded.isAlphaPremultiplied(), null);
+      }
+      this.putBand(makeKey(subsampling, band), image);
+    }
+  }
+
+  private void putBand(final long key, @Nonnull final BufferedImage band) {
+    final Set<Long> visible = this.visibleBands;
+    synchronized (this.bands) {
+      final BufferedImage old = this.bands.put(key, band);
+      if (old != null) {
+        this.cachedPixels -= (long) old.getWidth() * old.getHeight();
+      }
+      this.cachedPixels += (long) band.getWidth() * band.getHeight();
+
+      final Iterator<Map.Entry<Long, BufferedImage>> iterator = this.bands.entrySet().iterator();
+      while (this.cachedPixels > MAX_CACHED_PIXELS && iterator.hasNext()) {
+        final Map.Entry<Long, BufferedImage> entry = iterator.next();
+        // visible bands are kept even if they exceed the limit, otherwise painting would request them again
+        if (entry.getKey() != key && !visible.contains(entry.getKey())) {
+          this.cachedPixels -= (long) entry.getValue().getWidth() * entry.getValue().getHeight();
+          iterator.remove();
+        }
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    this.closed = true;
+    DECODER.schedule(() -> {
+      this.reader.dispose();
+      try {
+        this.stream.close();
+      } catch (IOException ex) {
+        LOGGER.warn("Can't close image stream: " + ex.getMessage());
+      }
+      synchronized (this.bands) {
+        this.bands.clear();
+        this.cachedPixels = 0L;
+      }
+    });
+  }
+}
@@ -17,16 +17,21 @@
  */
 package com.igormaznitsa.sciareto.ui.misc;
 
+import com.igormaznitsa.meta.annotation.MustNotContainNull;
 import com.igormaznitsa.mindmap.model.MMapURI;
-import com.igormaznitsa.mindmap.model.MindMap;
 import com.igormaznitsa.mindmap.model.logger.Logger;
 import com.igormaznitsa.mindmap.model.logger.LoggerFactory;
 import com.igormaznitsa.mindmap.swing.panel.utils.Utils;
-import com.igormaznitsa.sciareto.ui.MapUtils;
+import com.igormaznitsa.sciareto.Context;
+import com.igormaznitsa.sciareto.ui.MainFrame;
 import com.igormaznitsa.sciareto.ui.SrI18n;
 import com.igormaznitsa.sciareto.ui.UiUtils;
+import edu.uci.ics.jung.algorithms.layout.AbstractLayout;
 import edu.uci.ics.jung.algorithms.layout.CircleLayout;
 import edu.uci.ics.jung.algorithms.layout.ISOMLayout;
+import edu.uci.ics.jung.algorithms.layout.Layout;
+import edu.uci.ics.jung.algorithms.layout.StaticLayout;
+import edu.uci.ics.jung.algorithms.layout.util.Relaxer;
 import edu.uci.ics.jung.graph.DirectedSparseGraph;
 import edu.uci.ics.jung.graph.Graph;
 import edu.uci.ics.jung.graph.util.EdgeType;
@@ -50,13 +55,28 @@ import java.awt.Dimension;
 import java.awt.Paint;
 import java.awt.Window;
 import java.awt.event.MouseEvent;
+import java.awt.geom.Point2D;
 import java.io.File;
-import java.io.StringReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.swing.Icon;
@@ -64,11 +84,14 @@ import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
 import net.sourceforge.plantuml.bpm.Col;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.text.StringEscapeUtils;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
 
 public final class FileLinkGraphPanel extends JPanel {
 
@@ -76,6 +99,18 @@ public final class FileLinkGraphPanel extends JPanel {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(FileLinkGraphPanel.class);
 
+  /**
+   * Name of file in project knowledge folder to keep positions of graph vertices.
+   */
+  public static final String LAYOUT_FILE_NAME = ".mmdLinkGraphLayout"; //NOI18N
+
+  private final File projectFolder;
+  private final File layoutFile;
+  private final Disposable graphLoading;
+  private Map<String, Point2D> savedPositions = Collections.emptyMap();
+  private VisualizationViewer<FileVertex, Number> graphViewer;
+  private boolean closed;
+
   private FileVertex selectedVertex;
 
   private static final Icon RELAYOUT_ICON = new ImageIcon(UiUtils.loadIcon("graph16.png")); //NOI18N
@@ -156,43 +191,91 @@ public final class FileLinkGraphPanel extends JPanel {
     }
   }
 
+  private static final class GraphData {
+
+    private final Graph<FileVertex, Number> graph;
+    private final Map<String, Point2D> positions;
+
+    private GraphData(@Nonnull final Graph<FileVertex, Number> graph, @Nonnull final Map<String, Point2D> positions) {
+      this.graph = graph;
+      this.positions = positions;
+    }
+  }
+
   @Nonnull
-  private Graph<FileVertex, Number> makeGraph(@Nullable final File projectFolder, @Nullable final File startMindMap) {
+  private static Graph<FileVertex, Number> makeGraph(@Nullable final File projectFolder, @Nullable final File startMindMap) {
     final DirectedSparseGraph<FileVertex, Number> result = new DirectedSparseGraph<>();
 
     final AtomicInteger edgeCounter = new AtomicInteger();
 
     final Set<File> mapFilesInProcessing = new HashSet<>();
 
+    MindMapFileCache.getInstance().prune();
+
     if (startMindMap != null) {
+      prefetchFileLinks(projectFolder, Collections.singletonList(startMindMap));
       addMindMapAndFillByItsLinks(null, result, projectFolder, startMindMap, edgeCounter, mapFilesInProcessing);
     } else if (projectFolder != null) {
+      final List<File> mindMapFiles = new ArrayList<>();
       final Iterator<File> iterator = FileUtils.iterateFiles(projectFolder, new String[]{"mmd"}, true); //NOI18N
       while (iterator.hasNext()) {
         final File mmdFile = iterator.next();
         if (mmdFile.isFile()) {
-          addMindMapAndFillByItsLinks(null, result, projectFolder, mmdFile, edgeCounter, mapFilesInProcessing);
+          mindMapFiles.add(mmdFile);
         }
       }
+      prefetchFileLinks(projectFolder, mindMapFiles);
+      for (final File mmdFile : mindMapFiles) {
+        addMindMapAndFillByItsLinks(null, result, projectFolder, mmdFile, edgeCounter, mapFilesInProcessing);
+      }
     }
 
     return result;
   }
 
+  /**
+   * Extract links of mind maps and all mind maps linked by them in parallel, wave by wave, so that
+   * graph forming finds all links in cache.
+   *
+   * @param projectFolder project folder, can be null
+   * @param mindMapFiles start mind map files
+   */
+  private static void prefetchFileLinks(@Nullable final File projectFolder, @Nonnull @MustNotContainNull final Collection<File> mindMapFiles) {
+    final MindMapFileCache cache = MindMapFileCache.getInstance();
+    final Set<File> visited = ConcurrentHashMap.newKeySet();
+    visited.addAll(mindMapFiles);
+
+    List<File> wave = new ArrayList<>(mindMapFiles);
+    while (!wave.isEmpty() && !Thread.currentThread().isInterrupted()) {
+      wave = wave.parallelStream()
+          .flatMap(mindMapFile -> {
+            try {
+              return cache.findFileLinks(mindMapFile).stream()
+                  .map(uri -> convertUriInFile(mindMapFile, projectFolder, uri))
+                  .filter(file -> file != null && file.isFile() && file.getName().endsWith(".mmd") && visited.add(file)); //NOI18N
+            } catch (Exception ex) {
+              // error will be reported during graph forming
+              return Stream.empty();
+            }
+          })
+          .collect(Collectors.toList());
+    }
+  }
+
   @Nullable
   private static FileVertex addMindMapAndFillByItsLinks(@Nullable final FileVertex parent, @Nonnull final @Nullable Graph<FileVertex, Number> graph, @Nullable final File projectFolder, @Nonnull final File mindMapFile, @Nonnull final AtomicInteger edgeCounter, @Nonnull Set<File> mapFilesInProcessing) {
 
-    MindMap map;
+    List<MMapURI> fileLinks;
 
     FileVertex thisVertex;
 
     try {
 
       thisVertex = new FileVertex(mindMapFile, FileVertexType.MINDMAP);
-      map = new MindMap(new StringReader(FileUtils.readFileToString(mindMapFile, StandardCharsets.UTF_8)));
+      fileLinks = MindMapFileCache.getInstance().findFileLinks(mindMapFile);
 
       if (parent != null) {
-        for (final MMapURI fileUri : MapUtils.extractAllFileLinks(map)) {
+        for (final MMapURI fileUri : fileLinks) {
           if (parent.getFile().equals(fileUri.asFile(projectFolder))) {
             graph.addEdge(edgeCounter.getAndIncrement(), thisVertex, parent, EdgeType.DIRECTED);
             break;
@@ -206,15 +289,15 @@ public final class FileLinkGraphPanel extends JPanel {
     catch (final Exception ex) {
       LOGGER.error("Can't load mind map : " + mindMapFile, ex); //NOI18N
       thisVertex = new FileVertex(mindMapFile, FileVertexType.UNKNOWN);
-      map = null;
+      fileLinks = null;
     }
 
     mapFilesInProcessing.add(mindMapFile);
 
     graph.addVertex(thisVertex);
 
-    if (map != null) {
-      for (final MMapURI fileUri : MapUtils.extractAllFileLinks(map)) {
+    if (fileLinks != null) {
+      for (final MMapURI fileUri : fileLinks) {
         final FileVertex that;
 
         final File convertedFile = convertUriInFile(mindMapFile, projectFolder, fileUri);
@@ -271,9 +354,113 @@ public final class FileLinkGraphPanel extends JPanel {
   public FileLinkGraphPanel(@Nullable final File projectFolder, @Nullable final File startMindMap) {
     initComponents();
 
-    final Dimension SCROLL_COMPONENT_SIZE = new Dimension(600, 450);
+    this.projectFolder = projectFolder;
+    this.layoutFile = findLayoutFile(projectFolder);
+
+    this.setPreferredSize(new Dimension(600, 450));
+    this.add(new JLabel(SrI18n.getInstance().findBundle().getString("panelFileLinkGraph.labelBuildingGraph"), SwingConstants.CENTER), BorderLayout.CENTER);
+
+    UiUtils.makeOwningDialogResizable(this);
+
+    final File layoutFileToLoad = this.layoutFile;
+    this.graphLoading = Mono.fromCallable(() -> new GraphData(makeGraph(projectFolder, startMindMap), loadVertexPositions(layoutFileToLoad)))
+        .subscribeOn(MainFrame.REACTOR_SCHEDULER)
+        .subscribe(data -> SwingUtilities.invokeLater(() -> this.showGraph(data)),
+            error -> LOGGER.error("Can't build file link graph", error)); //NOI18N
+  }
 
-    final Graph<FileVertex, Number> graph = makeGraph(projectFolder, startMindMap);
+  @Nullable
+  private static File findLayoutFile(@Nullable final File projectFolder) {
+    if (projectFolder == null) {
+      return null;
+    }
+    final File knowledgeFolder = new File(projectFolder, Context.KNOWLEDGE_FOLDER);
+    return knowledgeFolder.isDirectory() ? new File(knowledgeFolder, LAYOUT_FILE_NAME) : null;
+  }
+
+  @Nonnull
+  private static String makeLayoutKey(@Nullable final File projectFolder, @Nonnull final FileVertex vertex) {
+    final Path path = vertex.getFile().toPath().toAbsolutePath().normalize();
+    if (projectFolder != null) {
+      final Path base = projectFolder.toPath().toAbsolutePath().normalize();
+      if (path.startsWith(base)) {
+        return FilenameUtils.separatorsToUnix(base.relativize(path).toString());
+      }
+    }
+    return FilenameUtils.separatorsToUnix(path.toString());
+  }
+
+  @Nonnull
+  private static Map<String, Point2D> loadVertexPositions(@Nullable final File layoutFile) {
+    final Map<String, Point2D> result = new HashMap<>();
+    if (layoutFile != null && layoutFile.isFile()) {
+      final Properties properties = new Properties();
+      try (final Reader reader = Files.newBufferedReader(layoutFile.toPath(), StandardCharsets.UTF_8)) {
+        properties.load(reader);
+        for (final String key : properties.stringPropertyNames()) {
+          final String[] coords = properties.getProperty(key).split(";"); //NOI18N
+          if (coords.length == 2) {
+            result.put(key, new Point2D.Double(Double.parseDouble(coords[0]), Double.parseDouble(coords[1])));
+          }
+        }
+      } catch (IOException | NumberFormatException ex) {
+        LOGGER.warn("Can't load file link graph layout: " + ex.getMessage()); //NOI18N
+        result.clear();
+      }
+    }
+    return result;
+  }
+
+  private static void saveVertexPositions(@Nonnull final File layoutFile, @Nonnull final Map<String, Point2D> positions) {
+    final Properties properties = new Properties();
+    positions.forEach((key, point) -> properties.setProperty(key, point.getX() + ";" + point.getY())); //NOI18N
+    try (final Writer writer = Files.newBufferedWriter(layoutFile.toPath(), StandardCharsets.UTF_8)) {
+      properties.store(writer, "File link graph layout"); //NOI18N
+    } catch (IOException ex) {
+      LOGGER.warn("Can't save file link graph layout: " + ex.getMessage()); //NOI18N
+    }
+  }
+
+  /**
+   * Make graph layout. If there are saved positions then they are used as is, otherwise iterative
+   * layout is started from circle, it is processed by the viewer in background thread and shown
+   * progressively.
+   *
+   * @param graph     graph to be placed
+   * @param positions saved positions of vertices
+   * @param size      size of layout area
+   * @return layout for the graph
+   */
+  @Nonnull
+  private Layout<FileVertex, Number> makeLayout(@Nonnull final Graph<FileVertex, Number> graph, @Nonnull final Map<String, Point2D> positions, @Nonnull final Dimension size) {
+    final CircleLayout<FileVertex, Number> circleLayout = new CircleLayout<>(graph);
+    circleLayout.setSize(size);
+
+    final java.util.function.Function<FileVertex, Point2D> initializer = vertex -> {
+      final Point2D saved = positions.get(makeLayoutKey(this.projectFolder, vertex));
+      final Point2D point = saved == null ? circleLayout.apply(vertex) : saved;
+      return new Point2D.Double(point.getX(), point.getY());
+    };
+
+    final AbstractLayout<FileVertex, Number> result;
+    if (positions.isEmpty()) {
+      result = new ISOMLayout<>(graph);
+      result.setInitializer(initializer::apply);
+      result.setSize(size);
+    } else {
+      result = new StaticLayout<>(graph, initializer::apply, size);
+    }
+    return result;
+  }
+
+  private void showGraph(@Nonnull final GraphData data) {
+    if (this.closed) {
+      return;
+    }
+    this.removeAll();
+    this.savedPositions = data.positions;
+
+    final Graph<FileVertex, Number> graph = data.graph;
 
     final Color colorBackground = Utils.isDarkTheme() ? Color.DARK_GRAY : Color.WHITE;
     final Color colorArrow = Utils.isDarkTheme() ? Color.ORANGE : Color.ORANGE.darker();
@@ -282,11 +469,12 @@ public final class FileLinkGraphPanel extends JPanel {
     if (graph.getVertexCount() == 0) {
       this.add(new JLabel(SrI18n.getInstance().findBundle().getString("panelFileLinkGraph.labelNotAnyMindMap")), BorderLayout.CENTER);
     } else {
-      final ISOMLayout<FileVertex, Number> graphLayout = new ISOMLayout<>(graph);
+      final Dimension layoutSize = new Dimension(2000, 2000);
+      final Layout<FileVertex, Number> graphLayout = makeLayout(graph, data.positions, layoutSize);
 
-      final VisualizationModel<FileVertex, Number> viewModel = new DefaultVisualizationModel<>(graphLayout, new Dimension(2000, 2000));
+      final VisualizationModel<FileVertex, Number> viewModel = new DefaultVisualizationModel<>(graphLayout, layoutSize);
       final VisualizationViewer<FileVertex, Number> graphViewer = new VisualizationViewer<>(viewModel, new Dimension(800, 800));
-
+      this.graphViewer = graphViewer;
       final DefaultModalGraphMouse graphMouse = new DefaultModalGraphMouse() {
         @Override
         protected void loadPlugins() {
@@ -299,7 +487,6 @@ public final class FileLinkGraphPanel extends JPanel {
 
       };
       graphViewer.setGraphMouse(graphMouse);
-      graphViewer.setGraphLayout(new CircleLayout<>(graph));
 
       graphViewer.getRenderContext().setVertexIconTransformer(f -> f.getType().getIcon());
 
@@ -343,9 +530,6 @@ public final class FileLinkGraphPanel extends JPanel {
       });
 
       final GraphZoomScrollPane scroll = new GraphZoomScrollPane(graphViewer);
-      scroll.setPreferredSize(SCROLL_COMPONENT_SIZE);
-
-      UiUtils.makeOwningDialogResizable(this);
 
       graphViewer.scaleToLayout(new LayoutScalingControl());
 
@@ -353,7 +537,7 @@ public final class FileLinkGraphPanel extends JPanel {
       layoutButton.setToolTipText(SrI18n.getInstance().findBundle().getString("panelFileLinkGraph.layoutButton.tooltip"));
       layoutButton.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
       layoutButton.addActionListener(e -> {
-        graphViewer.setGraphLayout(new CircleLayout<>(graph));
+        graphViewer.setGraphLayout(makeLayout(graph, Collections.emptyMap(), layoutSize));
         graphViewer.repaint();
         scroll.revalidate();
         scroll.repaint();
@@ -363,6 +547,39 @@ public final class FileLinkGraphPanel extends JPanel {
 
       this.add(scroll, BorderLayout.CENTER);
     }
+    this.revalidate();
+    this.repaint();
+  }
+
+  @Override
+  public void removeNotify() {
+    this.closed = true;
+    final Disposable loading = this.graphLoading;
+    if (loading != null) {
+      loading.dispose();
+    }
+
+    final VisualizationViewer<FileVertex, Number> viewer = this.graphViewer;
+    if (viewer != null) {
+      this.graphViewer = null;
+      final Relaxer relaxer = viewer.getModel().getRelaxer();
+      if (relaxer != null) {
+        relaxer.stop();
+      }
+      final File layoutFileToSave = this.layoutFile;
+      if (layoutFileToSave != null) {
+        final Map<String, Point2D> positions = new HashMap<>(this.savedPositions);
+        final Layout<FileVertex, Number> layout = viewer.getGraphLayout();
+        for (final FileVertex vertex : layout.getGraph().getVertices()) {
+          final Point2D point = layout.apply(vertex);
+          positions.put(makeLayoutKey(this.projectFolder, vertex), new Point2D.Double(point.getX(), point.getY()));
+        }
+        Mono.fromRunnable(() -> saveVertexPositions(layoutFileToSave, positions))
+            .subscribeOn(MainFrame.REACTOR_SCHEDULER)
+            .subscribe();
+      }
+    }
+    super.removeNotify();
   }
 
   @Nullable
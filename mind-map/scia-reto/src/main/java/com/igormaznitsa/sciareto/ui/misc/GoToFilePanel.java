@@ -42,6 +42,8 @@ public class GoToFilePanel extends javax.swing.JPanel implements Comparator<Node
 
   private static final long serialVersionUID = 6372355072139143322L;
 
+  private static final int MAX_FUZZY_RESULTS = 256;
+
   private final ExplorerTree tree;
 
   private final transient List<NodeFileOrFolder> foundNodeList = new ArrayList<>();
@@ -110,6 +112,8 @@ public class GoToFilePanel extends javax.swing.JPanel implements Comparator<Node
       }
 
     });
+
+    this.tree.loadAllFoldersInBackground(this::processEnteredPattern);
   }
 
   @Nullable
@@ -118,14 +122,19 @@ public class GoToFilePanel extends javax.swing.JPanel implements Comparator<Node
   }
 
   private void processEnteredPattern() {
+    final String text = this.textFieldMask.getText();
     this.foundNodeList.clear();
-    this.foundNodeList.addAll(this.tree.findForNamePattern(makePattern(this.textFieldMask.getText())));
+    if (text.indexOf('*') >= 0 || text.indexOf('?') >= 0) {
+      this.foundNodeList.addAll(this.tree.findForNamePattern(makePattern(text)));
+      Collections.sort(this.foundNodeList, this);
+    } else {
+      this.foundNodeList.addAll(this.tree.findForFileName(text, MAX_FUZZY_RESULTS));
+    }
+
     for (final ListDataListener l : this.listeners) {
       l.contentsChanged(new ListDataEvent(this.listFoundFiles.getModel(), ListDataEvent.CONTENTS_CHANGED, 0, this.foundNodeList.size()));
     }
 
-    Collections.sort(this.foundNodeList, this);
-
     if (!this.foundNodeList.isEmpty()) {
       this.listFoundFiles.setSelectedIndex(0);
       this.listFoundFiles.ensureIndexIsVisible(0);
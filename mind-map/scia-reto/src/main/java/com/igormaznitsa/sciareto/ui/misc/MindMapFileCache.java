@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.igormaznitsa.sciareto.ui.misc;
+
+import com.igormaznitsa.meta.annotation.MustNotContainNull;
+import com.igormaznitsa.mindmap.model.MMapURI;
+import com.igormaznitsa.mindmap.model.MindMap;
+import com.igormaznitsa.sciareto.ui.MapUtils;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+
+/**
+ * Cache of parsed mind map files shared by all project services. A file is parsed once and its
+ * parsed map and file links are kept while the file has the same modification time and length,
+ * so that services don't parse not changed maps. Parsed maps are kept through soft references,
+ * extracted file links are kept while the file exists. Entries of removed files are dropped by
+ * {@link #prune()}. The cache is thread safe.
+ */
+public final class MindMapFileCache {
+
+  private static final MindMapFileCache INSTANCE = new MindMapFileCache();
+
+  private final Map<File, Entry> entries = new ConcurrentHashMap<>();
+
+  private MindMapFileCache() {
+  }
+
+  @Nonnull
+  public static MindMapFileCache getInstance() {
+    return INSTANCE;
+  }
+
+  @Nonnull
+  private Entry findEntry(@Nonnull final File mindMapFile) {
+    final long lastModified = mindMapFile.lastModified();
+    final long length = mindMapFile.length();
+    return this.entries.compute(mindMapFile, (file, existing) ->
+        existing != null && existing.lastModified == lastModified && existing.length == length
+            ? existing : new Entry(lastModified, length));
+  }
+
+  @Nonnull
+  private static MindMap parse(@Nonnull final File mindMapFile) throws IOException {
+    try (final Reader reader = Files.newBufferedReader(mindMapFile.toPath(), StandardCharsets.UTF_8)) {
+      return new MindMap(reader);
+    }
+  }
+
+  @Nonnull
+  private static MindMap findMap(@Nonnull final Entry entry, @Nonnull final File mindMapFile) throws IOException {
+    MindMap result = entry.map.get();
+    if (result == null) {
+      result = parse(mindMapFile);
+      entry.map = new SoftReference<>(result);
+    }
+    return result;
+  }
+
+  /**
+   * Get parsed mind map, the file is parsed only if it has been changed since the last call or the
+   * parsed map has been collected. The returned map is shared and must not be changed.
+   *
+   * @param mindMapFile mind map file
+   * @return parsed mind map
+   * @throws IOException if the file can't be read or parsed
+   */
+  @Nonnull
+  public MindMap findMindMap(@Nonnull final File mindMapFile) throws IOException {
+    return findMap(this.findEntry(mindMapFile), mindMapFile);
+  }
+
+  /**
+   * Get file links of mind map, the map is parsed only if it has been changed since the last call.
+   *
+   * @param mindMapFile mind map file
+   * @return list of all file links in the map
+   * @throws IOException if the file can't be read or parsed
+   */
+  @Nonnull
+  @MustNotContainNull
+  public List<MMapURI> findFileLinks(@Nonnull final File mindMapFile) throws IOException {
+    final Entry entry = this.findEntry(mindMapFile);
+    List<MMapURI> result = entry.links;
+    if (result == null) {
+      result = Collections.unmodifiableList(MapUtils.extractAllFileLinks(findMap(entry, mindMapFile)));
+      entry.links = result;
+    }
+    return result;
+  }
+
+  /**
+   * Remove entries of files which don't exist anymore.
+   */
+  public void prune() {
+    this.entries.keySet().removeIf(file -> !file.isFile());
+  }
+
+  private static final class Entry {
+
+    private final long lastModified;
+    private final long length;
+    private volatile SoftReference<MindMap> map = new SoftReference<>(null);
+    private volatile List<MMapURI> links;
+
+    private Entry(final long lastModified, final long length) {
+      this.lastModified = lastModified;
+      this.length = length;
+    }
+  }
+}
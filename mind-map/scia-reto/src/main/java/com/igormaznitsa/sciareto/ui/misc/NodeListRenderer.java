@@ -21,7 +21,9 @@ import com.igormaznitsa.sciareto.ui.SrI18n;
 import java.awt.Color;
 import java.awt.Component;
 import java.util.Locale;
+import java.util.function.Function;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.swing.DefaultListCellRenderer;
 import javax.swing.JList;
 import javax.swing.UIManager;
@@ -39,9 +41,20 @@ public final class NodeListRenderer extends DefaultListCellRenderer {
 
   private final Color COLOR_ROW_EVEN;
   private final Color COLOR_ROW_ODD;
+  private final Function<NodeFileOrFolder, String> hintProvider;
 
   public NodeListRenderer() {
+    this(null);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param hintProvider provider of additional text shown after node name, can be null
+   */
+  public NodeListRenderer(@Nullable final Function<NodeFileOrFolder, String> hintProvider) {
     super();
+    this.hintProvider = hintProvider;
     final Color defaultBackground = UIManager.getLookAndFeelDefaults().getColor("List.background"); //NOI18N
     if (defaultBackground == null) {
       COLOR_ROW_EVEN = null;
@@ -93,7 +106,8 @@ public final class NodeListRenderer extends DefaultListCellRenderer {
     } else {
       result.setIcon(TreeCellRenderer.DEFAULT_FILE);
     }
-    result.setText(makeTextForNode(node));
+    final String hint = this.hintProvider == null ? null : this.hintProvider.apply(node);
+    result.setText(hint == null ? makeTextForNode(node) : makeTextForNode(node) + " : " + hint); //NOI18N
     
     return result;
   }
@@ -99,6 +99,13 @@ public final class DnDTree extends JTree implements DragSourceListener, DropTarg
     });
   }
 
+  @Override
+  public boolean isPathEditable(@Nonnull final TreePath path) {
+    final Object last = path.getLastPathComponent();
+    return super.isPathEditable(path)
+        && !(last instanceof NodeFileOrFolder && ((NodeFileOrFolder) last).isLoading());
+  }
+
   @Override
   @Nullable
   public String getToolTipText(@Nonnull final MouseEvent evt) {
@@ -61,6 +61,7 @@ import java.util.Enumeration;
 import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
+import java.util.function.BooleanSupplier;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import javax.annotation.Nonnull;
@@ -77,10 +78,13 @@ import javax.swing.JSeparator;
 import javax.swing.JTree;
 import javax.swing.SwingUtilities;
 import javax.swing.ToolTipManager;
+import javax.swing.event.TreeExpansionEvent;
+import javax.swing.event.TreeWillExpandListener;
 import javax.swing.tree.TreePath;
 import javax.swing.tree.TreeSelectionModel;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
+import reactor.core.publisher.Mono;
 
 public final class ExplorerTree extends JScrollPane {
 
@@ -95,6 +99,10 @@ public final class ExplorerTree extends JScrollPane {
   private final ResourceBundle bundle = SrI18n.getInstance().findBundle();
 
   public ExplorerTree(@Nonnull final Predicate<NodeFileOrFolder> predicateShowHiddenFiles, @Nonnull final Context context) throws IOException {
+    this(predicateShowHiddenFiles, () -> false, context);
+  }
+
+  public ExplorerTree(@Nonnull final Predicate<NodeFileOrFolder> predicateShowHiddenFiles, @Nonnull final BooleanSupplier lazyLoading, @Nonnull final Context context) throws IOException {
     super();
     this.projectTree = new DnDTree();
     this.context = context;
@@ -106,8 +114,22 @@ public final class ExplorerTree extends JScrollPane {
     ToolTipManager.sharedInstance().registerComponent(this.projectTree);
 
     this.projectTree.setCellRenderer(new TreeCellRenderer());
-    this.projectTree.setModel(new NodeProjectGroup(predicateShowHiddenFiles, context, ".")); //NOI18N
+    this.projectTree.setModel(new NodeProjectGroup(predicateShowHiddenFiles, lazyLoading, context, ".")); //NOI18N
     this.projectTree.setRootVisible(false);
+
+    this.projectTree.addTreeWillExpandListener(new TreeWillExpandListener() {
+      @Override
+      public void treeWillExpand(@Nonnull final TreeExpansionEvent event) {
+        final Object last = event.getPath().getLastPathComponent();
+        if (last instanceof NodeFileOrFolder) {
+          ((NodeFileOrFolder) last).onBeforeExpand();
+        }
+      }
+
+      @Override
+      public void treeWillCollapse(@Nonnull final TreeExpansionEvent event) {
+      }
+    });
     this.setViewportView(this.projectTree);
 
     this.projectTree.addKeyListener(new KeyAdapter() {
@@ -244,6 +266,29 @@ public final class ExplorerTree extends JScrollPane {
     return getCurrentGroup().findForNamePattern(namePattern);
   }
 
+  @Nonnull
+  @MustNotContainNull
+  public List<NodeFileOrFolder> findForFileName(@Nonnull final String text, final int maxResults) {
+    return getCurrentGroup().findForFileName(text, maxResults);
+  }
+
+  /**
+   * Load all not loaded folders of opened projects in background, it is needed for lazy loading
+   * mode before search through whole tree.
+   *
+   * @param onLoaded called in swing thread after loading, called only if some loading was needed
+   */
+  public void loadAllFoldersInBackground(@Nonnull final Runnable onLoaded) {
+    final NodeProjectGroup group = getCurrentGroup();
+    if (group.isLazyLoading()) {
+      Mono.fromRunnable(group::ensureSubtreeLoaded)
+          .subscribeOn(MainFrame.REACTOR_SCHEDULER)
+          .subscribe(x -> {
+          }, error -> LOGGER.error("Can't load project folders", error),
+              () -> SwingUtilities.invokeLater(onLoaded));
+    }
+  }
+
   @Nonnull
   @MustNotContainNull
   public List<NodeFileOrFolder> findNodesForFile(@Nonnull final File file) {
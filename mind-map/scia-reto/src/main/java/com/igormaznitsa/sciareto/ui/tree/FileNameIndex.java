@@ -0,0 +1,332 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.igormaznitsa.sciareto.ui.tree;
+
+import com.igormaznitsa.meta.annotation.MustNotContainNull;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.regex.Pattern;
+import javax.annotation.Nonnull;
+
+/**
+ * Index of names of all nodes in project group. It keeps flat arrays of nodes and their lower-cased
+ * names together with masks of contained characters for every folder, so that search doesn't walk
+ * the tree. The index is updated lazily when subtree of its root has been changed since last
+ * search, only folders with changed children are read again.
+ */
+public final class FileNameIndex {
+
+  private static final int SCORE_NO_MATCH = Integer.MIN_VALUE;
+
+  private final NodeFileOrFolder root;
+  private volatile Snapshot snapshot;
+  private Map<NodeFileOrFolder, Segment> segments = new HashMap<>();
+
+  FileNameIndex(@Nonnull final NodeFileOrFolder root) {
+    this.root = root;
+  }
+
+  private static long makeCharMask(@Nonnull final char[] chars) {
+    long result = 0L;
+    for (final char c : chars) {
+      result |= charBit(c);
+    }
+    return result;
+  }
+
+  private static long charBit(final char c) {
+    if (c >= 'a' && c <= 'z') {
+      return 1L << (c - 'a');
+    } else if (c >= '0' && c <= '9') {
+      return 1L << (26 + c - '0');
+    } else {
+      return 1L << (36 + c % 28);
+    }
+  }
+
+  @Nonnull
+  private static char[] toLowerCase(@Nonnull final String text) {
+    final char[] result = text.toCharArray();
+    for (int i = 0; i < result.length; i++) {
+      result[i] = Character.toLowerCase(result[i]);
+    }
+    return result;
+  }
+
+  private static boolean isWordStart(@Nonnull final String name, final int index) {
+    if (index == 0) {
+      return true;
+    }
+    final char prev = name.charAt(index - 1);
+    final char c = name.charAt(index);
+    return !Character.isLetterOrDigit(prev)
+        || (Character.isUpperCase(c) && Character.isLowerCase(prev))
+        || (Character.isDigit(c) && !Character.isDigit(prev));
+  }
+
+  private static int indexOf(@Nonnull final char[] text, @Nonnull final char[] pattern) {
+    final int last = text.length - pattern.length;
+    for (int i = 0; i <= last; i++) {
+      int j = 0;
+      while (j < pattern.length && text[i + j] == pattern[j]) {
+        j++;
+      }
+      if (j == pattern.length) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int scoreSubsequence(@Nonnull final String name, @Nonnull final char[] lowerName, @Nonnull final char[] query, final boolean preferWordStarts) {
+    int score = 0;
+    int position = 0;
+    int previous = -2;
+    for (final char q : query) {
+      int first = -1;
+      int wordStart = -1;
+      for (int i = position; i < lowerName.length; i++) {
+        if (lowerName[i] == q) {
+          if (first < 0) {
+            first = i;
+            if (!preferWordStarts || i == previous + 1) {
+              break;
+            }
+          }
+          if (isWordStart(name, i)) {
+            wordStart = i;
+            break;
+          }
+        }
+      }
+      if (first < 0) {
+        return SCORE_NO_MATCH;
+      }
+      final int matched = first == previous + 1 || wordStart < 0 ? first : wordStart;
+
+      score += 10;
+      if (matched == previous + 1) {
+        score += 15;
+      }
+      if (isWordStart(name, matched)) {
+        score += 30;
+      }
+      score -= Math.min(matched - position, 10);
+
+      previous = matched;
+      position = matched + 1;
+    }
+    return score;
+  }
+
+  /**
+   * Calculate score of name for query. Whole name and substring matches have the biggest scores,
+   * other names are matched as subsequence where matches at word starts (camel case humps,
+   * after delimiters and digits) and consecutive characters are preferred.
+   *
+   * @param name      original name
+   * @param lowerName lower-cased name
+   * @param query     lower-cased query
+   * @return score, bigger is better, {@link Integer#MIN_VALUE} if not matched
+   */
+  static int score(@Nonnull final String name, @Nonnull final char[] lowerName, @Nonnull final char[] query) {
+    if (query.length > lowerName.length) {
+      return SCORE_NO_MATCH;
+    }
+    final int lengthPenalty = Math.min(lowerName.length - query.length, 100);
+
+    final int substring = indexOf(lowerName, query);
+    if (substring >= 0) {
+      int result = 5000 - Math.min(substring, 100) * 10 - lengthPenalty;
+      if (substring == 0) {
+        result += lowerName.length == query.length ? 4000 : 2000;
+      } else if (isWordStart(name, substring)) {
+        result += 1000;
+      }
+      return result;
+    }
+
+    int result = scoreSubsequence(name, lowerName, query, true);
+    if (result == SCORE_NO_MATCH) {
+      result = scoreSubsequence(name, lowerName, query, false);
+    }
+    return result == SCORE_NO_MATCH ? SCORE_NO_MATCH : result - lengthPenalty;
+  }
+
+  private void collectSegments(
+      @Nonnull final NodeFileOrFolder folder,
+      @Nonnull @MustNotContainNull final List<Segment> collected,
+      @Nonnull final Map<NodeFileOrFolder, Segment> actual
+  ) {
+    final long version = folder.getChildrenVersion();
+    Segment segment = this.segments.get(folder);
+    if (segment == null || segment.version != version) {
+      segment = new Segment(version, folder);
+    }
+    actual.put(folder, segment);
+    collected.add(segment);
+    for (final NodeFileOrFolder node : segment.nodes) {
+      if (node.folderFlag) {
+        this.collectSegments(node, collected, actual);
+      }
+    }
+  }
+
+  @Nonnull
+  private Snapshot getSnapshot() {
+    Snapshot result = this.snapshot;
+    if (result == null || result.version != this.root.getSubtreeVersion()) {
+      synchronized (this) {
+        final long version = this.root.getSubtreeVersion();
+        result = this.snapshot;
+        if (result == null || result.version != version) {
+          final List<Segment> collected = new ArrayList<>();
+          final Map<NodeFileOrFolder, Segment> actual = new HashMap<>();
+          this.collectSegments(this.root, collected, actual);
+          this.segments = actual;
+          result = new Snapshot(version, collected.toArray(new Segment[0]));
+          this.snapshot = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Find nodes which names fuzzy matched with query.
+   *
+   * @param query      text typed by user, case insensitive, white spaces ignored
+   * @param maxResults max number of returned nodes
+   * @return found nodes sorted by score, the best ones first
+   */
+  @Nonnull
+  @MustNotContainNull
+  public List<NodeFileOrFolder> find(@Nonnull final String query, final int maxResults) {
+    final char[] lowerQuery = toLowerCase(query.replaceAll("\\s+", "")); //NOI18N
+    final List<NodeFileOrFolder> result = new ArrayList<>();
+    if (lowerQuery.length == 0 || maxResults <= 0) {
+      return result;
+    }
+
+    final long queryMask = makeCharMask(lowerQuery);
+    final Snapshot current = this.getSnapshot();
+
+    final Comparator<Match> order = Comparator.<Match>comparingInt(m -> m.score)
+        .thenComparing(m -> m.name, Comparator.reverseOrder());
+    final PriorityQueue<Match> best = new PriorityQueue<>(Math.min(maxResults, 1024) + 1, order);
+
+    for (final Segment segment : current.segments) {
+      for (int i = 0; i < segment.nodes.length; i++) {
+        if ((segment.charMasks[i] & queryMask) == queryMask) {
+          final int score = score(segment.names[i], segment.lowerNames[i], lowerQuery);
+          if (score != SCORE_NO_MATCH) {
+            best.add(new Match(segment.nodes[i], segment.names[i], score));
+            if (best.size() > maxResults) {
+              best.poll();
+            }
+          }
+        }
+      }
+    }
+
+    final List<Match> sorted = new ArrayList<>(best);
+    sorted.sort(order.reversed());
+    sorted.forEach(m -> result.add(m.node));
+    return result;
+  }
+
+  /**
+   * Find nodes which names match regular expression.
+   *
+   * @param namePattern pattern to match whole name
+   * @return list of found nodes grouped by folders in tree order
+   */
+  @Nonnull
+  @MustNotContainNull
+  public List<NodeFileOrFolder> find(@Nonnull final Pattern namePattern) {
+    final Snapshot current = this.getSnapshot();
+    final List<NodeFileOrFolder> result = new ArrayList<>();
+    for (final Segment segment : current.segments) {
+      for (int i = 0; i < segment.nodes.length; i++) {
+        if (namePattern.matcher(segment.names[i]).matches()) {
+          result.add(segment.nodes[i]);
+        }
+      }
+    }
+    return result;
+  }
+
+  private static final class Match {
+
+    private final NodeFileOrFolder node;
+    private final String name;
+    private final int score;
+
+    private Match(@Nonnull final NodeFileOrFolder node, @Nonnull final String name, final int score) {
+      this.node = node;
+      this.name = name;
+      this.score = score;
+    }
+  }
+
+  private static final class Snapshot {
+
+    private final long version;
+    private final Segment[] segments;
+
+    private Snapshot(final long version, @Nonnull @MustNotContainNull final Segment[] segments) {
+      this.version = version;
+      this.segments = segments;
+    }
+  }
+
+  /**
+   * Names of direct children of a folder.
+   */
+  private static final class Segment {
+
+    private final long version;
+    private final NodeFileOrFolder[] nodes;
+    private final String[] names;
+    private final char[][] lowerNames;
+    private final long[] charMasks;
+
+    private Segment(final long version, @Nonnull final NodeFileOrFolder folder) {
+      this.version = version;
+
+      final List<NodeFileOrFolder> children = new ArrayList<>();
+      folder.forEach(children::add);
+
+      this.nodes = children.toArray(new NodeFileOrFolder[0]);
+      this.names = new String[this.nodes.length];
+      this.lowerNames = new char[this.nodes.length][];
+      this.charMasks = new long[this.nodes.length];
+      for (int i = 0; i < this.nodes.length; i++) {
+        final String name = this.nodes[i].name;
+        this.names[i] = name;
+        this.lowerNames[i] = toLowerCase(name);
+        this.charMasks[i] = makeCharMask(this.lowerNames[i]);
+      }
+    }
+  }
+}
@@ -0,0 +1,586 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.igormaznitsa.sciareto.ui.tree;
+
+import com.igormaznitsa.meta.annotation.MustNotContainNull;
+import com.igormaznitsa.mindmap.model.Extra;
+import com.igormaznitsa.mindmap.model.ExtraFile;
+import com.igormaznitsa.mindmap.model.ExtraLink;
+import com.igormaznitsa.mindmap.model.ExtraNote;
+import com.igormaznitsa.mindmap.model.MindMap;
+import com.igormaznitsa.mindmap.model.Topic;
+import com.igormaznitsa.mindmap.model.logger.Logger;
+import com.igormaznitsa.mindmap.model.logger.LoggerFactory;
+import com.igormaznitsa.sciareto.Context;
+import com.igormaznitsa.sciareto.ui.MainFrame;
+import com.igormaznitsa.sciareto.ui.misc.MindMapFileCache;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.commons.io.FilenameUtils;
+import reactor.core.publisher.Mono;
+
+/**
+ * Full-text index of content of all mind maps in project. Topic titles, notes, URIs, file links
+ * and code snippets are extracted from maps once and kept together with inverted index of
+ * character trigrams, so that search doesn't parse maps. Index is checked for modified maps
+ * before every search, only changed maps are taken again from {@link MindMapFileCache}. If project
+ * has knowledge folder then index is saved into the folder and restored after restart.
+ */
+public final class MindMapContentIndex {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MindMapContentIndex.class);
+
+  /**
+   * Name of index file in project knowledge folder.
+   */
+  public static final String INDEX_FILE_NAME = ".mmdContentIndex"; //NOI18N
+
+  private static final int INDEX_MAGIC = 0x4D4D4349;
+  private static final int INDEX_VERSION = 1;
+
+  private static final int FIELD_TITLE = 0;
+  private static final int FIELD_FILE = 1;
+  private static final int FIELD_LINK = 2;
+  private static final int FIELD_NOTE = 3;
+  private static final int FIELD_CODE = 4;
+  private static final int[] FIELD_SCORES = {100, 40, 30, 20, 10};
+
+  private final NodeProject project;
+  private final Map<String, FileEntry> files = new HashMap<>();
+  private final Map<Long, Set<FileEntry>> trigrams = new HashMap<>();
+  private final AtomicBoolean updateScheduled = new AtomicBoolean();
+  private boolean loaded;
+  private boolean changed;
+
+  MindMapContentIndex(@Nonnull final NodeProject project) {
+    this.project = project;
+  }
+
+  private static long trigram(final char a, final char b, final char c) {
+    return ((long) a << 32) | ((long) b << 16) | c;
+  }
+
+  private static void collectTrigrams(@Nonnull final String text, @Nonnull final Set<Long> result) {
+    final String lower = text.toLowerCase(Locale.ROOT);
+    for (int i = 2; i < lower.length(); i++) {
+      result.add(trigram(lower.charAt(i - 2), lower.charAt(i - 1), lower.charAt(i)));
+    }
+  }
+
+  @Nonnull
+  private static String makeTopicPath(@Nonnull final FileEntry entry, final int topicIndex) {
+    final Deque<String> names = new ArrayDeque<>();
+    int index = topicIndex;
+    while (index >= 0) {
+      names.addFirst(entry.topics[index].fields[FIELD_TITLE].replace('\n', ' '));
+      index = entry.topics[index].parent;
+    }
+    return String.join(" / ", names); //NOI18N
+  }
+
+  @Nonnull
+  private static String makeRelativePath(@Nonnull final Path projectFolder, @Nonnull final File file) {
+    return FilenameUtils.separatorsToUnix(projectFolder.relativize(file.toPath()).toString());
+  }
+
+  private static void writeString(@Nonnull final DataOutputStream out, @Nonnull final String text) throws IOException {
+    final byte[] data = text.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(data.length);
+    out.write(data);
+  }
+
+  @Nonnull
+  private static String readString(@Nonnull final DataInputStream in) throws IOException {
+    final byte[] data = new byte[in.readInt()];
+    in.readFully(data);
+    return new String(data, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Start update of index in background.
+   */
+  public void scheduleUpdate() {
+    if (this.updateScheduled.compareAndSet(false, true)) {
+      Mono.fromRunnable(() -> {
+        this.updateScheduled.set(false);
+        if (!this.project.isDisposed() && !this.project.isLoading()) {
+          this.update();
+        }
+      }).subscribeOn(MainFrame.REACTOR_SCHEDULER).subscribe();
+    }
+  }
+
+  /**
+   * Synchronize index with mind map files of project, new and changed maps are parsed, removed
+   * ones are excluded from index.
+   */
+  public synchronized void update() {
+    final long start = System.currentTimeMillis();
+    final Path projectFolder = this.project.getFolder().toPath();
+    if (!this.loaded) {
+      this.loaded = true;
+      this.load(projectFolder);
+    }
+
+    final Set<String> presented = new HashSet<>();
+    int parsed = 0;
+    for (final NodeFileOrFolder node : this.collectMindMapNodes()) {
+      if (Thread.currentThread().isInterrupted()) {
+        return;
+      }
+      final File file = node.makeFileForNode();
+      if (file == null || !file.isFile()) {
+        continue;
+      }
+      final String path = makeRelativePath(projectFolder, file);
+      presented.add(path);
+
+      final FileEntry existing = this.files.get(path);
+      if (existing != null && existing.lastModified == file.lastModified() && existing.length == file.length()) {
+        existing.node = node;
+      } else {
+        if (existing != null) {
+          this.removeEntry(existing);
+        }
+        final FileEntry entry = this.parse(projectFolder, node, file, path);
+        if (entry != null) {
+          this.addEntry(entry);
+          parsed++;
+        }
+        this.changed = true;
+      }
+    }
+
+    for (final FileEntry entry : new ArrayList<>(this.files.values())) {
+      if (!presented.contains(entry.path)) {
+        this.removeEntry(entry);
+        this.changed = true;
+      }
+    }
+
+    if (this.changed) {
+      this.changed = false;
+      this.save(projectFolder);
+      LOGGER.info(String.format("Content index of %s updated, parsed %d maps, spent %d ms", this.project, parsed, System.currentTimeMillis() - start)); //NOI18N
+    }
+  }
+
+  /**
+   * Check that file is presented in index, it means that result of search for the file can be
+   * taken from index without parsing.
+   *
+   * @param file file to check
+   * @return true if the file is indexed mind map
+   */
+  public synchronized boolean isIndexed(@Nonnull final File file) {
+    final Path projectFolder = this.project.getFolder().toPath();
+    if (!file.toPath().startsWith(projectFolder)) {
+      return false;
+    }
+    final FileEntry entry = this.files.get(makeRelativePath(projectFolder, file));
+    return entry != null && entry.node != null;
+  }
+
+  /**
+   * Find topics which content contains text in case-insensitive manner. Index is updated before
+   * search.
+   *
+   * @param text       text to find
+   * @param maxResults max number of results
+   * @return found topics ordered by score, the best ones first
+   */
+  @Nonnull
+  @MustNotContainNull
+  public synchronized List<Hit> find(@Nonnull final String text, final int maxResults) {
+    this.update();
+
+    final Pattern pattern = Pattern.compile(Pattern.quote(text), Pattern.CASE_INSENSITIVE);
+    final String lowerText = text.toLowerCase(Locale.ROOT);
+
+    final List<Hit> result = new ArrayList<>();
+    for (final FileEntry entry : this.findCandidates(text)) {
+      if (entry.node == null) {
+        continue;
+      }
+      for (int i = 0; i < entry.topics.length; i++) {
+        final TopicEntry topic = entry.topics[i];
+        int score = 0;
+        for (int f = 0; f < topic.fields.length; f++) {
+          if (!topic.fields[f].isEmpty() && pattern.matcher(topic.fields[f]).find()) {
+            score += FIELD_SCORES[f];
+          }
+        }
+        if (score > 0) {
+          final String title = topic.fields[FIELD_TITLE].toLowerCase(Locale.ROOT);
+          if (title.equals(lowerText)) {
+            score += 50;
+          } else if (title.startsWith(lowerText)) {
+            score += 25;
+          }
+          result.add(new Hit(entry, i, score - Math.min(topic.depth, 10)));
+        }
+      }
+    }
+
+    result.sort(Comparator.comparingInt(Hit::getScore).reversed()
+        .thenComparing(h -> h.entry.path)
+        .thenComparingInt(h -> h.topicIndex));
+    return result.size() > maxResults ? new ArrayList<>(result.subList(0, maxResults)) : result;
+  }
+
+  /**
+   * Find topics which have file link to file or to any file inside folder. Index is updated before
+   * search.
+   *
+   * @param file file or folder
+   * @return found topics ordered by map and topic position
+   */
+  @Nonnull
+  @MustNotContainNull
+  public synchronized List<Hit> findLinksToFile(@Nonnull final File file) {
+    this.update();
+
+    final Path filePath = file.toPath();
+    final boolean folder = file.isDirectory();
+    final List<Hit> result = new ArrayList<>();
+    final List<FileEntry> entries = new ArrayList<>(this.files.values());
+    entries.sort(Comparator.comparing(e -> e.path));
+    for (final FileEntry entry : entries) {
+      if (entry.node == null) {
+        continue;
+      }
+      for (int i = 0; i < entry.topics.length; i++) {
+        final String link = entry.topics[i].projectFileLink;
+        if (!link.isEmpty()) {
+          final Path linkPath = Path.of(link);
+          if (folder ? linkPath.startsWith(filePath) : linkPath.equals(filePath)) {
+            result.add(new Hit(entry, i, 0));
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  @Nonnull
+  @MustNotContainNull
+  private Set<FileEntry> findCandidates(@Nonnull final String text) {
+    final Set<Long> queryTrigrams = new HashSet<>();
+    collectTrigrams(text, queryTrigrams);
+    if (queryTrigrams.isEmpty()) {
+      return new HashSet<>(this.files.values());
+    }
+
+    Set<FileEntry> result = null;
+    for (final Long t : queryTrigrams) {
+      final Set<FileEntry> found = this.trigrams.getOrDefault(t, Collections.emptySet());
+      if (result == null) {
+        result = new HashSet<>(found);
+      } else {
+        result.retainAll(found);
+      }
+      if (result.isEmpty()) {
+        break;
+      }
+    }
+    return result;
+  }
+
+  @Nonnull
+  @MustNotContainNull
+  private List<NodeFileOrFolder> collectMindMapNodes() {
+    final List<NodeFileOrFolder> result = new ArrayList<>();
+    final Deque<NodeFileOrFolder> stack = new ArrayDeque<>();
+    stack.push(this.project);
+    while (!stack.isEmpty()) {
+      final NodeFileOrFolder node = stack.pop();
+      final List<NodeFileOrFolder> children;
+      synchronized (node.children) {
+        children = new ArrayList<>(node.children);
+      }
+      for (final NodeFileOrFolder child : children) {
+        if (child.folderFlag) {
+          stack.push(child);
+        } else if ("mmd".equalsIgnoreCase(FilenameUtils.getExtension(child.name))) { //NOI18N
+          result.add(child);
+        }
+      }
+    }
+    return result;
+  }
+
+  private void addEntry(@Nonnull final FileEntry entry) {
+    this.files.put(entry.path, entry);
+    for (final Long t : entry.trigrams) {
+      this.trigrams.computeIfAbsent(t, k -> new HashSet<>()).add(entry);
+    }
+  }
+
+  private void removeEntry(@Nonnull final FileEntry entry) {
+    this.files.remove(entry.path);
+    for (final Long t : entry.trigrams) {
+      final Set<FileEntry> set = this.trigrams.get(t);
+      if (set != null) {
+        set.remove(entry);
+        if (set.isEmpty()) {
+          this.trigrams.remove(t);
+        }
+      }
+    }
+  }
+
+  @Nullable
+  private FileEntry parse(@Nonnull final Path projectFolder, @Nonnull final NodeFileOrFolder node, @Nonnull final File file, @Nonnull final String path) {
+    final long lastModified = file.lastModified();
+    final long length = file.length();
+    final MindMap map;
+    try {
+      map = MindMapFileCache.getInstance().findMindMap(file);
+    } catch (Exception ex) {
+      LOGGER.warn("Can't parse map for content index: " + file); //NOI18N
+      return null;
+    }
+
+    final List<TopicEntry> topics = new ArrayList<>();
+    final Topic root = map.getRoot();
+    if (root != null) {
+      this.addTopic(topics, root, -1, 0, file.getParentFile(), projectFolder.toFile());
+    }
+    return new FileEntry(node, path, lastModified, length, topics.toArray(new TopicEntry[0]));
+  }
+
+  private void addTopic(@Nonnull @MustNotContainNull final List<TopicEntry> topics, @Nonnull final Topic topic, final int parent, final int depth, @Nonnull final File mapFolder, @Nonnull final File projectFolder) {
+    final String[] fields = new String[FIELD_SCORES.length];
+    fields[FIELD_TITLE] = topic.getText();
+
+    final ExtraFile file = (ExtraFile) topic.getExtras().get(Extra.ExtraType.FILE);
+    fields[FIELD_FILE] = file == null ? "" : FilenameUtils.normalize(file.getValue().asFile(mapFolder).getAbsolutePath());
+    final String projectFileLink = file == null ? "" : file.getValue().asFile(projectFolder).toPath().toString();
+
+    final ExtraLink link = (ExtraLink) topic.getExtras().get(Extra.ExtraType.LINK);
+    fields[FIELD_LINK] = link == null ? "" : link.getValue().toString();
+
+    final ExtraNote note = (ExtraNote) topic.getExtras().get(Extra.ExtraType.NOTE);
+    fields[FIELD_NOTE] = note == null || note.isEncrypted() ? "" : note.getValue();
+
+    fields[FIELD_CODE] = String.join("\n", topic.getCodeSnippets().values()); //NOI18N
+
+    for (int i = 0; i < fields.length; i++) {
+      if (fields[i] == null) {
+        fields[i] = "";
+      }
+    }
+
+    final int index = topics.size();
+    topics.add(new TopicEntry(parent, depth, fields, projectFileLink));
+    for (final Topic child : topic.getChildren()) {
+      this.addTopic(topics, child, index, depth + 1, mapFolder, projectFolder);
+    }
+  }
+
+  @Nullable
+  private static Path findIndexFile(@Nonnull final Path projectFolder) {
+    final Path knowledgeFolder = projectFolder.resolve(Context.KNOWLEDGE_FOLDER);
+    return Files.isDirectory(knowledgeFolder) ? knowledgeFolder.resolve(INDEX_FILE_NAME) : null;
+  }
+
+  private void load(@Nonnull final Path projectFolder) {
+    final Path indexFile = findIndexFile(projectFolder);
+    if (indexFile == null || !Files.isRegularFile(indexFile)) {
+      return;
+    }
+    try (final DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(indexFile))))) {
+      if (in.readInt() != INDEX_MAGIC || in.readInt() != INDEX_VERSION) {
+        LOGGER.info("Content index has unsupported format, it will be rebuilt: " + indexFile); //NOI18N
+        return;
+      }
+      final List<FileEntry> entries = new ArrayList<>();
+      final int fileCount = in.readInt();
+      for (int i = 0; i < fileCount; i++) {
+        final String path = readString(in);
+        final long lastModified = in.readLong();
+        final long length = in.readLong();
+        final TopicEntry[] topics = new TopicEntry[in.readInt()];
+        for (int t = 0; t < topics.length; t++) {
+          final int parent = in.readInt();
+          final int depth = in.readInt();
+          final String[] fields = new String[FIELD_SCORES.length];
+          for (int f = 0; f < fields.length; f++) {
+            fields[f] = readString(in);
+          }
+          topics[t] = new TopicEntry(parent, depth, fields, readString(in));
+        }
+        entries.add(new FileEntry(null, path, lastModified, length, topics));
+      }
+      entries.forEach(this::addEntry);
+    } catch (IOException ex) {
+      LOGGER.warn("Can't load content index, it will be rebuilt: " + ex.getMessage()); //NOI18N
+      this.files.clear();
+      this.trigrams.clear();
+    }
+  }
+
+  private void save(@Nonnull final Path projectFolder) {
+    final Path indexFile = findIndexFile(projectFolder);
+    if (indexFile == null) {
+      return;
+    }
+    final Path tempFile = indexFile.resolveSibling(INDEX_FILE_NAME + ".tmp"); //NOI18N
+    try {
+      try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tempFile))))) {
+        out.writeInt(INDEX_MAGIC);
+        out.writeInt(INDEX_VERSION);
+        out.writeInt(this.files.size());
+        for (final FileEntry entry : this.files.values()) {
+          writeString(out, entry.path);
+          out.writeLong(entry.lastModified);
+          out.writeLong(entry.length);
+          out.writeInt(entry.topics.length);
+          for (final TopicEntry topic : entry.topics) {
+            out.writeInt(topic.parent);
+            out.writeInt(topic.depth);
+            for (final String field : topic.fields) {
+              writeString(out, field);
+            }
+            writeString(out, topic.projectFileLink);
+          }
+        }
+      }
+      Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      try {
+        Files.setAttribute(indexFile, "dos:hidden", Boolean.TRUE); //NOI18N
+      } catch (IOException | UnsupportedOperationException | IllegalArgumentException ex) {
+        // not DOS file system, file is hidden by its name
+      }
+    } catch (IOException ex) {
+      LOGGER.warn("Can't save content index: " + ex.getMessage()); //NOI18N
+      try {
+        Files.deleteIfExists(tempFile);
+      } catch (IOException exx) {
+        // ignore
+      }
+    }
+  }
+
+  /**
+   * Found topic.
+   */
+  public static final class Hit {
+
+    private final FileEntry entry;
+    private final NodeFileOrFolder node;
+    private final int topicIndex;
+    private final int score;
+
+    private Hit(@Nonnull final FileEntry entry, final int topicIndex, final int score) {
+      this.entry = entry;
+      this.node = entry.node;
+      this.topicIndex = topicIndex;
+      this.score = score;
+    }
+
+    /**
+     * Get node of map file contains topic.
+     *
+     * @return node of map file
+     */
+    @Nonnull
+    public NodeFileOrFolder getNode() {
+      return this.node;
+    }
+
+    /**
+     * Get path to topic from map root as titles separated by slash.
+     *
+     * @return path to topic
+     */
+    @Nonnull
+    public String getTopicPath() {
+      return makeTopicPath(this.entry, this.topicIndex);
+    }
+
+    public int getScore() {
+      return this.score;
+    }
+  }
+
+  private static final class FileEntry {
+
+    private final String path;
+    private final long lastModified;
+    private final long length;
+    private final TopicEntry[] topics;
+    private final Set<Long> trigrams;
+    private NodeFileOrFolder node;
+
+    private FileEntry(@Nullable final NodeFileOrFolder node, @Nonnull final String path, final long lastModified, final long length, @Nonnull @MustNotContainNull final TopicEntry[] topics) {
+      this.node = node;
+      this.path = path;
+      this.lastModified = lastModified;
+      this.length = length;
+      this.topics = topics;
+      this.trigrams = new HashSet<>();
+      for (final TopicEntry topic : topics) {
+        for (final String field : topic.fields) {
+          collectTrigrams(field, this.trigrams);
+        }
+      }
+    }
+  }
+
+  private static final class TopicEntry {
+
+    private final int parent;
+    private final int depth;
+    private final String[] fields;
+    private final String projectFileLink;
+
+    private TopicEntry(final int parent, final int depth, @Nonnull @MustNotContainNull final String[] fields, @Nonnull final String projectFileLink) {
+      this.parent = parent;
+      this.depth = depth;
+      this.fields = fields;
+      this.projectFileLink = projectFileLink;
+    }
+  }
+}
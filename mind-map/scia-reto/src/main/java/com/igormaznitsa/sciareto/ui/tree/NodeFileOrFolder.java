@@ -20,15 +20,18 @@ package com.igormaznitsa.sciareto.ui.tree;
 
 import com.igormaznitsa.meta.annotation.MustNotContainNull;
 import com.igormaznitsa.meta.annotation.ReturnsOriginal;
+import com.igormaznitsa.meta.annotation.UiThread;
 import com.igormaznitsa.meta.common.utils.ArrayUtils;
 import com.igormaznitsa.meta.common.utils.Assertions;
 import com.igormaznitsa.meta.common.utils.IOUtils;
 import com.igormaznitsa.mindmap.model.logger.Logger;
 import com.igormaznitsa.mindmap.model.logger.LoggerFactory;
+import com.igormaznitsa.mindmap.swing.panel.utils.Utils;
 import com.igormaznitsa.sciareto.Context;
 import com.igormaznitsa.sciareto.ui.MainFrame;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -36,11 +39,15 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
-import java.util.regex.Pattern;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.swing.event.TreeModelEvent;
@@ -57,6 +64,13 @@ public class NodeFileOrFolder implements TreeNode, Comparator<NodeFileOrFolder>,
 
   private static final Logger LOGGER = LoggerFactory.getLogger(NodeFileOrFolder.class);
 
+  private static final AtomicLong STRUCTURE_VERSION = new AtomicLong();
+
+  /**
+   * Number of folder levels read during project loading in lazy mode.
+   */
+  private static final int LAZY_LOADED_LEVELS = 2;
+
   protected final NodeFileOrFolder parent;
 
   protected final List<NodeFileOrFolder> children;
@@ -65,6 +79,11 @@ public class NodeFileOrFolder implements TreeNode, Comparator<NodeFileOrFolder>,
   protected volatile String name;
   private volatile boolean noAccess;
   private volatile boolean disposed = false;
+  private volatile boolean childrenLoaded = false;
+  private final AtomicBoolean childrenLoading = new AtomicBoolean();
+  private volatile NodeFileOrFolder loadingPlaceholder;
+  private volatile long childrenVersion;
+  private volatile long subtreeVersion;
   protected final Predicate<NodeFileOrFolder> predicateShowHiddenFiles;
 
   public NodeFileOrFolder(
@@ -89,6 +108,38 @@ public class NodeFileOrFolder implements TreeNode, Comparator<NodeFileOrFolder>,
     this.readonly = readOnly;
   }
 
+  /**
+   * Get version of direct children of the node, it is changed every time when some child node is
+   * added, removed or renamed.
+   *
+   * @return current version of children
+   */
+  long getChildrenVersion() {
+    return this.childrenVersion;
+  }
+
+  /**
+   * Get version of the whole subtree of the node, it is changed every time when children of the
+   * node or of any its descendant are changed.
+   *
+   * @return current version of subtree
+   */
+  long getSubtreeVersion() {
+    return this.subtreeVersion;
+  }
+
+  /**
+   * Mark that children of the node have been changed, subtree versions of all its ancestors are
+   * changed too.
+   */
+  protected void markStructureChanged() {
+    final long version = STRUCTURE_VERSION.incrementAndGet();
+    this.childrenVersion = version;
+    for (NodeFileOrFolder node = this; node != null; node = node.parent) {
+      node.subtreeVersion = version;
+    }
+  }
+
   protected static boolean isFileHidden(@Nonnull final Path path) {
     try {
       return Files.isHidden(path);
@@ -101,6 +152,31 @@ public class NodeFileOrFolder implements TreeNode, Comparator<NodeFileOrFolder>,
     return false;
   }
 
+  /**
+   * Check that content of folders should be read only when it is needed, i.e. during expanding of
+   * folder in the tree or searching in it.
+   *
+   * @return true if lazy loading of folders is active
+   */
+  protected boolean isLazyLoading() {
+    return this.parent != null && this.parent.isLazyLoading();
+  }
+
+  /**
+   * Check that the node is folder which content is not loaded yet because of lazy mode. Such
+   * folder is shown with single loading placeholder child.
+   *
+   * @return true if content of the folder is not loaded
+   */
+  public boolean isNotLoaded() {
+    return this.parent != null
+        && this.folderFlag
+        && !this.childrenLoaded
+        && !this.noAccess
+        && !this.isLoading()
+        && this.isLazyLoading();
+  }
+
   public int size() {
     if (this.folderFlag) {
       int counter = 1;
@@ -158,11 +234,13 @@ public class NodeFileOrFolder implements TreeNode, Comparator<NodeFileOrFolder>,
     final NodeFileOrFolder result = new NodeFileOrFolder(this.predicateShowHiddenFiles, this, file.isDirectory(), file.getName(), !Files.isWritable(file.toPath()));
     this.children.add(0, result);
     Collections.sort(this.children, this);
+    this.markStructureChanged();
     return result;
   }
 
   public void setName(@Nonnull final String name) throws IOException {
     this.name = name;
+    (this.parent == null ? this : this.parent).markStructureChanged();
     readSubtree(this.predicateShowHiddenFiles.test(this)).subscribeOn(MainFrame.REACTOR_SCHEDULER).subscribe();
   }
 
@@ -171,13 +249,20 @@ public class NodeFileOrFolder implements TreeNode, Comparator<NodeFileOrFolder>,
       this.children.forEach(NodeFileOrFolder::dispose);
     } finally {
       this.children.clear();
+      this.childrenLoaded = false;
+      this.markStructureChanged();
     }
   }
 
   @Nonnull
   public Mono<NodeFileOrFolder> readSubtree(final boolean addHiddenFilesAndFolders) {
-    if (this.folderFlag) {
-      final boolean parentIsProjectGroup = this.parent instanceof NodeProjectGroup;
+    if (this.folderFlag && this.isLazyLoading()) {
+      return Mono.fromCallable(() -> {
+        this.clearChildren();
+        this.readLevels(addHiddenFilesAndFolders, LAZY_LOADED_LEVELS);
+        return this;
+      });
+    } else if (this.folderFlag) {
       return Flux.using(() -> {
         this.clearChildren();
         final File nodeFile = makeFileForNode();
@@ -204,16 +289,11 @@ public class NodeFileOrFolder implements TreeNode, Comparator<NodeFileOrFolder>,
             LOGGER.warn("Error during path " + makeFileForNode().getName() + " opening: " + error.getMessage());
             this.noAccess = true;
           })
-          .filter(f -> {
-            if (parentIsProjectGroup) {
-              return addHiddenFilesAndFolders || !isFileHidden(f) || Context.KNOWLEDGE_FOLDER.equals(f.getFileName().toString());
-            } else {
-              return addHiddenFilesAndFolders || !isFileHidden(f);
-            }
-          })
+          .filter(f -> this.isAcceptableChild(f, addHiddenFilesAndFolders))
           .map(f -> {
             NodeFileOrFolder newItem = new NodeFileOrFolder(this.predicateShowHiddenFiles, this, Files.isDirectory(f), f.getFileName().toString(), !Files.isWritable(f));
             this.children.add(newItem);
+            this.markStructureChanged();
             return newItem;
           })
           .flatMap(f -> f.readSubtree(addHiddenFilesAndFolders))
@@ -221,6 +301,7 @@ public class NodeFileOrFolder implements TreeNode, Comparator<NodeFileOrFolder>,
           .doFinally(signalType -> {
             if (signalType == SignalType.ON_COMPLETE) {
               this.children.sort(this);
+              this.childrenLoaded = true;
             }
           });
     } else {
@@ -228,6 +309,265 @@ public class NodeFileOrFolder implements TreeNode, Comparator<NodeFileOrFolder>,
     }
   }
 
+  private void readLevels(final boolean addHiddenFilesAndFolders, final int levels) {
+    this.children.addAll(this.readChildren(addHiddenFilesAndFolders));
+    this.childrenLoaded = true;
+    this.markStructureChanged();
+    if (levels > 1) {
+      for (final NodeFileOrFolder c : this) {
+        if (c.folderFlag && !Thread.currentThread().isInterrupted()) {
+          c.readLevels(addHiddenFilesAndFolders, levels - 1);
+        }
+      }
+    }
+  }
+
+  /**
+   * Read direct content of the folder without adding into the tree.
+   *
+   * @param addHiddenFilesAndFolders flag to add hidden files and folders
+   * @return sorted list of new child nodes
+   */
+  @Nonnull
+  @MustNotContainNull
+  private List<NodeFileOrFolder> readChildren(final boolean addHiddenFilesAndFolders) {
+    final List<NodeFileOrFolder> result = new ArrayList<>();
+    final File nodeFile = this.makeFileForNode();
+    try (final DirectoryStream<Path> stream = Files.newDirectoryStream(nodeFile.toPath())) {
+      for (final Path f : stream) {
+        if (this.isAcceptableChild(f, addHiddenFilesAndFolders)) {
+          result.add(new NodeFileOrFolder(this.predicateShowHiddenFiles, this, Files.isDirectory(f), f.getFileName().toString(), !Files.isWritable(f)));
+        }
+      }
+    } catch (IOException | RuntimeException ex) {
+      LOGGER.warn("Error '" + ex.getClass().getCanonicalName() + "' during access to path: " + nodeFile.getPath());
+      this.noAccess = true;
+    }
+    result.sort(this);
+    return result;
+  }
+
+  /**
+   * Called before expanding of the node in the tree. Not loaded folder is loaded in background
+   * and its sub-folders are prefetched after that, for already loaded folder only sub-folders are
+   * prefetched, so that expanding of next level is not delayed.
+   */
+  @UiThread
+  public void onBeforeExpand() {
+    if (this.isNotLoaded()) {
+      this.loadChildrenInBackground(true);
+    } else if (this.folderFlag && this.isLazyLoading()) {
+      this.prefetchChildren();
+    }
+  }
+
+  private void prefetchChildren() {
+    for (final NodeFileOrFolder c : this) {
+      if (c.isNotLoaded()) {
+        c.loadChildrenInBackground(false);
+      }
+    }
+  }
+
+  private void loadChildrenInBackground(final boolean prefetchNextLevel) {
+    if (this.childrenLoading.compareAndSet(false, true)) {
+      final boolean addHiddenFilesAndFolders = this.predicateShowHiddenFiles.test(this);
+      Mono.fromCallable(() -> this.readChildren(addHiddenFilesAndFolders))
+          .subscribeOn(MainFrame.REACTOR_SCHEDULER)
+          .doFinally(signalType -> this.childrenLoading.set(false))
+          .subscribe(loaded -> Utils.safeSwingCall(() -> {
+            this.applyLoadedChildren(loaded);
+            if (prefetchNextLevel) {
+              this.prefetchChildren();
+            }
+          }), error -> LOGGER.error("Can't load folder " + this.name, error));
+    }
+  }
+
+  /**
+   * Load content of the folder and all its sub-folders if they are not loaded yet. Can be called
+   * from any thread. Folders are read level by level, loaded nodes of whole level are added into
+   * the tree by single call in the swing thread, the method returns after all levels have been
+   * added. Loading is stopped if the current thread is interrupted.
+   */
+  public void ensureSubtreeLoaded() {
+    if (!this.folderFlag) {
+      return;
+    }
+    List<NodeFileOrFolder> level = List.of(this);
+    Runnable applyPrevious = null;
+    while (!level.isEmpty() && !Thread.currentThread().isInterrupted()) {
+      final Map<NodeFileOrFolder, List<NodeFileOrFolder>> loadedLevel = new LinkedHashMap<>();
+      final List<NodeFileOrFolder> nextLevel = new ArrayList<>();
+      for (final NodeFileOrFolder folder : level) {
+        if (Thread.currentThread().isInterrupted()) {
+          break;
+        }
+        final List<NodeFileOrFolder> folderChildren;
+        if (folder.isNotLoaded()) {
+          folderChildren = folder.readChildren(folder.predicateShowHiddenFiles.test(folder));
+          loadedLevel.put(folder, folderChildren);
+        } else {
+          synchronized (folder.children) {
+            folderChildren = new ArrayList<>(folder.children);
+          }
+        }
+        for (final NodeFileOrFolder c : folderChildren) {
+          if (c.folderFlag) {
+            nextLevel.add(c);
+          }
+        }
+      }
+      if (!loadedLevel.isEmpty()) {
+        if (applyPrevious != null) {
+          Utils.safeSwingCall(applyPrevious);
+        }
+        applyPrevious = () -> loadedLevel.forEach(NodeFileOrFolder::applyLoadedChildren);
+      }
+      level = nextLevel;
+    }
+    if (applyPrevious != null) {
+      // swing events are processed in order, so that all previous levels are added too
+      Utils.safeSwingBlockingCall(applyPrevious);
+    }
+  }
+
+  /**
+   * Load direct content of the folder if it is not loaded yet.
+   */
+  void ensureChildrenLoaded() {
+    if (this.isNotLoaded()) {
+      final List<NodeFileOrFolder> loaded = this.readChildren(this.predicateShowHiddenFiles.test(this));
+      Utils.safeSwingBlockingCall(() -> this.applyLoadedChildren(loaded));
+    }
+  }
+
+  @UiThread
+  private void applyLoadedChildren(@Nonnull @MustNotContainNull final List<NodeFileOrFolder> loaded) {
+    if (this.disposed || !this.isNotLoaded()) {
+      loaded.forEach(NodeFileOrFolder::dispose);
+    } else {
+      this.children.addAll(loaded);
+      this.childrenLoaded = true;
+      this.markStructureChanged();
+      final NodeProject project = this.findProject();
+      if (project != null) {
+        project.getGroup().notifyChildrenLoaded(this);
+      }
+    }
+  }
+
+  protected boolean isAcceptableChild(@Nonnull final Path path, final boolean addHiddenFilesAndFolders) {
+    if (this.parent instanceof NodeProjectGroup) {
+      return addHiddenFilesAndFolders || !isFileHidden(path) || Context.KNOWLEDGE_FOLDER.equals(path.getFileName().toString());
+    } else {
+      return addHiddenFilesAndFolders || !isFileHidden(path);
+    }
+  }
+
+  /**
+   * Synchronize children of the folder node with the folder content. Removed and added children
+   * are passed to the group to be applied in the swing thread, new sub-folders are loaded
+   * completely and registered in the watcher, in lazy mode they are left not loaded and will be
+   * registered after loading. Not loaded folders are ignored because they will be read on demand.
+   *
+   * @param folder                   path to the folder represented by the node
+   * @param addHiddenFilesAndFolders flag to add hidden files and folders
+   * @param recursive                if true then all sub-folders will be synchronized too
+   * @param group                    group to apply changes in the tree
+   * @param watcher                  watcher to register new folders
+   */
+  void syncChildren(
+      @Nonnull final Path folder,
+      final boolean addHiddenFilesAndFolders,
+      final boolean recursive,
+      @Nonnull final NodeProjectGroup group,
+      @Nonnull final ProjectFolderWatcher watcher
+  ) {
+    if (!this.folderFlag || this.disposed || this.isNotLoaded()) {
+      return;
+    }
+
+    final Map<String, Path> found = new HashMap<>();
+    try (final DirectoryStream<Path> stream = Files.newDirectoryStream(folder)) {
+      for (final Path f : stream) {
+        try {
+          if (this.isAcceptableChild(f, addHiddenFilesAndFolders)) {
+            found.put(f.getFileName().toString(), f);
+          }
+        } catch (RuntimeException ex) {
+          LOGGER.warn("Can't check file: " + f);
+        }
+      }
+    } catch (IOException | DirectoryIteratorException ex) {
+      LOGGER.warn("Can't read folder " + folder + ": " + ex.getMessage());
+      return;
+    }
+
+    final List<NodeFileOrFolder> removed = new ArrayList<>();
+    final List<NodeFileOrFolder> kept = new ArrayList<>();
+    for (final NodeFileOrFolder c : new ArrayList<>(this.children)) {
+      final Path path = found.get(c.name);
+      if (path != null && Files.isDirectory(path) == c.folderFlag) {
+        found.remove(c.name);
+        kept.add(c);
+      } else {
+        removed.add(c);
+      }
+    }
+
+    final List<NodeFileOrFolder> added = new ArrayList<>();
+    for (final Path f : found.values()) {
+      final boolean directory = Files.isDirectory(f);
+      final NodeFileOrFolder newNode = new NodeFileOrFolder(this.predicateShowHiddenFiles, this, directory, f.getFileName().toString(), !Files.isWritable(f));
+      if (directory) {
+        if (!this.isLazyLoading()) {
+          newNode.readSubtree(addHiddenFilesAndFolders).block();
+        }
+        watcher.registerFolder(newNode);
+      }
+      added.add(newNode);
+    }
+
+    if (!removed.isEmpty() || !added.isEmpty()) {
+      Utils.safeSwingCall(() -> group.applyChildrenChanges(this, removed, added));
+    }
+
+    if (recursive) {
+      for (final NodeFileOrFolder c : kept) {
+        if (c.folderFlag) {
+          c.syncChildren(folder.resolve(c.name), addHiddenFilesAndFolders, true, group, watcher);
+        }
+      }
+    }
+  }
+
+  @Nullable
+  NodeFileOrFolder findNodeForRelativePath(@Nonnull final Path relativePath) {
+    NodeFileOrFolder result = this;
+    if (!relativePath.toString().isEmpty()) {
+      for (final Path name : relativePath) {
+        if (result == null || !result.folderFlag) {
+          return null;
+        }
+        result = result.findChildForName(name.toString());
+      }
+    }
+    return result;
+  }
+
+  @Nullable
+  private NodeFileOrFolder findChildForName(@Nonnull final String childName) {
+    synchronized (this.children) {
+      for (final NodeFileOrFolder c : this.children) {
+        if (childName.equals(c.name)) {
+          return c;
+        }
+      }
+    }
+    return null;
+  }
+
   @Nullable
   public File makeFileForNode() {
     if (this.parent == null) {
@@ -279,12 +619,25 @@ public class NodeFileOrFolder implements TreeNode, Comparator<NodeFileOrFolder>,
   @Override
   @Nonnull
   public TreeNode getChildAt(final int childIndex) {
-    return this.children.get(childIndex);
+    return this.isNotLoaded() ? this.findLoadingPlaceholder() : this.children.get(childIndex);
+  }
+
+  @Nonnull
+  private NodeFileOrFolder findLoadingPlaceholder() {
+    NodeFileOrFolder result = this.loadingPlaceholder;
+    if (result == null) {
+      result = new LoadingPlaceholder(this);
+      this.loadingPlaceholder = result;
+    }
+    return result;
   }
 
   @Override
   public int getChildCount() {
-    return this.isLoading() ? 0 : this.children.size();
+    if (this.isLoading()) {
+      return 0;
+    }
+    return this.isNotLoaded() ? 1 : this.children.size();
   }
 
   @Nullable
@@ -300,7 +653,7 @@ public class NodeFileOrFolder implements TreeNode, Comparator<NodeFileOrFolder>,
 
   @Override
   public int getIndex(@Nonnull final TreeNode node) {
-    return this.children.indexOf(node);
+    return node instanceof LoadingPlaceholder ? 0 : this.children.indexOf(node);
   }
 
   @Override
@@ -362,7 +715,10 @@ public class NodeFileOrFolder implements TreeNode, Comparator<NodeFileOrFolder>,
       return new TreePath(new Object[] {this});
     }
     if (!this.isLeaf()) {
-      for (final NodeFileOrFolder c : this.children) {
+      if (generatedFile != null && this.isNotLoaded() && file.toPath().startsWith(generatedFile.toPath())) {
+        this.ensureChildrenLoaded();
+      }
+      for (final NodeFileOrFolder c : this) {
         final TreePath result = c.findPathToFile(file);
         if (result != null) {
           return new TreePath(ArrayUtils.joinArrays(new Object[] {this}, result.getPath()));
@@ -377,22 +733,12 @@ public class NodeFileOrFolder implements TreeNode, Comparator<NodeFileOrFolder>,
     try {
       result = this.children.remove(child);
     } finally {
+      this.markStructureChanged();
       child.dispose();
     }
     return result;
   }
 
-  protected void fillAllMatchNamePattern(@Nonnull final Pattern namePattern, @Nonnull @MustNotContainNull final List<NodeFileOrFolder> resultList) {
-    if (namePattern.matcher(this.name).matches()) {
-      resultList.add(this);
-    }
-    if (!this.isLeaf()) {
-      for (final NodeFileOrFolder c : this.children) {
-        c.fillAllMatchNamePattern(namePattern, resultList);
-      }
-    }
-  }
-
   public boolean isMindMapFile() {
     return !this.folderFlag && this.name.endsWith(".mmd"); //NOI18N
   }
@@ -442,6 +788,21 @@ public class NodeFileOrFolder implements TreeNode, Comparator<NodeFileOrFolder>,
 
   }
 
+  /**
+   * Single child of not loaded folder shown in the tree till folder content is loaded.
+   */
+  private static final class LoadingPlaceholder extends NodeFileOrFolder {
+
+    private LoadingPlaceholder(@Nonnull final NodeFileOrFolder parent) {
+      super(parent.predicateShowHiddenFiles, parent, false, "...", true); //NOI18N
+    }
+
+    @Override
+    public boolean isLoading() {
+      return true;
+    }
+  }
+
   private static final class SynchroPathIterator implements DirectoryStream<Path> {
 
     private final Iterator<Path> iterator;
@@ -54,11 +54,13 @@ public class NodeProject extends NodeFileOrFolder {
   private volatile boolean knowledgeFolderPresented;
   private final AtomicBoolean loading = new AtomicBoolean(true);
   private final AtomicReference<Disposable> loadDispose = new AtomicReference<>();
+  private final MindMapContentIndex contentIndex;
   
   public NodeProject(@Nonnull final Predicate<NodeFileOrFolder> predicateShowHiddenFiles, @Nonnull final NodeProjectGroup group, @Nonnull final File folder) throws IOException {
     super(predicateShowHiddenFiles, group, true, folder.getName(), !Files.isWritable(folder.toPath()));
     this.folder = folder;
     this.knowledgeFolderPresented = new File(folder, Context.KNOWLEDGE_FOLDER).isDirectory();
+    this.contentIndex = new MindMapContentIndex(this);
   }
 
   @Override
@@ -66,6 +68,11 @@ public class NodeProject extends NodeFileOrFolder {
     return this.loading.get();
   }
 
+  @Nonnull
+  public MindMapContentIndex getContentIndex() {
+    return this.contentIndex;
+  }
+
   public boolean hasKnowledgeFolder() {
     return this.knowledgeFolderPresented;
   }
@@ -74,6 +81,7 @@ public class NodeProject extends NodeFileOrFolder {
   public void setName(@Nonnull final String name) throws IOException {
     this.name = name;
     this.folder = new File(folder.getParentFile(), name);
+    this.parent.markStructureChanged();
     readSubtree(this.predicateShowHiddenFiles.test(this)).subscribeOn(MainFrame.REACTOR_SCHEDULER).subscribe();
   }
 
@@ -164,6 +172,8 @@ public class NodeProject extends NodeFileOrFolder {
               this.loading.set(false);
               this.loadDispose.set(null);
               this.getGroup().notifyProjectStateChanged(this);
+              this.getGroup().startWatching(this);
+              this.contentIndex.scheduleUpdate();
             });
   }
 
@@ -34,8 +34,11 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import javax.annotation.Nonnull;
@@ -52,15 +55,25 @@ public class NodeProjectGroup extends NodeFileOrFolder implements TreeModel {
   protected final String groupName;
   protected final List<TreeModelListener> listeners = new CopyOnWriteArrayList<>();
   private final Context context;
+  private final ProjectFolderWatcher folderWatcher;
+  private final FileNameIndex fileNameIndex;
+  private final BooleanSupplier lazyLoading;
 
   public static final Pattern FILE_NAME = Pattern.compile("^[^\\+\\*\\?\\{\\}\\&\\|\\;\\:\\\\\\/]+$"); //NOI18N
 
   private static final Logger LOGGER = LoggerFactory.getLogger(NodeProjectGroup.class);
 
   public NodeProjectGroup(@Nonnull final Predicate<NodeFileOrFolder> predicateShowHiddenFiles, @Nonnull final Context context, @Nonnull final String name) {
+    this(predicateShowHiddenFiles, () -> false, context, name);
+  }
+
+  public NodeProjectGroup(@Nonnull final Predicate<NodeFileOrFolder> predicateShowHiddenFiles, @Nonnull final BooleanSupplier lazyLoading, @Nonnull final Context context, @Nonnull final String name) {
     super(predicateShowHiddenFiles, null, true, ".", false); //NOI18N
+    this.lazyLoading = lazyLoading;
     this.groupName = name;
     this.context = context;
+    this.folderWatcher = new ProjectFolderWatcher(this);
+    this.fileNameIndex = new FileNameIndex(this);
   }
 
   @Override
@@ -69,6 +82,11 @@ public class NodeProjectGroup extends NodeFileOrFolder implements TreeModel {
     return null;
   }
 
+  @Override
+  protected boolean isLazyLoading() {
+    return this.lazyLoading.getAsBoolean();
+  }
+
   @Nullable
   public NodeProject findForFolder(@Nonnull final File folder) {
     NodeProject result = null;
@@ -84,14 +102,107 @@ public class NodeProjectGroup extends NodeFileOrFolder implements TreeModel {
   public void removeProject(@Nonnull final NodeProject project) {
     int index = this.children.indexOf(project);
     if (index >= 0 && this.children.remove(project)) {
+      this.markStructureChanged();
       final TreeModelEvent event = new TreeModelEvent(this, new Object[]{this}, new int[]{index}, new Object[]{project});
       this.listeners.forEach((l) -> {
         l.treeNodesRemoved(event);
       });
     }
+    this.folderWatcher.unwatchProject(project.getFolder().toPath());
     project.dispose();
   }
 
+  void startWatching(@Nonnull final NodeProject project) {
+    if (!project.isDisposed() && this.children.contains(project)) {
+      this.folderWatcher.watchProject(project);
+    }
+  }
+
+  /**
+   * Called by the folder watcher for changed folders. Content of changed folders is compared with
+   * their nodes and only difference is applied to the tree.
+   *
+   * @param changedFolders  folders which direct content has been changed
+   * @param foldersToRescan folders which should be rescanned with all their sub-folders
+   */
+  void onFoldersChanged(@Nonnull @MustNotContainNull final Set<Path> changedFolders, @Nonnull @MustNotContainNull final Set<Path> foldersToRescan) {
+    foldersToRescan.forEach(folder -> this.syncFolder(folder, true));
+    changedFolders.forEach(folder -> this.syncFolder(folder, false));
+  }
+
+  private void syncFolder(@Nonnull final Path folder, final boolean recursive) {
+    for (final NodeFileOrFolder p : new ArrayList<>(this.children)) {
+      final NodeProject project = (NodeProject) p;
+      final Path projectFolder = project.getFolder().toPath();
+      if (!project.isLoading() && folder.startsWith(projectFolder)) {
+        final NodeFileOrFolder node = project.findNodeForRelativePath(projectFolder.relativize(folder));
+        if (node != null) {
+          node.syncChildren(folder, this.predicateShowHiddenFiles.test(node), recursive, this, this.folderWatcher);
+          project.getContentIndex().scheduleUpdate();
+        }
+      }
+    }
+  }
+
+  @UiThread
+  void applyChildrenChanges(@Nonnull final NodeFileOrFolder folder,
+                            @Nonnull @MustNotContainNull final List<NodeFileOrFolder> removed,
+                            @Nonnull @MustNotContainNull final List<NodeFileOrFolder> added) {
+    final NodeProject project = folder.findProject();
+    if (folder.isDisposed() || project == null || project.isLoading()) {
+      added.forEach(NodeFileOrFolder::dispose);
+      return;
+    }
+
+    removed.forEach(node -> this.deleteNode(node, true));
+
+    final List<NodeFileOrFolder> inserted = new ArrayList<>();
+    for (final NodeFileOrFolder node : added) {
+      if (folder.findNodeForRelativePath(Path.of(node.name)) == null) {
+        inserted.add(node);
+      } else {
+        node.dispose();
+      }
+    }
+
+    if (!inserted.isEmpty()) {
+      folder.children.addAll(inserted);
+      folder.children.sort(folder);
+      folder.markStructureChanged();
+
+      inserted.sort(Comparator.comparingInt(NodeFileOrFolder::getIndexAtParent));
+      final int[] indexes = inserted.stream().mapToInt(NodeFileOrFolder::getIndexAtParent).toArray();
+      final TreeModelEvent event = new TreeModelEvent(this, folder.makeTreePath(), indexes, inserted.toArray());
+      for (final TreeModelListener l : this.listeners) {
+        l.treeNodesInserted(event);
+      }
+    }
+  }
+
+  /**
+   * Notify listeners that content of lazy loaded folder has been added into the tree, the folder
+   * is registered in the folder watcher.
+   *
+   * @param folder folder which children have been loaded
+   */
+  @UiThread
+  void notifyChildrenLoaded(@Nonnull final NodeFileOrFolder folder) {
+    final NodeProject project = folder.findProject();
+    if (project != null && !project.isLoading()) {
+      this.folderWatcher.registerFolder(folder);
+      final TreeModelEvent event = new TreeModelEvent(this, folder.makeTreePath());
+      for (final TreeModelListener l : this.listeners) {
+        l.treeStructureChanged(event);
+      }
+      project.getContentIndex().scheduleUpdate();
+    }
+  }
+
+  @Override
+  protected void onDispose() {
+    this.folderWatcher.close();
+  }
+
   @Nonnull
   @Override
   public Mono<NodeFileOrFolder> readSubtree(final boolean addHiddenFilesAndFolders) {
@@ -109,6 +220,7 @@ public class NodeProjectGroup extends NodeFileOrFolder implements TreeModel {
 
       final int index = this.children.size();
       this.children.add(newProject);
+      this.markStructureChanged();
 
       final TreeModelEvent event = new TreeModelEvent(this, new Object[]{this}, new int[]{index}, new Object[]{newProject});
       for (final TreeModelListener l : this.listeners) {
@@ -308,6 +420,13 @@ public class NodeProjectGroup extends NodeFileOrFolder implements TreeModel {
 
   @Nonnull
   public NodeFileOrFolder addChild(@Nonnull final NodeFileOrFolder folder, @Nonnull final File childFile) throws IOException {
+    if (folder.isNotLoaded()) {
+      folder.ensureChildrenLoaded();
+      final NodeFileOrFolder loaded = folder.findNodeForRelativePath(Path.of(childFile.getName()));
+      if (loaded != null) {
+        return loaded;
+      }
+    }
     final NodeFileOrFolder newNode = folder.addFile(childFile);
     final TreeModelEvent event = new TreeModelEvent(this, folder.makeTreePath(), new int[]{newNode.getIndexAtParent()}, new Object[]{newNode});
     for (final TreeModelListener l : this.listeners) {
@@ -319,15 +438,13 @@ public class NodeProjectGroup extends NodeFileOrFolder implements TreeModel {
   @Nonnull
   @MustNotContainNull
   public List<NodeFileOrFolder> findForNamePattern(@Nullable final Pattern namePattern) {
-    final List<NodeFileOrFolder> result = new ArrayList<>();
-
-    if (namePattern != null) {
-      for (final NodeFileOrFolder f : this.children) {
-        f.fillAllMatchNamePattern(namePattern, result);
-      }
-    }
+    return namePattern == null ? new ArrayList<>() : this.fileNameIndex.find(namePattern);
+  }
 
-    return result;
+  @Nonnull
+  @MustNotContainNull
+  public List<NodeFileOrFolder> findForFileName(@Nonnull final String text, final int maxResults) {
+    return this.fileNameIndex.find(text, maxResults);
   }
 
 }
@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.igormaznitsa.sciareto.ui.tree;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import com.igormaznitsa.mindmap.model.logger.Logger;
+import com.igormaznitsa.mindmap.model.logger.LoggerFactory;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Watcher of project folders. Folders of opened projects which content is loaded into the tree are
+ * registered in a watch service, folders loaded later in lazy mode are registered during loading,
+ * events are collected into batches and the project group gets only list of folders which content
+ * has been changed, so that only affected nodes are updated instead of reloading whole projects.
+ * If the watch service lost events then changed folder is rescanned with its subtree.
+ */
+final class ProjectFolderWatcher {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ProjectFolderWatcher.class);
+
+  private static final long DEBOUNCE_DELAY_MS = 300L;
+  private static final long MAX_BATCH_DELAY_MS = 2000L;
+
+  private final NodeProjectGroup group;
+  private final Map<WatchKey, Path> watchedFolders = new ConcurrentHashMap<>();
+  private final Set<Path> projectFolders = new CopyOnWriteArraySet<>();
+  private volatile WatchService watchService;
+  private volatile boolean disabled;
+
+  ProjectFolderWatcher(@Nonnull final NodeProjectGroup group) {
+    this.group = group;
+  }
+
+  /**
+   * Start watching for project folder. Can be called for already watched project, in the case
+   * only new folders will be registered. Only folders which content is loaded are registered.
+   *
+   * @param project project to be watched
+   */
+  void watchProject(@Nonnull final NodeProject project) {
+    final WatchService service = this.ensureStarted();
+    if (service != null) {
+      this.projectFolders.add(project.getFolder().toPath());
+      this.registerLoadedFolders(service, project);
+    }
+  }
+
+  /**
+   * Stop watching for project folder. Folders which belong to other watched projects will be
+   * kept.
+   *
+   * @param projectFolder root folder of project
+   */
+  void unwatchProject(@Nonnull final Path projectFolder) {
+    if (this.projectFolders.remove(projectFolder)) {
+      this.watchedFolders.entrySet().removeIf(e -> {
+        final Path folder = e.getValue();
+        if (folder.startsWith(projectFolder)
+            && this.projectFolders.stream().noneMatch(folder::startsWith)) {
+          e.getKey().cancel();
+          return true;
+        }
+        return false;
+      });
+    }
+  }
+
+  /**
+   * Register folder node of watched project together with its loaded sub-folders, called when
+   * content of folder has been loaded or new folder has appeared.
+   *
+   * @param folder folder node
+   */
+  void registerFolder(@Nonnull final NodeFileOrFolder folder) {
+    final WatchService service = this.watchService;
+    final File file = folder.makeFileForNode();
+    if (service != null && file != null && this.projectFolders.stream().anyMatch(file.toPath()::startsWith)) {
+      this.registerLoadedFolders(service, folder);
+    }
+  }
+
+  void close() {
+    final WatchService service = this.watchService;
+    this.disabled = true;
+    if (service != null) {
+      try {
+        service.close();
+      } catch (IOException ex) {
+        LOGGER.warn("Can't close watch service: " + ex.getMessage()); //NOI18N
+      }
+    }
+  }
+
+  @Nullable
+  private synchronized WatchService ensureStarted() {
+    if (this.watchService == null && !this.disabled) {
+      try {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        final Thread thread = new Thread(this::run, "sciareto-project-folder-watcher"); //NOI18N
+        thread.setDaemon(true);
+        thread.start();
+      } catch (IOException | UnsupportedOperationException ex) {
+        LOGGER.warn("File system watching is not supported, project trees will not be updated automatically: " + ex.getMessage()); //NOI18N
+        this.disabled = true;
+      }
+    }
+    return this.watchService;
+  }
+
+  private void registerLoadedFolders(@Nonnull final WatchService service, @Nonnull final NodeFileOrFolder start) {
+    final Deque<NodeFileOrFolder> stack = new ArrayDeque<>();
+    stack.push(start);
+    try {
+      while (!stack.isEmpty()) {
+        final NodeFileOrFolder node = stack.pop();
+        final File folder = node.makeFileForNode();
+        if (!node.folderFlag || node.isDisposed() || node.isNotLoaded() || folder == null) {
+          continue;
+        }
+        try {
+          final Path path = folder.toPath();
+          this.watchedFolders.put(path.register(service, ENTRY_CREATE, ENTRY_DELETE), path);
+        } catch (IOException ex) {
+          LOGGER.warn("Can't register folder in watch service, its changes will not be tracked: " + ex.getMessage()); //NOI18N
+        }
+        synchronized (node.children) {
+          node.children.forEach(stack::push);
+        }
+      }
+    } catch (ClosedWatchServiceException ex) {
+      // watcher closed, ignore
+    }
+  }
+
+  private void collectEvents(@Nonnull final WatchKey key,
+                             @Nonnull final Set<Path> changedFolders,
+                             @Nonnull final Set<Path> foldersToRescan) {
+    final Path folder = this.watchedFolders.get(key);
+    for (final WatchEvent<?> event : key.pollEvents()) {
+      if (folder != null) {
+        if (event.kind() == OVERFLOW) {
+          foldersToRescan.add(folder);
+        } else {
+          changedFolders.add(folder);
+        }
+      }
+    }
+    if (!key.reset()) {
+      this.watchedFolders.remove(key);
+    }
+  }
+
+  private void run() {
+    final WatchService service = this.watchService;
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        final Set<Path> changedFolders = new LinkedHashSet<>();
+        final Set<Path> foldersToRescan = new LinkedHashSet<>();
+
+        WatchKey key = service.take();
+        final long batchStart = System.currentTimeMillis();
+        while (key != null) {
+          this.collectEvents(key, changedFolders, foldersToRescan);
+          key = System.currentTimeMillis() - batchStart < MAX_BATCH_DELAY_MS
+              ? service.poll(DEBOUNCE_DELAY_MS, TimeUnit.MILLISECONDS) : null;
+        }
+
+        changedFolders.removeIf(f -> foldersToRescan.stream().anyMatch(f::startsWith));
+
+        if (!changedFolders.isEmpty() || !foldersToRescan.isEmpty()) {
+          try {
+            this.group.onFoldersChanged(sortByDepth(changedFolders), sortByDepth(foldersToRescan));
+          } catch (Exception ex) {
+            LOGGER.error("Error during processing of file system changes", ex); //NOI18N
+          }
+        }
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } catch (ClosedWatchServiceException ex) {
+      // closed
+    }
+  }
+
+  @Nonnull
+  private static Set<Path> sortByDepth(@Nonnull final Set<Path> folders) {
+    return folders.stream()
+        .sorted(Comparator.comparingInt(Path::getNameCount))
+        .collect(Collectors.toCollection(LinkedHashSet::new));
+  }
+}
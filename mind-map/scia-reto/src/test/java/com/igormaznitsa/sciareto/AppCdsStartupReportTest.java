@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.igormaznitsa.sciareto;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class AppCdsStartupReportTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void testReport() {
+    assertEquals("AppCDS startup since JVM start: without archive 2000 ms, with archive 1500 ms, difference 500 ms (25.0%)",
+        AppCdsStartupReport.makeReport(2000L, 1500L));
+    assertEquals("AppCDS startup since JVM start: without archive 0 ms, with archive 10 ms, difference -10 ms (0.0%)",
+        AppCdsStartupReport.makeReport(0L, 10L));
+  }
+
+  @Test
+  public void testReadMillis() throws Exception {
+    final File file = this.tempFolder.newFile("startup.txt");
+    FileUtils.writeStringToFile(file, "1234\n", StandardCharsets.UTF_8);
+    assertEquals(1234L, AppCdsStartupReport.readMillis(file));
+  }
+}
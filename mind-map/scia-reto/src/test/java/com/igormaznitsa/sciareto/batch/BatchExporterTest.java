@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.igormaznitsa.sciareto.batch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.igormaznitsa.mindmap.model.MindMap;
+import com.igormaznitsa.mindmap.model.Topic;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BatchExporterTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private File sourceFolder;
+  private File targetFolder;
+
+  private static void assertWrongArguments(final String expectedMessage, final String... args) {
+    try {
+      BatchExporter.fromArguments(Arrays.asList(args));
+      fail("Must throw IllegalArgumentException");
+    } catch (IllegalArgumentException ex) {
+      assertTrue(ex.getMessage(), ex.getMessage().startsWith(expectedMessage));
+    }
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    this.sourceFolder = this.tempFolder.newFolder("in");
+    this.targetFolder = new File(this.tempFolder.getRoot(), "out");
+  }
+
+  @Test
+  public void testWrongArguments() {
+    final String in = this.sourceFolder.getAbsolutePath();
+    final String out = this.targetFolder.getAbsolutePath();
+    assertWrongArguments("Expected value for argument : --out", "--in", in, "--out");
+    assertWrongArguments("Unexpected argument : --unknown", "--in", in, "--unknown", "value");
+    assertWrongArguments("Not provided required parameter", "--in", in, "--out", out);
+    assertWrongArguments("Wrong thread number : many", "--in", in, "--out", out, "--to", "text", "--threads", "many");
+    assertWrongArguments("Can't find source folder", "--in", new File(this.sourceFolder, "absent").getAbsolutePath(), "--out", out, "--to", "text");
+    assertWrongArguments("Can't load settings file", "--in", in, "--out", out, "--to", "text", "--settings", new File(this.sourceFolder, "absent.properties").getAbsolutePath());
+  }
+
+  @Test
+  public void testUnknownFormat() {
+    final String in = this.sourceFolder.getAbsolutePath();
+    final String out = this.targetFolder.getAbsolutePath();
+    assertWrongArguments("Unknown exporter : unknown", "--in", in, "--out", out, "--to", "text,unknown");
+    assertWrongArguments("Export format list is empty", "--in", in, "--out", out, "--to", " , ");
+  }
+
+  @Test
+  public void testExportFolder() throws Exception {
+    final MindMap map = new MindMap(true);
+    map.getRoot().setText("Root topic");
+    new Topic(map, map.getRoot(), "Child topic");
+    final File mapFile = new File(this.sourceFolder, "sub" + File.separator + "map.mmd");
+    FileUtils.writeStringToFile(mapFile, map.write(new StringWriter()).toString(), StandardCharsets.UTF_8);
+    FileUtils.writeStringToFile(new File(this.sourceFolder, "readme.txt"), "not a map", StandardCharsets.UTF_8);
+
+    final BatchExporter exporter = BatchExporter.fromArguments(Arrays.asList(
+        "--in", this.sourceFolder.getAbsolutePath(),
+        "--out", this.targetFolder.getAbsolutePath(),
+        "--to", "markdown,text",
+        "--threads", "2"));
+    assertEquals(List.of(mapFile.toPath()), exporter.findSourceFiles());
+
+    final ByteArrayOutputStream report = new ByteArrayOutputStream();
+    final BatchExporter.Result result;
+    try (final PrintStream out = new PrintStream(report, true, "UTF-8")) {
+      result = exporter.export(out);
+    }
+    assertTrue(result.isOk());
+    assertEquals(1, result.getProcessed());
+    assertEquals(0, result.getFailed());
+    assertTrue(report.toString("UTF-8").contains("[OK] sub" + File.separator + "map.mmd"));
+
+    for (final String name : Arrays.asList("map.MD", "map.txt")) {
+      final File exported = new File(this.targetFolder, "sub" + File.separator + name);
+      assertTrue(name, exported.isFile());
+      final String text = FileUtils.readFileToString(exported, StandardCharsets.UTF_8);
+      assertTrue(name, text.contains("Root topic"));
+      assertTrue(name, text.contains("Child topic"));
+    }
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.igormaznitsa.sciareto.ui.misc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.igormaznitsa.mindmap.model.ExtraFile;
+import com.igormaznitsa.mindmap.model.MMapURI;
+import com.igormaznitsa.mindmap.model.MindMap;
+import com.igormaznitsa.mindmap.model.Topic;
+import java.io.File;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MindMapFileCacheTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private static void writeMapWithLink(final File file, final String link) throws Exception {
+    final MindMap map = new MindMap(true);
+    map.getRoot().setText("Root");
+    new Topic(map, map.getRoot(), "link", new ExtraFile(new MMapURI(link)));
+    FileUtils.writeStringToFile(file, map.write(new StringWriter()).toString(), StandardCharsets.UTF_8);
+  }
+
+  private static List<String> asStrings(final List<MMapURI> links) {
+    return links.stream().map(MMapURI::toString).collect(Collectors.toList());
+  }
+
+  @Test
+  public void testNotChangedFileIsNotParsedAgain() throws Exception {
+    final File file = this.tempFolder.newFile("map.mmd");
+    writeMapWithLink(file, "aaaa.txt");
+
+    final MindMapFileCache cache = MindMapFileCache.getInstance();
+    final MindMap map = cache.findMindMap(file);
+    final List<MMapURI> links = cache.findFileLinks(file);
+    assertEquals(List.of("aaaa.txt"), asStrings(links));
+    assertSame(links, cache.findFileLinks(file));
+    assertSame(map, cache.findMindMap(file));
+  }
+
+  @Test
+  public void testChangedModificationTimeCausesReparse() throws Exception {
+    final File file = this.tempFolder.newFile("map.mmd");
+    writeMapWithLink(file, "aaaa.txt");
+    final long lastModified = file.lastModified();
+
+    final MindMapFileCache cache = MindMapFileCache.getInstance();
+    assertEquals(List.of("aaaa.txt"), asStrings(cache.findFileLinks(file)));
+
+    writeMapWithLink(file, "bbbb.txt");
+    assertTrue(file.setLastModified(lastModified));
+    assertEquals(List.of("aaaa.txt"), asStrings(cache.findFileLinks(file)));
+
+    assertTrue(file.setLastModified(lastModified + 10000L));
+    assertEquals(List.of("bbbb.txt"), asStrings(cache.findFileLinks(file)));
+  }
+
+  @Test
+  public void testChangedLengthCausesReparse() throws Exception {
+    final File file = this.tempFolder.newFile("map.mmd");
+    writeMapWithLink(file, "aaaa.txt");
+    final long lastModified = file.lastModified();
+
+    final MindMapFileCache cache = MindMapFileCache.getInstance();
+    assertEquals(List.of("aaaa.txt"), asStrings(cache.findFileLinks(file)));
+
+    writeMapWithLink(file, "bbbbbbbb.txt");
+    assertTrue(file.setLastModified(lastModified));
+    assertEquals(List.of("bbbbbbbb.txt"), asStrings(cache.findFileLinks(file)));
+  }
+
+  @Test
+  public void testPruneDropsRemovedFiles() throws Exception {
+    final File file = this.tempFolder.newFile("map.mmd");
+    writeMapWithLink(file, "aaaa.txt");
+    final long lastModified = file.lastModified();
+
+    final MindMapFileCache cache = MindMapFileCache.getInstance();
+    assertEquals(List.of("aaaa.txt"), asStrings(cache.findFileLinks(file)));
+
+    assertTrue(file.delete());
+    cache.prune();
+
+    // the same size and modification time, so that the file is parsed only if its entry was dropped
+    writeMapWithLink(file, "bbbb.txt");
+    assertTrue(file.setLastModified(lastModified));
+    assertEquals(List.of("bbbb.txt"), asStrings(cache.findFileLinks(file)));
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.igormaznitsa.sciareto.ui.tree;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class FileNameIndexTest {
+
+  private static NodeFileOrFolder makeRoot() {
+    return new NodeFileOrFolder(n -> false, null, true, ".", false);
+  }
+
+  private static NodeFileOrFolder add(final NodeFileOrFolder parent, final boolean folder, final String name) {
+    final NodeFileOrFolder result = new NodeFileOrFolder(n -> false, parent, folder, name, false);
+    parent.children.add(result);
+    parent.markStructureChanged();
+    return result;
+  }
+
+  private static NodeFileOrFolder makeTree(final String... names) {
+    final NodeFileOrFolder root = makeRoot();
+    for (final String name : names) {
+      add(root, false, name);
+    }
+    return root;
+  }
+
+  private static List<String> names(final List<NodeFileOrFolder> nodes) {
+    return nodes.stream().map(n -> n.name).collect(Collectors.toList());
+  }
+
+  @Test
+  public void testCharMaskDoesNotLoseMatches() {
+    final String[] names = {
+        "readme.md", "MindMap.mmd", "mind-map.mmd", "Äpfel.txt", "жук_2.txt", "some file (1).txt",
+        "a_b-c.d", "UPPER.TXT", "x", "Zz9", "~backup~", "file#1.log", "Übersicht.MD"
+    };
+    final FileNameIndex index = new FileNameIndex(makeTree(names));
+
+    for (final String query : Arrays.asList("m", "mm", "MD", "md", "map", "äp", "ÄPF", "жу", "_2", "(1)",
+        "a_b", "b-c", "upper", "x", "z9", "~", "#1", "übe", "rdm", "q", "mindmap", "txt", "1")) {
+      final char[] lowerQuery = query.toLowerCase(Locale.ROOT).toCharArray();
+      final Set<String> expected = new TreeSet<>();
+      for (final String name : names) {
+        if (FileNameIndex.score(name, name.toLowerCase(Locale.ROOT).toCharArray(), lowerQuery) != Integer.MIN_VALUE) {
+          expected.add(name);
+        }
+      }
+      assertEquals("Query: " + query, expected, new TreeSet<>(names(index.find(query, Integer.MAX_VALUE))));
+    }
+  }
+
+  @Test
+  public void testRankingOrder() {
+    final FileNameIndex index = new FileNameIndex(makeTree(
+        "xmxaxpx.txt", "bitmap.png", "readme.md", "MainActivityPage.java", "mind-map.mmd", "mapper.txt", "map"));
+
+    assertEquals(Arrays.asList(
+        "map", // whole name
+        "mapper.txt", // prefix
+        "mind-map.mmd", // substring at word start
+        "bitmap.png", // substring
+        "MainActivityPage.java", // subsequence at word starts
+        "xmxaxpx.txt" // scattered subsequence
+    ), names(index.find("map", Integer.MAX_VALUE)));
+
+    assertEquals(Arrays.asList("map", "mapper.txt", "mind-map.mmd"), names(index.find("map", 3)));
+  }
+
+  @Test
+  public void testEqualScoresOrderedByName() {
+    final FileNameIndex index = new FileNameIndex(makeTree("c1.txt", "a1.txt", "b1.txt"));
+    assertEquals(Arrays.asList("a1.txt", "b1.txt", "c1.txt"), names(index.find("1", 10)));
+  }
+
+  @Test
+  public void testQueryIsCaseInsensitiveAndIgnoresWhiteSpaces() {
+    final FileNameIndex index = new FileNameIndex(makeTree("MindMap.mmd", "other.txt"));
+    assertEquals(List.of("MindMap.mmd"), names(index.find(" mind MAP ", 10)));
+    assertEquals(List.of(), names(index.find("   ", 10)));
+  }
+
+  @Test
+  public void testIndexFollowsTreeChanges() {
+    final NodeFileOrFolder root = makeRoot();
+    final NodeFileOrFolder folder = add(root, true, "docs");
+    add(folder, false, "guide.md");
+    final FileNameIndex index = new FileNameIndex(root);
+
+    assertEquals(List.of("guide.md"), names(index.find("guide", 10)));
+    assertEquals(List.of(), names(index.find("notes", 10)));
+
+    add(folder, false, "notes.md");
+    assertEquals(List.of("notes.md"), names(index.find("notes", 10)));
+    assertEquals(List.of("guide.md", "notes.md"), names(index.find(Pattern.compile(".*\\.md"))).stream().sorted().collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testOnlyChangedFoldersAreUpdated() {
+    final NodeFileOrFolder root = makeRoot();
+    final NodeFileOrFolder docs = add(root, true, "docs");
+    final NodeFileOrFolder images = add(docs, true, "images");
+    add(images, false, "logo.png");
+    add(root, false, "readme.md");
+    final FileNameIndex index = new FileNameIndex(root);
+    assertEquals(List.of("logo.png"), names(index.find("logo", 10)));
+
+    // name changed without notification is not visible while its folder is not changed
+    images.children.get(0).name = "icon.png";
+    add(root, false, "notes.md");
+    assertEquals(List.of("notes.md"), names(index.find("notes", 10)));
+    assertEquals(List.of(images.children.get(0)), index.find("logo", 10));
+    assertEquals(List.of(), names(index.find("icon", 10)));
+
+    images.markStructureChanged();
+    assertEquals(List.of(), names(index.find("logo", 10)));
+    assertEquals(List.of("icon.png"), names(index.find("icon", 10)));
+
+    root.children.remove(docs);
+    root.markStructureChanged();
+    assertEquals(List.of(), names(index.find("icon", 10)));
+    assertEquals(List.of(), names(index.find("images", 10)));
+  }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.igormaznitsa.sciareto.ui.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.igormaznitsa.mindmap.model.ExtraNote;
+import com.igormaznitsa.mindmap.model.MindMap;
+import com.igormaznitsa.mindmap.model.Topic;
+import com.igormaznitsa.sciareto.Context;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MindMapContentIndexTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private File projectFolder;
+
+  private static String makeMap(final String root, final String... children) throws IOException {
+    final MindMap map = new MindMap(true);
+    map.getRoot().setText(root);
+    for (final String child : children) {
+      new Topic(map, map.getRoot(), child);
+    }
+    return map.write(new StringWriter()).toString();
+  }
+
+  private static Set<String> findFileNames(final MindMapContentIndex index, final String text) {
+    return index.find(text, Integer.MAX_VALUE).stream()
+        .map(h -> h.getNode().makeFileForNode().getName())
+        .collect(Collectors.toCollection(TreeSet::new));
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    this.projectFolder = this.tempFolder.newFolder("project");
+    assertTrue(new File(this.projectFolder, Context.KNOWLEDGE_FOLDER).mkdir());
+  }
+
+  private NodeProject makeProject(final String... mapFiles) throws IOException {
+    final NodeProjectGroup group = new NodeProjectGroup(n -> false, mock(Context.class), "test");
+    final NodeProject project = new NodeProject(n -> false, group, this.projectFolder);
+    for (final String name : mapFiles) {
+      project.addFile(new File(this.projectFolder, name));
+    }
+    return project;
+  }
+
+  private File writeMap(final String name, final String text) throws IOException {
+    final File file = new File(this.projectFolder, name);
+    FileUtils.writeStringToFile(file, text, StandardCharsets.UTF_8);
+    return file;
+  }
+
+  @Test
+  public void testIndexRestoredFromKnowledgeFolder() throws Exception {
+    final File file = this.writeMap("one.mmd", makeMap("Root", "alpha"));
+    final long lastModified = file.lastModified();
+
+    makeProject("one.mmd").getContentIndex().update();
+    assertTrue(new File(new File(this.projectFolder, Context.KNOWLEDGE_FOLDER), MindMapContentIndex.INDEX_FILE_NAME).isFile());
+
+    // content is changed but size and modification time are the same, so that only restored index can provide old text
+    this.writeMap("one.mmd", makeMap("Root", "omega"));
+    assertTrue(file.setLastModified(lastModified));
+
+    final MindMapContentIndex restored = makeProject("one.mmd").getContentIndex();
+    assertEquals(Set.of("one.mmd"), findFileNames(restored, "alpha"));
+    assertEquals(Set.of(), findFileNames(restored, "omega"));
+    assertEquals("Root / alpha", restored.find("alpha", 1).get(0).getTopicPath());
+  }
+
+  @Test
+  public void testIndexWithUnsupportedVersionIsRebuilt() throws Exception {
+    this.writeMap("one.mmd", makeMap("Root", "alpha"));
+    FileUtils.writeByteArrayToFile(new File(new File(this.projectFolder, Context.KNOWLEDGE_FOLDER), MindMapContentIndex.INDEX_FILE_NAME), new byte[] {1, 2, 3});
+
+    assertEquals(Set.of("one.mmd"), findFileNames(makeProject("one.mmd").getContentIndex(), "alpha"));
+  }
+
+  @Test
+  public void testChangedMapIsReindexed() throws Exception {
+    this.writeMap("one.mmd", makeMap("Root", "alpha"));
+
+    final MindMapContentIndex index = makeProject("one.mmd").getContentIndex();
+    assertEquals(Set.of("one.mmd"), findFileNames(index, "alpha"));
+
+    final File file = this.writeMap("one.mmd", makeMap("Root", "omega and more"));
+    assertTrue(file.setLastModified(file.lastModified() + 10000L));
+    assertEquals(Set.of(), findFileNames(index, "alpha"));
+    assertEquals(Set.of("one.mmd"), findFileNames(index, "omega"));
+  }
+
+  @Test
+  public void testRemovedMapExcludedFromIndex() throws Exception {
+    this.writeMap("one.mmd", makeMap("Root", "alpha"));
+    final File two = this.writeMap("two.mmd", makeMap("Root", "alpha beta"));
+
+    final MindMapContentIndex index = makeProject("one.mmd", "two.mmd").getContentIndex();
+    assertEquals(Set.of("one.mmd", "two.mmd"), findFileNames(index, "alpha"));
+
+    assertTrue(two.delete());
+    assertEquals(Set.of("one.mmd"), findFileNames(index, "alpha"));
+  }
+
+  @Test
+  public void testTrigramFilterGivesSameResultAsPattern() throws Exception {
+    final List<List<String>> texts = Arrays.asList(
+        Arrays.asList("Project plan", "Tasks", "Deadline"),
+        Arrays.asList("Shopping", "milk", "BREAD", "a"),
+        Arrays.asList("Notes", "x", "Plant"),
+        Arrays.asList("Empty"));
+    final String[] names = new String[texts.size()];
+    for (int i = 0; i < texts.size(); i++) {
+      final List<String> topics = texts.get(i);
+      names[i] = "map" + i + ".mmd";
+      this.writeMap(names[i], makeMap(topics.get(0), topics.subList(1, topics.size()).toArray(new String[0])));
+    }
+
+    final MindMapContentIndex index = makeProject(names).getContentIndex();
+    for (final String query : Arrays.asList("a", "X", "pl", "LA", "ead", "plan", "bread", "tasks", "ask", "dl", "zzz", "Project plan", "n p")) {
+      final Set<String> expected = new TreeSet<>();
+      for (int i = 0; i < texts.size(); i++) {
+        for (final String topic : texts.get(i)) {
+          if (topic.toLowerCase(Locale.ROOT).contains(query.toLowerCase(Locale.ROOT))) {
+            expected.add(names[i]);
+          }
+        }
+      }
+      assertEquals("Query: " + query, expected, findFileNames(index, query));
+    }
+  }
+
+  @Test
+  public void testFindIsOrderedByScore() throws Exception {
+    this.writeMap("one.mmd", makeMap("Root", "some plan"));
+    this.writeMap("two.mmd", makeMap("Root", "plan"));
+    final MindMap mapWithNote = new MindMap(true);
+    mapWithNote.getRoot().setText("Root");
+    new Topic(mapWithNote, mapWithNote.getRoot(), "other", new ExtraNote("plan in note"));
+    this.writeMap("three.mmd", mapWithNote.write(new StringWriter()).toString());
+
+    final List<MindMapContentIndex.Hit> hits = makeProject("one.mmd", "two.mmd", "three.mmd").getContentIndex().find("plan", Integer.MAX_VALUE);
+    assertEquals(Arrays.asList("two.mmd", "one.mmd", "three.mmd"),
+        hits.stream().map(h -> h.getNode().makeFileForNode().getName()).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testCodeSnippetsAreSearchedWithLowestScore() throws Exception {
+    final MindMap mapWithSnippet = new MindMap(true);
+    mapWithSnippet.getRoot().setText("Root");
+    final Topic topic = new Topic(mapWithSnippet, mapWithSnippet.getRoot(), "other");
+    topic.putCodeSnippet("bash", "echo plan");
+    this.writeMap("snippet.mmd", mapWithSnippet.write(new StringWriter()).toString());
+
+    final MindMap mapWithNote = new MindMap(true);
+    mapWithNote.getRoot().setText("Root");
+    new Topic(mapWithNote, mapWithNote.getRoot(), "other", new ExtraNote("plan in note"));
+    this.writeMap("note.mmd", mapWithNote.write(new StringWriter()).toString());
+
+    final MindMapContentIndex index = makeProject("snippet.mmd", "note.mmd").getContentIndex();
+    final List<MindMapContentIndex.Hit> hits = index.find("echo plan", Integer.MAX_VALUE);
+    assertEquals(1, hits.size());
+    assertEquals("Root / other", hits.get(0).getTopicPath());
+
+    assertEquals(Arrays.asList("note.mmd", "snippet.mmd"),
+        index.find("plan", Integer.MAX_VALUE).stream().map(h -> h.getNode().makeFileForNode().getName()).collect(Collectors.toList()));
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2015-2022 Igor A. Maznitsa
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package com.igormaznitsa.sciareto.ui.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.igormaznitsa.sciareto.Context;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class NodeFileOrFolderTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private static void collectNotLoaded(final NodeFileOrFolder node, final List<NodeFileOrFolder> result) {
+    if (node.isNotLoaded()) {
+      result.add(node);
+    }
+    for (final NodeFileOrFolder c : node) {
+      collectNotLoaded(c, result);
+    }
+  }
+
+  @Test
+  public void testEnsureSubtreeLoadedInLazyMode() throws Exception {
+    final File projectFolder = this.tempFolder.newFolder("project");
+    for (final String folder : new String[] {"a/b/c/d/e", "a/b/x", "f/g/h"}) {
+      Files.createDirectories(projectFolder.toPath().resolve(folder));
+    }
+    Files.createFile(projectFolder.toPath().resolve("a/b/c/d/e/deep.txt"));
+    Files.createFile(projectFolder.toPath().resolve("f/g/h/other.txt"));
+
+    final NodeProjectGroup group = new NodeProjectGroup(n -> false, () -> true, mock(Context.class), "test");
+    final NodeProject project = new NodeProject(n -> false, group, projectFolder);
+    project.readSubtree(false).block();
+
+    final NodeFileOrFolder notLoadedFolder = project.findNodeForRelativePath(Path.of("a", "b"));
+    assertNotNull(notLoadedFolder);
+    assertTrue(notLoadedFolder.isNotLoaded());
+
+    project.ensureSubtreeLoaded();
+
+    final List<NodeFileOrFolder> notLoaded = new ArrayList<>();
+    collectNotLoaded(project, notLoaded);
+    assertEquals(List.of(), notLoaded);
+    assertNotNull(project.findNodeForRelativePath(Path.of("a", "b", "c", "d", "e", "deep.txt")));
+    assertNotNull(project.findNodeForRelativePath(Path.of("a", "b", "x")));
+    assertNotNull(project.findNodeForRelativePath(Path.of("f", "g", "h", "other.txt")));
+    assertFalse(project.findNodeForRelativePath(Path.of("a", "b", "c", "d", "e")).isLeaf());
+  }
+}